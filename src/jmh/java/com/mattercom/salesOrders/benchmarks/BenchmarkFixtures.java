@@ -0,0 +1,100 @@
+package com.mattercom.salesOrders.benchmarks;
+
+import com.mattercom.salesOrders.entities.SalesItem;
+import com.mattercom.salesOrders.entities.SalesOrder;
+import com.mattercom.salesOrders.entities.ShipmentAddress;
+import com.mattercom.salesOrders.entities.status.SalesItemStatus;
+import com.mattercom.salesOrders.entities.status.SalesOrderStatus;
+import com.mattercom.salesOrders.enums.ItemStatusId;
+import com.mattercom.salesOrders.enums.OrderStatusId;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Detached entity graphs shaped like real orders, built without a database.
+ */
+final class BenchmarkFixtures {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+    private BenchmarkFixtures() {}
+
+    static SalesOrderStatus orderStatus(OrderStatusId statusId, boolean active) {
+        return SalesOrderStatus.builder()
+                .orderStatusId(statusId)
+                .active(active)
+                .createdAt(NOW)
+                .lastUpdatedAt(NOW)
+                .build();
+    }
+
+    static SalesItemStatus itemStatus(ItemStatusId statusId, boolean active) {
+        return SalesItemStatus.builder()
+                .itemStatusId(statusId)
+                .active(active)
+                .createdAt(NOW)
+                .lastUpdatedAt(NOW)
+                .build();
+    }
+
+    /**
+     * An order that was created, released and invoiced, with its full status history.
+     */
+    static List<SalesOrderStatus> releasedOrderStatuses() {
+        List<SalesOrderStatus> statuses = new ArrayList<>();
+        statuses.add(orderStatus(OrderStatusId.I_CRTD, false));
+        statuses.add(orderStatus(OrderStatusId.E_AWT_APPV, false));
+        statuses.add(orderStatus(OrderStatusId.I_REL, true));
+        statuses.add(orderStatus(OrderStatusId.I_INV, true));
+        return statuses;
+    }
+
+    static SalesOrder order(int itemCount) {
+        SalesOrder order = SalesOrder.builder()
+                .salesOrderId(UUID.randomUUID())
+                .customerId(UUID.randomUUID())
+                .customerName("Benchmark Customer")
+                .createdAt(NOW)
+                .version(3L)
+                .statusList(releasedOrderStatuses())
+                .shipmentAddress(ShipmentAddress.builder()
+                        .recipientName("Benchmark Customer")
+                        .phoneNumber("+1-555-0100")
+                        .streetLine1("1 Dock Road")
+                        .city("Springfield")
+                        .stateOrProvince("IL")
+                        .postalCode("62701")
+                        .country("US")
+                        .build())
+                .build();
+
+        List<SalesItem> items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            List<SalesItemStatus> itemStatuses = new ArrayList<>();
+            if (i % 10 == 0) {
+                itemStatuses.add(itemStatus(ItemStatusId.E_BKO, false));
+            }
+            if (i % 25 == 0) {
+                itemStatuses.add(itemStatus(ItemStatusId.E_CNCL_CUST, true));
+            }
+            items.add(SalesItem.builder()
+                    .itemId(UUID.randomUUID())
+                    .vendorId(UUID.randomUUID())
+                    .productId(UUID.randomUUID())
+                    .productName("Product " + i)
+                    .version(1L)
+                    .netQty(1 + i % 5)
+                    .baseUnitPrice(new BigDecimal("19.99"))
+                    .discountRate(BigDecimal.ZERO)
+                    .salesOrder(order)
+                    .statusList(itemStatuses)
+                    .build());
+        }
+        order.setSalesItems(items);
+        return order;
+    }
+}
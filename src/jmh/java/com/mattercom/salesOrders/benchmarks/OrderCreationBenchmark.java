@@ -0,0 +1,40 @@
+package com.mattercom.salesOrders.benchmarks;
+
+import com.mattercom.salesOrders.dto.OrderCreationFlags;
+import com.mattercom.salesOrders.entities.status.SalesOrderStatus;
+import com.mattercom.salesOrders.util.StatusManagementUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Initial status list built for every created order.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderCreationBenchmark {
+
+    @Param({"NONE", "APPROVAL", "CREDIT_BLOCK", "FRAUD_HOLD", "ALL"})
+    public String flags;
+
+    private OrderCreationFlags creationFlags;
+
+    @Setup
+    public void setUp() {
+        creationFlags = OrderCreationFlags.builder()
+                .approvalRequired(flags.equals("APPROVAL") || flags.equals("ALL"))
+                .creditBlock(flags.equals("CREDIT_BLOCK") || flags.equals("ALL"))
+                .fraudHold(flags.equals("FRAUD_HOLD") || flags.equals("ALL"))
+                .build();
+    }
+
+    @Benchmark
+    public List<SalesOrderStatus> orderCreationListProvider() {
+        return StatusManagementUtil.orderCreationListProvider(creationFlags);
+    }
+}
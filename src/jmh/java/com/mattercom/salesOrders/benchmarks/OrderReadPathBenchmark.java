@@ -0,0 +1,91 @@
+package com.mattercom.salesOrders.benchmarks;
+
+import com.mattercom.salesOrders.SalesOrderApplication;
+import com.mattercom.salesOrders.TestOrders;
+import com.mattercom.salesOrders.dto.OrderCreationFlags;
+import com.mattercom.salesOrders.dto.OrderResponseDto;
+import com.mattercom.salesOrders.entities.SalesItem;
+import com.mattercom.salesOrders.entities.SalesOrder;
+import com.mattercom.salesOrders.mapper.SalesOrderResponseMapper;
+import com.mattercom.salesOrders.repositories.SalesItemRepository;
+import com.mattercom.salesOrders.repositories.SalesOrderRepository;
+import com.mattercom.salesOrders.services.SalesOrderService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full order read against in-memory H2: the entity graph plus response mapping the GET
+ * endpoint used to run, versus the projection read path it runs now.
+ * Run with -prof gc; gc.alloc.rate.norm is the heap each read costs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderReadPathBenchmark {
+
+    @Param({"50", "300", "1000"})
+    public int itemCount;
+
+    private ConfigurableApplicationContext context;
+    private SalesOrderService salesOrderService;
+    private SalesOrderRepository salesOrderRepository;
+    private SalesItemRepository salesItemRepository;
+    private SalesOrderResponseMapper responseMapper;
+    private TransactionTemplate readOnlyTransaction;
+    private UUID orderId;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(SalesOrderApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.profiles.active=test",
+                        "--spring.devtools.restart.enabled=false",
+                        // Measure the read itself, not the statement inspector and row counting
+                        "--sales-orders.sql-statistics.enabled=false",
+                        "--spring.jpa.properties.hibernate.generate_statistics=false");
+        salesOrderService = context.getBean(SalesOrderService.class);
+        salesOrderRepository = context.getBean(SalesOrderRepository.class);
+        salesItemRepository = context.getBean(SalesItemRepository.class);
+        responseMapper = context.getBean(SalesOrderResponseMapper.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+
+        // A third of the items cancelled, so item statuses carry some history
+        orderId = salesOrderService.createOrder(TestOrders.order(itemCount), OrderCreationFlags.builder().build()).getOrderId();
+        List<UUID> itemIds = salesItemRepository.findAllBySalesOrder_SalesOrderId(orderId).stream()
+                .map(SalesItem::getItemId)
+                .toList();
+        salesOrderService.cancelOrderItems(itemIds.subList(0, itemCount / 3), orderId, false);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public OrderResponseDto entityGraph() {
+        return readOnlyTransaction.execute(status -> {
+            SalesOrder order = salesOrderRepository.findWithOrderDetailsBySalesOrderId(orderId).orElseThrow();
+            salesOrderRepository.findWithItemsAndBackordersBySalesOrderId(orderId);
+            salesItemRepository.findWithStatusBySalesOrder_SalesOrderId(orderId);
+            return responseMapper.toOrderResponseDto(order);
+        });
+    }
+
+    @Benchmark
+    public OrderResponseDto projection() {
+        return salesOrderService.findOrderWithDetailsById(orderId);
+    }
+}
@@ -0,0 +1,63 @@
+package com.mattercom.salesOrders.benchmarks;
+
+import com.mattercom.salesOrders.entities.SalesItem;
+import com.mattercom.salesOrders.entities.SalesOrder;
+import com.mattercom.salesOrders.enums.ItemStatusId;
+import com.mattercom.salesOrders.util.OrderTotals;
+import com.mattercom.salesOrders.util.StatusStateMachine;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order net total: summed over the items with BigDecimal, as consumers did before the totals
+ * were stored, against moving the stored scaled-long totals for one item status change.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderTotalsBenchmark {
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    @Param({"1", "50", "1000"})
+    public int itemCount;
+
+    private SalesOrder order;
+    private SalesItem item;
+    private long activeMask;
+    private long cancelledMask;
+
+    @Setup
+    public void setUp() {
+        order = BenchmarkFixtures.order(itemCount);
+        OrderTotals.itemsAdded(order, order.getSalesItems());
+        item = order.getSalesItems().get(itemCount - 1);
+        activeMask = 0L;
+        cancelledMask = StatusStateMachine.bit(ItemStatusId.E_CNCL_CUST);
+    }
+
+    @Benchmark
+    public BigDecimal sumItemsWithBigDecimal() {
+        BigDecimal net = BigDecimal.ZERO;
+        for (SalesItem salesItem : order.getSalesItems()) {
+            BigDecimal gross = salesItem.getBaseUnitPrice().multiply(BigDecimal.valueOf(salesItem.getNetQty()));
+            BigDecimal discount = gross.multiply(salesItem.getDiscountRate()).divide(HUNDRED, 2, RoundingMode.HALF_UP);
+            net = net.add(gross.subtract(discount));
+        }
+        return net;
+    }
+
+    // Cancels and restores one item, so every invocation starts from the same totals
+    @Benchmark
+    public long moveStoredTotals() {
+        OrderTotals.statusChanged(item, activeMask, cancelledMask);
+        OrderTotals.statusChanged(item, cancelledMask, activeMask);
+        return order.getNetAmount();
+    }
+}
@@ -0,0 +1,39 @@
+package com.mattercom.salesOrders.benchmarks;
+
+import com.mattercom.salesOrders.dto.OrderResponseDto;
+import com.mattercom.salesOrders.entities.SalesOrder;
+import com.mattercom.salesOrders.mapper.SalesOrderMapperImpl;
+import com.mattercom.salesOrders.mapper.SalesOrderResponseMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity -> OrderResponseDto mapping done for every order read and most writes.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseMappingBenchmark {
+
+    @Param({"1", "50", "1000"})
+    public int itemCount;
+
+    private SalesOrderResponseMapper responseMapper;
+    private SalesOrder order;
+
+    @Setup
+    public void setUp() {
+        // The MapStruct implementation is a plain class; no Spring context needed
+        responseMapper = new SalesOrderResponseMapper(new SalesOrderMapperImpl());
+        order = BenchmarkFixtures.order(itemCount);
+    }
+
+    @Benchmark
+    public OrderResponseDto toOrderResponseDto() {
+        return responseMapper.toOrderResponseDto(order);
+    }
+}
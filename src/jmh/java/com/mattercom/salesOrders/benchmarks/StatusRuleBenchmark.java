@@ -0,0 +1,83 @@
+package com.mattercom.salesOrders.benchmarks;
+
+import com.mattercom.salesOrders.entities.status.SalesOrderStatus;
+import com.mattercom.salesOrders.enums.OrderStatusId;
+import com.mattercom.salesOrders.enums.SalesTransactions;
+import com.mattercom.salesOrders.util.StatusRuleConstants;
+import com.mattercom.salesOrders.util.StatusStateMachine;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static com.mattercom.salesOrders.benchmarks.BenchmarkFixtures.orderStatus;
+
+/**
+ * Header guard checks, run once per transaction request (and per order in bulk transactions).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StatusRuleBenchmark {
+
+    public enum Scenario {
+        // Just created
+        CREATED,
+        // Created -> released
+        RELEASED,
+        // Released after approval, credit block, admin hold, lock and a resolved dispute
+        LONG_HISTORY
+    }
+
+    @Param
+    public Scenario scenario;
+
+    private List<SalesOrderStatus> statuses;
+    private final UUID orderId = UUID.randomUUID();
+
+    @Setup
+    public void setUp() {
+        statuses = new ArrayList<>();
+        switch (scenario) {
+            case CREATED -> statuses.add(orderStatus(OrderStatusId.I_CRTD, true));
+            case RELEASED -> {
+                statuses.add(orderStatus(OrderStatusId.I_CRTD, false));
+                statuses.add(orderStatus(OrderStatusId.I_REL, true));
+            }
+            case LONG_HISTORY -> {
+                statuses.add(orderStatus(OrderStatusId.I_CRTD, false));
+                statuses.add(orderStatus(OrderStatusId.E_AWT_APPV, false));
+                statuses.add(orderStatus(OrderStatusId.E_CRED_BLK, false));
+                statuses.add(orderStatus(OrderStatusId.I_DLKD, false));
+                statuses.add(orderStatus(OrderStatusId.I_BLKD, false));
+                statuses.add(orderStatus(OrderStatusId.E_ADMIN_HOLD, false));
+                statuses.add(orderStatus(OrderStatusId.I_LOCK, false));
+                statuses.add(orderStatus(OrderStatusId.E_DISP, false));
+                statuses.add(orderStatus(OrderStatusId.I_REL, true));
+            }
+        }
+    }
+
+    /**
+     * The allowed path of SET_TRANSIT_ACTIVE: no active status forbids it in any scenario.
+     */
+    @Benchmark
+    public void checkHeaderStatusesAllowed() {
+        StatusRuleConstants.checkHeaderStatuses(statuses, SalesTransactions.SET_TRANSIT_ACTIVE, orderId);
+    }
+
+    /**
+     * The non-throwing lookup used by bulk transactions; CHANGE_DETAILS is forbidden by I_REL.
+     * Calls the state machine itself: the StatusRuleConstants wrapper also counts the rejection
+     * on a global Micrometer counter, which would be measured along with the lookup.
+     */
+    @Benchmark
+    public OrderStatusId findForbiddingHeaderStatus() {
+        return StatusStateMachine.findForbiddingHeaderStatus(statuses, SalesTransactions.CHANGE_DETAILS);
+    }
+}
@@ -0,0 +1,83 @@
+package com.mattercom.salesOrders.benchmarks;
+
+import com.mattercom.salesOrders.entities.SalesItem;
+import com.mattercom.salesOrders.entities.SalesOrder;
+import com.mattercom.salesOrders.entities.status.SalesItemStatus;
+import com.mattercom.salesOrders.entities.status.SalesOrderStatus;
+import com.mattercom.salesOrders.enums.ItemStatusId;
+import com.mattercom.salesOrders.enums.ObjectType;
+import com.mattercom.salesOrders.enums.SalesTransactions;
+import com.mattercom.salesOrders.util.StatusManagementUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static com.mattercom.salesOrders.benchmarks.BenchmarkFixtures.itemStatus;
+
+/**
+ * applyOrderStatusChange / applyItemStatusChange for every SalesTransactions value.
+ * Each call starts from the same status flags, so repeated invocations measure the same transition.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StatusTransitionBenchmark {
+
+    // No values: JMH runs every enum constant
+    @Param
+    public SalesTransactions transaction;
+
+    private SalesOrder order;
+    private SalesItem item;
+    private boolean[] orderFlags;
+    private boolean[] itemFlags;
+
+    @Setup
+    public void setUp() {
+        order = SalesOrder.builder()
+                .salesOrderId(UUID.randomUUID())
+                .statusList(BenchmarkFixtures.releasedOrderStatuses())
+                .build();
+
+        List<SalesItemStatus> itemStatuses = new ArrayList<>();
+        itemStatuses.add(itemStatus(ItemStatusId.E_BKO, true));
+        itemStatuses.add(itemStatus(ItemStatusId.I_INVC_ITEM, true));
+        // Item changes move the owning order's counters and totals
+        item = SalesItem.builder()
+                .itemId(UUID.randomUUID())
+                .salesOrder(order)
+                .statusList(itemStatuses)
+                .build();
+
+        orderFlags = new boolean[order.getStatusList().size()];
+        for (int i = 0; i < orderFlags.length; i++) {
+            orderFlags[i] = order.getStatusList().get(i).getActive();
+        }
+        itemFlags = new boolean[item.getStatusList().size()];
+        for (int i = 0; i < itemFlags.length; i++) {
+            itemFlags[i] = item.getStatusList().get(i).getActive();
+        }
+    }
+
+    @Benchmark
+    public Object applyStatusChange() {
+        if (transaction.getObjectType() == ObjectType.ORDER) {
+            List<SalesOrderStatus> statuses = order.getStatusList();
+            for (int i = 0; i < orderFlags.length; i++) {
+                statuses.get(i).setActive(orderFlags[i]);
+            }
+            return StatusManagementUtil.applyOrderStatusChange(order, transaction);
+        }
+        List<SalesItemStatus> statuses = item.getStatusList();
+        for (int i = 0; i < itemFlags.length; i++) {
+            statuses.get(i).setActive(itemFlags[i]);
+        }
+        return StatusManagementUtil.applyItemStatusChange(item, transaction);
+    }
+}
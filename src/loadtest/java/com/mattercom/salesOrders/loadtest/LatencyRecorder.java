@@ -0,0 +1,105 @@
+package com.mattercom.salesOrders.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-operation latency histograms and outcome counters for the measured part of a run.
+ * Latency is recorded from the intended send time, not the actual one, so time a request
+ * spent waiting behind a stalled server is counted (coordinated omission correction).
+ */
+final class LatencyRecorder {
+
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(5);
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final Map<LoadOperation, Stats> stats = new EnumMap<>(LoadOperation.class);
+    private final Stats total = new Stats();
+
+    LatencyRecorder() {
+        for (LoadOperation operation : LoadOperation.values()) {
+            stats.put(operation, new Stats());
+        }
+    }
+
+    /**
+     * @param status HTTP status, or -1 when the request failed without a response
+     */
+    void record(LoadOperation operation, long latencyNanos, int status) {
+        long latency = Math.min(Math.max(latencyNanos, 1L), HIGHEST_TRACKABLE_NANOS);
+        stats.get(operation).record(latency, status);
+        total.record(latency, status);
+    }
+
+    long totalCount() {
+        return total.histogram.getTotalCount();
+    }
+
+    long totalFailed() {
+        return total.failed.sum();
+    }
+
+    Map<String, Object> summary(double measuredSeconds) {
+        Map<String, Object> operations = new LinkedHashMap<>();
+        stats.forEach((operation, operationStats) -> {
+            if (operationStats.histogram.getTotalCount() > 0) {
+                operations.put(operation.key(), operationStats.describe(measuredSeconds));
+            }
+        });
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("total", total.describe(measuredSeconds));
+        summary.put("operations", operations);
+        return summary;
+    }
+
+    private static final class Stats {
+
+        private final Histogram histogram = new ConcurrentHistogram(HIGHEST_TRACKABLE_NANOS, SIGNIFICANT_DIGITS);
+        // 2xx
+        private final LongAdder succeeded = new LongAdder();
+        // 4xx: business rule rejections (e.g. 409 for a forbidden transaction) and lookups of unknown orders
+        private final LongAdder rejected = new LongAdder();
+        // 5xx and transport failures
+        private final LongAdder failed = new LongAdder();
+
+        void record(long latencyNanos, int status) {
+            histogram.recordValue(latencyNanos);
+            if (status >= 200 && status < 300) {
+                succeeded.increment();
+            } else if (status >= 400 && status < 500) {
+                rejected.increment();
+            } else {
+                failed.increment();
+            }
+        }
+
+        Map<String, Object> describe(double measuredSeconds) {
+            Map<String, Object> latency = new LinkedHashMap<>();
+            latency.put("p50", millis(histogram.getValueAtPercentile(50.0)));
+            latency.put("p90", millis(histogram.getValueAtPercentile(90.0)));
+            latency.put("p99", millis(histogram.getValueAtPercentile(99.0)));
+            latency.put("p999", millis(histogram.getValueAtPercentile(99.9)));
+            latency.put("max", millis(histogram.getMaxValue()));
+            latency.put("mean", Math.round(histogram.getMean() / 1_000.0) / 1_000.0);
+
+            Map<String, Object> described = new LinkedHashMap<>();
+            described.put("requests", histogram.getTotalCount());
+            described.put("succeeded", succeeded.sum());
+            described.put("rejected", rejected.sum());
+            described.put("failed", failed.sum());
+            described.put("throughputPerSecond", Math.round(histogram.getTotalCount() / measuredSeconds * 10.0) / 10.0);
+            described.put("latencyMs", latency);
+            return described;
+        }
+
+        private static double millis(long nanos) {
+            return nanos / 1_000L / 1_000.0;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.mattercom.salesOrders.loadtest;
+
+/**
+ * The request types in the load mix.
+ * Lifecycle operations move an order one step: created -> released -> in transit -> arrived -> completed.
+ */
+enum LoadOperation {
+
+    CREATE("create"),
+    GET("get"),
+    CANCEL_ITEMS("cancelItems"),
+    RELEASE("release"),
+    TRANSIT("transit"),
+    ARRIVE("arrive"),
+    COMPLETE("complete");
+
+    private final String key;
+
+    LoadOperation(String key) {
+        this.key = key;
+    }
+
+    String key() {
+        return key;
+    }
+
+    static LoadOperation fromKey(String key) {
+        for (LoadOperation operation : values()) {
+            if (operation.key.equalsIgnoreCase(key)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown load operation: " + key);
+    }
+}
@@ -0,0 +1,131 @@
+package com.mattercom.salesOrders.loadtest;
+
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Load test settings, parsed from key=value program arguments.
+ * Anything not given falls back to the defaults below.
+ */
+final class LoadTestConfig {
+
+    static final String DEFAULT_MIX = "create=20,get=40,cancelItems=10,release=10,transit=10,arrive=5,complete=5";
+    static final String EMBEDDED_URL =
+            "jdbc:h2:mem:loadtest;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+
+    // Arrival rate in requests per second
+    final int rate;
+    final int warmupSeconds;
+    final int durationSeconds;
+    final int maxInFlight;
+
+    // Request execution: Tomcat's platform thread pool, or virtual threads (Java 21+ only)
+    final boolean virtualThreads;
+    final int tomcatThreads;
+    // Fair connection permits in front of the pool (sales-orders.db-concurrency-limit.enabled)
+    final boolean dbLimit;
+
+    // Seed data
+    final int orders;
+    final int itemsPerOrder;
+    final int seedChunkSize;
+
+    final Map<LoadOperation, Integer> mix;
+
+    // Empty url means the embedded H2 database
+    final String datasourceUrl;
+    final String datasourceUsername;
+    final String datasourcePassword;
+
+    final Path outputDir;
+
+    private final Map<String, String> raw;
+
+    private LoadTestConfig(Map<String, String> raw) {
+        this.raw = raw;
+        this.rate = intValue("rate", 200);
+        this.warmupSeconds = intValue("warmup", 10);
+        this.durationSeconds = intValue("duration", 60);
+        this.maxInFlight = intValue("maxInFlight", 256);
+        this.virtualThreads = Boolean.parseBoolean(raw.getOrDefault("virtualThreads", "false"));
+        this.tomcatThreads = intValue("tomcatThreads", 200);
+        this.dbLimit = Boolean.parseBoolean(raw.getOrDefault("dbLimit", "true"));
+        this.orders = intValue("orders", 2_000);
+        this.itemsPerOrder = intValue("items", 5);
+        this.seedChunkSize = intValue("seedChunk", 500);
+        this.mix = parseMix(raw.getOrDefault("mix", DEFAULT_MIX));
+        this.datasourceUrl = raw.getOrDefault("datasourceUrl", "");
+        this.datasourceUsername = raw.getOrDefault("datasourceUsername", "sa");
+        this.datasourcePassword = raw.getOrDefault("datasourcePassword", "");
+        this.outputDir = Path.of(raw.getOrDefault("outputDir", "target/loadtest"));
+
+        if (rate <= 0 || durationSeconds <= 0 || maxInFlight <= 0 || itemsPerOrder <= 1) {
+            throw new IllegalArgumentException("rate, duration and maxInFlight must be positive and items at least 2");
+        }
+        // Spring Boot silently stays on platform threads below 21, which would mislabel the results
+        if (virtualThreads && Runtime.version().feature() < 21) {
+            throw new IllegalArgumentException("virtualThreads=true needs a Java 21 runtime, this is " + Runtime.version());
+        }
+    }
+
+    static LoadTestConfig parse(String[] args) {
+        Map<String, String> raw = new LinkedHashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Expected key=value but got: " + arg);
+            }
+            raw.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        return new LoadTestConfig(raw);
+    }
+
+    boolean embeddedDatabase() {
+        return datasourceUrl.isBlank();
+    }
+
+    /**
+     * Settings as written to the result file; the password is left out.
+     */
+    Map<String, Object> describe() {
+        Map<String, Object> described = new LinkedHashMap<>();
+        described.put("rate", rate);
+        described.put("warmupSeconds", warmupSeconds);
+        described.put("durationSeconds", durationSeconds);
+        described.put("maxInFlight", maxInFlight);
+        described.put("threads", virtualThreads ? "virtual" : "platform(" + tomcatThreads + ")");
+        described.put("dbLimit", dbLimit);
+        described.put("orders", orders);
+        described.put("itemsPerOrder", itemsPerOrder);
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        mix.forEach((operation, weight) -> weights.put(operation.key(), weight));
+        described.put("mix", weights);
+        described.put("database", embeddedDatabase() ? "embedded-h2" : datasourceUrl);
+        return described;
+    }
+
+    private int intValue(String key, int defaultValue) {
+        String value = raw.get(key);
+        return value == null || value.isBlank() ? defaultValue : Integer.parseInt(value.trim());
+    }
+
+    private static Map<LoadOperation, Integer> parseMix(String value) {
+        Map<LoadOperation, Integer> weights = new EnumMap<>(LoadOperation.class);
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid mix entry: " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                weights.put(LoadOperation.fromKey(parts[0].trim()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("Load mix has no operations: " + value);
+        }
+        return weights;
+    }
+}
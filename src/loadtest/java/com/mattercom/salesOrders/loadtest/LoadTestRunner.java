@@ -0,0 +1,411 @@
+package com.mattercom.salesOrders.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.mattercom.salesOrders.SalesOrderApplication;
+import com.mattercom.salesOrders.TestOrders;
+import com.mattercom.salesOrders.dto.BulkOrderResultDto;
+import com.mattercom.salesOrders.dto.OrderCreationFlags;
+import com.mattercom.salesOrders.entities.SalesItem;
+import com.mattercom.salesOrders.enums.SalesTransactions;
+import com.mattercom.salesOrders.loadtest.OrderPool.CreatedOrder;
+import com.mattercom.salesOrders.repositories.SalesItemRepository;
+import com.mattercom.salesOrders.services.SalesOrderService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * End-to-end load test for one node.
+ * Boots the application on a random port, seeds orders in every lifecycle stage through the
+ * service layer, then drives the real CustomerEndpointController and SystemController routes
+ * with an open (fixed arrival rate) workload and writes the latency report as JSON.
+ * Run it through the 'loadtest' Maven profile; see pom.xml.
+ */
+public final class LoadTestRunner {
+
+    private static final String CUSTOMER_PATH = "/api/v1/my-orders";
+    private static final String INTERNAL_PATH = "/api/v1/internal/sales-orders";
+    private static final DateTimeFormatter FILE_TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+
+    private final LoadTestConfig config;
+    private final ConfigurableApplicationContext context;
+    private final ObjectMapper objectMapper;
+    private final OrderPool pool = new OrderPool();
+    private final LatencyRecorder recorder = new LatencyRecorder();
+    private final LoadOperation[] weightedOperations;
+
+    private HttpClient client;
+    private String baseUrl;
+
+    private LoadTestRunner(LoadTestConfig config, ConfigurableApplicationContext context) {
+        this.config = config;
+        this.context = context;
+        this.objectMapper = context.getBean(ObjectMapper.class);
+        this.weightedOperations = config.mix.entrySet().stream()
+                .flatMap(entry -> Stream.generate(entry::getKey).limit(entry.getValue()))
+                .toArray(LoadOperation[]::new);
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+        Instant startedAt = Instant.now();
+
+        try (ConfigurableApplicationContext context = boot(config)) {
+            LoadTestRunner runner = new LoadTestRunner(config, context);
+
+            long seedStart = System.nanoTime();
+            runner.seed();
+            long seedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - seedStart);
+            System.out.printf("Seeded %d orders x %d items in %d ms%n", config.orders, config.itemsPerOrder, seedMillis);
+
+            runner.drive();
+            Path report = runner.writeReport(startedAt, seedMillis);
+            System.out.println("Load test results written to " + report.toAbsolutePath());
+        }
+    }
+
+    // =========================================================
+    // SETUP
+    // =========================================================
+
+    private static ConfigurableApplicationContext boot(LoadTestConfig config) {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("server.port", 0);
+        properties.put("spring.main.banner-mode", "off");
+        properties.put("logging.level.root", "WARN");
+        // The status engine logs a warning per redundant transition; keep it out of the measurement
+        properties.put("logging.level.com.mattercom.salesOrders", "ERROR");
+        properties.put("spring.threads.virtual.enabled", config.virtualThreads);
+        properties.put("server.tomcat.threads.max", config.tomcatThreads);
+        // Every in-flight request holds its own connection; Tomcat's default cap is 8192
+        properties.put("server.tomcat.max-connections", Math.max(8192, config.maxInFlight));
+        properties.put("sales-orders.db-concurrency-limit.enabled", config.dbLimit);
+        if (config.embeddedDatabase()) {
+            properties.put("spring.datasource.url", LoadTestConfig.EMBEDDED_URL);
+            // H2 in PostgreSQL mode reports itself as PostgreSQL, so pin the vendor folder
+            properties.put("spring.flyway.locations", "classpath:db/migration/common,classpath:db/migration/h2");
+        } else {
+            properties.put("spring.datasource.url", config.datasourceUrl);
+        }
+        properties.put("spring.datasource.username", config.datasourceUsername);
+        properties.put("spring.datasource.password", config.datasourcePassword);
+        // devtools would restart main() with the Spring arguments below instead of the load test ones
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        // Passed as command line arguments so they win over application.properties
+        String[] args = properties.entrySet().stream()
+                .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(SalesOrderApplication.class).run(args);
+    }
+
+    /**
+     * Creates the seed orders through the bulk service and spreads them evenly over the
+     * created, released, in transit and arrived stages.
+     */
+    private void seed() {
+        SalesOrderService salesOrderService = context.getBean(SalesOrderService.class);
+        SalesItemRepository salesItemRepository = context.getBean(SalesItemRepository.class);
+
+        List<UUID> orderIds = new ArrayList<>(config.orders);
+        for (int offset = 0; offset < config.orders; offset += config.seedChunkSize) {
+            int size = Math.min(config.seedChunkSize, config.orders - offset);
+            List<BulkOrderResultDto> results = salesOrderService.createOrders(
+                    IntStream.range(0, size)
+                            .mapToObj(i -> TestOrders.order(config.itemsPerOrder))
+                            .toList(),
+                    OrderCreationFlags.builder().build());
+            results.stream()
+                    .filter(result -> result.getOrderId() != null)
+                    .forEach(result -> orderIds.add(result.getOrderId()));
+        }
+        orderIds.forEach(pool::remember);
+
+        int quarter = orderIds.size() / 4;
+        List<UUID> released = orderIds.subList(quarter, orderIds.size());
+        List<UUID> inTransit = orderIds.subList(2 * quarter, orderIds.size());
+        List<UUID> arrived = orderIds.subList(3 * quarter, orderIds.size());
+        applyIfAny(salesOrderService, released, SalesTransactions.RELEASE_ORDER);
+        applyIfAny(salesOrderService, inTransit, SalesTransactions.SET_TRANSIT_ACTIVE);
+        applyIfAny(salesOrderService, arrived, SalesTransactions.SET_TRANSIT_INACTIVE);
+
+        for (UUID orderId : orderIds.subList(0, quarter)) {
+            List<UUID> itemIds = salesItemRepository.findAllBySalesOrder_SalesOrderId(orderId).stream()
+                    .map(SalesItem::getItemId)
+                    .toList();
+            pool.addCreated(new CreatedOrder(orderId, itemIds));
+        }
+        orderIds.subList(quarter, 2 * quarter).forEach(pool::addReleased);
+        orderIds.subList(2 * quarter, 3 * quarter).forEach(pool::addInTransit);
+        arrived.forEach(pool::addArrived);
+    }
+
+    private static void applyIfAny(SalesOrderService salesOrderService, List<UUID> orderIds, SalesTransactions transaction) {
+        if (!orderIds.isEmpty()) {
+            salesOrderService.performBulkOrderTransaction(orderIds, transaction);
+        }
+    }
+
+    // =========================================================
+    // WORKLOAD
+    // =========================================================
+
+    /**
+     * Sends one request every 1/rate seconds on a fixed schedule, whether or not earlier
+     * requests have completed. When maxInFlight requests are outstanding the dispatcher
+     * blocks, and the wait is charged to the requests that are due meanwhile.
+     */
+    private void drive() throws InterruptedException {
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        baseUrl = "http://localhost:" + port;
+        ExecutorService callbackExecutor = Executors.newFixedThreadPool(
+                Math.max(4, Runtime.getRuntime().availableProcessors()), runnable -> {
+                    Thread thread = new Thread(runnable, "loadtest-client");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(callbackExecutor)
+                .build();
+
+        Semaphore inFlight = new Semaphore(config.maxInFlight);
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / config.rate;
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(config.warmupSeconds);
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(config.durationSeconds);
+        System.out.printf("Driving %d req/s against %s for %ds warm-up + %ds measured%n",
+                config.rate, baseUrl, config.warmupSeconds, config.durationSeconds);
+
+        for (long sent = 0; ; sent++) {
+            long intended = start + sent * intervalNanos;
+            if (intended >= end) {
+                break;
+            }
+            long wait;
+            while ((wait = intended - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            inFlight.acquire();
+            dispatch(nextOperation(), intended, intended >= measureFrom, inFlight);
+        }
+
+        // Drain outstanding requests before reading the histograms
+        if (!inFlight.tryAcquire(config.maxInFlight, 2, TimeUnit.MINUTES)) {
+            System.err.println("Gave up waiting for in-flight requests; results may be incomplete");
+        }
+        callbackExecutor.shutdownNow();
+    }
+
+    private LoadOperation nextOperation() {
+        return weightedOperations[ThreadLocalRandom.current().nextInt(weightedOperations.length)];
+    }
+
+    /**
+     * Turns the chosen operation into a request against an order in the right stage.
+     * When no order is available for a lifecycle step the slot is spent on a GET instead,
+     * so the offered rate stays constant.
+     */
+    private void dispatch(LoadOperation operation, long intended, boolean measured, Semaphore inFlight) {
+        switch (operation) {
+            case CREATE -> send(LoadOperation.CREATE, post(CUSTOMER_PATH, TestOrders.order(config.itemsPerOrder)),
+                    intended, measured, inFlight, response -> {
+                        if (isSuccess(response)) {
+                            CreatedOrder created = parseCreated(response.body());
+                            pool.remember(created.orderId());
+                            pool.addCreated(created);
+                        }
+                    });
+            case CANCEL_ITEMS -> {
+                CreatedOrder order = pool.pollCreated();
+                // Always leave one item so the order itself stays open
+                if (order == null || order.openItemIds().size() < 2) {
+                    if (order != null) {
+                        pool.addCreated(order);
+                    }
+                    sendGet(intended, measured, inFlight);
+                    return;
+                }
+                UUID itemId = order.openItemIds().get(0);
+                CreatedOrder remaining = new CreatedOrder(order.orderId(),
+                        order.openItemIds().subList(1, order.openItemIds().size()));
+                send(LoadOperation.CANCEL_ITEMS,
+                        post(CUSTOMER_PATH + "/" + order.orderId() + "/items/cancel", Map.of("itemIds", List.of(itemId))),
+                        intended, measured, inFlight, response -> pool.addCreated(remaining));
+            }
+            case RELEASE -> {
+                CreatedOrder order = pool.pollCreated();
+                if (order == null) {
+                    sendGet(intended, measured, inFlight);
+                    return;
+                }
+                sendTransaction(LoadOperation.RELEASE, order.orderId(), SalesTransactions.RELEASE_ORDER,
+                        intended, measured, inFlight, pool::addReleased);
+            }
+            case TRANSIT -> advance(LoadOperation.TRANSIT, pool.pollReleased(), SalesTransactions.SET_TRANSIT_ACTIVE,
+                    intended, measured, inFlight, pool::addInTransit);
+            case ARRIVE -> advance(LoadOperation.ARRIVE, pool.pollInTransit(), SalesTransactions.SET_TRANSIT_INACTIVE,
+                    intended, measured, inFlight, pool::addArrived);
+            case COMPLETE -> advance(LoadOperation.COMPLETE, pool.pollArrived(), SalesTransactions.COMPLETE_ORDER,
+                    intended, measured, inFlight, orderId -> { });
+            case GET -> sendGet(intended, measured, inFlight);
+        }
+    }
+
+    private void advance(LoadOperation operation, UUID orderId, SalesTransactions transaction,
+                         long intended, boolean measured, Semaphore inFlight, Consumer<UUID> onSuccess) {
+        if (orderId == null) {
+            sendGet(intended, measured, inFlight);
+            return;
+        }
+        sendTransaction(operation, orderId, transaction, intended, measured, inFlight, onSuccess);
+    }
+
+    private void sendTransaction(LoadOperation operation, UUID orderId, SalesTransactions transaction,
+                                 long intended, boolean measured, Semaphore inFlight, Consumer<UUID> onSuccess) {
+        send(operation, post(INTERNAL_PATH + "/" + orderId + "/transaction", Map.of("transaction", transaction)),
+                intended, measured, inFlight, response -> {
+                    // A rejected order drops out of the lifecycle
+                    if (isSuccess(response)) {
+                        onSuccess.accept(orderId);
+                    }
+                });
+    }
+
+    private void sendGet(long intended, boolean measured, Semaphore inFlight) {
+        UUID orderId = pool.randomKnown();
+        if (orderId == null) {
+            // Nothing seeded (orders=0): create instead
+            dispatch(LoadOperation.CREATE, intended, measured, inFlight);
+            return;
+        }
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + CUSTOMER_PATH + "/" + orderId)).GET().build();
+        send(LoadOperation.GET, request, intended, measured, inFlight, response -> { });
+    }
+
+    private void send(LoadOperation operation, HttpRequest request, long intended, boolean measured,
+                      Semaphore inFlight, Consumer<HttpResponse<String>> onResponse) {
+        CompletableFuture<HttpResponse<String>> future;
+        try {
+            future = client.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        future.whenComplete((response, error) -> {
+            try {
+                if (measured) {
+                    recorder.record(operation, System.nanoTime() - intended, response == null ? -1 : response.statusCode());
+                }
+                if (response != null) {
+                    onResponse.accept(response);
+                }
+            } finally {
+                inFlight.release();
+            }
+        });
+    }
+
+    private HttpRequest post(String path, Object body) {
+        try {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                    .build();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not serialize request body for " + path, e);
+        }
+    }
+
+    private CreatedOrder parseCreated(String body) {
+        try {
+            JsonNode order = objectMapper.readTree(body);
+            List<UUID> itemIds = new ArrayList<>();
+            order.path("items").forEach(item -> itemIds.add(UUID.fromString(item.path("itemId").asText())));
+            return new CreatedOrder(UUID.fromString(order.path("orderId").asText()), itemIds);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unreadable create response", e);
+        }
+    }
+
+    private static boolean isSuccess(HttpResponse<?> response) {
+        return response.statusCode() >= 200 && response.statusCode() < 300;
+    }
+
+    // =========================================================
+    // REPORT
+    // =========================================================
+
+    private Path writeReport(Instant startedAt, long seedMillis) throws IOException {
+        String commit = git("rev-parse", "--short", "HEAD");
+        boolean dirty = !git("status", "--porcelain", "--untracked-files=no").isEmpty();
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("startedAt", startedAt.toString());
+        report.put("commit", commit.isEmpty() ? "unknown" : commit);
+        report.put("dirty", dirty);
+        report.put("javaVersion", System.getProperty("java.version"));
+        report.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        report.put("config", config.describe());
+        report.put("seedMillis", seedMillis);
+        report.put("results", recorder.summary(config.durationSeconds));
+
+        Files.createDirectories(config.outputDir);
+        Path file = config.outputDir.resolve(FILE_TIMESTAMP.format(startedAt) + "-" + report.get("commit") + ".json");
+        objectMapper.copy().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), report);
+
+        System.out.printf("%d requests measured (%d failed), offered %d req/s%n",
+                recorder.totalCount(), recorder.totalFailed(), config.rate);
+        return file;
+    }
+
+    private static String git(String... args) {
+        List<String> command = new ArrayList<>(List.of("git"));
+        command.addAll(List.of(args));
+        try {
+            Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+            String output;
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                output = String.join("\n", reader.lines().toList()).trim();
+            }
+            return process.waitFor() == 0 ? output : "";
+        } catch (IOException e) {
+            return "";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "";
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.mattercom.salesOrders.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Orders known to the load test, grouped by lifecycle stage.
+ * An order is taken out of its queue while a request is in flight for it and put into the
+ * next queue once that request succeeds, so two requests never race on the same order.
+ */
+final class OrderPool {
+
+    /**
+     * An order that is still created, with the items that can still be cancelled.
+     */
+    record CreatedOrder(UUID orderId, List<UUID> openItemIds) {}
+
+    private final Queue<CreatedOrder> created = new ConcurrentLinkedQueue<>();
+    private final Queue<UUID> released = new ConcurrentLinkedQueue<>();
+    private final Queue<UUID> inTransit = new ConcurrentLinkedQueue<>();
+    private final Queue<UUID> arrived = new ConcurrentLinkedQueue<>();
+
+    // Every order ever created; GET picks from here
+    private final List<UUID> known = new ArrayList<>();
+    private final ReadWriteLock knownLock = new ReentrantReadWriteLock();
+
+    void addCreated(CreatedOrder order) {
+        created.offer(order);
+    }
+
+    void addReleased(UUID orderId) {
+        released.offer(orderId);
+    }
+
+    void addInTransit(UUID orderId) {
+        inTransit.offer(orderId);
+    }
+
+    void addArrived(UUID orderId) {
+        arrived.offer(orderId);
+    }
+
+    CreatedOrder pollCreated() {
+        return created.poll();
+    }
+
+    UUID pollReleased() {
+        return released.poll();
+    }
+
+    UUID pollInTransit() {
+        return inTransit.poll();
+    }
+
+    UUID pollArrived() {
+        return arrived.poll();
+    }
+
+    UUID randomKnown() {
+        knownLock.readLock().lock();
+        try {
+            return known.isEmpty() ? null : known.get(ThreadLocalRandom.current().nextInt(known.size()));
+        } finally {
+            knownLock.readLock().unlock();
+        }
+    }
+
+    void remember(UUID orderId) {
+        knownLock.writeLock().lock();
+        try {
+            known.add(orderId);
+        } finally {
+            knownLock.writeLock().unlock();
+        }
+    }
+}
@@ -1,20 +1,19 @@
 package com.mattercom.salesOrders.controllers;
 
 import com.mattercom.salesOrders.dto.*;
-import com.mattercom.salesOrders.entities.SalesItem;
-import com.mattercom.salesOrders.entities.SalesOrder;
 import com.mattercom.salesOrders.enums.DeliverySpeed;
-import com.mattercom.salesOrders.mapper.SalesOrderResponseMapper;
+import com.mattercom.salesOrders.enums.OrderStatusId;
+import com.mattercom.salesOrders.outbox.StatusChangeSubscriptions;
 import com.mattercom.salesOrders.services.SalesOrderService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 /**
  * API Controller for Customer-Facing operations.
@@ -26,8 +25,10 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class CustomerEndpointController {
 
+    private static final String LAST_EVENT_ID = "Last-Event-ID";
+
     private final SalesOrderService salesOrderService;
-    private final SalesOrderResponseMapper responseMapper;
+    private final StatusChangeSubscriptions statusChangeSubscriptions;
     // In a real app, inject a service to get the authenticated customer's ID
 
     /**
@@ -46,11 +47,35 @@ public class CustomerEndpointController {
                 .fraudHold(fraudHold)
                 .build();
 
-        UUID orderId = salesOrderService.createOrder(creationDto, flags);
+        return new ResponseEntity<>(salesOrderService.createOrder(creationDto, flags), HttpStatus.CREATED);
+    }
+
+    /**
+     * Lists a customer's orders, newest first, one page at a time.
+     * Pass the returned nextCursor as ?cursor= for the following page.
+     */
+    @GetMapping
+    public ResponseEntity<OrderPageDto> getCustomerOrders(
+            @RequestParam UUID customerId,
+            @RequestParam(required = false) OrderStatusId status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit
+    ) {
+        // TODO: Take the customer from the authenticated principal instead of the query
+        return ResponseEntity.ok(salesOrderService.findCustomerOrders(customerId, status, cursor, limit));
+    }
 
-        // Fetch the newly created order to return it in the full response format
-        SalesOrder newOrder = salesOrderService.findOrderWithDetailsById(orderId);
-        return new ResponseEntity<>(responseMapper.toOrderResponseDto(newOrder), HttpStatus.CREATED);
+    /**
+     * Streams status changes of all of a customer's orders as Server-Sent Events
+     * (event "status", id = change feed position). Reconnect with Last-Event-ID to get what was missed.
+     */
+    @GetMapping("/events")
+    public SseEmitter streamCustomerStatusChanges(
+            @RequestParam UUID customerId,
+            @RequestHeader(value = LAST_EVENT_ID, required = false) Long lastEventId
+    ) {
+        // TODO: Take the customer from the authenticated principal instead of the query
+        return statusChangeSubscriptions.subscribeToCustomer(customerId, lastEventId);
     }
 
     /**
@@ -59,8 +84,20 @@ public class CustomerEndpointController {
     @GetMapping("/{orderId}")
     public ResponseEntity<OrderResponseDto> getOrderById(@PathVariable UUID orderId) {
         // TODO: Add security check here to ensure customer owns this order
-        SalesOrder order = salesOrderService.findOrderWithDetailsById(orderId);
-        return ResponseEntity.ok(responseMapper.toOrderResponseDto(order));
+        return ResponseEntity.ok(salesOrderService.findOrderWithDetailsById(orderId));
+    }
+
+    /**
+     * Streams the order's status changes as Server-Sent Events, replacing polling of GET /{orderId}.
+     * Reconnect with Last-Event-ID to get what was missed.
+     */
+    @GetMapping("/{orderId}/events")
+    public SseEmitter streamOrderStatusChanges(
+            @PathVariable UUID orderId,
+            @RequestHeader(value = LAST_EVENT_ID, required = false) Long lastEventId
+    ) {
+        // TODO: Add security check here to ensure customer owns this order
+        return statusChangeSubscriptions.subscribeToOrder(orderId, lastEventId);
     }
 
     /**
@@ -72,8 +109,7 @@ public class CustomerEndpointController {
             @Valid @RequestBody WebRequestDtos.AddItemsRequest request
     ) {
         // systemChange is hardcoded to false
-        SalesOrder updatedOrder = salesOrderService.addOrderItems(orderId, request.getItems(), false);
-        return ResponseEntity.ok(responseMapper.toOrderResponseDto(updatedOrder));
+        return ResponseEntity.ok(salesOrderService.addOrderItems(orderId, request.getItems(), false));
     }
 
     /**
@@ -85,8 +121,7 @@ public class CustomerEndpointController {
             @Valid @RequestBody ShipmentAddressDto shipmentAddressDto
     ) {
         // systemChange is hardcoded to false
-        SalesOrder updatedOrder = salesOrderService.ChangeShippingAddress(orderId, shipmentAddressDto, false);
-        return ResponseEntity.ok(responseMapper.toOrderResponseDto(updatedOrder));
+        return ResponseEntity.ok(salesOrderService.ChangeShippingAddress(orderId, shipmentAddressDto, false));
     }
 
     /**
@@ -98,8 +133,7 @@ public class CustomerEndpointController {
             @Valid @RequestBody RecurrentOrderDetailsDto detailsDto
     ) {
         // systemChange is hardcoded to false
-        SalesOrder updatedOrder = salesOrderService.changeRecurrentDetails(orderId, detailsDto, false);
-        return ResponseEntity.ok(responseMapper.toOrderResponseDto(updatedOrder));
+        return ResponseEntity.ok(salesOrderService.changeRecurrentDetails(orderId, detailsDto, false));
     }
 
     /**
@@ -108,8 +142,7 @@ public class CustomerEndpointController {
     @PostMapping("/{orderId}/cancel")
     public ResponseEntity<OrderResponseDto> cancelOrder(@PathVariable UUID orderId) {
         // systemCancel is hardcoded to false
-        SalesOrder updatedOrder = salesOrderService.CancelOrder(orderId, false);
-        return ResponseEntity.ok(responseMapper.toOrderResponseDto(updatedOrder));
+        return ResponseEntity.ok(salesOrderService.CancelOrder(orderId, false));
     }
 
     /**
@@ -122,14 +155,7 @@ public class CustomerEndpointController {
             @Valid @RequestBody WebRequestDtos.ItemListRequest request
     ) {
         // systemCancel is hardcoded to false
-        List<SalesItem> cancelledItems = salesOrderService.cancelOrderItems(request.getItemIds(), orderId, false);
-
-        // Map the returned items to the ItemResponseDto
-        List<ItemResponseDto> response = cancelledItems.stream()
-                .map(responseMapper::toItemResponseDto)
-                .collect(Collectors.toList());
-
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(salesOrderService.cancelOrderItems(request.getItemIds(), orderId, false));
     }
 
     /**
@@ -140,7 +166,6 @@ public class CustomerEndpointController {
             @PathVariable UUID orderId,
             @RequestParam DeliverySpeed speed
     ) {
-        SalesOrder updatedOrder = salesOrderService.changeDeliverySpeed(speed, orderId);
-        return ResponseEntity.ok(responseMapper.toOrderResponseDto(updatedOrder));
+        return ResponseEntity.ok(salesOrderService.changeDeliverySpeed(speed, orderId));
     }
 }
\ No newline at end of file
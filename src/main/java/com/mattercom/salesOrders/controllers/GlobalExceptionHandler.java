@@ -1,6 +1,8 @@
 package com.mattercom.salesOrders.controllers;
 
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.OptimisticLockException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -9,6 +11,7 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import java.time.Instant;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 @ControllerAdvice
 public class GlobalExceptionHandler {
@@ -28,6 +31,18 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(HttpStatus.CONFLICT, ex.getMessage());
     }
 
+    // Still conflicting after the order command lane's retries; the client may retry later
+    @ExceptionHandler({OptimisticLockingFailureException.class, OptimisticLockException.class})
+    public ResponseEntity<Object> handleVersionConflict(RuntimeException ex) {
+        return buildErrorResponse(HttpStatus.CONFLICT, "The order was changed concurrently, please retry.");
+    }
+
+    // An order command lane is full
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<Object> handleRejectedExecution(RejectedExecutionException ex) {
+        return buildErrorResponse(HttpStatus.SERVICE_UNAVAILABLE, "Too many pending changes, please retry.");
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Object> handleGeneralException(Exception ex) {
         ex.printStackTrace();
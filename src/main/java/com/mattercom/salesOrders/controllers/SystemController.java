@@ -1,18 +1,24 @@
 package com.mattercom.salesOrders.controllers;
 
 import com.mattercom.salesOrders.dto.*;
-import com.mattercom.salesOrders.entities.SalesItem;
-import com.mattercom.salesOrders.entities.SalesOrder;
-import com.mattercom.salesOrders.mapper.SalesOrderResponseMapper;
+import com.mattercom.salesOrders.enums.OrderStatusId;
+import com.mattercom.salesOrders.outbox.StatusChangeFeed;
+import com.mattercom.salesOrders.services.OrderExportService;
 import com.mattercom.salesOrders.services.SalesOrderService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * API Controller for Internal operations (Admin, System Services).
@@ -24,7 +30,30 @@ import java.util.stream.Collectors;
 public class SystemController {
 
     private final SalesOrderService salesOrderService;
-    private final SalesOrderResponseMapper responseMapper;
+    private final OrderExportService orderExportService;
+    private final StatusChangeFeed statusChangeFeed;
+
+    public static final String NDJSON = "application/x-ndjson";
+
+    /**
+     * Creates many orders at once (marketplace importers).
+     * Returns one result per submitted order, in request order.
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<List<BulkOrderResultDto>> createOrders(
+            @Valid @RequestBody WebRequestDtos.BulkOrderRequest request,
+            @RequestParam(defaultValue = "false") boolean approvalRequired,
+            @RequestParam(defaultValue = "false") boolean creditBlock,
+            @RequestParam(defaultValue = "false") boolean fraudHold
+    ) {
+        OrderCreationFlags flags = OrderCreationFlags.builder()
+                .approvalRequired(approvalRequired)
+                .creditBlock(creditBlock)
+                .fraudHold(fraudHold)
+                .build();
+
+        return ResponseEntity.ok(salesOrderService.createOrders(request.getOrders(), flags));
+    }
 
     /**
      * Performs a generic order-level transaction.
@@ -34,8 +63,19 @@ public class SystemController {
             @PathVariable UUID orderId,
             @Valid @RequestBody WebRequestDtos.TransactionRequest request
     ) {
-        SalesOrder updatedOrder = salesOrderService.performOrderTransaction(orderId, request.getTransaction());
-        return ResponseEntity.ok(responseMapper.toOrderResponseDto(updatedOrder));
+        return ResponseEntity.ok(salesOrderService.performOrderTransaction(orderId, request.getTransaction()));
+    }
+
+    /**
+     * Performs one generic order-level transaction on many orders
+     * (e.g. SET_TRANSIT_ACTIVE for everything on a truck).
+     * Forbidden or unknown orders are listed as rejected; the rest are applied.
+     */
+    @PostMapping("/bulk/transaction")
+    public ResponseEntity<BulkTransactionResultDto> performBulkOrderTransaction(
+            @Valid @RequestBody WebRequestDtos.BulkTransactionRequest request
+    ) {
+        return ResponseEntity.ok(salesOrderService.performBulkOrderTransaction(request.getOrderIds(), request.getTransaction()));
     }
 
     /**
@@ -46,12 +86,7 @@ public class SystemController {
             @PathVariable UUID orderId,
             @Valid @RequestBody WebRequestDtos.ItemTransactionRequest request
     ) {
-        List<SalesItem> updatedItems = salesOrderService.performItemTransaction(request.getItemIds(), request.getTransaction(), orderId);
-        // Convert list of SalesItem to list of ItemResponseDto
-        List<ItemResponseDto> response = updatedItems.stream()
-                .map(responseMapper::toItemResponseDto)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(salesOrderService.performItemTransaction(request.getItemIds(), request.getTransaction(), orderId));
     }
 
     /**
@@ -63,8 +98,7 @@ public class SystemController {
             @PathVariable UUID orderId,
             @Valid @RequestBody WebRequestDtos.RestartRequest request
     ) {
-        SalesOrder updatedOrder = salesOrderService.restartDisputedOrder(orderId, request.getRegenerateInvoice());
-        return ResponseEntity.ok(responseMapper.toOrderResponseDto(updatedOrder));
+        return ResponseEntity.ok(salesOrderService.restartDisputedOrder(orderId, request.getRegenerateInvoice()));
     }
 
     /**
@@ -75,8 +109,7 @@ public class SystemController {
             @PathVariable UUID orderId,
             @Valid @RequestBody WebRequestDtos.RestartRequest request
     ) {
-        SalesOrder updatedOrder = salesOrderService.restartOrder(orderId, request.getRegenerateInvoice());
-        return ResponseEntity.ok(responseMapper.toOrderResponseDto(updatedOrder));
+        return ResponseEntity.ok(salesOrderService.restartOrder(orderId, request.getRegenerateInvoice()));
     }
 
 
@@ -88,11 +121,18 @@ public class SystemController {
             @PathVariable UUID orderId,
             @Valid @RequestBody WebRequestDtos.BackOrderRequest request
     ) {
-        List<SalesItem> updatedItems = salesOrderService.backOrderItem(request.getItemIds(), orderId, request.getQuantity());
-        List<ItemResponseDto> response = updatedItems.stream()
-                .map(responseMapper::toItemResponseDto)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(salesOrderService.backOrderItem(request.getItemIds(), orderId, request.getQuantity()));
+    }
+
+    /**
+     * Releases a product's backorders, oldest first, against the quantity that arrived.
+     * Reports the items and orders released; backorders whose statuses forbid the reorder are skipped.
+     */
+    @PostMapping("/backorders/replenish")
+    public ResponseEntity<ReplenishmentResultDto> replenishBackorders(
+            @Valid @RequestBody WebRequestDtos.ReplenishmentRequest request
+    ) {
+        return ResponseEntity.ok(salesOrderService.replenishBackorders(request.getProductId(), request.getQuantity()));
     }
 
     /**
@@ -103,8 +143,7 @@ public class SystemController {
             @PathVariable UUID orderId,
             @Valid @RequestBody WebRequestDtos.AddItemsRequest request
     ) {
-        SalesOrder updatedOrder = salesOrderService.addOrderItems(orderId, request.getItems(), true);
-        return ResponseEntity.ok(responseMapper.toOrderResponseDto(updatedOrder));
+        return ResponseEntity.ok(salesOrderService.addOrderItems(orderId, request.getItems(), true));
     }
 
     /**
@@ -115,8 +154,7 @@ public class SystemController {
             @PathVariable UUID orderId,
             @Valid @RequestBody ShipmentAddressDto shipmentAddressDto
     ) {
-        SalesOrder updatedOrder = salesOrderService.ChangeShippingAddress(orderId, shipmentAddressDto, true);
-        return ResponseEntity.ok(responseMapper.toOrderResponseDto(updatedOrder));
+        return ResponseEntity.ok(salesOrderService.ChangeShippingAddress(orderId, shipmentAddressDto, true));
     }
 
     /**
@@ -127,8 +165,7 @@ public class SystemController {
             @PathVariable UUID orderId,
             @Valid @RequestBody RecurrentOrderDetailsDto detailsDto
     ) {
-        SalesOrder updatedOrder = salesOrderService.changeRecurrentDetails(orderId, detailsDto, true);
-        return ResponseEntity.ok(responseMapper.toOrderResponseDto(updatedOrder));
+        return ResponseEntity.ok(salesOrderService.changeRecurrentDetails(orderId, detailsDto, true));
     }
 
     /**
@@ -136,8 +173,7 @@ public class SystemController {
      */
     @PostMapping("/{orderId}/cancel")
     public ResponseEntity<OrderResponseDto> cancelOrder(@PathVariable UUID orderId) {
-        SalesOrder updatedOrder = salesOrderService.CancelOrder(orderId, true);
-        return ResponseEntity.ok(responseMapper.toOrderResponseDto(updatedOrder));
+        return ResponseEntity.ok(salesOrderService.CancelOrder(orderId, true));
     }
 
     /**
@@ -149,12 +185,56 @@ public class SystemController {
             @Valid @RequestBody WebRequestDtos.ItemListRequest request
     ) {
         // This now correctly returns the list of items that were cancelled
-        List<SalesItem> cancelledItems = salesOrderService.cancelOrderItems(request.getItemIds(), orderId, true);
+        return ResponseEntity.ok(salesOrderService.cancelOrderItems(request.getItemIds(), orderId, true));
+    }
 
-        List<ItemResponseDto> response = cancelledItems.stream()
-                .map(responseMapper::toItemResponseDto)
-                .collect(Collectors.toList());
+    /**
+     * Nightly export: every order created in [from, to) as NDJSON, one full order per line,
+     * optionally only orders with the given active status. Gzipped when the client accepts it.
+     * Written straight to the response on the request thread, so memory stays flat however
+     * many orders match.
+     */
+    @GetMapping("/export")
+    public void exportOrders(
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to,
+            @RequestParam(required = false) OrderStatusId status,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            HttpServletResponse response
+    ) throws IOException {
+        Instant exportFrom = from != null ? from : Instant.EPOCH;
+        Instant exportTo = to != null ? to : Instant.now();
+        // Checked before anything is written, so the error can still be rendered as JSON
+        if (!exportFrom.isBefore(exportTo)) {
+            throw new IllegalArgumentException("Export range must have from before to");
+        }
+
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            GZIPOutputStream gzip = new GZIPOutputStream(response.getOutputStream(), true);
+            orderExportService.exportOrders(exportFrom, exportTo, status, gzip);
+            gzip.finish();
+        } else {
+            OutputStream out = response.getOutputStream();
+            orderExportService.exportOrders(exportFrom, exportTo, status, out);
+        }
+        response.flushBuffer();
+    }
 
-        return ResponseEntity.ok(response);
+    /**
+     * Change feed of order and item status changes, oldest first, from the ?after= cursor
+     * (0 reads from the oldest kept change). With waitMs the request is held until changes
+     * arrive or the time is up, and then returns an empty page with the same cursor.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<StatusChangePageDto> readStatusChanges(
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = "1000") int limit,
+            @RequestParam(defaultValue = "0") long waitMs
+    ) {
+        return ResponseEntity.ok(statusChangeFeed.read(after, limit, Duration.ofMillis(waitMs)));
     }
-}
\ No newline at end of file
+}
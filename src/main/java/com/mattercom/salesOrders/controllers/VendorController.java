@@ -0,0 +1,39 @@
+package com.mattercom.salesOrders.controllers;
+
+import com.mattercom.salesOrders.dto.VendorItemPageDto;
+import com.mattercom.salesOrders.enums.ItemStatusId;
+import com.mattercom.salesOrders.enums.OrderStatusId;
+import com.mattercom.salesOrders.services.SalesOrderService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+/**
+ * API Controller for vendor-facing reads (vendor portal, fulfilment services).
+ * Internal-only: vendors reach it through the services that authenticate them.
+ */
+@RestController
+@RequestMapping("/api/v1/internal/vendors") // Internal-only path
+@RequiredArgsConstructor
+public class VendorController {
+
+    private final SalesOrderService salesOrderService;
+
+    /**
+     * Lists a vendor's items in item id order, one page at a time, optionally only those with an
+     * active item status (e.g. E_BKO) and/or whose order has an active order status (e.g. I_REL).
+     * Pass the returned nextCursor as ?cursor= for the following page.
+     */
+    @GetMapping("/{vendorId}/items")
+    public ResponseEntity<VendorItemPageDto> getVendorItems(
+            @PathVariable UUID vendorId,
+            @RequestParam(required = false) ItemStatusId itemStatus,
+            @RequestParam(required = false) OrderStatusId orderStatus,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit
+    ) {
+        return ResponseEntity.ok(salesOrderService.findVendorItems(vendorId, itemStatus, orderStatus, cursor, limit));
+    }
+}
@@ -0,0 +1,65 @@
+package com.mattercom.salesOrders.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * Wraps the Hikari pool in a ConnectionLimitingDataSource sized to its maximum pool size,
+ * waiting no longer than its connection timeout, and publishes the permit gauges.
+ * Switched off with sales-orders.db-concurrency-limit.enabled=false.
+ */
+@Configuration
+@ConditionalOnProperty(name = "sales-orders.db-concurrency-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class ConnectionLimitConfig {
+
+    // Static so the post-processor is registered before the data source bean is created
+    @Bean
+    public static BeanPostProcessor connectionLimitingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // The pool may already be wrapped (RowCountingDataSource), so look through wrappers
+                if (!(bean instanceof DataSource dataSource)) {
+                    return bean;
+                }
+                try {
+                    if (!dataSource.isWrapperFor(HikariDataSource.class)
+                            || dataSource.isWrapperFor(ConnectionLimitingDataSource.class)) {
+                        return bean;
+                    }
+                    HikariDataSource pool = dataSource.unwrap(HikariDataSource.class);
+                    return new ConnectionLimitingDataSource(dataSource, pool.getMaximumPoolSize(), pool.getConnectionTimeout());
+                } catch (SQLException e) {
+                    throw new IllegalStateException("Could not inspect data source " + beanName, e);
+                }
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder connectionLimitMetrics(DataSource dataSource) {
+        return registry -> {
+            ConnectionLimitingDataSource limited;
+            try {
+                limited = dataSource.unwrap(ConnectionLimitingDataSource.class);
+            } catch (SQLException e) {
+                // Not a Hikari pool, so nothing was wrapped
+                return;
+            }
+            Gauge.builder("sales_orders.db.permits.waiting", limited, ConnectionLimitingDataSource::waiting)
+                    .description("Threads waiting for a database connection permit")
+                    .register(registry);
+            Gauge.builder("sales_orders.db.permits.available", limited, ConnectionLimitingDataSource::availablePermits)
+                    .description("Database connection permits not in use")
+                    .register(registry);
+        };
+    }
+}
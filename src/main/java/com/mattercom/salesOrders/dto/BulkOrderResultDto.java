@@ -0,0 +1,30 @@
+package com.mattercom.salesOrders.dto;
+
+import lombok.*;
+
+import java.util.UUID;
+
+/**
+ * Outcome of one order inside a bulk creation request.
+ * Exactly one of orderId / error is set; index points back into the request list.
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkOrderResultDto
+{
+    private int index;
+    private UUID orderId;
+    private String error;
+
+    public static BulkOrderResultDto created(int index, UUID orderId) {
+        return BulkOrderResultDto.builder().index(index).orderId(orderId).build();
+    }
+
+    public static BulkOrderResultDto failed(int index, String error) {
+        return BulkOrderResultDto.builder().index(index).error(error).build();
+    }
+}
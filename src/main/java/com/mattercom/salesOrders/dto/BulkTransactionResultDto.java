@@ -0,0 +1,43 @@
+package com.mattercom.salesOrders.dto;
+
+import com.mattercom.salesOrders.enums.OrderStatusId;
+import com.mattercom.salesOrders.enums.SalesTransactions;
+import lombok.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Outcome of applying one transaction to many orders.
+ * Rejected orders carry the active header status that forbade the transaction
+ * (null when the order does not exist or its chunk could not be written).
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkTransactionResultDto
+{
+    private SalesTransactions transaction;
+
+    @Builder.Default
+    private List<UUID> acceptedOrderIds = new ArrayList<>();
+
+    @Builder.Default
+    private List<Rejection> rejected = new ArrayList<>();
+
+    @Getter
+    @Setter
+    @ToString
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Rejection
+    {
+        private UUID orderId;
+        private OrderStatusId forbiddenBy;
+        private String reason;
+    }
+}
@@ -38,8 +38,10 @@ public class ItemCreationDto
     @Positive
     private BigDecimal baseUnitPrice;
 
+    // Percent of the gross, e.g. 12.50
     @Builder.Default
     @PositiveOrZero
+    @DecimalMax("100")
     private BigDecimal discountRate=BigDecimal.ZERO;
 
 
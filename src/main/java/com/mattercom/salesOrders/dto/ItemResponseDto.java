@@ -16,4 +16,5 @@ public class ItemResponseDto
     private ItemCreationDto item;
     private UUID itemId;
     private Map<ItemStatusId, Instant> activeStatuses; //the timestamp here should be updation timestamp
+    private TotalsDto totals;
 }
@@ -0,0 +1,21 @@
+package com.mattercom.salesOrders.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * One page of a customer's orders, newest first.
+ * nextCursor is passed back as ?cursor= for the following page and is null on the last one.
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderPageDto
+{
+    private List<OrderSummaryDto> orders;
+    private String nextCursor;
+}
@@ -5,6 +5,7 @@ import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
 
+import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.List;
 import java.util.Map;
@@ -18,4 +19,8 @@ public class OrderResponseDto
     private UUID orderId;
     List<ItemResponseDto> items;
     private Map<OrderStatusId, Instant> activeStatuses; //the timestamp here should be updation timestamp
+    // Of the items not cancelled; read off the order, no item is loaded for them
+    private TotalsDto totals;
+    // The part of totals.net waiting for stock
+    private BigDecimal backorderedNet;
 }
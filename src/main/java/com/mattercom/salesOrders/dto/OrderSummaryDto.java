@@ -0,0 +1,28 @@
+package com.mattercom.salesOrders.dto;
+
+import com.mattercom.salesOrders.enums.DeliverySpeed;
+import com.mattercom.salesOrders.enums.OrderStatusId;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Compact row of a customer's order listing; the full order is one GET /{orderId} away.
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderSummaryDto
+{
+    private UUID orderId;
+    private Instant createdAt;
+    private DeliverySpeed deliverySpeed;
+    private Boolean recurrent;
+    private Boolean inTransit;
+    private Set<OrderStatusId> activeStatuses;
+}
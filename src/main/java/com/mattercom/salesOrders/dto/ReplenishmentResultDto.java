@@ -0,0 +1,47 @@
+package com.mattercom.salesOrders.dto;
+
+import lombok.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Outcome of releasing a product's backorders against arrived stock.
+ * At most one item is partially filled: the first backorder the remaining quantity did not cover,
+ * which keeps its backorder with the quantity still missing.
+ * When failure is set, only quantityAllocated was committed; quantityUnallocated is what to send again.
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReplenishmentResultDto
+{
+    private UUID productId;
+
+    private int quantityArrived;
+
+    private int quantityAllocated;
+
+    // Units no backorder took: none were left open, or the run stopped on a failure
+    private int quantityUnallocated;
+
+    @Builder.Default
+    private List<UUID> releasedItemIds = new ArrayList<>();
+
+    private int releasedOrders;
+
+    private UUID partiallyFilledItemId;
+
+    // Backorders skipped because a header or item status forbids the reorder
+    @Builder.Default
+    private List<BulkTransactionResultDto.Rejection> rejected = new ArrayList<>();
+
+    // Why the run stopped before the quantity ran out; null when it did not
+    private String failure;
+
+    private long durationMs;
+}
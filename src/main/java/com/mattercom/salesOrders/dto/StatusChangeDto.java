@@ -0,0 +1,26 @@
+package com.mattercom.salesOrders.dto;
+
+import lombok.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One status change on the change feed: a status of the order (itemId null) or of one of its
+ * items became active or stopped being active. position is the feed cursor.
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StatusChangeDto
+{
+    private long position;
+    private UUID orderId;
+    private UUID itemId;
+    private String status;
+    private boolean active;
+    private Instant occurredAt;
+}
@@ -0,0 +1,21 @@
+package com.mattercom.salesOrders.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * One read of the change feed, oldest change first.
+ * nextCursor is passed back as ?after= for the following read; it stays put when nothing was returned.
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StatusChangePageDto
+{
+    private List<StatusChangeDto> changes;
+    private long nextCursor;
+}
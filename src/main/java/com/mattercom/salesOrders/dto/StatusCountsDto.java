@@ -0,0 +1,25 @@
+package com.mattercom.salesOrders.dto;
+
+import com.mattercom.salesOrders.enums.DeliverySpeed;
+import com.mattercom.salesOrders.enums.OrderStatusId;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Orders with each active status, per delivery speed and in total, as of the last rollup refresh.
+ * Statuses no order has are left out.
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StatusCountsDto
+{
+    private Instant asOf;
+    private Map<OrderStatusId, Long> totals;
+    private Map<OrderStatusId, Map<DeliverySpeed, Long>> bySpeed;
+}
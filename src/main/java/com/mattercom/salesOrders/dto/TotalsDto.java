@@ -0,0 +1,27 @@
+package com.mattercom.salesOrders.dto;
+
+import com.mattercom.salesOrders.util.Money;
+import lombok.*;
+
+import java.math.BigDecimal;
+
+/**
+ * Money totals of an item or an order, converted from the stored minor units.
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TotalsDto
+{
+    private BigDecimal gross;
+    private BigDecimal discount;
+    private BigDecimal net;
+
+    public static TotalsDto of(long grossAmount, long discountAmount, long netAmount)
+    {
+        return new TotalsDto(Money.toBigDecimal(grossAmount), Money.toBigDecimal(discountAmount), Money.toBigDecimal(netAmount));
+    }
+}
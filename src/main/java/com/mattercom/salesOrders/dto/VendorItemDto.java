@@ -0,0 +1,25 @@
+package com.mattercom.salesOrders.dto;
+
+import com.mattercom.salesOrders.enums.ItemStatusId;
+import lombok.*;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Compact row of a vendor's item listing; the full order is one GET away.
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class VendorItemDto
+{
+    private UUID itemId;
+    private UUID orderId;
+    private UUID productId;
+    private Integer netQty;
+    private Set<ItemStatusId> activeStatuses;
+}
@@ -49,6 +49,18 @@ public class WebRequestDtos {
         private SalesTransactions transaction;
     }
 
+    /**
+     * For performing one order-level transaction on many orders.
+     * e.g., POST /bulk/transaction
+     */
+    @Data
+    public static class BulkTransactionRequest {
+        @NotEmpty
+        private List<UUID> orderIds;
+        @NotNull
+        private SalesTransactions transaction;
+    }
+
     /**
      * For performing a generic item-level transaction.
      * e.g., POST /items/transaction
@@ -74,6 +86,30 @@ public class WebRequestDtos {
         private Integer quantity;
     }
 
+    /**
+     * For releasing a product's backorders when stock arrives.
+     * e.g., POST /backorders/replenish
+     */
+    @Data
+    public static class ReplenishmentRequest {
+        @NotNull
+        private UUID productId;
+        @NotNull
+        @Min(1)
+        private Integer quantity;
+    }
+
+    /**
+     * For creating many orders in one call.
+     * Orders are validated one by one so a bad entry does not reject the whole request.
+     * e.g., POST /bulk
+     */
+    @Data
+    public static class BulkOrderRequest {
+        @NotEmpty
+        private List<OrderCreationDto> orders;
+    }
+
     /**
      * For restarting a recurrent order.
      * e.g., POST /restart
@@ -3,6 +3,10 @@ package com.mattercom.salesOrders.entities;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Positive;
 import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.Instant;
+import java.util.UUID;
 
 @Entity
 @Getter
@@ -13,10 +17,13 @@ import lombok.*;
 public class BackOrderedItem
 {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "back_ordered_item_seq")
+    @SequenceGenerator(name = "back_ordered_item_seq", sequenceName = "back_ordered_item_seq", allocationSize = 50)
     private Long backOrderId;
 
-    @OneToOne(fetch = FetchType.LAZY,cascade = CascadeType.ALL, orphanRemoval = true)
+    // No cascade towards the item: the item owns its backorder, and releasing the backorder
+    // (orphan removal on SalesItem) must not remove the item with it
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "item_id", nullable = false)
     private SalesItem salesItem;
 
@@ -24,5 +31,13 @@ public class BackOrderedItem
     @Column(nullable = false)
     private Integer bckQty;
 
+    // Copied from the item, so replenishment walks one index per product
+    @Column(nullable = false, updatable = false)
+    private UUID productId;
+
+    // Replenishment releases backorders oldest first
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private Instant backorderedAt;
 
 }
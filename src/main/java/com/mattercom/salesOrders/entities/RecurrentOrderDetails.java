@@ -6,13 +6,16 @@ import jakarta.validation.constraints.PositiveOrZero;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.time.Instant;
+
 @Entity
 @Getter
 @Setter
 public class RecurrentOrderDetails
 {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "recurrent_order_details_seq")
+    @SequenceGenerator(name = "recurrent_order_details_seq", sequenceName = "recurrent_order_details_seq", allocationSize = 50)
     private Long recurrentOrderId;
 
     @Positive
@@ -27,4 +30,11 @@ public class RecurrentOrderDetails
 
     @PositiveOrZero
     private Integer requestedOffsetInDays;
+
+    // Orders placed so far, the one that created the recurrence included
+    @Column(nullable = false)
+    private Integer completedInstallments = 1;
+
+    // When RecurrentOrderScheduler restarts the order next; null once every installment is placed
+    private Instant nextDueAt;
 }
@@ -26,7 +26,7 @@ public class SalesItem
     private UUID itemId;
 
     @NotNull
-    @Column(name = "vendor_id")
+    @Column(name = "vendor_id", updatable = false)
     private UUID vendorId;
 
     @NotNull
@@ -54,6 +54,16 @@ public class SalesItem
     @Column(nullable = false, updatable = false)
     private BigDecimal discountRate;
 
+    // Valued once at creation by OrderTotals, in minor units (Money)
+    @Column(nullable = false, updatable = false)
+    private long grossAmount;
+
+    @Column(nullable = false, updatable = false)
+    private long discountAmount;
+
+    @Column(nullable = false, updatable = false)
+    private long netAmount;
+
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "order_id", nullable = false)
@@ -65,6 +75,18 @@ public class SalesItem
 
     @OneToOne(fetch = FetchType.LAZY, cascade = CascadeType.ALL, orphanRemoval = true, optional = true, mappedBy = "salesItem")
     private BackOrderedItem backOrderedItem;
+
+    /**
+     * Replaces the contents, not the collection instance (see SalesOrder#setStatusList).
+     */
+    public void setStatusList(List<SalesItemStatus> statusList) {
+        if (this.statusList == null || statusList == null) {
+            this.statusList = statusList;
+        } else if (this.statusList != statusList) {
+            this.statusList.clear();
+            this.statusList.addAll(statusList);
+        }
+    }
 }
 
 
@@ -75,6 +75,67 @@ public class SalesOrder {
 
     @OneToOne(optional = true, cascade = CascadeType.ALL, orphanRemoval = true,mappedBy = "salesOrder")
     private RecurrentOrderDetails recurrentOrderDetails;
+
+    // Item counters, kept by ItemCounters as items are added and change status
+    @Builder.Default
+    @Column(nullable = false)
+    private Integer itemCount = 0;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Integer cancelledItemCount = 0;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Integer backorderedItemCount = 0;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Integer invoicedItemCount = 0;
+
+    // Money totals of the items not cancelled, in minor units (Money), kept by OrderTotals;
+    // primitives, so moving them boxes nothing
+    @Builder.Default
+    @Column(nullable = false)
+    private long grossAmount = 0L;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private long discountAmount = 0L;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private long netAmount = 0L;
+
+    // The part of netAmount waiting for stock: each backordered item's net, prorated by bckQty / netQty
+    @Builder.Default
+    @Column(nullable = false)
+    private long backorderedNetAmount = 0L;
+
+    /**
+     * Replaces the contents, not the collection instance: Hibernate tracks orphan removal
+     * on the collection it loaded, and swapping that instance out fails at flush.
+     */
+    public void setStatusList(List<SalesOrderStatus> statusList) {
+        if (this.statusList == null || statusList == null) {
+            this.statusList = statusList;
+        } else if (this.statusList != statusList) {
+            this.statusList.clear();
+            this.statusList.addAll(statusList);
+        }
+    }
+
+    /**
+     * Same in-place replacement as setStatusList, for the item collection.
+     */
+    public void setSalesItems(List<SalesItem> salesItems) {
+        if (this.salesItems == null || salesItems == null) {
+            this.salesItems = salesItems;
+        } else if (this.salesItems != salesItems) {
+            this.salesItems.clear();
+            this.salesItems.addAll(salesItems);
+        }
+    }
     
 
 
@@ -14,7 +14,8 @@ import java.util.UUID;
 public class ShipmentAddress {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "shipment_address_seq")
+    @SequenceGenerator(name = "shipment_address_seq", sequenceName = "shipment_address_seq", allocationSize = 50)
     private Long addressId;
 
     @Column(nullable = false)
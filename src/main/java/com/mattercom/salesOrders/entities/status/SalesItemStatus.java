@@ -9,6 +9,7 @@ import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.Instant;
+import java.util.UUID;
 
 
 @Getter
@@ -22,7 +23,8 @@ import java.time.Instant;
 public class SalesItemStatus {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sales_item_status_seq")
+    @SequenceGenerator(name = "sales_item_status_seq", sequenceName = "sales_item_status_seq", allocationSize = 50)
     @Column(name = "item_status_id", updatable = false)
     private Long serialId;
 
@@ -39,6 +41,10 @@ public class SalesItemStatus {
     @Builder.Default
     private Boolean active = true;
 
+    // Copy of the item's vendor, so the vendor item listing can seek by (vendor, status)
+    @Column(name = "vendor_id", updatable = false)
+    private UUID vendorId;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private Instant createdAt;
@@ -47,5 +53,10 @@ public class SalesItemStatus {
     @Column(name = "last_updated_at", nullable = false)
     private Instant lastUpdatedAt;
 
+    @PrePersist
+    void copyVendor() {
+        vendorId = salesItem.getVendorId();
+    }
+
 }
 
@@ -22,7 +22,8 @@ import java.util.UUID;
 public class SalesOrderStatus {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sales_order_status_seq")
+    @SequenceGenerator(name = "sales_order_status_seq", sequenceName = "sales_order_status_seq", allocationSize = 50)
     @Column(name = "status_id", updatable = false)
     private Long serialId;
 
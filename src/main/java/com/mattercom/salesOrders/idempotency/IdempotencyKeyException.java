@@ -0,0 +1,19 @@
+package com.mattercom.salesOrders.idempotency;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+/**
+ * A request whose idempotency key cannot be honoured: reused for a different request,
+ * or still executing elsewhere for longer than a retry is willing to wait.
+ */
+@Getter
+public class IdempotencyKeyException extends RuntimeException {
+
+    private final HttpStatus status;
+
+    public IdempotencyKeyException(HttpStatus status, String message) {
+        super(message);
+        this.status = status;
+    }
+}
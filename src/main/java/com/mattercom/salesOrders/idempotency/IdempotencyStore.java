@@ -0,0 +1,290 @@
+package com.mattercom.salesOrders.idempotency;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Idempotency keys in two tiers.
+ * A bounded in-memory LRU holds recent keys with their response, or a future for the first
+ * execution that concurrent duplicates on this node wait on; only answered keys are evicted,
+ * so a first execution always finds its waiters. The idempotency_keys table makes
+ * a key visible to every node: the first request inserts a claim row, the others find it and
+ * wait for its response. Statements run outside any transaction so a claim is visible at once.
+ */
+@Component
+public class IdempotencyStore {
+
+    private static final long POLL_INTERVAL_MS = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration ttl;
+    private final Duration waitTimeout;
+    private final Duration inFlightTimeout;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<String, Entry> entries;
+
+    public IdempotencyStore(JdbcTemplate jdbcTemplate,
+                            @Value("${sales-orders.idempotency.ttl-hours:24}") long ttlHours,
+                            @Value("${sales-orders.idempotency.max-entries:10000}") int maxEntries,
+                            @Value("${sales-orders.idempotency.wait-timeout-ms:10000}") long waitTimeoutMs,
+                            @Value("${sales-orders.idempotency.in-flight-timeout-ms:60000}") long inFlightTimeoutMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ttl = Duration.ofHours(ttlHours);
+        this.waitTimeout = Duration.ofMillis(waitTimeoutMs);
+        this.inFlightTimeout = Duration.ofMillis(inFlightTimeoutMs);
+        // Access order, so the least recently used answered key is evicted first
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                // Keys still in flight stay, however old: their owner completes them and duplicates wait on them
+                Iterator<Entry> oldest = values().iterator();
+                while (size() > maxEntries && oldest.hasNext()) {
+                    if (oldest.next().response.isDone()) {
+                        oldest.remove();
+                    }
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Either claims the key for this request (the claim has no stored response; complete or
+     * abandon must follow) or returns the response of the request that claimed it first,
+     * waiting for it if needed.
+     */
+    public Claim begin(String key, String fingerprint) {
+        while (true) {
+            Entry entry;
+            boolean owner = false;
+            lock.lock();
+            try {
+                entry = entries.get(key);
+                if (entry != null && entry.response.isDone() && entry.expiresAt.isBefore(Instant.now())) {
+                    entries.remove(key);
+                    entry = null;
+                }
+                if (entry == null) {
+                    entry = new Entry(fingerprint, Instant.now().plus(ttl));
+                    entries.put(key, entry);
+                    owner = true;
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (!entry.fingerprint.equals(fingerprint)) {
+                throw reused();
+            }
+            if (owner) {
+                StoredResponse stored;
+                try {
+                    stored = claimInDatabase(key, fingerprint);
+                } catch (RuntimeException e) {
+                    forget(key, entry);
+                    throw e;
+                }
+                if (stored != null) {
+                    entry.response.complete(stored);
+                }
+                return new Claim(key, entry, stored);
+            }
+            StoredResponse stored = await(entry);
+            if (stored != null) {
+                return new Claim(key, entry, stored);
+            }
+            // The first execution failed and gave the key up; try to claim it
+        }
+    }
+
+    public void complete(Claim claim, StoredResponse response) {
+        jdbcTemplate.update("""
+                UPDATE idempotency_keys SET status_code = ?, content_type = ?, response_body = ?
+                WHERE idempotency_key = ?
+                """, response.status(), response.contentType(), new String(response.body(), StandardCharsets.UTF_8), claim.key);
+        // The entry begin handed out, whether or not the map still holds it
+        claim.entry.response.complete(response);
+    }
+
+    /**
+     * Gives the key up after a failed execution, so a retry runs the request again.
+     */
+    public void abandon(Claim claim) {
+        jdbcTemplate.update("DELETE FROM idempotency_keys WHERE idempotency_key = ? AND status_code IS NULL", claim.key);
+        if (!claim.entry.response.isDone()) {
+            forget(claim.key, claim.entry);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${sales-orders.idempotency.purge-interval-ms:3600000}",
+            initialDelayString = "${sales-orders.idempotency.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        jdbcTemplate.update("DELETE FROM idempotency_keys WHERE expires_at < ?", Timestamp.from(Instant.now()));
+    }
+
+    // Drops this node's copies, as if the next request arrived at another node
+    void evictLocal() {
+        lock.lock();
+        try {
+            entries.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private StoredResponse claimInDatabase(String key, String fingerprint) {
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+        while (true) {
+            Instant now = Instant.now();
+            try {
+                jdbcTemplate.update("""
+                        INSERT INTO idempotency_keys (idempotency_key, fingerprint, created_at, expires_at)
+                        VALUES (?, ?, ?, ?)
+                        """, key, fingerprint, Timestamp.from(now), Timestamp.from(now.plus(ttl)));
+                return null;
+            } catch (DuplicateKeyException e) {
+                // Claimed before, here or on another node
+            }
+
+            Row row = find(key);
+            if (row == null) {
+                continue;
+            }
+            if (!row.fingerprint().equals(fingerprint)) {
+                throw reused();
+            }
+            if (row.expiresAt().isBefore(now)) {
+                jdbcTemplate.update("DELETE FROM idempotency_keys WHERE idempotency_key = ? AND expires_at < ?",
+                        key, Timestamp.from(now));
+                continue;
+            }
+            if (row.response() != null) {
+                return row.response();
+            }
+            if (row.createdAt().isBefore(now.minus(inFlightTimeout))) {
+                // The node that claimed it died mid-request
+                jdbcTemplate.update("""
+                        DELETE FROM idempotency_keys
+                        WHERE idempotency_key = ? AND status_code IS NULL AND created_at = ?
+                        """, key, Timestamp.from(row.createdAt()));
+                continue;
+            }
+            if (System.nanoTime() > deadline) {
+                throw stillInProgress();
+            }
+            sleep();
+        }
+    }
+
+    private Row find(String key) {
+        List<Row> rows = jdbcTemplate.query("""
+                SELECT fingerprint, status_code, content_type, response_body, created_at, expires_at
+                FROM idempotency_keys
+                WHERE idempotency_key = ?
+                """, (rs, rowNum) -> {
+            int status = rs.getInt("status_code");
+            StoredResponse response = rs.wasNull() ? null : new StoredResponse(status, rs.getString("content_type"),
+                    rs.getString("response_body").getBytes(StandardCharsets.UTF_8));
+            return new Row(rs.getString("fingerprint"), response,
+                    rs.getTimestamp("created_at").toInstant(), rs.getTimestamp("expires_at").toInstant());
+        }, key);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    private StoredResponse await(Entry entry) {
+        try {
+            return entry.response.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw stillInProgress();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw stillInProgress();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    // Waiters see null and try to claim the key themselves
+    private void forget(String key, Entry entry) {
+        lock.lock();
+        try {
+            entries.remove(key, entry);
+        } finally {
+            lock.unlock();
+        }
+        entry.response.complete(null);
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(POLL_INTERVAL_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw stillInProgress();
+        }
+    }
+
+    private static IdempotencyKeyException reused() {
+        return new IdempotencyKeyException(HttpStatus.UNPROCESSABLE_ENTITY,
+                "Idempotency-Key was already used for a different request.");
+    }
+
+    private static IdempotencyKeyException stillInProgress() {
+        return new IdempotencyKeyException(HttpStatus.CONFLICT,
+                "A request with this Idempotency-Key is still in progress, please retry.");
+    }
+
+    /**
+     * A begin's outcome: the stored response to replay, or none when this request owns the key.
+     */
+    public static final class Claim {
+
+        private final String key;
+        private final Entry entry;
+        private final StoredResponse stored;
+
+        private Claim(String key, Entry entry, StoredResponse stored) {
+            this.key = key;
+            this.entry = entry;
+            this.stored = stored;
+        }
+
+        public StoredResponse stored() {
+            return stored;
+        }
+    }
+
+    private static final class Entry {
+
+        private final String fingerprint;
+        private final Instant expiresAt;
+        private final CompletableFuture<StoredResponse> response = new CompletableFuture<>();
+
+        private Entry(String fingerprint, Instant expiresAt) {
+            this.fingerprint = fingerprint;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private record Row(String fingerprint, StoredResponse response, Instant createdAt, Instant expiresAt) {
+    }
+}
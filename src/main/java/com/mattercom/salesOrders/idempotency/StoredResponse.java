@@ -0,0 +1,7 @@
+package com.mattercom.salesOrders.idempotency;
+
+/**
+ * The response recorded for an idempotency key, replayed to every retry.
+ */
+public record StoredResponse(int status, String contentType, byte[] body) {
+}
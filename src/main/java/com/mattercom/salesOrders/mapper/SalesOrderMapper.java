@@ -10,6 +10,7 @@ import com.mattercom.salesOrders.entities.SalesOrder;
 import com.mattercom.salesOrders.entities.ShipmentAddress;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
 import org.springframework.stereotype.Component;
 
 
@@ -17,21 +18,36 @@ import org.springframework.stereotype.Component;
 @Component
 public interface SalesOrderMapper {
 
+    @Mapping(target = "salesItems", source = "dto")
+    @Mapping(target = "recurrentOrderDetails", source = "recurrentOrderDetailsDto")
     SalesOrder toSalesOrder(OrderCreationDto orderCreationDto);
 
     ShipmentAddress toShipmentAddress(ShipmentAddressDto shipmentAddressDto);
 
     RecurrentOrderDetails toRecurrentOrderDetails(RecurrentOrderDetailsDto recurrentOrderDetailsDto);
 
+    // Changed details keep their row, owner and installment bookkeeping
+    @Mapping(target = "recurrentOrderId", ignore = true)
+    @Mapping(target = "salesOrder", ignore = true)
+    @Mapping(target = "completedInstallments", ignore = true)
+    @Mapping(target = "nextDueAt", ignore = true)
+    void updateRecurrentOrderDetails(RecurrentOrderDetailsDto recurrentOrderDetailsDto, @MappingTarget RecurrentOrderDetails details);
+
     SalesItem toSalesItem(ItemCreationDto itemCreationDto );
 
     ShipmentAddressDto toShipmentAddressDto(ShipmentAddress address);
 
     RecurrentOrderDetailsDto toRecurrentOrderDetailsDto(RecurrentOrderDetails details);
 
+    // Status entities point back at their owner and would serialize recursively;
+    // responses carry the activeStatuses maps instead
+    @Mapping(target = "statusList", ignore = true)
+    @Mapping(target = "backOrderedItem", ignore = true)
     ItemCreationDto toItemCreationDto(SalesItem item);
 
     @Mapping(target = "dto", ignore = true)
+    @Mapping(target = "statusList", ignore = true)
+    @Mapping(target = "recurrentOrderDetailsDto", source = "recurrentOrderDetails")
     OrderCreationDto toOrderCreationDto(SalesOrder order);
 
 }
\ No newline at end of file
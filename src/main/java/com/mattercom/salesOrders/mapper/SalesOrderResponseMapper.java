@@ -5,10 +5,23 @@ import com.mattercom.salesOrders.entities.SalesItem;
 import com.mattercom.salesOrders.entities.SalesOrder;
 import com.mattercom.salesOrders.entities.status.SalesItemStatus;
 import com.mattercom.salesOrders.entities.status.SalesOrderStatus;
+import com.mattercom.salesOrders.enums.ItemStatusId;
+import com.mattercom.salesOrders.enums.OrderStatusId;
+import com.mattercom.salesOrders.records.ItemStatusView;
+import com.mattercom.salesOrders.records.ItemView;
+import com.mattercom.salesOrders.records.OrderHeaderView;
+import com.mattercom.salesOrders.records.OrderStatusView;
+import com.mattercom.salesOrders.util.Money;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 /**
@@ -58,6 +71,8 @@ public class SalesOrderResponseMapper {
 
         // 3. Use MapStruct for the nested 'order' snapshot
         dto.setOrder(salesOrderMapper.toOrderCreationDto(order));
+        dto.setTotals(TotalsDto.of(order.getGrossAmount(), order.getDiscountAmount(), order.getNetAmount()));
+        dto.setBackorderedNet(Money.toBigDecimal(order.getBackorderedNetAmount()));
 
         return dto;
     }
@@ -86,10 +101,84 @@ public class SalesOrderResponseMapper {
 
         // 2. Use MapStruct for the nested 'item' snapshot
         dto.setItem(salesOrderMapper.toItemCreationDto(item));
+        dto.setTotals(TotalsDto.of(item.getGrossAmount(), item.getDiscountAmount(), item.getNetAmount()));
 
         return dto;
     }
 
+    /**
+     * Builds the full OrderResponseDto from the read-side projections, without entities.
+     * Produces the same shape as the entity variant: the nested snapshots carry no statusList or backOrderedItem.
+     */
+    public OrderResponseDto toOrderResponseDto(OrderHeaderView header, List<OrderStatusView> activeStatuses,
+                                               List<ItemView> items, List<ItemStatusView> activeItemStatuses) {
+        OrderResponseDto dto = new OrderResponseDto();
+        dto.setOrderId(header.salesOrderId());
+
+        // 1. Build the active Order status map
+        Map<OrderStatusId, Instant> orderStatuses = new HashMap<>();
+        for (OrderStatusView status : activeStatuses) {
+            orderStatuses.putIfAbsent(status.orderStatusId(), status.lastUpdatedAt()); // keep first, as above
+        }
+        dto.setActiveStatuses(orderStatuses);
+
+        // 2. Group the item statuses by item, then build the ItemResponseDtos
+        Map<UUID, Map<ItemStatusId, Instant>> statusesByItem = new HashMap<>();
+        for (ItemStatusView status : activeItemStatuses) {
+            statusesByItem.computeIfAbsent(status.itemId(), id -> new HashMap<>())
+                    .putIfAbsent(status.itemStatusId(), status.lastUpdatedAt());
+        }
+        List<ItemResponseDto> itemDtos = new ArrayList<>(items.size());
+        for (ItemView item : items) {
+            itemDtos.add(toItemResponseDto(item, statusesByItem.getOrDefault(item.itemId(), Collections.emptyMap())));
+        }
+        dto.setItems(itemDtos);
+
+        // 3. The nested 'order' snapshot
+        dto.setOrder(OrderCreationDto.builder()
+                .customerId(header.customerId())
+                .customerName(header.customerName())
+                .deliverySpeed(header.deliverySpeed())
+                .shipmentAddress(header.addressId() == null ? null : ShipmentAddressDto.builder()
+                        .recipientName(header.recipientName())
+                        .companyName(header.companyName())
+                        .phoneNumber(header.phoneNumber())
+                        .streetLine1(header.streetLine1())
+                        .streetLine2(header.streetLine2())
+                        .city(header.city())
+                        .stateOrProvince(header.stateOrProvince())
+                        .postalCode(header.postalCode())
+                        .country(header.country())
+                        .landmark(header.landmark())
+                        .build())
+                .recurrentOrderDetailsDto(header.recurrentOrderId() == null ? null : RecurrentOrderDetailsDto.builder()
+                        .installments(header.installments())
+                        .gapInDays(header.gapInDays())
+                        .requestedOffsetInDays(header.requestedOffsetInDays())
+                        .build())
+                .build());
+        dto.setTotals(TotalsDto.of(header.grossAmount(), header.discountAmount(), header.netAmount()));
+        dto.setBackorderedNet(Money.toBigDecimal(header.backorderedNetAmount()));
+
+        return dto;
+    }
+
+    private ItemResponseDto toItemResponseDto(ItemView item, Map<ItemStatusId, Instant> activeStatuses) {
+        ItemResponseDto dto = new ItemResponseDto();
+        dto.setItemId(item.itemId());
+        dto.setActiveStatuses(activeStatuses);
+        dto.setItem(ItemCreationDto.builder()
+                .vendorId(item.vendorId())
+                .productId(item.productId())
+                .productName(item.productName())
+                .netQty(item.netQty())
+                .baseUnitPrice(item.baseUnitPrice())
+                .discountRate(item.discountRate())
+                .build());
+        dto.setTotals(TotalsDto.of(item.grossAmount(), item.discountAmount(), item.netAmount()));
+        return dto;
+    }
+
     /*
      * Helper methods for reverse mapping are no longer needed.
      * Delegated to SalesOrderMapper (MapStruct).
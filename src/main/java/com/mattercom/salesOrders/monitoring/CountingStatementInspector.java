@@ -0,0 +1,16 @@
+package com.mattercom.salesOrders.monitoring;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts every statement Hibernate prepares. A JDBC batch is prepared once, so it counts once.
+ * The SQL is passed through unchanged.
+ */
+public class CountingStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        SqlStatistics.statementPrepared(sql);
+        return sql;
+    }
+}
@@ -0,0 +1,19 @@
+package com.mattercom.salesOrders.monitoring;
+
+import com.mattercom.salesOrders.enums.SalesTransactions;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Names the transaction a service operation performs, for the sales_orders.service timer.
+ * Not needed when the operation takes the SalesTransactions as an argument.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface MeteredTransaction {
+
+    SalesTransactions value();
+}
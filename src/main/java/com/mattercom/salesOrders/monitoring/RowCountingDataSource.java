@@ -0,0 +1,87 @@
+package com.mattercom.salesOrders.monitoring;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Wraps the pool so every row read through ResultSet.next() is counted in SqlStatistics.
+ * Only connections, statements and result sets are proxied; everything else, including
+ * unwrap() to the pool type, goes straight to the target.
+ */
+public class RowCountingDataSource extends DelegatingDataSource implements Closeable {
+
+    public RowCountingDataSource(DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return proxy(Connection.class, super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return proxy(Connection.class, super.getConnection(username, password));
+    }
+
+    // Lets the context close the pool on shutdown as it would without the wrapper
+    @Override
+    public void close() throws IOException {
+        if (obtainTargetDataSource() instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+
+    private static <T> T proxy(Class<T> type, T target) {
+        if (target == null) {
+            return null;
+        }
+        return type.cast(Proxy.newProxyInstance(
+                RowCountingDataSource.class.getClassLoader(), new Class<?>[]{type}, new Handler(target)));
+    }
+
+    private record Handler(Object target) implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (result instanceof ResultSet resultSet && !(target instanceof ResultSet)) {
+                return proxy(ResultSet.class, resultSet);
+            }
+            if (target instanceof Connection) {
+                // Order matters: CallableStatement extends PreparedStatement extends Statement
+                if (result instanceof CallableStatement statement) {
+                    return proxy(CallableStatement.class, statement);
+                }
+                if (result instanceof PreparedStatement statement) {
+                    return proxy(PreparedStatement.class, statement);
+                }
+                if (result instanceof Statement statement) {
+                    return proxy(Statement.class, statement);
+                }
+            }
+            if (target instanceof ResultSet && "next".equals(method.getName()) && Boolean.TRUE.equals(result)) {
+                SqlStatistics.rowFetched();
+            }
+            return result;
+        }
+    }
+}
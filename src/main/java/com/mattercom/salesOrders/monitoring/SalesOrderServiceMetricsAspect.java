@@ -0,0 +1,82 @@
+package com.mattercom.salesOrders.monitoring;
+
+import com.mattercom.salesOrders.enums.ObjectType;
+import com.mattercom.salesOrders.enums.SalesTransactions;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+
+/**
+ * Times every public SalesOrderServiceImpl operation as sales_orders.service, tagged with
+ * operation, transaction, object_type and outcome.
+ * Runs outside the @Transactional proxy so flush and commit are part of the measurement.
+ * Percentile histograms are switched on in application.properties.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class SalesOrderServiceMetricsAspect {
+
+    public static final String TIMER = "sales_orders.service";
+
+    // Tag value for operations that are not a status transaction (create, read)
+    private static final String NO_TRANSACTION = "NONE";
+
+    private final MeterRegistry meterRegistry;
+
+    @Around("execution(public * com.mattercom.salesOrders.services.SalesOrderServiceImpl.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = AopUtils.getMostSpecificMethod(
+                ((MethodSignature) joinPoint.getSignature()).getMethod(), joinPoint.getTarget().getClass());
+        SalesTransactions transaction = resolveTransaction(method, joinPoint.getArgs());
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "SUCCESS";
+        try {
+            return joinPoint.proceed();
+        } catch (IllegalStateException e) {
+            // Status guard rejections (409)
+            outcome = "REJECTED";
+            throw e;
+        } catch (EntityNotFoundException e) {
+            outcome = "NOT_FOUND";
+            throw e;
+        } catch (IllegalArgumentException e) {
+            outcome = "INVALID";
+            throw e;
+        } catch (Throwable e) {
+            outcome = "ERROR";
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(TIMER)
+                    .description("SalesOrderService operations, including commit")
+                    .tag("operation", method.getName())
+                    .tag("transaction", transaction != null ? transaction.name() : NO_TRANSACTION)
+                    .tag("object_type", transaction != null ? transaction.getObjectType().name() : ObjectType.ORDER.name())
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    private static SalesTransactions resolveTransaction(Method method, Object[] args) {
+        for (Object arg : args) {
+            if (arg instanceof SalesTransactions transaction) {
+                return transaction;
+            }
+        }
+        MeteredTransaction metered = method.getAnnotation(MeteredTransaction.class);
+        return metered != null ? metered.value() : null;
+    }
+}
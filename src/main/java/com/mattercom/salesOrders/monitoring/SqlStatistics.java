@@ -0,0 +1,88 @@
+package com.mattercom.salesOrders.monitoring;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Per-thread SQL counters fed by the Hibernate statement inspector, the entity load listener
+ * and the row counting data source.
+ * Counters only ever grow; callers take a snapshot before the work they measure and
+ * subtract it afterwards, so nested measurements (a test around a MockMvc request) do not
+ * interfere with each other.
+ */
+public final class SqlStatistics {
+
+    // Statement texts kept for failure messages
+    private static final int RECENT_STATEMENT_LIMIT = 100;
+
+    private static final ThreadLocal<Counters> COUNTERS = ThreadLocal.withInitial(Counters::new);
+
+    private SqlStatistics() {}
+
+    /**
+     * Counts for the current thread at one point in time.
+     */
+    public record Snapshot(long statements, long rows, long entities) {
+
+        public Snapshot since(Snapshot earlier) {
+            return new Snapshot(statements - earlier.statements, rows - earlier.rows, entities - earlier.entities);
+        }
+    }
+
+    public static Snapshot snapshot() {
+        Counters counters = COUNTERS.get();
+        return new Snapshot(counters.statements, counters.rows, counters.entities);
+    }
+
+    /**
+     * The most recent statements prepared on this thread, oldest first.
+     */
+    public static List<String> recentStatements() {
+        return Collections.unmodifiableList(new ArrayList<>(COUNTERS.get().recent));
+    }
+
+    public static void clearRecentStatements() {
+        COUNTERS.get().recent.clear();
+    }
+
+    /**
+     * Adds work another thread did on behalf of this one (an order command lane), so request
+     * metrics and query-count guards see it as if it had run here.
+     */
+    public static void merge(Snapshot used, List<String> statements) {
+        Counters counters = COUNTERS.get();
+        counters.statements += used.statements();
+        counters.rows += used.rows();
+        counters.entities += used.entities();
+        statements.forEach(counters::remember);
+    }
+
+    static void statementPrepared(String sql) {
+        Counters counters = COUNTERS.get();
+        counters.statements++;
+        counters.remember(sql);
+    }
+
+    static void rowFetched() {
+        COUNTERS.get().rows++;
+    }
+
+    static void entityLoaded() {
+        COUNTERS.get().entities++;
+    }
+
+    private static final class Counters {
+        private long statements;
+        private long rows;
+        private long entities;
+        private final List<String> recent = new ArrayList<>();
+
+        private void remember(String sql) {
+            if (recent.size() == RECENT_STATEMENT_LIMIT) {
+                recent.remove(0);
+            }
+            recent.add(sql);
+        }
+    }
+}
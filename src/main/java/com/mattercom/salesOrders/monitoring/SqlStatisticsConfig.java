@@ -0,0 +1,58 @@
+package com.mattercom.salesOrders.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Wires per-request SQL statistics: statement inspector, entity load listener,
+ * row counting data source and the HTTP filter that publishes the counts.
+ * Switched off with sales-orders.sql-statistics.enabled=false.
+ */
+@Configuration
+@ConditionalOnProperty(name = "sales-orders.sql-statistics.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlStatisticsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatisticsHibernateCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, new CountingStatementInspector());
+            properties.put("hibernate.integrator_provider",
+                    (IntegratorProvider) () -> List.of(new EntityLoadCountingIntegrator()));
+        };
+    }
+
+    // Static so the post-processor is registered before the data source bean is created
+    @Bean
+    public static BeanPostProcessor rowCountingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof RowCountingDataSource)) {
+                    return new RowCountingDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<SqlStatisticsFilter> sqlStatisticsFilter(
+            MeterRegistry meterRegistry,
+            @Value("${sales-orders.sql-statistics.response-header:false}") boolean responseHeader) {
+        FilterRegistrationBean<SqlStatisticsFilter> registration =
+                new FilterRegistrationBean<>(new SqlStatisticsFilter(meterRegistry, responseHeader));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+}
@@ -0,0 +1,95 @@
+package com.mattercom.salesOrders.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Records the SQL work done by each HTTP request.
+ * Statements, rows and entities are published as distribution summaries tagged like
+ * http.server.requests (method, uri, status). With the debug header enabled the counts are
+ * also returned in X-Sql-Statistics; the body is then buffered so the header can still be
+ * set after the controller has written it.
+ * Streaming endpoints (the export, event streams) are never buffered: they are listed in
+ * STREAMING_PATHS, still get their metrics recorded, but do not carry the header.
+ */
+public class SqlStatisticsFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Sql-Statistics";
+
+    // Responses that are written incrementally and may be far larger than what fits in memory
+    static final List<String> STREAMING_PATHS = List.of(
+            "/api/v1/internal/sales-orders/export",
+            "/api/v1/my-orders/events",
+            "/api/v1/my-orders/*/events");
+
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private final MeterRegistry meterRegistry;
+    private final boolean responseHeader;
+
+    public SqlStatisticsFilter(MeterRegistry meterRegistry, boolean responseHeader) {
+        this.meterRegistry = meterRegistry;
+        this.responseHeader = responseHeader;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlStatistics.Snapshot before = SqlStatistics.snapshot();
+        if (!responseHeader || isStreaming(request.getRequestURI())) {
+            try {
+                filterChain.doFilter(request, response);
+            } finally {
+                record(request, response, SqlStatistics.snapshot().since(before));
+            }
+            return;
+        }
+
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        try {
+            filterChain.doFilter(request, wrapper);
+        } finally {
+            SqlStatistics.Snapshot used = SqlStatistics.snapshot().since(before);
+            record(request, wrapper, used);
+            wrapper.setHeader(HEADER, "statements=" + used.statements()
+                    + ", rows=" + used.rows()
+                    + ", entities=" + used.entities());
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    static boolean isStreaming(String path) {
+        return STREAMING_PATHS.stream().anyMatch(pattern -> PATH_MATCHER.match(pattern, path));
+    }
+
+    private void record(HttpServletRequest request, HttpServletResponse response, SqlStatistics.Snapshot used) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Tags tags = Tags.of(
+                "method", request.getMethod(),
+                // Unmatched requests (404s, static resources) share one tag so cardinality stays bounded
+                "uri", pattern != null ? pattern.toString() : "UNKNOWN",
+                "status", Integer.toString(response.getStatus()));
+        summary("sales_orders.http.sql.statements", "SQL statements prepared per request", tags).record(used.statements());
+        summary("sales_orders.http.sql.rows", "JDBC rows read per request", tags).record(used.rows());
+        summary("sales_orders.http.sql.entities", "Entities loaded per request", tags).record(used.entities());
+    }
+
+    private DistributionSummary summary(String name, String description, Tags tags) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .tags(tags)
+                .register(meterRegistry);
+    }
+}
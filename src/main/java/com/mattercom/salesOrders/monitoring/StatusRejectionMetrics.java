@@ -0,0 +1,35 @@
+package com.mattercom.salesOrders.monitoring;
+
+import com.mattercom.salesOrders.enums.ItemStatusId;
+import com.mattercom.salesOrders.enums.ObjectType;
+import com.mattercom.salesOrders.enums.OrderStatusId;
+import com.mattercom.salesOrders.enums.SalesTransactions;
+import io.micrometer.core.instrument.Metrics;
+
+/**
+ * Counts status guard rejections by the status that forbade them.
+ * The guards are static, so this goes through the global registry, which Spring Boot
+ * links to the application registry (management.metrics.use-global-registry, on by default).
+ */
+public final class StatusRejectionMetrics {
+
+    public static final String REJECTIONS = "sales_orders.status.rejections";
+
+    private StatusRejectionMetrics() {}
+
+    public static void headerRejected(SalesTransactions transaction, OrderStatusId forbiddenBy) {
+        increment(transaction, ObjectType.ORDER, forbiddenBy.name());
+    }
+
+    public static void itemRejected(SalesTransactions transaction, ItemStatusId forbiddenBy) {
+        increment(transaction, ObjectType.ITEM, forbiddenBy.name());
+    }
+
+    private static void increment(SalesTransactions transaction, ObjectType guard, String status) {
+        Metrics.counter(REJECTIONS,
+                "transaction", transaction.name(),
+                // ORDER for header guards, ITEM for item guards
+                "object_type", guard.name(),
+                "status", status).increment();
+    }
+}
@@ -0,0 +1,122 @@
+package com.mattercom.salesOrders.outbox;
+
+import com.mattercom.salesOrders.dto.StatusChangeDto;
+import com.mattercom.salesOrders.dto.StatusChangePageDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Reads the change feed from a cursor. When nothing is newer than the cursor the read waits,
+ * up to the requested time, for the relay to publish something, so consumers can keep one
+ * request open instead of polling orders.
+ */
+@Component
+public class StatusChangeFeed {
+
+    private static final String SELECT = """
+            SELECT c.feed_position, c.order_id, c.item_id, c.status, c.active, c.occurred_at
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StatusChangeRelay relay;
+    private final int maxPageSize;
+    private final Duration maxWait;
+    private final Duration relayInterval;
+
+    public StatusChangeFeed(JdbcTemplate jdbcTemplate,
+                            StatusChangeRelay relay,
+                            @Value("${sales-orders.outbox.max-page-size:5000}") int maxPageSize,
+                            @Value("${sales-orders.outbox.max-wait-ms:30000}") long maxWaitMs,
+                            @Value("${sales-orders.outbox.relay-interval-ms:200}") long relayIntervalMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.relay = relay;
+        this.maxPageSize = maxPageSize;
+        this.maxWait = Duration.ofMillis(maxWaitMs);
+        this.relayInterval = Duration.ofMillis(relayIntervalMs);
+    }
+
+    public StatusChangePageDto read(long after, int limit, Duration wait) {
+        if (after < 0) {
+            throw new IllegalArgumentException("after must not be negative");
+        }
+        if (limit < 1 || limit > maxPageSize) {
+            throw new IllegalArgumentException("limit must be between 1 and " + maxPageSize);
+        }
+        if (wait.isNegative() || wait.compareTo(maxWait) > 0) {
+            throw new IllegalArgumentException("waitMs must be between 0 and " + maxWait.toMillis());
+        }
+
+        long deadline = System.nanoTime() + wait.toNanos();
+        List<StatusChangeDto> changes = fetch(after, limit);
+        while (changes.isEmpty()) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                break;
+            }
+            // Woken by this node's relay; otherwise look again after a relay interval
+            try {
+                relay.awaitPublished(Duration.ofNanos(Math.min(remaining, relayInterval.toNanos())));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            changes = fetch(after, limit);
+        }
+        long nextCursor = changes.isEmpty() ? after : changes.get(changes.size() - 1).getPosition();
+        return new StatusChangePageDto(changes, nextCursor);
+    }
+
+    // Position of the newest published change
+    public long head() {
+        return jdbcTemplate.queryForObject("SELECT last_position FROM status_change_relay WHERE relay_id = 1", Long.class);
+    }
+
+    // Changes of one order after the cursor, without waiting
+    public List<StatusChangeDto> readOrder(UUID orderId, long after, int limit) {
+        return jdbcTemplate.query(SELECT + """
+                FROM status_change_outbox c
+                WHERE c.order_id = ? AND c.feed_position > ?
+                ORDER BY c.feed_position
+                FETCH FIRST ? ROWS ONLY
+                """, StatusChangeFeed::toDto, orderId, after, limit);
+    }
+
+    // Changes of all of a customer's orders after the cursor, without waiting
+    public List<StatusChangeDto> readCustomer(UUID customerId, long after, int limit) {
+        return jdbcTemplate.query(SELECT + """
+                FROM sales_orders o
+                JOIN status_change_outbox c ON c.order_id = o.order_id
+                WHERE o.customer_id = ? AND c.feed_position > ?
+                ORDER BY c.feed_position
+                FETCH FIRST ? ROWS ONLY
+                """, StatusChangeFeed::toDto, customerId, after, limit);
+    }
+
+    private List<StatusChangeDto> fetch(long after, int limit) {
+        return jdbcTemplate.query(SELECT + """
+                FROM status_change_outbox c
+                WHERE c.feed_position > ?
+                ORDER BY c.feed_position
+                FETCH FIRST ? ROWS ONLY
+                """, StatusChangeFeed::toDto, after, limit);
+    }
+
+    private static StatusChangeDto toDto(ResultSet rs, int rowNum) throws SQLException {
+        return StatusChangeDto.builder()
+                .position(rs.getLong("feed_position"))
+                .orderId(rs.getObject("order_id", UUID.class))
+                .itemId(rs.getObject("item_id", UUID.class))
+                .status(rs.getString("status"))
+                .active(rs.getBoolean("active"))
+                .occurredAt(rs.getObject("occurred_at", OffsetDateTime.class).toInstant())
+                .build();
+    }
+}
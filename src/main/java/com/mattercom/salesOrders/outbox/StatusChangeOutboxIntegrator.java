@@ -0,0 +1,151 @@
+package com.mattercom.salesOrders.outbox;
+
+import com.mattercom.salesOrders.entities.status.SalesItemStatus;
+import com.mattercom.salesOrders.entities.status.SalesOrderStatus;
+import com.mattercom.salesOrders.util.BeforeCommitBatches;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Writes every order and item status change to status_change_outbox in the transaction that
+ * makes it. A status row inserted active, or whose active flag flips, is one event. Whatever
+ * the path (StatusManagementUtil, order creation, bulk jobs), the change reaches the database
+ * as such a row, so nothing is missed. Events of a transaction are collected while it flushes
+ * and inserted as one JDBC batch just before commit; a failed insert rolls the change back.
+ * Registered through META-INF/services, so it is active whatever else configures Hibernate.
+ */
+public class StatusChangeOutboxIntegrator implements Integrator {
+
+    static final String INSERT = """
+            INSERT INTO status_change_outbox (order_id, item_id, status, active, occurred_at)
+            VALUES (?, ?, ?, ?, ?)
+            """;
+
+    // Events waiting for the commit of their session's transaction
+    private static final BeforeCommitBatches<Pending> PENDING = new BeforeCommitBatches<>("status changes to the outbox", Pending::new);
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+        Listener listener = new Listener();
+        EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, listener);
+        registry.appendListeners(EventType.POST_UPDATE, listener);
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+        // Nothing to release
+    }
+
+    private static void record(EventSource session, Event event) {
+        PENDING.of(session).events.add(event);
+    }
+
+    private static Event toEvent(Object entity, boolean active) {
+        if (entity instanceof SalesOrderStatus status) {
+            return new Event(status.getSalesOrder().getSalesOrderId(), null,
+                    status.getOrderStatusId().name(), active, timestamp(status.getLastUpdatedAt()));
+        }
+        if (entity instanceof SalesItemStatus status) {
+            return new Event(status.getSalesItem().getSalesOrder().getSalesOrderId(), status.getSalesItem().getItemId(),
+                    status.getItemStatusId().name(), active, timestamp(status.getLastUpdatedAt()));
+        }
+        return null;
+    }
+
+    private static Instant timestamp(Instant lastUpdatedAt) {
+        return lastUpdatedAt != null ? lastUpdatedAt : Instant.now();
+    }
+
+    private static final class Listener implements PostInsertEventListener, PostUpdateEventListener {
+
+        @Override
+        public void onPostInsert(PostInsertEvent event) {
+            Object entity = event.getEntity();
+            if (isStatus(entity) && Boolean.TRUE.equals(event.getState()[event.getPersister().getPropertyIndex("active")])) {
+                record(event.getSession(), toEvent(entity, true));
+            }
+        }
+
+        @Override
+        public void onPostUpdate(PostUpdateEvent event) {
+            Object entity = event.getEntity();
+            if (!isStatus(entity)) {
+                return;
+            }
+            int active = event.getPersister().getPropertyIndex("active");
+            Object[] oldState = event.getOldState();
+            Object now = event.getState()[active];
+            // Without a snapshot (a merged detached row) trust the dirty check
+            boolean flipped = oldState != null
+                    ? !now.equals(oldState[active])
+                    : event.getDirtyProperties() != null && contains(event.getDirtyProperties(), active);
+            if (flipped) {
+                record(event.getSession(), toEvent(entity, (Boolean) now));
+            }
+        }
+
+        @Override
+        public boolean requiresPostCommitHandling(EntityPersister persister) {
+            return false;
+        }
+
+        private static boolean isStatus(Object entity) {
+            return entity instanceof SalesOrderStatus || entity instanceof SalesItemStatus;
+        }
+
+        private static boolean contains(int[] properties, int property) {
+            for (int candidate : properties) {
+                if (candidate == property) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class Pending implements BeforeCommitBatches.Batch {
+
+        private final List<Event> events = new ArrayList<>();
+
+        @Override
+        public void write(BeforeCommitBatches.Statements statements) throws SQLException {
+            if (events.isEmpty()) {
+                return;
+            }
+            statements.run(INSERT, statement -> {
+                for (Event event : events) {
+                    statement.setObject(1, event.orderId());
+                    statement.setObject(2, event.itemId());
+                    statement.setString(3, event.status());
+                    statement.setBoolean(4, event.active());
+                    statement.setObject(5, OffsetDateTime.ofInstant(event.occurredAt(), ZoneOffset.UTC));
+                    statement.addBatch();
+                }
+                return statement.executeBatch();
+            });
+        }
+    }
+
+    private record Event(UUID orderId, UUID itemId, String status, boolean active, Instant occurredAt) {
+    }
+}
@@ -0,0 +1,121 @@
+package com.mattercom.salesOrders.outbox;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Publishes committed outbox events to the change feed by stamping them with consecutive
+ * feed positions, oldest event first, a batch per transaction.
+ * Event ids are handed out at insert time, so a later id can commit first; reading the outbox
+ * by event id would then skip the earlier one for good. Positions are only handed out to
+ * committed rows, under the status_change_relay row lock, so one relay runs at a time across
+ * nodes and a reader that has seen position n has seen everything before it.
+ */
+@Component
+public class StatusChangeRelay {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration retention;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition published = lock.newCondition();
+
+    public StatusChangeRelay(JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${sales-orders.outbox.relay-batch-size:1000}") int batchSize,
+                             @Value("${sales-orders.outbox.retention-days:7}") long retentionDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.retention = Duration.ofDays(retentionDays);
+    }
+
+    @Scheduled(fixedDelayString = "${sales-orders.outbox.relay-interval-ms:200}")
+    public void relay() {
+        int count;
+        do {
+            count = transactionTemplate.execute(status -> publishBatch());
+            if (count > 0) {
+                signalPublished();
+            }
+        } while (count == batchSize);
+    }
+
+    /**
+     * Waits until this node publishes something or the timeout passes.
+     * Another node's relay does not wake the caller, so callers wait at most a relay interval.
+     */
+    public void awaitPublished(Duration timeout) throws InterruptedException {
+        lock.lock();
+        try {
+            published.await(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Published events older than the retention are gone; a consumer that far behind starts over
+    @Scheduled(fixedDelayString = "${sales-orders.outbox.purge-interval-ms:3600000}",
+            initialDelayString = "${sales-orders.outbox.purge-interval-ms:3600000}")
+    public void purgePublished() {
+        jdbcTemplate.update("DELETE FROM status_change_outbox WHERE feed_position IS NOT NULL AND occurred_at < ?",
+                Timestamp.from(Instant.now().minus(retention)));
+    }
+
+    private int publishBatch() {
+        Long lastPosition = jdbcTemplate.queryForObject(
+                "SELECT last_position FROM status_change_relay WHERE relay_id = 1 FOR UPDATE", Long.class);
+        List<Long> eventIds = jdbcTemplate.queryForList("""
+                SELECT event_id FROM status_change_outbox
+                WHERE feed_position IS NULL
+                ORDER BY event_id
+                FETCH FIRST ? ROWS ONLY
+                """, Long.class, batchSize);
+        if (eventIds.isEmpty()) {
+            return 0;
+        }
+        long first = lastPosition + 1;
+        jdbcTemplate.batchUpdate("UPDATE status_change_outbox SET feed_position = ? WHERE event_id = ?",
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement statement, int i) throws SQLException {
+                        statement.setLong(1, first + i);
+                        statement.setLong(2, eventIds.get(i));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return eventIds.size();
+                    }
+                });
+        jdbcTemplate.update("UPDATE status_change_relay SET last_position = ? WHERE relay_id = 1",
+                lastPosition + eventIds.size());
+        return eventIds.size();
+    }
+
+    private void signalPublished() {
+        lock.lock();
+        try {
+            published.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
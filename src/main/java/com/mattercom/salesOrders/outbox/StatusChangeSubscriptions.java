@@ -0,0 +1,454 @@
+package com.mattercom.salesOrders.outbox;
+
+import com.mattercom.salesOrders.dto.StatusChangeDto;
+import com.mattercom.salesOrders.dto.StatusChangePageDto;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Pushes committed status changes to Server-Sent Events subscribers of an order or a customer.
+ * One dispatcher thread follows the change feed and hands each change to the subscriptions of
+ * its order and its order's customer. An idle subscription is only an async request and an
+ * entry here, no thread; sends run on a small pool, one drain at a time per subscription so
+ * its events stay in feed order. Every event carries its feed position as the SSE id, so a
+ * client that reconnects with Last-Event-ID is replayed what it missed from the outbox.
+ */
+@Slf4j
+@Component
+public class StatusChangeSubscriptions {
+
+    public static final String SUBSCRIBERS = "sales_orders.push.subscribers";
+    public static final String STATUS_EVENT = "status";
+    // Sent instead of a replay that would be too long; the client reloads the order(s)
+    public static final String RESYNC_EVENT = "resync";
+
+    private static final Object HEARTBEAT = new Object();
+    private static final Duration FEED_WAIT = Duration.ofSeconds(10);
+    private static final long ERROR_BACKOFF_MS = 1000;
+
+    private final StatusChangeFeed feed;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${sales-orders.push.max-subscriptions:100000}")
+    private int maxSubscriptions;
+
+    // Async request timeout; the client reconnects with Last-Event-ID
+    @Value("${sales-orders.push.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${sales-orders.push.sender-threads:4}")
+    private int senderThreads;
+
+    // Events waiting for a slow client before it is disconnected (and resumes from its Last-Event-ID)
+    @Value("${sales-orders.push.max-queued-events:1000}")
+    private int maxQueuedEvents;
+
+    // Longest replay on resume; beyond it the client gets a resync event
+    @Value("${sales-orders.push.max-replay:1000}")
+    private int maxReplay;
+
+    @Value("${sales-orders.push.dispatch-batch-size:1000}")
+    private int dispatchBatchSize;
+
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final Map<UUID, Set<Subscription>> byOrder = new ConcurrentHashMap<>();
+    private final Map<UUID, Set<Subscription>> byCustomer = new ConcurrentHashMap<>();
+    private final AtomicInteger customerSubscriptions = new AtomicInteger();
+
+    // An order's customer never changes, so the lookup is cached
+    private final ReentrantLock customerLock = new ReentrantLock();
+    private final LinkedHashMap<UUID, UUID> customerOfOrder = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, UUID> eldest) {
+            return size() > maxSubscriptions;
+        }
+    };
+
+    private ThreadPoolExecutor senders;
+    private Thread dispatcher;
+    private volatile boolean running;
+
+    public StatusChangeSubscriptions(StatusChangeFeed feed, NamedParameterJdbcTemplate jdbcTemplate,
+                                     MeterRegistry meterRegistry) {
+        this.feed = feed;
+        this.jdbcTemplate = jdbcTemplate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void start() {
+        // At most one drain per subscription is queued, so the queue is bounded by the subscriptions
+        senders = new ThreadPoolExecutor(senderThreads, senderThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(maxSubscriptions), runnable -> {
+                    Thread thread = new Thread(runnable, "status-push-sender");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        Gauge.builder(SUBSCRIBERS, subscriptions, Set::size)
+                .description("Open status change streams")
+                .register(meterRegistry);
+        running = true;
+        dispatcher = new Thread(this::dispatch, "status-push-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        dispatcher.interrupt();
+        dispatcher.join(TimeUnit.SECONDS.toMillis(10));
+        subscriptions.forEach(subscription -> subscription.emitter.complete());
+        senders.shutdown();
+    }
+
+    public SseEmitter subscribeToOrder(UUID orderId, Long lastEventId) {
+        UUID customerId = customerOf(Set.of(orderId)).get(orderId);
+        if (customerId == null) {
+            throw new EntityNotFoundException("Sales order not found: " + orderId);
+        }
+        Subscription subscription = register(new Subscription(orderId, null), byOrder, orderId);
+        return start(subscription, lastEventId, () -> feed.readOrder(orderId, lastEventId, maxReplay + 1));
+    }
+
+    public SseEmitter subscribeToCustomer(UUID customerId, Long lastEventId) {
+        Subscription subscription = register(new Subscription(null, customerId), byCustomer, customerId);
+        return start(subscription, lastEventId, () -> feed.readCustomer(customerId, lastEventId, maxReplay + 1));
+    }
+
+    // Registered before the replay is read, so every change is either replayed or delivered live
+    private SseEmitter start(Subscription subscription, Long lastEventId, Supplier<List<StatusChangeDto>> replay) {
+        try {
+            List<StatusChangeDto> replayed = lastEventId == null ? List.of() : replay.get();
+            if (replayed.size() > maxReplay) {
+                subscription.start(new Resync(feed.head()));
+            } else {
+                subscription.start(lastEventId, replayed);
+            }
+        } catch (RuntimeException e) {
+            unregister(subscription);
+            throw e;
+        }
+        return subscription.emitter;
+    }
+
+    // Keeps idle connections from being dropped by proxies, and finds clients that have gone away
+    @Scheduled(fixedRateString = "${sales-orders.push.heartbeat-ms:15000}")
+    public void heartbeat() {
+        subscriptions.forEach(Subscription::heartbeat);
+    }
+
+    private Subscription register(Subscription subscription, Map<UUID, Set<Subscription>> index, UUID key) {
+        if (subscriptions.size() >= maxSubscriptions) {
+            throw new RejectedExecutionException("Too many status subscriptions");
+        }
+        subscriptions.add(subscription);
+        if (subscription.customerId != null) {
+            customerSubscriptions.incrementAndGet();
+        }
+        // Added inside compute, so a concurrent unregister cannot drop the set it lands in
+        index.compute(key, (k, set) -> {
+            Set<Subscription> subscribers = set != null ? set : ConcurrentHashMap.newKeySet();
+            subscribers.add(subscription);
+            return subscribers;
+        });
+        subscription.emitter.onCompletion(() -> unregister(subscription));
+        subscription.emitter.onTimeout(subscription.emitter::complete);
+        subscription.emitter.onError(e -> unregister(subscription));
+        return subscription;
+    }
+
+    private void unregister(Subscription subscription) {
+        if (!subscriptions.remove(subscription)) {
+            return;
+        }
+        subscription.close();
+        if (subscription.orderId != null) {
+            byOrder.computeIfPresent(subscription.orderId, (k, set) -> set.remove(subscription) && set.isEmpty() ? null : set);
+        } else {
+            customerSubscriptions.decrementAndGet();
+            byCustomer.computeIfPresent(subscription.customerId, (k, set) -> set.remove(subscription) && set.isEmpty() ? null : set);
+        }
+    }
+
+    private void dispatch() {
+        long cursor = -1;
+        while (running) {
+            try {
+                if (cursor < 0) {
+                    // Live streams start at the present; the past is replayed per subscription
+                    cursor = feed.head();
+                }
+                StatusChangePageDto page = feed.read(cursor, dispatchBatchSize, FEED_WAIT);
+                deliver(page.getChanges());
+                cursor = page.getNextCursor();
+            } catch (RuntimeException e) {
+                log.warn("Status change dispatch failed, retrying", e);
+                try {
+                    Thread.sleep(ERROR_BACKOFF_MS);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    private void deliver(List<StatusChangeDto> changes) {
+        if (changes.isEmpty() || subscriptions.isEmpty()) {
+            return;
+        }
+        Map<UUID, UUID> customers = Map.of();
+        if (customerSubscriptions.get() > 0) {
+            Set<UUID> orderIds = new HashSet<>();
+            changes.forEach(change -> orderIds.add(change.getOrderId()));
+            customers = customerOf(orderIds);
+        }
+        for (StatusChangeDto change : changes) {
+            offer(byOrder.get(change.getOrderId()), change);
+            UUID customerId = customers.get(change.getOrderId());
+            if (customerId != null) {
+                offer(byCustomer.get(customerId), change);
+            }
+        }
+    }
+
+    private static void offer(Set<Subscription> subscribers, StatusChangeDto change) {
+        if (subscribers != null) {
+            subscribers.forEach(subscription -> subscription.offer(change));
+        }
+    }
+
+    private Map<UUID, UUID> customerOf(Set<UUID> orderIds) {
+        Map<UUID, UUID> customers = new HashMap<>();
+        List<UUID> missing = new ArrayList<>();
+        customerLock.lock();
+        try {
+            for (UUID orderId : orderIds) {
+                UUID customerId = customerOfOrder.get(orderId);
+                if (customerId != null) {
+                    customers.put(orderId, customerId);
+                } else {
+                    missing.add(orderId);
+                }
+            }
+        } finally {
+            customerLock.unlock();
+        }
+        if (missing.isEmpty()) {
+            return customers;
+        }
+        Map<UUID, UUID> found = new HashMap<>();
+        jdbcTemplate.query("SELECT order_id, customer_id FROM sales_orders WHERE order_id IN (:orderIds)",
+                Map.of("orderIds", missing),
+                rs -> {
+                    found.put(rs.getObject("order_id", UUID.class), rs.getObject("customer_id", UUID.class));
+                });
+        customerLock.lock();
+        try {
+            customerOfOrder.putAll(found);
+        } finally {
+            customerLock.unlock();
+        }
+        customers.putAll(found);
+        return customers;
+    }
+
+    private final class Subscription {
+
+        private final UUID orderId;
+        private final UUID customerId;
+        private final SseEmitter emitter = new SseEmitter(timeoutMs);
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final ArrayDeque<Object> queue = new ArrayDeque<>();
+        // Live changes that arrive while the replay is read
+        private List<StatusChangeDto> held = new ArrayList<>();
+        private long lastQueued;
+        private boolean draining;
+        private boolean closed;
+
+        private Subscription(UUID orderId, UUID customerId) {
+            this.orderId = orderId;
+            this.customerId = customerId;
+        }
+
+        private void start(Long lastEventId, List<StatusChangeDto> replayed) {
+            lock.lock();
+            try {
+                lastQueued = lastEventId != null ? lastEventId : 0;
+                replayed.forEach(this::enqueue);
+                release();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void start(Resync resync) {
+            lock.lock();
+            try {
+                queue.add(resync);
+                lastQueued = resync.position();
+                release();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // Caller holds the lock; queues the changes held back during the replay and goes live
+        private void release() {
+            List<StatusChangeDto> live = held;
+            held = null;
+            live.forEach(this::enqueue);
+            schedule();
+        }
+
+        private void offer(StatusChangeDto change) {
+            lock.lock();
+            try {
+                if (held != null) {
+                    held.add(change);
+                } else {
+                    enqueue(change);
+                    schedule();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void heartbeat() {
+            lock.lock();
+            try {
+                if (held == null && queue.isEmpty() && !draining) {
+                    queue.add(HEARTBEAT);
+                    schedule();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void close() {
+            lock.lock();
+            try {
+                closed = true;
+                queue.clear();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // Caller holds the lock
+        private void enqueue(StatusChangeDto change) {
+            if (closed || change.getPosition() <= lastQueued) {
+                return;
+            }
+            if (queue.size() >= maxQueuedEvents) {
+                // Too slow to keep up; it resumes from the last event it received
+                closed = true;
+                queue.clear();
+                emitter.complete();
+                return;
+            }
+            queue.add(change);
+            lastQueued = change.getPosition();
+        }
+
+        // Caller holds the lock
+        private void schedule() {
+            if (draining || closed || queue.isEmpty()) {
+                return;
+            }
+            draining = true;
+            try {
+                senders.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                draining = false;
+                closed = true;
+                emitter.complete();
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                Object next;
+                lock.lock();
+                try {
+                    next = closed ? null : queue.poll();
+                    if (next == null) {
+                        draining = false;
+                        return;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+                try {
+                    emitter.send(toEvent(next));
+                } catch (IOException | IllegalStateException e) {
+                    // Gone away; the error callback unregisters it
+                    emitter.completeWithError(e);
+                    lock.lock();
+                    try {
+                        draining = false;
+                        closed = true;
+                    } finally {
+                        lock.unlock();
+                    }
+                    return;
+                }
+            }
+        }
+
+        private SseEmitter.SseEventBuilder toEvent(Object next) {
+            if (next == HEARTBEAT) {
+                return SseEmitter.event().comment("heartbeat");
+            }
+            if (next instanceof Resync resync) {
+                return SseEmitter.event()
+                        .id(String.valueOf(resync.position()))
+                        .name(RESYNC_EVENT)
+                        .data("{}", MediaType.APPLICATION_JSON);
+            }
+            StatusChangeDto change = (StatusChangeDto) next;
+            return SseEmitter.event()
+                    .id(String.valueOf(change.getPosition()))
+                    .name(STATUS_EVENT)
+                    .data(change, MediaType.APPLICATION_JSON);
+        }
+    }
+
+    // Carries the feed head, so a client that reconnects after it does not resync again
+    private record Resync(long position) {
+    }
+}
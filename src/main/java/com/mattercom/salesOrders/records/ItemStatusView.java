@@ -0,0 +1,12 @@
+package com.mattercom.salesOrders.records;
+
+import com.mattercom.salesOrders.enums.ItemStatusId;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * An active item status, keyed by its item so a whole order's statuses come back in one query.
+ */
+public record ItemStatusView(UUID itemId, ItemStatusId itemStatusId, Instant lastUpdatedAt) {
+}
@@ -0,0 +1,21 @@
+package com.mattercom.salesOrders.records;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Item columns for the read path; salesOrderId lets items of many orders be read together.
+ */
+public record ItemView(
+        UUID itemId,
+        UUID salesOrderId,
+        UUID vendorId,
+        UUID productId,
+        String productName,
+        Integer netQty,
+        BigDecimal baseUnitPrice,
+        BigDecimal discountRate,
+        long grossAmount,
+        long discountAmount,
+        long netAmount) {
+}
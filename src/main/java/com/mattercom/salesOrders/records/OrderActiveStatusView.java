@@ -0,0 +1,12 @@
+package com.mattercom.salesOrders.records;
+
+import com.mattercom.salesOrders.enums.OrderStatusId;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * An active header status keyed by its order, so the statuses of many orders come back in one query.
+ */
+public record OrderActiveStatusView(UUID salesOrderId, OrderStatusId orderStatusId, Instant lastUpdatedAt) {
+}
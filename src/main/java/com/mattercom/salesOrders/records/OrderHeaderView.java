@@ -0,0 +1,36 @@
+package com.mattercom.salesOrders.records;
+
+import com.mattercom.salesOrders.enums.DeliverySpeed;
+
+import java.util.UUID;
+
+/**
+ * Order header columns for the read path, with the shipment address and recurrence
+ * flattened in from their left joins. addressId / recurrentOrderId are null when the row is absent.
+ * Amounts are in minor units (Money).
+ */
+public record OrderHeaderView(
+        UUID salesOrderId,
+        UUID customerId,
+        String customerName,
+        DeliverySpeed deliverySpeed,
+        Long addressId,
+        String recipientName,
+        String companyName,
+        String phoneNumber,
+        String streetLine1,
+        String streetLine2,
+        String city,
+        String stateOrProvince,
+        String postalCode,
+        String country,
+        String landmark,
+        Long recurrentOrderId,
+        Integer installments,
+        Integer gapInDays,
+        Integer requestedOffsetInDays,
+        long grossAmount,
+        long discountAmount,
+        long netAmount,
+        long backorderedNetAmount) {
+}
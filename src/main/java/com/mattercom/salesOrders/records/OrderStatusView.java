@@ -0,0 +1,11 @@
+package com.mattercom.salesOrders.records;
+
+import com.mattercom.salesOrders.enums.OrderStatusId;
+
+import java.time.Instant;
+
+/**
+ * An active header status and when it was last updated.
+ */
+public record OrderStatusView(OrderStatusId orderStatusId, Instant lastUpdatedAt) {
+}
@@ -0,0 +1,17 @@
+package com.mattercom.salesOrders.records;
+
+import com.mattercom.salesOrders.enums.DeliverySpeed;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One row of a customer's order listing; createdAt and salesOrderId double as the keyset.
+ */
+public record OrderSummaryView(
+        UUID salesOrderId,
+        Instant createdAt,
+        DeliverySpeed deliverySpeed,
+        Boolean recurrent,
+        Boolean inTransit) {
+}
@@ -0,0 +1,28 @@
+package com.mattercom.salesOrders.records;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Seek position in a vendor's item listing: the itemId of the last item returned.
+ * START sorts before every item id, so the first page seeks the same way as the others.
+ * Travels as an opaque URL-safe token so clients cannot build offsets out of it.
+ */
+public record VendorItemCursor(UUID itemId) {
+
+    public static final VendorItemCursor START = new VendorItemCursor(new UUID(0L, 0L));
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(itemId.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static VendorItemCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            return new VendorItemCursor(UUID.fromString(raw));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.mattercom.salesOrders.records;
+
+import java.util.UUID;
+
+/**
+ * One row of a vendor's item listing; itemId doubles as the keyset.
+ */
+public record VendorItemView(
+        UUID itemId,
+        UUID salesOrderId,
+        UUID productId,
+        Integer netQty) {
+}
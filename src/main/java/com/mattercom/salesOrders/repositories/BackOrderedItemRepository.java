@@ -0,0 +1,41 @@
+package com.mattercom.salesOrders.repositories;
+
+import com.mattercom.salesOrders.entities.BackOrderedItem;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface BackOrderedItemRepository extends JpaRepository<BackOrderedItem, Long>
+{
+    /**
+     * Locks up to limit open backorders of a product after the (backorderedAt, backOrderId) cursor,
+     * oldest first, read off ix_back_ordered_item_fifo. Only items whose E_BKO is still active
+     * and that have no active status forbidding the reorder count.
+     * Rows another replenishment has locked are skipped rather than waited for;
+     * native because SKIP LOCKED has no JPQL form.
+     */
+    @Query(value = """
+            SELECT b.* FROM back_ordered_item b
+            WHERE b.product_id = :productId
+              AND (b.backordered_at > :afterAt OR (b.backordered_at = :afterAt AND b.back_order_id > :afterId))
+              AND EXISTS (
+                SELECT 1 FROM sales_item_status s
+                WHERE s.item_id = b.item_id AND s.status = 'E_BKO' AND s.active = TRUE)
+              AND NOT EXISTS (
+                SELECT 1 FROM sales_item_status s
+                WHERE s.item_id = b.item_id AND s.status IN (:forbidding) AND s.active = TRUE)
+            ORDER BY b.backordered_at, b.back_order_id
+            FETCH FIRST :limit ROWS ONLY
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<BackOrderedItem> claimOpenForProduct(@Param("productId") UUID productId,
+                                              @Param("afterAt") Instant afterAt,
+                                              @Param("afterId") long afterId,
+                                              @Param("forbidding") Collection<String> forbidding,
+                                              @Param("limit") int limit);
+}
@@ -0,0 +1,65 @@
+package com.mattercom.salesOrders.repositories;
+
+import com.mattercom.salesOrders.entities.RecurrentOrderDetails;
+import com.mattercom.salesOrders.enums.OrderStatusId;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface RecurrentOrderDetailsRepository extends JpaRepository<RecurrentOrderDetails, Long>
+{
+    /**
+     * Locks up to limit due recurrences whose order waits for its next installment (active I_WAIT)
+     * and has no active status forbidding the restart, oldest due first.
+     * Rows another node has locked are skipped rather than waited for, so nodes claim disjoint
+     * batches; native because SKIP LOCKED has no JPQL form.
+     */
+    @Query(value = """
+            SELECT r.* FROM recurrent_order_details r
+            WHERE r.next_due_at <= :now
+              AND EXISTS (
+                SELECT 1 FROM sales_order_status s
+                WHERE s.order_id = r.order_id AND s.status = 'I_WAIT' AND s.active = TRUE)
+              AND NOT EXISTS (
+                SELECT 1 FROM sales_order_status s
+                WHERE s.order_id = r.order_id AND s.status IN (:forbidding) AND s.active = TRUE)
+            ORDER BY r.next_due_at
+            FETCH FIRST :limit ROWS ONLY
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<RecurrentOrderDetails> claimDue(@Param("now") Instant now,
+                                         @Param("forbidding") Collection<String> forbidding,
+                                         @Param("limit") int limit);
+
+    // Locks one order's recurrence for a manual restart; claimDue skips it until the restart commits
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<RecurrentOrderDetails> findForUpdateBySalesOrder_SalesOrderId(UUID salesOrderId);
+
+    // Due recurrences, claimable or held back by a status; feeds the lag gauges
+    @Query("SELECT MIN(r.nextDueAt) FROM RecurrentOrderDetails r WHERE r.nextDueAt <= :now")
+    Optional<Instant> findOldestDueAt(@Param("now") Instant now);
+
+    long countByNextDueAtLessThanEqual(Instant now);
+
+    // A cancelled order places no further installments
+    @Modifying
+    @Query("""
+      UPDATE RecurrentOrderDetails r SET r.nextDueAt = NULL
+      WHERE r.nextDueAt <= :now
+        AND EXISTS (
+          SELECT 1 FROM SalesOrderStatus s
+          WHERE s.salesOrder = r.salesOrder
+            AND s.orderStatusId = :cancelled
+            AND s.active = TRUE)
+      """)
+    int stopCancelled(@Param("now") Instant now, @Param("cancelled") OrderStatusId cancelled);
+}
@@ -7,13 +7,23 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface SalesItemRepository extends JpaRepository<SalesItem, UUID>
 {
-    List<SalesItem> findAllBySalesOrder_SalesOrderId(UUID orderId);
+    // Derived "SalesOrder_SalesOrderId" queries join sales_orders and filter on its key, which keeps
+    // the planner off the order_items(order_id) index; comparing the foreign key directly does not
+    @Query("SELECT si FROM SalesItem si WHERE si.salesOrder.salesOrderId = :orderId")
+    List<SalesItem> findAllBySalesOrder_SalesOrderId(@Param("orderId") UUID orderId);
+
+    // One query for the status lists of every item of an order; used after the items are loaded
+    // so their statusList collections are initialized in place instead of per item
+    @EntityGraph(attributePaths = {"statusList"})
+    @Query("SELECT si FROM SalesItem si WHERE si.salesOrder.salesOrderId = :orderId")
+    List<SalesItem> findWithStatusBySalesOrder_SalesOrderId(@Param("orderId") UUID orderId);
 
     @EntityGraph(attributePaths = {
             "statusList",
@@ -27,6 +37,13 @@ public interface SalesItemRepository extends JpaRepository<SalesItem, UUID>
     })
     List<SalesItem> findWithDetailsByItemIdInAndSalesOrder_SalesOrderId(List<UUID> itemIds, UUID orderOrderId);
 
+    // Items of many orders at once (backorder replenishment); the orders are loaded separately
+    @EntityGraph(attributePaths = {
+            "statusList",
+            "backOrderedItem"
+    })
+    List<SalesItem> findWithDetailsByItemIdIn(Collection<UUID> itemIds);
+
     @Query("""
   SELECT si FROM SalesItem si
   WHERE si.salesOrder.salesOrderId = :salesOrderId
@@ -42,20 +59,6 @@ public interface SalesItemRepository extends JpaRepository<SalesItem, UUID>
             @Param("statuses") List<ItemStatusId> statuses
     );
 
-    @Query("""
-      SELECT COUNT(si) FROM SalesItem si
-      WHERE si.salesOrder.salesOrderId = :salesOrderId
-        AND NOT EXISTS (
-          SELECT 1 FROM SalesItemStatus ist
-          WHERE ist.salesItem = si
-            AND ist.itemStatusId IN :statuses
-            AND ist.active = true
-        )
-    """)
-    long countItemsNotHavingGivenStatusesByOrderId(
-            @Param("salesOrderId") UUID salesOrderId,
-            @Param("statuses") List<com.mattercom.salesOrders.enums.ItemStatusId> statuses
-    );
 
 
 
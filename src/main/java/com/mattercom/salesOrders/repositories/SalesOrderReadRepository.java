@@ -0,0 +1,307 @@
+package com.mattercom.salesOrders.repositories;
+
+import com.mattercom.salesOrders.entities.SalesOrder;
+import com.mattercom.salesOrders.enums.ItemStatusId;
+import com.mattercom.salesOrders.enums.OrderStatusId;
+import com.mattercom.salesOrders.records.ItemStatusView;
+import com.mattercom.salesOrders.records.ItemView;
+import com.mattercom.salesOrders.records.OrderActiveStatusView;
+import com.mattercom.salesOrders.records.OrderHeaderView;
+import com.mattercom.salesOrders.records.OrderStatusView;
+import com.mattercom.salesOrders.records.OrderSummaryView;
+import com.mattercom.salesOrders.records.VendorItemView;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Read side of the order aggregate.
+ * Constructor expressions select only the columns the response needs, so nothing is
+ * hydrated into the persistence context and there is no dirty-checking snapshot to keep.
+ * Only active statuses are read; the history stays in the database.
+ */
+public interface SalesOrderReadRepository extends Repository<SalesOrder, UUID>
+{
+    // Rows the JDBC driver fetches per round trip on the export cursor; also the export chunk size
+    int EXPORT_FETCH_SIZE = 500;
+
+    @Query("""
+      SELECT new com.mattercom.salesOrders.records.OrderHeaderView(
+          o.salesOrderId, o.customerId, o.customerName, o.deliverySpeed,
+          a.addressId, a.recipientName, a.companyName, a.phoneNumber, a.streetLine1, a.streetLine2,
+          a.city, a.stateOrProvince, a.postalCode, a.country, a.landmark,
+          r.recurrentOrderId, r.installments, r.gapInDays, r.requestedOffsetInDays,
+          o.grossAmount, o.discountAmount, o.netAmount, o.backorderedNetAmount)
+      FROM SalesOrder o
+      LEFT JOIN o.shipmentAddress a
+      LEFT JOIN o.recurrentOrderDetails r
+      WHERE o.salesOrderId = :salesOrderId
+    """)
+    Optional<OrderHeaderView> findHeaderBySalesOrderId(@Param("salesOrderId") UUID salesOrderId);
+
+    @Query("""
+      SELECT new com.mattercom.salesOrders.records.OrderStatusView(s.orderStatusId, s.lastUpdatedAt)
+      FROM SalesOrderStatus s
+      WHERE s.salesOrder.salesOrderId = :salesOrderId
+        AND s.active = true
+      ORDER BY s.serialId
+    """)
+    List<OrderStatusView> findActiveStatusesBySalesOrderId(@Param("salesOrderId") UUID salesOrderId);
+
+    @Query("""
+      SELECT new com.mattercom.salesOrders.records.ItemView(
+          i.itemId, i.salesOrder.salesOrderId, i.vendorId, i.productId, i.productName, i.netQty, i.baseUnitPrice, i.discountRate,
+          i.grossAmount, i.discountAmount, i.netAmount)
+      FROM SalesItem i
+      WHERE i.salesOrder.salesOrderId = :salesOrderId
+    """)
+    List<ItemView> findItemsBySalesOrderId(@Param("salesOrderId") UUID salesOrderId);
+
+    @Query("""
+      SELECT new com.mattercom.salesOrders.records.ItemStatusView(s.salesItem.itemId, s.itemStatusId, s.lastUpdatedAt)
+      FROM SalesItemStatus s
+      WHERE s.salesItem.salesOrder.salesOrderId = :salesOrderId
+        AND s.active = true
+      ORDER BY s.serialId
+    """)
+    List<ItemStatusView> findActiveItemStatusesBySalesOrderId(@Param("salesOrderId") UUID salesOrderId);
+
+    // Customer order listing, newest first, by keyset on (customer_id, created_at, order_id).
+    // The "After" variants seek past the last row of the previous page: the redundant
+    // created_at <= bound gives the index a range start, so page 10,000 costs what page 1 does.
+
+    @Query("""
+      SELECT new com.mattercom.salesOrders.records.OrderSummaryView(
+          o.salesOrderId, o.createdAt, o.deliverySpeed, o.recurrent, o.inTransit)
+      FROM SalesOrder o
+      WHERE o.customerId = :customerId
+      ORDER BY o.createdAt DESC, o.salesOrderId DESC
+    """)
+    List<OrderSummaryView> findCustomerOrders(@Param("customerId") UUID customerId, Limit limit);
+
+    @Query("""
+      SELECT new com.mattercom.salesOrders.records.OrderSummaryView(
+          o.salesOrderId, o.createdAt, o.deliverySpeed, o.recurrent, o.inTransit)
+      FROM SalesOrder o
+      WHERE o.customerId = :customerId
+        AND o.createdAt <= :createdAt
+        AND (o.createdAt < :createdAt OR o.salesOrderId < :orderId)
+      ORDER BY o.createdAt DESC, o.salesOrderId DESC
+    """)
+    List<OrderSummaryView> findCustomerOrdersAfter(@Param("customerId") UUID customerId,
+                                                   @Param("createdAt") Instant createdAt,
+                                                   @Param("orderId") UUID orderId,
+                                                   Limit limit);
+
+    @Query("""
+      SELECT new com.mattercom.salesOrders.records.OrderSummaryView(
+          o.salesOrderId, o.createdAt, o.deliverySpeed, o.recurrent, o.inTransit)
+      FROM SalesOrder o
+      WHERE o.customerId = :customerId
+        AND EXISTS (
+          SELECT 1 FROM SalesOrderStatus s
+          WHERE s.salesOrder = o
+            AND s.orderStatusId = :status
+            AND s.active = true
+        )
+      ORDER BY o.createdAt DESC, o.salesOrderId DESC
+    """)
+    List<OrderSummaryView> findCustomerOrdersWithStatus(@Param("customerId") UUID customerId,
+                                                        @Param("status") OrderStatusId status,
+                                                        Limit limit);
+
+    @Query("""
+      SELECT new com.mattercom.salesOrders.records.OrderSummaryView(
+          o.salesOrderId, o.createdAt, o.deliverySpeed, o.recurrent, o.inTransit)
+      FROM SalesOrder o
+      WHERE o.customerId = :customerId
+        AND o.createdAt <= :createdAt
+        AND (o.createdAt < :createdAt OR o.salesOrderId < :orderId)
+        AND EXISTS (
+          SELECT 1 FROM SalesOrderStatus s
+          WHERE s.salesOrder = o
+            AND s.orderStatusId = :status
+            AND s.active = true
+        )
+      ORDER BY o.createdAt DESC, o.salesOrderId DESC
+    """)
+    List<OrderSummaryView> findCustomerOrdersWithStatusAfter(@Param("customerId") UUID customerId,
+                                                             @Param("status") OrderStatusId status,
+                                                             @Param("createdAt") Instant createdAt,
+                                                             @Param("orderId") UUID orderId,
+                                                             Limit limit);
+
+    @Query("""
+      SELECT new com.mattercom.salesOrders.records.OrderActiveStatusView(s.salesOrder.salesOrderId, s.orderStatusId, s.lastUpdatedAt)
+      FROM SalesOrderStatus s
+      WHERE s.salesOrder.salesOrderId IN :salesOrderIds
+        AND s.active = true
+      ORDER BY s.serialId
+    """)
+    List<OrderActiveStatusView> findActiveStatusesBySalesOrderIdIn(@Param("salesOrderIds") Collection<UUID> salesOrderIds);
+
+    // Vendor item listing in item id order, by keyset on (vendor_id, item_id); the first page
+    // seeks from VendorItemCursor.START. With an item status the seek runs on the status rows instead,
+    // (vendor_id, status, item_id) of the active ones, so a rare status costs a page, not the vendor's
+    // items. The order status filter is an EXISTS probe per listed item.
+
+    @Query("""
+      SELECT new com.mattercom.salesOrders.records.VendorItemView(
+          i.itemId, i.salesOrder.salesOrderId, i.productId, i.netQty)
+      FROM SalesItem i
+      WHERE i.vendorId = :vendorId
+        AND i.itemId > :afterItemId
+      ORDER BY i.itemId
+    """)
+    List<VendorItemView> findVendorItems(@Param("vendorId") UUID vendorId,
+                                         @Param("afterItemId") UUID afterItemId,
+                                         Limit limit);
+
+    @Query("""
+      SELECT new com.mattercom.salesOrders.records.VendorItemView(
+          i.itemId, i.salesOrder.salesOrderId, i.productId, i.netQty)
+      FROM SalesItemStatus s
+      JOIN s.salesItem i
+      WHERE s.vendorId = :vendorId
+        AND s.itemStatusId = :itemStatus
+        AND s.active = true
+        AND s.salesItem.itemId > :afterItemId
+      ORDER BY s.salesItem.itemId
+    """)
+    List<VendorItemView> findVendorItemsWithItemStatus(@Param("vendorId") UUID vendorId,
+                                                       @Param("itemStatus") ItemStatusId itemStatus,
+                                                       @Param("afterItemId") UUID afterItemId,
+                                                       Limit limit);
+
+    @Query("""
+      SELECT new com.mattercom.salesOrders.records.VendorItemView(
+          i.itemId, i.salesOrder.salesOrderId, i.productId, i.netQty)
+      FROM SalesItem i
+      WHERE i.vendorId = :vendorId
+        AND i.itemId > :afterItemId
+        AND EXISTS (
+          SELECT 1 FROM SalesOrderStatus os
+          WHERE os.salesOrder = i.salesOrder
+            AND os.orderStatusId = :orderStatus
+            AND os.active = true
+        )
+      ORDER BY i.itemId
+    """)
+    List<VendorItemView> findVendorItemsWithOrderStatus(@Param("vendorId") UUID vendorId,
+                                                        @Param("orderStatus") OrderStatusId orderStatus,
+                                                        @Param("afterItemId") UUID afterItemId,
+                                                        Limit limit);
+
+    @Query("""
+      SELECT new com.mattercom.salesOrders.records.VendorItemView(
+          i.itemId, i.salesOrder.salesOrderId, i.productId, i.netQty)
+      FROM SalesItemStatus s
+      JOIN s.salesItem i
+      WHERE s.vendorId = :vendorId
+        AND s.itemStatusId = :itemStatus
+        AND s.active = true
+        AND s.salesItem.itemId > :afterItemId
+        AND EXISTS (
+          SELECT 1 FROM SalesOrderStatus os
+          WHERE os.salesOrder = i.salesOrder
+            AND os.orderStatusId = :orderStatus
+            AND os.active = true
+        )
+      ORDER BY s.salesItem.itemId
+    """)
+    List<VendorItemView> findVendorItemsWithItemAndOrderStatus(@Param("vendorId") UUID vendorId,
+                                                               @Param("itemStatus") ItemStatusId itemStatus,
+                                                               @Param("orderStatus") OrderStatusId orderStatus,
+                                                               @Param("afterItemId") UUID afterItemId,
+                                                               Limit limit);
+
+    @Query("""
+      SELECT new com.mattercom.salesOrders.records.ItemStatusView(s.salesItem.itemId, s.itemStatusId, s.lastUpdatedAt)
+      FROM SalesItemStatus s
+      WHERE s.salesItem.itemId IN :itemIds
+        AND s.active = true
+      ORDER BY s.serialId
+    """)
+    List<ItemStatusView> findActiveItemStatusesByItemIdIn(@Param("itemIds") Collection<UUID> itemIds);
+
+    // Export: headers come through a forward-only cursor, EXPORT_FETCH_SIZE rows per round trip
+    // (PostgreSQL only honours the fetch size inside a transaction). The rest of each chunk is
+    // read with the IN queries below.
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+      SELECT new com.mattercom.salesOrders.records.OrderHeaderView(
+          o.salesOrderId, o.customerId, o.customerName, o.deliverySpeed,
+          a.addressId, a.recipientName, a.companyName, a.phoneNumber, a.streetLine1, a.streetLine2,
+          a.city, a.stateOrProvince, a.postalCode, a.country, a.landmark,
+          r.recurrentOrderId, r.installments, r.gapInDays, r.requestedOffsetInDays,
+          o.grossAmount, o.discountAmount, o.netAmount, o.backorderedNetAmount)
+      FROM SalesOrder o
+      LEFT JOIN o.shipmentAddress a
+      LEFT JOIN o.recurrentOrderDetails r
+      WHERE o.createdAt >= :from
+        AND o.createdAt < :to
+      ORDER BY o.createdAt, o.salesOrderId
+    """)
+    Stream<OrderHeaderView> streamHeadersCreatedBetween(@Param("from") Instant from, @Param("to") Instant to);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+      SELECT new com.mattercom.salesOrders.records.OrderHeaderView(
+          o.salesOrderId, o.customerId, o.customerName, o.deliverySpeed,
+          a.addressId, a.recipientName, a.companyName, a.phoneNumber, a.streetLine1, a.streetLine2,
+          a.city, a.stateOrProvince, a.postalCode, a.country, a.landmark,
+          r.recurrentOrderId, r.installments, r.gapInDays, r.requestedOffsetInDays,
+          o.grossAmount, o.discountAmount, o.netAmount, o.backorderedNetAmount)
+      FROM SalesOrder o
+      LEFT JOIN o.shipmentAddress a
+      LEFT JOIN o.recurrentOrderDetails r
+      WHERE o.createdAt >= :from
+        AND o.createdAt < :to
+        AND EXISTS (
+          SELECT 1 FROM SalesOrderStatus s
+          WHERE s.salesOrder = o
+            AND s.orderStatusId = :status
+            AND s.active = true
+        )
+      ORDER BY o.createdAt, o.salesOrderId
+    """)
+    Stream<OrderHeaderView> streamHeadersCreatedBetweenWithStatus(@Param("from") Instant from,
+                                                                  @Param("to") Instant to,
+                                                                  @Param("status") OrderStatusId status);
+
+    @Query("""
+      SELECT new com.mattercom.salesOrders.records.ItemView(
+          i.itemId, i.salesOrder.salesOrderId, i.vendorId, i.productId, i.productName, i.netQty, i.baseUnitPrice, i.discountRate,
+          i.grossAmount, i.discountAmount, i.netAmount)
+      FROM SalesItem i
+      WHERE i.salesOrder.salesOrderId IN :salesOrderIds
+    """)
+    List<ItemView> findItemsBySalesOrderIdIn(@Param("salesOrderIds") Collection<UUID> salesOrderIds);
+
+    @Query("""
+      SELECT new com.mattercom.salesOrders.records.ItemStatusView(s.salesItem.itemId, s.itemStatusId, s.lastUpdatedAt)
+      FROM SalesItemStatus s
+      WHERE s.salesItem.salesOrder.salesOrderId IN :salesOrderIds
+        AND s.active = true
+      ORDER BY s.serialId
+    """)
+    List<ItemStatusView> findActiveItemStatusesBySalesOrderIdIn(@Param("salesOrderIds") Collection<UUID> salesOrderIds);
+}
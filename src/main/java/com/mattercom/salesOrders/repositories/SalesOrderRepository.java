@@ -4,29 +4,37 @@ import com.mattercom.salesOrders.entities.SalesOrder;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface SalesOrderRepository extends JpaRepository<SalesOrder, UUID> {
+    // Only one bag can be fetch-joined per query (MultipleBagFetchException); items load on first access
     @EntityGraph(attributePaths =
             {
                     "statusList",
                     "recurrentOrderDetails",
-                    "shipmentAddress",
-                    "salesItems"
+                    "shipmentAddress"
             })
     Optional<SalesOrder> findWithOrderDetailsBySalesOrderId(UUID salesOrderId);
 
     @EntityGraph(attributePaths = {"statusList"})
-    Optional<SalesOrder> findWithStatusBySalesOrderId(UUID salesOrderId);
+    List<SalesOrder> findWithStatusBySalesOrderIdIn(Collection<UUID> salesOrderIds);
 
+    // The recurrence is the inverse side of a one-to-one; without the join it is selected per order
+    @EntityGraph(attributePaths = {"statusList", "recurrentOrderDetails"})
+    List<SalesOrder> findWithStatusAndRecurrenceBySalesOrderIdIn(Collection<UUID> salesOrderIds);
 
 
+
+    // Items and their backorders only; header statuses come with findWithOrderDetailsBySalesOrderId.
+    // backOrderedItem is the inverse side of a one-to-one, which Hibernate would otherwise select per item.
     @EntityGraph(attributePaths = {
-            "statusList",
-            "salesItems"
+            "salesItems",
+            "salesItems.backOrderedItem"
     })
-    Optional<SalesOrder> findWithStatusAndItemsBySalesOrderId(UUID salesOrderId);
+    Optional<SalesOrder> findWithItemsAndBackordersBySalesOrderId(UUID salesOrderId);
 
 
 }
@@ -0,0 +1,24 @@
+package com.mattercom.salesOrders.rollup;
+
+import com.mattercom.salesOrders.dto.StatusCountsDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * GET /actuator/orderstatuses: how many orders have each active status, per delivery speed,
+ * for the operations dashboard. Answered from StatusRollup's snapshot, at most one refresh interval old.
+ */
+@Component
+@Endpoint(id = "orderstatuses")
+@RequiredArgsConstructor
+public class OrderStatusesEndpoint {
+
+    private final StatusRollup statusRollup;
+
+    @ReadOperation
+    public StatusCountsDto counts() {
+        return statusRollup.counts();
+    }
+}
@@ -0,0 +1,133 @@
+package com.mattercom.salesOrders.rollup;
+
+import com.mattercom.salesOrders.dto.StatusCountsDto;
+import com.mattercom.salesOrders.enums.DeliverySpeed;
+import com.mattercom.salesOrders.enums.OrderStatusId;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory mirror of order_status_rollup. The table itself is kept by delta (StatusRollupIntegrator);
+ * the mirror is not: it is re-read whole every refresh interval. The table sums to a few dozen rows
+ * whatever the order volume, and a re-read also picks up what other nodes committed, which deltas
+ * seen on this node would miss. Reads are served from the last snapshot, taken first when the
+ * application is ready, so counts() never touches the database.
+ * The migration creates every stripe row; the first refresh adds those of an enum value that
+ * came without a migration, off the order write path.
+ */
+@Slf4j
+@Component
+public class StatusRollup {
+
+    private static final String SUM = """
+            SELECT status, delivery_speed, SUM(order_count) AS order_count
+            FROM order_status_rollup
+            GROUP BY status, delivery_speed
+            """;
+
+    private static final String INSERT = """
+            INSERT INTO order_status_rollup (status, delivery_speed, stripe, order_count)
+            VALUES (?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // One refresh at a time; the scheduled one and an explicit one may overlap
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile boolean seeded;
+    // Empty, without asOf, until the first refresh
+    private volatile StatusCountsDto snapshot = StatusCountsDto.builder()
+            .totals(Map.of())
+            .bySpeed(Map.of())
+            .build();
+
+    public StatusRollup(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public StatusCountsDto counts() {
+        return snapshot;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void warm() {
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${sales-orders.status-rollup.refresh-interval-ms:1000}")
+    public void refresh() {
+        lock.lock();
+        try {
+            read();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void read() {
+        if (!seeded) {
+            seeded = seed();
+        }
+        Map<OrderStatusId, Map<DeliverySpeed, Long>> bySpeed = new EnumMap<>(OrderStatusId.class);
+        Map<OrderStatusId, Long> totals = new EnumMap<>(OrderStatusId.class);
+        jdbcTemplate.query(SUM, rs -> {
+            long count = rs.getLong("order_count");
+            if (count == 0) {
+                return;
+            }
+            OrderStatusId status = OrderStatusId.valueOf(rs.getString("status"));
+            bySpeed.computeIfAbsent(status, s -> new EnumMap<>(DeliverySpeed.class))
+                    .put(DeliverySpeed.valueOf(rs.getString("delivery_speed")), count);
+            totals.merge(status, count, Long::sum);
+        });
+        bySpeed.replaceAll((status, counts) -> Collections.unmodifiableMap(counts));
+        snapshot = StatusCountsDto.builder()
+                .asOf(Instant.now())
+                .totals(Collections.unmodifiableMap(totals))
+                .bySpeed(Collections.unmodifiableMap(bySpeed))
+                .build();
+    }
+
+    // Adds a zero row for every (status, delivery speed, stripe) not in the table yet
+    private boolean seed() {
+        Set<String> existing = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT status || '|' || delivery_speed || '|' || stripe FROM order_status_rollup", String.class));
+        List<Object[]> missing = new ArrayList<>();
+        for (OrderStatusId status : OrderStatusId.values()) {
+            for (DeliverySpeed speed : DeliverySpeed.values()) {
+                for (int stripe = 0; stripe < StatusRollupIntegrator.STRIPES; stripe++) {
+                    if (!existing.contains(status.name() + "|" + speed.name() + "|" + stripe)) {
+                        missing.add(new Object[]{status.name(), speed.name(), stripe, 0L});
+                    }
+                }
+            }
+        }
+        if (missing.isEmpty()) {
+            return true;
+        }
+        try {
+            jdbcTemplate.batchUpdate(INSERT, missing);
+            return true;
+        } catch (DuplicateKeyException e) {
+            // Another node added one of them meanwhile; the next refresh adds the rest
+            log.debug("Order status rollup rows were added concurrently, seeding again next refresh", e);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.mattercom.salesOrders.rollup;
+
+import com.mattercom.salesOrders.entities.SalesOrder;
+import com.mattercom.salesOrders.entities.status.SalesOrderStatus;
+import com.mattercom.salesOrders.enums.DeliverySpeed;
+import com.mattercom.salesOrders.util.BeforeCommitBatches;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Keeps order_status_rollup in step with the active order statuses, in the transaction that
+ * changes them. An order status row inserted active, or whose active flag flips, is +1 or -1 for
+ * its (status, delivery speed); a delivery speed change moves each of the order's active statuses
+ * from the old speed to the new one. Like the outbox, this sees every path that writes status rows
+ * (StatusManagementUtil, order creation, bulk jobs).
+ * Deltas are summed while the transaction flushes and added just before commit, one UPDATE batch
+ * on one randomly picked stripe, rows in key order so two writers cannot deadlock. The rows exist
+ * from the migration on, so the commit path never inserts.
+ * Registered through META-INF/services, so it is active whatever else configures Hibernate.
+ */
+@Slf4j
+public class StatusRollupIntegrator implements Integrator {
+
+    // Stripe rows per (status, delivery speed)
+    public static final int STRIPES = 16;
+
+    static final String ADD = """
+            UPDATE order_status_rollup SET order_count = order_count + ?
+            WHERE status = ? AND delivery_speed = ? AND stripe = ?
+            """;
+
+    private static final String ACTIVE_STATUSES = """
+            SELECT status FROM sales_order_status
+            WHERE order_id = ? AND active = TRUE
+            """;
+
+    private static final Comparator<Key> KEY_ORDER = Comparator.comparing(Key::status).thenComparing(Key::deliverySpeed);
+
+    // Deltas waiting for the commit of their session's transaction
+    private static final BeforeCommitBatches<Pending> PENDING = new BeforeCommitBatches<>("the order status rollup", Pending::new);
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+        Listener listener = new Listener();
+        EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, listener);
+        registry.appendListeners(EventType.POST_UPDATE, listener);
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+        // Nothing to release
+    }
+
+    private static Pending pending(EventSource session) {
+        return PENDING.of(session);
+    }
+
+    private static final class Listener implements PostInsertEventListener, PostUpdateEventListener {
+
+        @Override
+        public void onPostInsert(PostInsertEvent event) {
+            if (event.getEntity() instanceof SalesOrderStatus status
+                    && Boolean.TRUE.equals(event.getState()[event.getPersister().getPropertyIndex("active")])) {
+                pending(event.getSession()).add(status, 1);
+            }
+        }
+
+        @Override
+        public void onPostUpdate(PostUpdateEvent event) {
+            Object[] oldState = event.getOldState();
+            // Without a snapshot (a merged detached row) the old value is unknown; no path does that today
+            if (oldState == null) {
+                return;
+            }
+            if (event.getEntity() instanceof SalesOrderStatus status) {
+                int active = event.getPersister().getPropertyIndex("active");
+                Object now = event.getState()[active];
+                if (!now.equals(oldState[active])) {
+                    pending(event.getSession()).add(status, (Boolean) now ? 1 : -1);
+                }
+            } else if (event.getEntity() instanceof SalesOrder order) {
+                int speed = event.getPersister().getPropertyIndex("deliverySpeed");
+                Object before = oldState[speed];
+                Object now = event.getState()[speed];
+                if (before != null && !before.equals(now)) {
+                    pending(event.getSession()).moves.add(new Move(order.getSalesOrderId(), (DeliverySpeed) before, (DeliverySpeed) now));
+                }
+            }
+        }
+
+        @Override
+        public boolean requiresPostCommitHandling(EntityPersister persister) {
+            return false;
+        }
+    }
+
+    private static final class Pending implements BeforeCommitBatches.Batch {
+
+        private final Map<Key, Long> deltas = new TreeMap<>(KEY_ORDER);
+        private final List<Move> moves = new ArrayList<>();
+
+        private void add(SalesOrderStatus status, long delta) {
+            add(status.getOrderStatusId().name(), status.getSalesOrder().getDeliverySpeed(), delta);
+        }
+
+        private void add(String status, DeliverySpeed deliverySpeed, long delta) {
+            deltas.merge(new Key(status, deliverySpeed.name()), delta, Long::sum);
+        }
+
+        @Override
+        public void write(BeforeCommitBatches.Statements statements) throws SQLException {
+            // Speed changes never come with status changes, so the order's active statuses now are the ones to move
+            for (Move move : moves) {
+                for (String status : activeStatuses(statements, move.orderId())) {
+                    add(status, move.from(), -1);
+                    add(status, move.to(), 1);
+                }
+            }
+            deltas.values().removeIf(delta -> delta == 0);
+            if (!deltas.isEmpty()) {
+                apply(statements, ThreadLocalRandom.current().nextInt(STRIPES));
+            }
+        }
+
+        private void apply(BeforeCommitBatches.Statements statements, int stripe) throws SQLException {
+            List<Key> keys = new ArrayList<>(deltas.keySet());
+            int[] updated = statements.run(ADD, statement -> {
+                for (Key key : keys) {
+                    statement.setLong(1, deltas.get(key));
+                    statement.setString(2, key.status());
+                    statement.setString(3, key.deliverySpeed());
+                    statement.setInt(4, stripe);
+                    statement.addBatch();
+                }
+                return statement.executeBatch();
+            });
+            // Rows are seeded by migration; only an enum value added without one is missing, until StatusRollup seeds it
+            for (int i = 0; i < keys.size(); i++) {
+                if (updated[i] == 0) {
+                    log.warn("No order_status_rollup row for {} stripe {}, its count is off by {}", keys.get(i), stripe, deltas.get(keys.get(i)));
+                }
+            }
+        }
+
+        private static List<String> activeStatuses(BeforeCommitBatches.Statements statements, UUID orderId) throws SQLException {
+            return statements.run(ACTIVE_STATUSES, statement -> {
+                statement.setObject(1, orderId);
+                List<String> statuses = new ArrayList<>();
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        statuses.add(rs.getString(1));
+                    }
+                }
+                return statuses;
+            });
+        }
+    }
+
+    private record Key(String status, String deliverySpeed) {
+    }
+
+    private record Move(UUID orderId, DeliverySpeed from, DeliverySpeed to) {
+    }
+}
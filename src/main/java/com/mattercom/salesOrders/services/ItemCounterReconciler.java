@@ -0,0 +1,196 @@
+package com.mattercom.salesOrders.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Checks the per-order item counters against the item and item status tables.
+ * Orders are walked in order_id ranges of chunk-size; each range is verified with one
+ * aggregate query on a worker thread, and the walk itself runs a range when all workers are busy,
+ * so no more than a few ranges are ever queued.
+ * A mismatch is counted and logged, and repaired unless the order changed in the meantime
+ * (the repair is guarded by the order version, like any other write).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemCounterReconciler
+{
+    public static final String MISMATCHES = "sales_orders.item_counters.mismatches";
+
+    // Stored counters next to the counts from the item tables, read in one statement
+    private static final String VERIFY = """
+            SELECT o.order_id, o.version,
+                   o.item_count, o.cancelled_item_count, o.backordered_item_count, o.invoiced_item_count,
+                   COUNT(i.item_id) AS items,
+                   COALESCE(SUM(i.cancelled), 0) AS cancelled,
+                   COALESCE(SUM(i.backordered), 0) AS backordered,
+                   COALESCE(SUM(i.invoiced), 0) AS invoiced
+            FROM sales_orders o
+            LEFT JOIN (
+                SELECT it.order_id, it.item_id,
+                       MAX(CASE WHEN s.status IN ('E_CNCL_CUST', 'E_CNCL_SYS') THEN 1 ELSE 0 END) AS cancelled,
+                       MAX(CASE WHEN s.status = 'E_BKO' THEN 1 ELSE 0 END) AS backordered,
+                       MAX(CASE WHEN s.status = 'I_INVC_ITEM' THEN 1 ELSE 0 END) AS invoiced
+                FROM order_items it
+                LEFT JOIN sales_item_status s ON s.item_id = it.item_id AND s.active = TRUE
+                WHERE it.order_id BETWEEN ? AND ?
+                GROUP BY it.order_id, it.item_id
+            ) i ON i.order_id = o.order_id
+            WHERE o.order_id BETWEEN ? AND ?
+            GROUP BY o.order_id, o.version,
+                     o.item_count, o.cancelled_item_count, o.backordered_item_count, o.invoiced_item_count
+            """;
+
+    private static final String REPAIR = """
+            UPDATE sales_orders
+            SET item_count = ?, cancelled_item_count = ?, backordered_item_count = ?, invoiced_item_count = ?,
+                version = version + 1
+            WHERE order_id = ? AND version = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+
+    // Orders per verification query
+    @Value("${sales-orders.item-counters.chunk-size:1000}")
+    private int chunkSize;
+
+    // Ranges verified in parallel
+    @Value("${sales-orders.item-counters.threads:4}")
+    private int threads;
+
+    @Value("${sales-orders.item-counters.repair:true}")
+    private boolean repair;
+
+    private Counter mismatches;
+
+    @PostConstruct
+    void registerMetrics()
+    {
+        mismatches = Counter.builder(MISMATCHES)
+                .description("Orders whose item counters disagreed with their items")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Verifies every order; returns how many had counters that disagreed with their items.
+     */
+    @Scheduled(fixedDelayString = "${sales-orders.item-counters.reconcile-interval-ms:86400000}",
+            initialDelayString = "${sales-orders.item-counters.reconcile-interval-ms:86400000}")
+    public int reconcile()
+    {
+        AtomicInteger mismatched = new AtomicInteger();
+        AtomicInteger workerId = new AtomicInteger();
+        ThreadPoolExecutor workers = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads),
+                runnable -> new Thread(runnable, "item-counter-reconciler-" + workerId.incrementAndGet()),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        try
+        {
+            List<UUID> orderIds = nextOrderIds(null);
+            while (!orderIds.isEmpty())
+            {
+                UUID first = orderIds.get(0);
+                UUID last = orderIds.get(orderIds.size() - 1);
+                workers.execute(() -> mismatched.addAndGet(verify(first, last)));
+                orderIds = orderIds.size() < chunkSize ? List.of() : nextOrderIds(last);
+            }
+        }
+        finally
+        {
+            workers.shutdown();
+            awaitWorkers(workers);
+        }
+        if (mismatched.get() > 0)
+        {
+            log.warn("Item counters disagreed with the items of {} orders", mismatched.get());
+        }
+        return mismatched.get();
+    }
+
+    // The next range's order ids, read off the primary key
+    private List<UUID> nextOrderIds(UUID after)
+    {
+        if (after == null)
+        {
+            return jdbcTemplate.queryForList("SELECT order_id FROM sales_orders ORDER BY order_id FETCH FIRST ? ROWS ONLY",
+                    UUID.class, chunkSize);
+        }
+        return jdbcTemplate.queryForList("SELECT order_id FROM sales_orders WHERE order_id > ? ORDER BY order_id FETCH FIRST ? ROWS ONLY",
+                UUID.class, after, chunkSize);
+    }
+
+    private int verify(UUID first, UUID last)
+    {
+        try
+        {
+            List<OrderCounters> orders = jdbcTemplate.query(VERIFY, (rs, rowNum) -> new OrderCounters(
+                    rs.getObject("order_id", UUID.class), rs.getLong("version"),
+                    new Counts(rs.getInt("item_count"), rs.getInt("cancelled_item_count"),
+                            rs.getInt("backordered_item_count"), rs.getInt("invoiced_item_count")),
+                    new Counts(rs.getInt("items"), rs.getInt("cancelled"),
+                            rs.getInt("backordered"), rs.getInt("invoiced"))),
+                    first, last, first, last);
+            int mismatched = 0;
+            for (OrderCounters order : orders)
+            {
+                if (order.stored().equals(order.actual()))
+                {
+                    continue;
+                }
+                mismatched++;
+                mismatches.increment();
+                log.warn("Item counters of order {} are {}, its items say {}", order.orderId(), order.stored(), order.actual());
+                if (repair)
+                {
+                    // Repaired after the read, so the query's connection is not held meanwhile
+                    Counts actual = order.actual();
+                    jdbcTemplate.update(REPAIR, actual.items(), actual.cancelled(), actual.backordered(), actual.invoiced(),
+                            order.orderId(), order.version());
+                }
+            }
+            return mismatched;
+        }
+        catch (RuntimeException e)
+        {
+            // One failed range does not stop the others; it is verified again next run
+            log.warn("Verifying item counters of orders {} to {} failed", first, last, e);
+            return 0;
+        }
+    }
+
+    private static void awaitWorkers(ThreadPoolExecutor workers)
+    {
+        try
+        {
+            workers.awaitTermination(1, TimeUnit.HOURS);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record Counts(int items, int cancelled, int backordered, int invoiced)
+    {
+    }
+
+    private record OrderCounters(UUID orderId, long version, Counts stored, Counts actual)
+    {
+    }
+}
@@ -0,0 +1,15 @@
+package com.mattercom.salesOrders.services;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a service operation that writes one order. It runs on that order's command lane
+ * (see OrderCommandLanes), keyed by the first UUID argument, which must be the order id.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface OrderCommand {
+}
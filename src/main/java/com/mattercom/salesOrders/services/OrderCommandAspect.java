@@ -0,0 +1,57 @@
+package com.mattercom.salesOrders.services;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.UUID;
+
+/**
+ * Sends @OrderCommand operations to their order's lane.
+ * Ordered inside the service timer, so queueing counts towards latency, and outside
+ * @Transactional, so each retry runs in a fresh transaction on the lane thread.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@RequiredArgsConstructor
+public class OrderCommandAspect
+{
+    private final OrderCommandLanes orderCommandLanes;
+
+    @Around("@annotation(com.mattercom.salesOrders.services.OrderCommand)")
+    public Object dispatch(ProceedingJoinPoint joinPoint)
+    {
+        return orderCommandLanes.execute(salesOrderId(joinPoint.getArgs()), () -> {
+            try
+            {
+                return joinPoint.proceed();
+            }
+            catch (RuntimeException | Error e)
+            {
+                throw e;
+            }
+            catch (Throwable e)
+            {
+                throw new UndeclaredThrowableException(e);
+            }
+        });
+    }
+
+    private static UUID salesOrderId(Object[] args)
+    {
+        for (Object arg : args)
+        {
+            if (arg instanceof UUID salesOrderId)
+            {
+                return salesOrderId;
+            }
+        }
+        throw new IllegalArgumentException("An order id is required");
+    }
+}
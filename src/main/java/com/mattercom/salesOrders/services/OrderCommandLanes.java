@@ -0,0 +1,298 @@
+package com.mattercom.salesOrders.services;
+
+import com.mattercom.salesOrders.monitoring.SqlStatistics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.OptimisticLockException;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.StaleStateException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Striped single-consumer lanes for order writes.
+ * The order id picks the lane, so two writes to the same order run one after the other
+ * instead of racing to an optimistic lock failure, while different orders proceed in parallel.
+ * A version conflict can still come from another instance or a bulk job; those commands are
+ * put back on their lane after a full-jitter delay, so the lane keeps serving other orders
+ * meanwhile, and the failure is handed back to the caller once the attempts run out.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderCommandLanes
+{
+    public static final String QUEUED = "sales_orders.command_lanes.queued";
+    public static final String CONFLICTS = "sales_orders.command_lanes.conflicts";
+
+    // Set on lane threads, so a command reaching another command runs inline instead of queueing behind itself
+    private static final ThreadLocal<Boolean> ON_LANE = ThreadLocal.withInitial(() -> false);
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${sales-orders.command-lanes.count:16}")
+    private int laneCount;
+
+    // Commands waiting per lane before new ones are refused (503)
+    @Value("${sales-orders.command-lanes.queue-capacity:1000}")
+    private int queueCapacity;
+
+    // Attempts per command, the first included
+    @Value("${sales-orders.command-lanes.max-attempts:4}")
+    private int maxAttempts;
+
+    // Upper bound of the first retry delay; it doubles with each further attempt
+    @Value("${sales-orders.command-lanes.retry-backoff-ms:20}")
+    private long retryBackoffMs;
+
+    // How long a caller waits for its command, queueing and retries included, before giving up (503)
+    @Value("${sales-orders.command-lanes.wait-timeout-ms:30000}")
+    private long waitTimeoutMs;
+
+    private ThreadPoolExecutor[] lanes;
+    // Holds backed-off retries until they go back on their lane
+    private ScheduledExecutorService retries;
+    private Counter retried;
+    private Counter exhausted;
+
+    @PostConstruct
+    void start()
+    {
+        lanes = new ThreadPoolExecutor[laneCount];
+        for (int i = 0; i < laneCount; i++)
+        {
+            String name = "order-lane-" + i;
+            lanes[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(queueCapacity),
+                    runnable -> new Thread(runnable, name));
+        }
+        retries = Executors.newSingleThreadScheduledExecutor(runnable -> new Thread(runnable, "order-lane-retries"));
+        Gauge.builder(QUEUED, this, OrderCommandLanes::queued)
+                .description("Order commands waiting for their lane")
+                .register(meterRegistry);
+        retried = conflicts("retried");
+        exhausted = conflicts("exhausted");
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException
+    {
+        retries.shutdownNow();
+        for (ThreadPoolExecutor lane : lanes)
+        {
+            lane.shutdown();
+        }
+        for (ThreadPoolExecutor lane : lanes)
+        {
+            lane.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Runs the command on the order's lane and waits for it. Runs inline, once, when the caller is
+     * already on a lane or inside a transaction, which cannot be handed to another thread: after a
+     * conflict that transaction is rollback-only and holds the stale order, so only a retry of the
+     * outermost command, in a fresh transaction, can succeed.
+     */
+    public <T> T execute(UUID salesOrderId, Supplier<T> command)
+    {
+        if (ON_LANE.get() || TransactionSynchronizationManager.isActualTransactionActive())
+        {
+            return command.get();
+        }
+
+        Command<T> queued = new Command<>(lanes[Math.floorMod(salesOrderId.hashCode(), laneCount)], command);
+        queued.submit(1);
+        try
+        {
+            queued.done.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        }
+        catch (InterruptedException e)
+        {
+            // The command keeps its place on the lane; only this caller stops waiting
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for order " + salesOrderId, e);
+        }
+        catch (TimeoutException e)
+        {
+            // An attempt not started yet is dropped; one already running still finishes
+            queued.abandoned = true;
+            throw new RejectedExecutionException("Timed out waiting for order " + salesOrderId, e);
+        }
+        catch (ExecutionException e)
+        {
+            // Attempts catch everything, so this is a bug in the lane itself
+            throw new IllegalStateException(e.getCause());
+        }
+
+        // Count the lane's SQL, every attempt's, on the caller, where request metrics and query guards look for it
+        LaneResult<T> result = null;
+        for (LaneResult<T> attempt : queued.attempts)
+        {
+            SqlStatistics.merge(attempt.sql(), attempt.statements());
+            result = attempt;
+        }
+        if (result.failure() instanceof RuntimeException runtimeException)
+        {
+            throw runtimeException;
+        }
+        if (result.failure() instanceof Error error)
+        {
+            throw error;
+        }
+        return result.value();
+    }
+
+    private <T> LaneResult<T> runOnLane(Supplier<T> command)
+    {
+        ON_LANE.set(true);
+        SqlStatistics.clearRecentStatements();
+        SqlStatistics.Snapshot before = SqlStatistics.snapshot();
+        T value = null;
+        Throwable failure = null;
+        try
+        {
+            value = command.get();
+        }
+        catch (Throwable e)
+        {
+            failure = e;
+        }
+        finally
+        {
+            ON_LANE.set(false);
+        }
+        return new LaneResult<>(value, failure, SqlStatistics.snapshot().since(before), SqlStatistics.recentStatements());
+    }
+
+    // Full jitter: anywhere between 0 and the doubled bound, so colliding writers spread out
+    private long backOffMs(int attempt)
+    {
+        long bound = retryBackoffMs << Math.min(attempt - 1, 10);
+        return ThreadLocalRandom.current().nextLong(bound + 1);
+    }
+
+    /**
+     * One caller's command and its attempts so far. Each attempt runs in its own transaction
+     * on the lane; a conflicting one schedules the next instead of sleeping on the lane.
+     */
+    private final class Command<T>
+    {
+        private final ThreadPoolExecutor lane;
+        private final Supplier<T> command;
+        private final List<LaneResult<T>> attempts = new CopyOnWriteArrayList<>();
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+        private volatile boolean abandoned;
+
+        private Command(ThreadPoolExecutor lane, Supplier<T> command)
+        {
+            this.lane = lane;
+            this.command = command;
+        }
+
+        // The first attempt's rejection reaches the caller (503); a retry's ends the command with it
+        private void submit(int attempt)
+        {
+            lane.execute(() -> run(attempt));
+        }
+
+        private void run(int attempt)
+        {
+            if (abandoned)
+            {
+                return;
+            }
+            LaneResult<T> result = runOnLane(command);
+            attempts.add(result);
+            if (result.failure() == null || !isVersionConflict(result.failure()))
+            {
+                done.complete(null);
+                return;
+            }
+            if (attempt >= maxAttempts)
+            {
+                exhausted.increment();
+                done.complete(null);
+                return;
+            }
+            retried.increment();
+            try
+            {
+                retries.schedule(() -> resubmit(attempt + 1), backOffMs(attempt), TimeUnit.MILLISECONDS);
+            }
+            catch (RejectedExecutionException e)
+            {
+                // Shutting down: the conflict stands
+                done.complete(null);
+            }
+        }
+
+        private void resubmit(int attempt)
+        {
+            try
+            {
+                submit(attempt);
+            }
+            catch (RejectedExecutionException e)
+            {
+                attempts.add(new LaneResult<>(null, e, new SqlStatistics.Snapshot(0, 0, 0), List.of()));
+                done.complete(null);
+            }
+        }
+    }
+
+    static boolean isVersionConflict(Throwable e)
+    {
+        for (Throwable cause = e; cause != null; cause = cause.getCause())
+        {
+            if (cause instanceof OptimisticLockingFailureException
+                    || cause instanceof OptimisticLockException
+                    || cause instanceof StaleStateException)
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private double queued()
+    {
+        long queued = 0;
+        for (ThreadPoolExecutor lane : lanes)
+        {
+            queued += lane.getQueue().size();
+        }
+        return queued;
+    }
+
+    private Counter conflicts(String outcome)
+    {
+        return Counter.builder(CONFLICTS)
+                .description("Optimistic lock conflicts on order commands")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private record LaneResult<T>(T value, Throwable failure, SqlStatistics.Snapshot sql, List<String> statements)
+    {
+    }
+}
@@ -0,0 +1,126 @@
+package com.mattercom.salesOrders.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.mattercom.salesOrders.enums.OrderStatusId;
+import com.mattercom.salesOrders.mapper.SalesOrderResponseMapper;
+import com.mattercom.salesOrders.records.ItemStatusView;
+import com.mattercom.salesOrders.records.ItemView;
+import com.mattercom.salesOrders.records.OrderActiveStatusView;
+import com.mattercom.salesOrders.records.OrderHeaderView;
+import com.mattercom.salesOrders.records.OrderStatusView;
+import com.mattercom.salesOrders.repositories.SalesOrderReadRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Streams orders as NDJSON: one OrderResponseDto (same shape as GET /{orderId}) per line.
+ * Headers come off a forward-only cursor; every EXPORT_FETCH_SIZE headers, that chunk's statuses,
+ * items and item statuses are read with three IN queries, written, and flushed to the client.
+ * Only one chunk is ever held, so heap use does not depend on how many orders are exported.
+ */
+@Service
+@RequiredArgsConstructor
+public class OrderExportService
+{
+    private static final int CHUNK_SIZE = SalesOrderReadRepository.EXPORT_FETCH_SIZE;
+
+    private final SalesOrderReadRepository salesOrderReadRepository;
+    private final SalesOrderResponseMapper salesOrderResponseMapper;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Writes every order created in [from, to), optionally only those with an active status.
+     * The stream is flushed after each chunk but not closed. Returns the number of orders written.
+     */
+    @Transactional(readOnly = true)
+    public long exportOrders(Instant from, Instant to, OrderStatusId activeStatus, OutputStream out) throws IOException
+    {
+        if (from == null || to == null || !from.isBefore(to))
+        {
+            throw new IllegalArgumentException("Export range must have from before to");
+        }
+
+        // Newlines are written explicitly, and flushing is left to the chunk boundaries
+        ObjectWriter writer = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("");
+        long exported = 0;
+        try (Stream<OrderHeaderView> headers = activeStatus == null
+                ? salesOrderReadRepository.streamHeadersCreatedBetween(from, to)
+                : salesOrderReadRepository.streamHeadersCreatedBetweenWithStatus(from, to, activeStatus);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out))
+        {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            List<OrderHeaderView> chunk = new ArrayList<>(CHUNK_SIZE);
+            Iterator<OrderHeaderView> iterator = headers.iterator();
+            while (iterator.hasNext())
+            {
+                chunk.add(iterator.next());
+                if (chunk.size() == CHUNK_SIZE || !iterator.hasNext())
+                {
+                    writeChunk(chunk, writer, generator);
+                    exported += chunk.size();
+                    chunk.clear();
+                }
+            }
+        }
+        return exported;
+    }
+
+    private void writeChunk(List<OrderHeaderView> chunk, ObjectWriter writer, JsonGenerator generator) throws IOException
+    {
+        List<UUID> orderIds = chunk.stream().map(OrderHeaderView::salesOrderId).toList();
+
+        Map<UUID, List<OrderStatusView>> statusesByOrder = new HashMap<>();
+        for (OrderActiveStatusView status : salesOrderReadRepository.findActiveStatusesBySalesOrderIdIn(orderIds))
+        {
+            statusesByOrder.computeIfAbsent(status.salesOrderId(), id -> new ArrayList<>())
+                    .add(new OrderStatusView(status.orderStatusId(), status.lastUpdatedAt()));
+        }
+
+        Map<UUID, List<ItemView>> itemsByOrder = new HashMap<>();
+        Map<UUID, UUID> orderByItem = new HashMap<>();
+        for (ItemView item : salesOrderReadRepository.findItemsBySalesOrderIdIn(orderIds))
+        {
+            itemsByOrder.computeIfAbsent(item.salesOrderId(), id -> new ArrayList<>()).add(item);
+            orderByItem.put(item.itemId(), item.salesOrderId());
+        }
+
+        Map<UUID, List<ItemStatusView>> itemStatusesByOrder = new HashMap<>();
+        for (ItemStatusView status : salesOrderReadRepository.findActiveItemStatusesBySalesOrderIdIn(orderIds))
+        {
+            itemStatusesByOrder.computeIfAbsent(orderByItem.get(status.itemId()), id -> new ArrayList<>()).add(status);
+        }
+
+        for (OrderHeaderView header : chunk)
+        {
+            UUID orderId = header.salesOrderId();
+            writer.writeValue(generator, salesOrderResponseMapper.toOrderResponseDto(header,
+                    statusesByOrder.getOrDefault(orderId, List.of()),
+                    itemsByOrder.getOrDefault(orderId, List.of()),
+                    itemStatusesByOrder.getOrDefault(orderId, List.of())));
+            generator.writeRaw('\n');
+        }
+        generator.flush();
+
+        // Projections stay out of the persistence context, but the session must not grow either way
+        entityManager.clear();
+    }
+}
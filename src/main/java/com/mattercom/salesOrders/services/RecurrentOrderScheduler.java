@@ -0,0 +1,103 @@
+package com.mattercom.salesOrders.services;
+
+import com.mattercom.salesOrders.dto.BulkTransactionResultDto;
+import com.mattercom.salesOrders.repositories.RecurrentOrderDetailsRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Places the next installment of recurrent orders when it falls due.
+ * Every node runs it; the due rows are claimed with SKIP LOCKED, so the nodes share the work
+ * and no installment is placed twice. After each run the backlog still due is published:
+ * a growing lag means the scheduler falls behind or orders are held by a status.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RecurrentOrderScheduler
+{
+    public static final String LAG = "sales_orders.recurrence.lag";
+    public static final String DUE = "sales_orders.recurrence.due";
+    public static final String RESTARTS = "sales_orders.recurrence.restarts";
+
+    private final SalesOrderService salesOrderService;
+    private final RecurrentOrderDetailsRepository recurrentOrderDetailsRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${sales-orders.recurrence.enabled:true}")
+    private boolean enabled;
+
+    // Installments one run places at most; the rest wait for the next run
+    @Value("${sales-orders.recurrence.max-per-run:10000}")
+    private int maxPerRun;
+
+    private final AtomicLong lagSeconds = new AtomicLong();
+    private final AtomicLong due = new AtomicLong();
+    private Counter restarted;
+    private Counter rejected;
+
+    @PostConstruct
+    void registerMetrics()
+    {
+        Gauge.builder(LAG, lagSeconds, AtomicLong::get)
+                .description("How long the oldest due installment has been waiting")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder(DUE, due, AtomicLong::get)
+                .description("Recurrent orders whose next installment is due")
+                .register(meterRegistry);
+        restarted = restarts("restarted");
+        rejected = restarts("rejected");
+    }
+
+    @Scheduled(fixedDelayString = "${sales-orders.recurrence.poll-interval-ms:60000}")
+    public void restartDueOrders()
+    {
+        if (!enabled)
+        {
+            return;
+        }
+        try
+        {
+            BulkTransactionResultDto result = salesOrderService.restartDueRecurrentOrders(Instant.now(), maxPerRun);
+            restarted.increment(result.getAcceptedOrderIds().size());
+            rejected.increment(result.getRejected().size());
+        }
+        catch (RuntimeException e)
+        {
+            // Committed chunks stay placed; the failed one is still due and is claimed next run
+            log.warn("Restarting due recurrent orders failed", e);
+        }
+        finally
+        {
+            measureBacklog(Instant.now());
+        }
+    }
+
+    private void measureBacklog(Instant now)
+    {
+        due.set(recurrentOrderDetailsRepository.countByNextDueAtLessThanEqual(now));
+        lagSeconds.set(recurrentOrderDetailsRepository.findOldestDueAt(now)
+                .map(oldest -> Duration.between(oldest, now).toSeconds())
+                .orElse(0L));
+    }
+
+    private Counter restarts(String outcome)
+    {
+        return Counter.builder(RESTARTS)
+                .description("Recurrent order installments placed by the scheduler")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
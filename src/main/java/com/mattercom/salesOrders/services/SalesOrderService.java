@@ -1,15 +1,23 @@
 package com.mattercom.salesOrders.services;
 
+import com.mattercom.salesOrders.dto.BulkOrderResultDto;
+import com.mattercom.salesOrders.dto.BulkTransactionResultDto;
 import com.mattercom.salesOrders.dto.ItemCreationDto;
+import com.mattercom.salesOrders.dto.ItemResponseDto;
 import com.mattercom.salesOrders.dto.OrderCreationDto;
 import com.mattercom.salesOrders.dto.OrderCreationFlags;
+import com.mattercom.salesOrders.dto.OrderPageDto;
+import com.mattercom.salesOrders.dto.OrderResponseDto;
 import com.mattercom.salesOrders.dto.RecurrentOrderDetailsDto;
+import com.mattercom.salesOrders.dto.ReplenishmentResultDto;
 import com.mattercom.salesOrders.dto.ShipmentAddressDto;
-import com.mattercom.salesOrders.entities.SalesItem;
-import com.mattercom.salesOrders.entities.SalesOrder;
+import com.mattercom.salesOrders.dto.VendorItemPageDto;
 import com.mattercom.salesOrders.enums.DeliverySpeed;
+import com.mattercom.salesOrders.enums.ItemStatusId;
+import com.mattercom.salesOrders.enums.OrderStatusId;
 import com.mattercom.salesOrders.enums.SalesTransactions;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 
@@ -17,33 +25,47 @@ import java.util.UUID;
  * Interface for the SalesOrderService.
  * This decouples the business logic implementation from the controllers,
  * allowing for easy testing and mocking.
+ * Mutations answer with the response built from the aggregate they just flushed,
+ * so controllers never read the order again.
  */
 public interface SalesOrderService {
 
-    UUID createOrder(OrderCreationDto orderCreationDto, OrderCreationFlags orderCreationFlags);
+    OrderResponseDto createOrder(OrderCreationDto orderCreationDto, OrderCreationFlags orderCreationFlags);
 
-    SalesOrder performOrderTransaction(UUID salesOrderId, SalesTransactions transaction);
+    List<BulkOrderResultDto> createOrders(List<OrderCreationDto> orderCreationDtos, OrderCreationFlags orderCreationFlags);
 
-    List<SalesItem> performItemTransaction(List<UUID> salesItemIds, SalesTransactions transaction, UUID salesOrderId);
+    OrderResponseDto performOrderTransaction(UUID salesOrderId, SalesTransactions transaction);
 
-    SalesOrder ChangeShippingAddress(UUID salesOrderId, ShipmentAddressDto shipmentAddressDto, Boolean systemChange);
+    BulkTransactionResultDto performBulkOrderTransaction(List<UUID> salesOrderIds, SalesTransactions transaction);
 
-    List<SalesItem> backOrderItem(List<UUID> salesItemIds, UUID salesOrderId, Integer backOrderedQuantity);
+    BulkTransactionResultDto restartDueRecurrentOrders(Instant now, int maxOrders);
 
-    SalesOrder changeRecurrentDetails(UUID salesOrderId, RecurrentOrderDetailsDto recurrentOrderDetailsDto, Boolean systemChange);
+    List<ItemResponseDto> performItemTransaction(List<UUID> salesItemIds, SalesTransactions transaction, UUID salesOrderId);
 
-    SalesOrder CancelOrder(UUID salesOrderId, Boolean systemCancel);
+    OrderResponseDto ChangeShippingAddress(UUID salesOrderId, ShipmentAddressDto shipmentAddressDto, Boolean systemChange);
 
-    List<SalesItem> cancelOrderItems(List<UUID> salesItemIds, UUID salesOrderId, Boolean systemCancel);
+    List<ItemResponseDto> backOrderItem(List<UUID> salesItemIds, UUID salesOrderId, Integer backOrderedQuantity);
 
-    SalesOrder changeDeliverySpeed(DeliverySpeed deliverySpeed, UUID salesOrderId);
+    ReplenishmentResultDto replenishBackorders(UUID productId, int quantityArrived);
 
-    SalesOrder addOrderItems(UUID salesOrderId, List<ItemCreationDto> itemsToAdd, Boolean systemChange);
+    OrderResponseDto changeRecurrentDetails(UUID salesOrderId, RecurrentOrderDetailsDto recurrentOrderDetailsDto, Boolean systemChange);
 
-    SalesOrder restartOrder(UUID salesOrderId, Boolean regenerateInvoice);
+    OrderResponseDto CancelOrder(UUID salesOrderId, Boolean systemCancel);
 
-    SalesOrder findOrderWithDetailsById(UUID salesOrderId);
+    List<ItemResponseDto> cancelOrderItems(List<UUID> salesItemIds, UUID salesOrderId, Boolean systemCancel);
+
+    OrderResponseDto changeDeliverySpeed(DeliverySpeed deliverySpeed, UUID salesOrderId);
+
+    OrderResponseDto addOrderItems(UUID salesOrderId, List<ItemCreationDto> itemsToAdd, Boolean systemChange);
+
+    OrderResponseDto restartOrder(UUID salesOrderId, Boolean regenerateInvoice);
+
+    OrderResponseDto findOrderWithDetailsById(UUID salesOrderId);
+
+    OrderPageDto findCustomerOrders(UUID customerId, OrderStatusId activeStatus, String cursor, int limit);
+
+    VendorItemPageDto findVendorItems(UUID vendorId, ItemStatusId itemStatus, OrderStatusId orderStatus, String cursor, int limit);
 
     // This was the stray line, now removed.
-    SalesOrder restartDisputedOrder(UUID salesOrderId, Boolean regenerateInvoice);
+    OrderResponseDto restartDisputedOrder(UUID salesOrderId, Boolean regenerateInvoice);
 }
\ No newline at end of file
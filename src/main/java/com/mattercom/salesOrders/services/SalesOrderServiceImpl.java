@@ -6,18 +6,53 @@ import com.mattercom.salesOrders.entities.status.*;
 import com.mattercom.salesOrders.enums.DeliverySpeed;
 import com.mattercom.salesOrders.enums.ItemStatusId;
 import com.mattercom.salesOrders.enums.ObjectType;
+import com.mattercom.salesOrders.enums.OrderStatusId;
 import com.mattercom.salesOrders.enums.SalesTransactions;
 import com.mattercom.salesOrders.mapper.SalesOrderMapper;
+import com.mattercom.salesOrders.mapper.SalesOrderResponseMapper;
+import com.mattercom.salesOrders.monitoring.MeteredTransaction;
+import com.mattercom.salesOrders.records.ItemStatusView;
+import com.mattercom.salesOrders.records.OrderActiveStatusView;
+import com.mattercom.salesOrders.records.OrderHeaderView;
+import com.mattercom.salesOrders.records.OrderListCursor;
+import com.mattercom.salesOrders.records.OrderSummaryView;
+import com.mattercom.salesOrders.records.VendorItemCursor;
+import com.mattercom.salesOrders.records.VendorItemView;
 import com.mattercom.salesOrders.repositories.*;
+import com.mattercom.salesOrders.util.ItemCounters;
+import com.mattercom.salesOrders.util.OrderTotals;
+import com.mattercom.salesOrders.util.RecurrenceSchedule;
 import com.mattercom.salesOrders.util.StatusManagementUtil;
 import com.mattercom.salesOrders.util.StatusRuleConstants;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.data.domain.Limit;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor // This handles the constructor injection
@@ -28,54 +63,173 @@ public class SalesOrderServiceImpl implements SalesOrderService
     private final SalesOrderRepository salesOrderRepository;
     private final SalesOrderMapper salesOrderMapper;
     private final SalesItemRepository salesItemRepository;
-    private final SalesOrderStatusRepository salesOrderStatusRepository;
+    private final SalesOrderReadRepository salesOrderReadRepository;
+    private final RecurrentOrderDetailsRepository recurrentOrderDetailsRepository;
+    private final BackOrderedItemRepository backOrderedItemRepository;
+    private final SalesOrderResponseMapper salesOrderResponseMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final Validator validator;
+
+    // How many orders of a bulk request share one transaction and one JDBC batch
+    @Value("${sales-orders.bulk.chunk-size:200}")
+    private int bulkChunkSize;
+
+    // Attempts per bulk chunk that loses a lock race, the first included
+    @Value("${sales-orders.bulk.max-attempts:3}")
+    private int bulkMaxAttempts;
+
+    // Upper bound for ?limit= on the customer order and vendor item listings
+    @Value("${sales-orders.listing.max-page-size:100}")
+    private int maxPageSize;
 
     @Transactional
-    public UUID createOrder(OrderCreationDto orderCreationDto, OrderCreationFlags orderCreationFlags)
+    public OrderResponseDto createOrder(OrderCreationDto orderCreationDto, OrderCreationFlags orderCreationFlags)
     {
-        // Map the DTO to the entity
-        SalesOrder newOrder = salesOrderMapper.toSalesOrder(orderCreationDto);
+        SalesOrder newOrder = buildNewOrder(orderCreationDto, orderCreationFlags);
 
-        // Set the bidirectional relationships so JPA saves them
-        newOrder.getShipmentAddress().setSalesOrder(newOrder);
-        if (newOrder.getRecurrentOrderDetails() != null)
-        {
-            newOrder.getRecurrentOrderDetails().setSalesOrder(newOrder);
-        }
-        newOrder.getSalesItems().forEach(item -> item.setSalesOrder(newOrder));
+        // The new aggregate is complete in memory, so no re-read is needed for the response
+        return saveAndRespond(newOrder);
+    }
 
-        // Get the initial status list based on flags (e.g., Credit Block)
-        List<SalesOrderStatus> orderCreationStatuses = StatusManagementUtil.orderCreationListProvider(orderCreationFlags);
-        newOrder.setStatusList(orderCreationStatuses);
+    /**
+     * Bulk variant of createOrder for importers.
+     * Deliberately NOT @Transactional: every chunk gets its own transaction so one
+     * failing chunk never undoes the ones already committed.
+     */
+    public List<BulkOrderResultDto> createOrders(List<OrderCreationDto> orderCreationDtos, OrderCreationFlags orderCreationFlags)
+    {
+        BulkOrderResultDto[] results = new BulkOrderResultDto[orderCreationDtos.size()];
 
-        SalesOrder savedOrder = salesOrderRepository.save(newOrder);
+        for (int from = 0; from < orderCreationDtos.size(); from += bulkChunkSize)
+        {
+            int to = Math.min(from + bulkChunkSize, orderCreationDtos.size());
 
-        return savedOrder.getSalesOrderId();
+            // Validate and map up front, so bad input never reaches the transaction
+            List<Integer> chunkIndexes = new ArrayList<>();
+            List<SalesOrder> chunkOrders = new ArrayList<>();
+            for (int index = from; index < to; index++)
+            {
+                OrderCreationDto dto = orderCreationDtos.get(index);
+                String validationError = validateOrder(dto);
+                if (validationError != null)
+                {
+                    results[index] = BulkOrderResultDto.failed(index, validationError);
+                    continue;
+                }
+                try
+                {
+                    chunkOrders.add(buildNewOrder(dto, orderCreationFlags));
+                    chunkIndexes.add(index);
+                }
+                catch (RuntimeException e)
+                {
+                    results[index] = BulkOrderResultDto.failed(index, e.getMessage());
+                }
+            }
 
+            if (!chunkOrders.isEmpty())
+            {
+                persistChunk(chunkIndexes, chunkOrders, orderCreationDtos, orderCreationFlags, results);
+            }
+        }
+        return Arrays.asList(results);
     }
 
+    @OrderCommand
     @Transactional
-    public SalesOrder performOrderTransaction(UUID salesOrderId, SalesTransactions transaction)
+    public OrderResponseDto performOrderTransaction(UUID salesOrderId, SalesTransactions transaction)
     {
-       // My gate to prevent this from being used for complex transactions
-        if (transaction.getObjectType() != ObjectType.ORDER||transaction == SalesTransactions.CANCEL_ORDER
-                ||transaction==SalesTransactions.RESTART_ORDER ||transaction==SalesTransactions.RESTART_DISPUTED_ORDER)
-        {
-            throw new IllegalArgumentException("Invalid transaction type for Item: " + transaction);
-        }
+        checkGenericOrderTransaction(transaction);
 
         // This is my main helper for all generic order state changes.
-        SalesOrder salesOrder = getOrderWithStatus(salesOrderId);
+        SalesOrder salesOrder = getOrderWithDetails(salesOrderId);
         StatusRuleConstants.checkHeaderStatuses(salesOrder.getStatusList(), transaction, salesOrderId);
         List<SalesOrderStatus> newStatusList = StatusManagementUtil.applyOrderStatusChange(salesOrder, transaction);
         salesOrder.setStatusList(newStatusList);
 
-        return salesOrderRepository.save(salesOrder);
+        return saveAndRespond(salesOrder);
+
+    }
+
+    /**
+     * Applies one generic order transaction to many orders (e.g. a whole truck going in transit).
+     * Per chunk: one query loads every order with its statuses, the header guard runs in memory,
+     * and the accepted changes are flushed as JDBC batches. A forbidden or missing order is
+     * reported as rejected instead of failing the call, and so is every order of a chunk that
+     * could not be written, since earlier chunks have committed by then.
+     */
+    public BulkTransactionResultDto performBulkOrderTransaction(List<UUID> salesOrderIds, SalesTransactions transaction)
+    {
+        checkGenericOrderTransaction(transaction);
+
+        List<UUID> distinctIds = new ArrayList<>(new LinkedHashSet<>(salesOrderIds));
+        BulkTransactionResultDto result = BulkTransactionResultDto.builder().transaction(transaction).build();
+
+        for (int from = 0; from < distinctIds.size(); from += bulkChunkSize)
+        {
+            List<UUID> chunkIds = distinctIds.subList(from, Math.min(from + bulkChunkSize, distinctIds.size()));
+            try
+            {
+                // Only merged after commit, so a failed flush never reports phantom acceptances
+                BulkTransactionResultDto chunkResult = executeChunk(() -> applyBulkOrderTransaction(chunkIds, transaction));
+                result.getAcceptedOrderIds().addAll(chunkResult.getAcceptedOrderIds());
+                result.getRejected().addAll(chunkResult.getRejected());
+            }
+            catch (DataAccessException | PersistenceException chunkFailure)
+            {
+                // Nothing of the chunk was committed; its orders are reported so the caller can send them again
+                String reason = "Not applied: " + NestedExceptionUtils.getMostSpecificCause(chunkFailure).getMessage();
+                for (UUID salesOrderId : chunkIds)
+                {
+                    result.getRejected().add(new BulkTransactionResultDto.Rejection(salesOrderId, null, reason));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Places the next installment of the recurrent orders that are due, oldest first, at most
+     * maxOrders per call. Each chunk claims its rows with SKIP LOCKED and restarts them in the
+     * same transaction, so nodes running this at once split the due orders and none fires twice.
+     * Not @Transactional, for the same reason as performBulkOrderTransaction.
+     */
+    @MeteredTransaction(SalesTransactions.RESTART_ORDER)
+    public BulkTransactionResultDto restartDueRecurrentOrders(Instant now, int maxOrders)
+    {
+        transactionTemplate.executeWithoutResult(status -> recurrentOrderDetailsRepository.stopCancelled(now, OrderStatusId.E_CNCL));
 
+        List<String> forbidding = StatusRuleConstants.headerStatusesForbidding(SalesTransactions.RESTART_ORDER).stream()
+                .map(Enum::name)
+                .toList();
+        BulkTransactionResultDto result = BulkTransactionResultDto.builder().transaction(SalesTransactions.RESTART_ORDER).build();
+        int claimed = 0;
+        boolean moreDue = true;
+        while (moreDue && claimed < maxOrders)
+        {
+            int limit = Math.min(bulkChunkSize, maxOrders - claimed);
+            try
+            {
+                BulkTransactionResultDto chunkResult = transactionTemplate.execute(status -> applyDueRestarts(now, forbidding, limit));
+                result.getAcceptedOrderIds().addAll(chunkResult.getAcceptedOrderIds());
+                result.getRejected().addAll(chunkResult.getRejected());
+                int chunkClaimed = chunkResult.getAcceptedOrderIds().size() + chunkResult.getRejected().size();
+                claimed += chunkClaimed;
+                // A short chunk means nothing claimable is left
+                moreDue = chunkClaimed == limit;
+            }
+            finally
+            {
+                entityManager.clear();
+            }
+        }
+        return result;
     }
 
+    @OrderCommand
     @Transactional
-    public List<SalesItem> performItemTransaction(List<UUID> salesItemIds, SalesTransactions transaction, UUID salesOrderId)
+    public List<ItemResponseDto> performItemTransaction(List<UUID> salesItemIds, SalesTransactions transaction, UUID salesOrderId)
     {
         // My gate for complex item transactions
         if (transaction.getObjectType() != ObjectType.ITEM||transaction == SalesTransactions.BACKORDER_ITEM
@@ -84,8 +238,8 @@ public class SalesOrderServiceImpl implements SalesOrderService
             throw new IllegalArgumentException("Invalid transaction type for Item: " + transaction);
         }
 
-        // Must check order-level rules first
-        List<SalesOrderStatus> orderStatusList = getOrderStatus(salesOrderId);
+        // Must check order-level rules first; the order itself is loaded too, for its item counters
+        List<SalesOrderStatus> orderStatusList = getOrderHeader(salesOrderId).getStatusList();
         StatusRuleConstants.checkHeaderStatuses(orderStatusList, transaction, salesOrderId);
 
         List<SalesItem> salesItems = getOrderItems(salesItemIds, salesOrderId);
@@ -102,13 +256,15 @@ public class SalesOrderServiceImpl implements SalesOrderService
                 salesItem.setBackOrderedItem(null);
             }
         }
-        return salesItemRepository.saveAll(salesItems);
+        return saveAndRespond(salesItems);
     }
 
+    @MeteredTransaction(SalesTransactions.CHANGE_DETAILS)
+    @OrderCommand
     @Transactional
-    public SalesOrder ChangeShippingAddress(UUID salesOrderId, ShipmentAddressDto shipmentAddressDto, Boolean systemChange)
+    public OrderResponseDto ChangeShippingAddress(UUID salesOrderId, ShipmentAddressDto shipmentAddressDto, Boolean systemChange)
     {
-        SalesOrder salesOrder = getOrderWithStatus(salesOrderId);
+        SalesOrder salesOrder = getOrderWithDetails(salesOrderId);
 
         // Use my standard permission check for updates
         checkUpdatePermission(salesOrder, systemChange);
@@ -117,14 +273,16 @@ public class SalesOrderServiceImpl implements SalesOrderService
         salesOrder.setShipmentAddress(shipmentAddress);
         shipmentAddress.setSalesOrder(salesOrder); // Set the owning side
 
-        return salesOrderRepository.save(salesOrder);
+        return saveAndRespond(salesOrder);
     }
 
+    @MeteredTransaction(SalesTransactions.BACKORDER_ITEM)
+    @OrderCommand
     @Transactional
-    public List<SalesItem> backOrderItem(List<UUID> salesItemIds, UUID salesOrderId, Integer backOrderedQuantity)
+    public List<ItemResponseDto> backOrderItem(List<UUID> salesItemIds, UUID salesOrderId, Integer backOrderedQuantity)
     {
-        // Must check order-level rules first
-        List<SalesOrderStatus> orderStatusList = getOrderStatus(salesOrderId);
+        // Must check order-level rules first; the order itself is loaded too, for its item counters
+        List<SalesOrderStatus> orderStatusList = getOrderHeader(salesOrderId).getStatusList();
         StatusRuleConstants.checkHeaderStatuses(orderStatusList, SalesTransactions.BACKORDER_ITEM, salesOrderId);
 
         List<SalesItem> salesItems = getOrderItems(salesItemIds, salesOrderId);
@@ -132,19 +290,99 @@ public class SalesOrderServiceImpl implements SalesOrderService
         for (SalesItem salesItem : salesItems)
         {
             StatusRuleConstants.checkItemStatuses(salesItem.getStatusList(), SalesTransactions.BACKORDER_ITEM, salesItem.getItemId());
-            List<SalesItemStatus> newStatusList = StatusManagementUtil.applyItemStatusChange(salesItem, SalesTransactions.BACKORDER_ITEM);
-            salesItem.setStatusList(newStatusList);
 
-            BackOrderedItem backOrderedItem = BackOrderedItem.builder().bckQty(backOrderedQuantity).build();
+            // Attached first, so the order's backordered net counts only the backordered quantity
+            BackOrderedItem backOrderedItem = BackOrderedItem.builder()
+                    .bckQty(backOrderedQuantity)
+                    .productId(salesItem.getProductId())
+                    .build();
             salesItem.setBackOrderedItem(backOrderedItem);
             backOrderedItem.setSalesItem(salesItem); // Set the owning side
+
+            List<SalesItemStatus> newStatusList = StatusManagementUtil.applyItemStatusChange(salesItem, SalesTransactions.BACKORDER_ITEM);
+            salesItem.setStatusList(newStatusList);
         }
-        return salesItemRepository.saveAll(salesItems);
+        return saveAndRespond(salesItems);
     }
 
-    public SalesOrder changeRecurrentDetails(UUID salesOrderId, RecurrentOrderDetailsDto recurrentOrderDetailsDto,Boolean systemChange)
+    /**
+     * Releases a product's backorders first in, first out against quantityArrived units.
+     * Each backorder the remaining quantity covers gets REORDER_ITEM and loses its BackOrderedItem;
+     * the first one it does not cover keeps its backorder, reduced by what was left.
+     * Each chunk claims its backorders with SKIP LOCKED and releases them in the same transaction,
+     * so replenishments of one product running at once never allocate a unit twice.
+     * Backorders whose order or item status forbids the reorder are skipped and reported.
+     * A chunk that cannot be written stops the run: what earlier chunks released is committed and
+     * reported, with the quantity still unallocated, so the caller replenishes only the rest.
+     * Not @Transactional, for the same reason as performBulkOrderTransaction.
+     */
+    @MeteredTransaction(SalesTransactions.REORDER_ITEM)
+    public ReplenishmentResultDto replenishBackorders(UUID productId, int quantityArrived)
     {
-        SalesOrder salesOrder = getOrderWithStatus(salesOrderId);
+        if (productId == null)
+        {
+            throw new IllegalArgumentException("Product ID cannot be null");
+        }
+        if (quantityArrived < 1)
+        {
+            throw new IllegalArgumentException("Quantity arrived must be at least 1");
+        }
+
+        long started = System.nanoTime();
+        List<String> forbidding = StatusRuleConstants.itemStatusesForbidding(SalesTransactions.REORDER_ITEM).stream()
+                .map(Enum::name)
+                .toList();
+        ReplenishmentResultDto result = ReplenishmentResultDto.builder()
+                .productId(productId)
+                .quantityArrived(quantityArrived)
+                .build();
+        Set<UUID> releasedOrderIds = new HashSet<>();
+        // Sorts before every backorder
+        BackorderCursor cursor = new BackorderCursor(Instant.EPOCH, 0L);
+        int remaining = quantityArrived;
+        boolean moreOpen = true;
+        while (moreOpen && remaining > 0)
+        {
+            // Every released backorder takes at least one unit, so no more are claimed than could be released
+            int limit = Math.min(bulkChunkSize, remaining);
+            BackorderCursor after = cursor;
+            int available = remaining;
+            try
+            {
+                // Only merged after commit, so a failed flush never reports phantom releases
+                ReplenishmentChunk chunk = executeChunk(() -> applyReplenishment(productId, available, after, forbidding, limit));
+                result.setQuantityAllocated(result.getQuantityAllocated() + chunk.allocated());
+                result.getReleasedItemIds().addAll(chunk.releasedItemIds());
+                result.getRejected().addAll(chunk.rejected());
+                releasedOrderIds.addAll(chunk.releasedOrderIds());
+                if (chunk.partiallyFilledItemId() != null)
+                {
+                    result.setPartiallyFilledItemId(chunk.partiallyFilledItemId());
+                }
+                remaining -= chunk.allocated();
+                cursor = chunk.last();
+                // A short chunk means no open backorder is left
+                moreOpen = chunk.claimed() == limit;
+            }
+            catch (DataAccessException | PersistenceException chunkFailure)
+            {
+                // Nothing of the chunk was committed; the backorders from the cursor on stay open
+                result.setFailure(NestedExceptionUtils.getMostSpecificCause(chunkFailure).getMessage());
+                break;
+            }
+        }
+        result.setQuantityUnallocated(remaining);
+        result.setReleasedOrders(releasedOrderIds.size());
+        result.setDurationMs(Duration.ofNanos(System.nanoTime() - started).toMillis());
+        return result;
+    }
+
+    @MeteredTransaction(SalesTransactions.CHANGE_DETAILS)
+    @OrderCommand
+    @Transactional
+    public OrderResponseDto changeRecurrentDetails(UUID salesOrderId, RecurrentOrderDetailsDto recurrentOrderDetailsDto,Boolean systemChange)
+    {
+        SalesOrder salesOrder = getOrderWithDetails(salesOrderId);
 
     // Use my standard permission check for updates
         checkUpdatePermission(salesOrder, systemChange);
@@ -158,18 +396,32 @@ public class SalesOrderServiceImpl implements SalesOrderService
             // This is a business rule, not a status rule, so it's good here.
             throw new IllegalArgumentException("Item already in transit");
         }
-        RecurrentOrderDetails recurrentOrderDetails = salesOrderMapper.toRecurrentOrderDetails(recurrentOrderDetailsDto);
-        salesOrder.setRecurrentOrderDetails(recurrentOrderDetails);
-        recurrentOrderDetails.setSalesOrder(salesOrder); // Set the owning side
+        // Updated in place: a second row would clash with the old one on order_id,
+        // and the installments already placed still count
+        RecurrentOrderDetails recurrentOrderDetails = salesOrder.getRecurrentOrderDetails();
+        if (recurrentOrderDetails == null)
+        {
+            recurrentOrderDetails = salesOrderMapper.toRecurrentOrderDetails(recurrentOrderDetailsDto);
+            salesOrder.setRecurrentOrderDetails(recurrentOrderDetails);
+            recurrentOrderDetails.setSalesOrder(salesOrder); // Set the owning side
+            RecurrenceSchedule.start(recurrentOrderDetails, Instant.now());
+        }
+        else
+        {
+            salesOrderMapper.updateRecurrentOrderDetails(recurrentOrderDetailsDto, recurrentOrderDetails);
+            RecurrenceSchedule.reschedule(recurrentOrderDetails, Instant.now());
+        }
 
-        return salesOrderRepository.save(salesOrder);
+        return saveAndRespond(salesOrder);
     }
 
+    @MeteredTransaction(SalesTransactions.CANCEL_ORDER)
+    @OrderCommand
     @Transactional
-    public SalesOrder CancelOrder(UUID salesOrderId,Boolean systemCancel)
+    public OrderResponseDto CancelOrder(UUID salesOrderId,Boolean systemCancel)
     {
         // Need the full order with items for this
-        SalesOrder salesOrder = getOrderWithItems(salesOrderId);
+        SalesOrder salesOrder = getOrderWithDetails(salesOrderId);
         StatusRuleConstants.checkHeaderStatuses(salesOrder.getStatusList(), SalesTransactions.CANCEL_ORDER, salesOrderId);
         // Determine if it's a user or system cancel
         SalesTransactions itemTransaction = systemCancel ? SalesTransactions.SYSTEM_CANCEL_ITEM : SalesTransactions.CANCEL_ITEM;
@@ -185,13 +437,15 @@ public class SalesOrderServiceImpl implements SalesOrderService
         salesOrder.setSalesItems(salesOrder.getSalesItems());
         salesOrder.setStatusList(orderStatusList);
 
-        return salesOrderRepository.save(salesOrder);
+        return saveAndRespond(salesOrder);
     }
 
+    @MeteredTransaction(SalesTransactions.CANCEL_ITEM)
+    @OrderCommand
     @Transactional
-    public List<SalesItem> cancelOrderItems(List<UUID> salesItemIds, UUID salesOrderId, Boolean systemCancel)
+    public List<ItemResponseDto> cancelOrderItems(List<UUID> salesItemIds, UUID salesOrderId, Boolean systemCancel)
     {
-        SalesOrder salesOrder = getOrderWithStatus(salesOrderId);
+        SalesOrder salesOrder = getOrderHeader(salesOrderId);
         // Check header rules
         StatusRuleConstants.checkHeaderStatuses(salesOrder.getStatusList(), SalesTransactions.CANCEL_ITEM, salesOrderId);
 
@@ -207,22 +461,26 @@ public class SalesOrderServiceImpl implements SalesOrderService
         List <SalesItem> cancelledItems = salesItemRepository.saveAll(salesItems);
         // Side effect: If all items are cancelled, cancel the order too.
         cancelOrderIfAllItemsCancelled(salesOrder);
-        return cancelledItems;
+        return flushAndRespond(cancelledItems);
     }
 
+    @MeteredTransaction(SalesTransactions.CHANGE_DETAILS)
+    @OrderCommand
     @Transactional
-    public SalesOrder changeDeliverySpeed(DeliverySpeed deliverySpeed, UUID salesOrderId)
+    public OrderResponseDto changeDeliverySpeed(DeliverySpeed deliverySpeed, UUID salesOrderId)
     {
         // Need to use getOrderWithDetails for this, as findById doesn't fetch statuses
         SalesOrder salesOrder = getOrderWithDetails(salesOrderId);
         // Can't change speed if it's locked (e.g., in transit)
         StatusRuleConstants.checkHeaderStatuses(salesOrder.getStatusList(),SalesTransactions.CHANGE_DETAILS, salesOrderId);
         salesOrder.setDeliverySpeed(deliverySpeed);
-        return salesOrderRepository.save(salesOrder);
+        return saveAndRespond(salesOrder);
     }
 
+    @MeteredTransaction(SalesTransactions.CREATE_ITEM)
+    @OrderCommand
     @Transactional
-    public SalesOrder addOrderItems(UUID salesOrderId, List<ItemCreationDto> itemsToAdd, Boolean systemChange)
+    public OrderResponseDto addOrderItems(UUID salesOrderId, List<ItemCreationDto> itemsToAdd, Boolean systemChange)
     {
         if (itemsToAdd.isEmpty())
         {
@@ -234,31 +492,45 @@ public class SalesOrderServiceImpl implements SalesOrderService
             throw new IllegalArgumentException("SalesOrder ID cannot be null");
         }
 
-        SalesOrder salesOrder = getOrderWithStatus(salesOrderId);
+        SalesOrder salesOrder = getOrderWithDetails(salesOrderId);
         // Use my standard permission check for updates
         checkUpdatePermission(salesOrder, systemChange);
 
         List<SalesItem> salesItems = salesOrder.getSalesItems();
+        List<SalesItem> addedItems = new ArrayList<>();
         for (ItemCreationDto itemCreationDto : itemsToAdd)
         {
             SalesItem salesItem = salesOrderMapper.toSalesItem(itemCreationDto);
             salesItem.setSalesOrder( salesOrder ); // Set the owning side
-            salesItems.add(salesItem);
+            addedItems.add(salesItem);
         }
+        salesItems.addAll(addedItems);
+        ItemCounters.itemsAdded(salesOrder, addedItems);
+        OrderTotals.itemsAdded(salesOrder, addedItems);
         // Set the list once, *after* the loop
         salesOrder.setSalesItems(salesItems);
-        return salesOrderRepository.save(salesOrder);
+        return saveAndRespond(salesOrder);
     }
 
+    @MeteredTransaction(SalesTransactions.RESTART_ORDER)
+    @OrderCommand
     @Transactional
-    public SalesOrder restartOrder(UUID salesOrderId, Boolean regenerateInvoice)
+    public OrderResponseDto restartOrder(UUID salesOrderId, Boolean regenerateInvoice)
     {
-        SalesOrder salesOrder = getOrderWithItems(salesOrderId);
+        // Locked before the order is read, so this restart and the scheduler's claim place one installment, not two
+        RecurrentOrderDetails recurrence = recurrentOrderDetailsRepository.findForUpdateBySalesOrder_SalesOrderId(salesOrderId)
+                .orElse(null);
+        SalesOrder salesOrder = getOrderWithDetails(salesOrderId);
         //This prevents restarting of non-recurring orders
         if(! salesOrder.getRecurrent())
         {
             throw new IllegalArgumentException("Invalid Request: restartOrder is for recurrent system use only.");
         }
+        if (recurrence != null && recurrence.getInstallments() != null
+                && recurrence.getCompletedInstallments() >= recurrence.getInstallments())
+        {
+            throw new IllegalStateException("All " + recurrence.getInstallments() + " installments of order " + salesOrderId + " are placed");
+        }
         // Restarts the order lifecycle for recurremt orders
         StatusRuleConstants.checkHeaderStatuses(salesOrder.getStatusList(),SalesTransactions.RESTART_ORDER, salesOrderId);
         List<SalesOrderStatus> newStatusList = StatusManagementUtil.applyOrderStatusChange(salesOrder,SalesTransactions.RESTART_ORDER);
@@ -272,23 +544,166 @@ public class SalesOrderServiceImpl implements SalesOrderService
             newStatusList = StatusManagementUtil.applyOrderStatusChange(salesOrder, SalesTransactions.CANCEL_INVOICE);
             salesOrder.setStatusList(newStatusList);
         }
-        return salesOrderRepository.save(salesOrder);
+        // Books the installment like applyDueRestarts, so the scheduler does not place it again
+        if (recurrence != null)
+        {
+            RecurrenceSchedule.advance(recurrence, Instant.now());
+        }
+        return saveAndRespond(salesOrder);
     }
 
     /**
      * Public helper for controllers to fetch the full order DTO.
+     * Reads projections only (header, active header statuses, items, active item statuses),
+     * so no entity is loaded; one read-only transaction keeps the four queries on one connection.
      */
     @Transactional(readOnly = true)
-    public SalesOrder findOrderWithDetailsById(UUID salesOrderId)
+    public OrderResponseDto findOrderWithDetailsById(UUID salesOrderId)
     {
-        // Using the "details" fetch from the repo
-        return getOrderWithDetails(salesOrderId);
+        OrderHeaderView header = salesOrderReadRepository.findHeaderBySalesOrderId(salesOrderId)
+                .orElseThrow(() -> new EntityNotFoundException("SalesOrder with id: " + salesOrderId + " not found"));
+        return salesOrderResponseMapper.toOrderResponseDto(header,
+                salesOrderReadRepository.findActiveStatusesBySalesOrderId(salesOrderId),
+                salesOrderReadRepository.findItemsBySalesOrderId(salesOrderId),
+                salesOrderReadRepository.findActiveItemStatusesBySalesOrderId(salesOrderId));
     }
 
+    /**
+     * One page of a customer's orders, newest first, optionally only those with an active status.
+     * Seeks from the cursor instead of skipping rows, and reads one row more than the page
+     * to know whether another page follows. Two queries per page: the rows, then their active statuses.
+     */
+    @Transactional(readOnly = true)
+    public OrderPageDto findCustomerOrders(UUID customerId, OrderStatusId activeStatus, String cursor, int limit)
+    {
+        if (customerId == null)
+        {
+            throw new IllegalArgumentException("Customer ID cannot be null");
+        }
+        if (limit < 1 || limit > maxPageSize)
+        {
+            throw new IllegalArgumentException("limit must be between 1 and " + maxPageSize);
+        }
+
+        OrderListCursor after = cursor == null || cursor.isBlank() ? null : OrderListCursor.decode(cursor);
+        Limit probe = Limit.of(limit + 1);
+        List<OrderSummaryView> rows;
+        if (activeStatus == null)
+        {
+            rows = after == null
+                    ? salesOrderReadRepository.findCustomerOrders(customerId, probe)
+                    : salesOrderReadRepository.findCustomerOrdersAfter(customerId, after.createdAt(), after.orderId(), probe);
+        }
+        else
+        {
+            rows = after == null
+                    ? salesOrderReadRepository.findCustomerOrdersWithStatus(customerId, activeStatus, probe)
+                    : salesOrderReadRepository.findCustomerOrdersWithStatusAfter(customerId, activeStatus, after.createdAt(), after.orderId(), probe);
+        }
+
+        boolean hasNext = rows.size() > limit;
+        List<OrderSummaryView> page = hasNext ? rows.subList(0, limit) : rows;
+
+        Map<UUID, Set<OrderStatusId>> statusesByOrder = new HashMap<>();
+        if (!page.isEmpty())
+        {
+            List<UUID> orderIds = page.stream().map(OrderSummaryView::salesOrderId).toList();
+            for (OrderActiveStatusView status : salesOrderReadRepository.findActiveStatusesBySalesOrderIdIn(orderIds))
+            {
+                statusesByOrder.computeIfAbsent(status.salesOrderId(), id -> EnumSet.noneOf(OrderStatusId.class))
+                        .add(status.orderStatusId());
+            }
+        }
+
+        List<OrderSummaryDto> orders = page.stream()
+                .map(row -> OrderSummaryDto.builder()
+                        .orderId(row.salesOrderId())
+                        .createdAt(row.createdAt())
+                        .deliverySpeed(row.deliverySpeed())
+                        .recurrent(row.recurrent())
+                        .inTransit(row.inTransit())
+                        .activeStatuses(statusesByOrder.getOrDefault(row.salesOrderId(), EnumSet.noneOf(OrderStatusId.class)))
+                        .build())
+                .toList();
+
+        OrderSummaryView last = hasNext ? page.get(page.size() - 1) : null;
+        return OrderPageDto.builder()
+                .orders(orders)
+                .nextCursor(last == null ? null : new OrderListCursor(last.createdAt(), last.salesOrderId()).encode())
+                .build();
+    }
+
+    /**
+     * One page of a vendor's items in item id order, optionally only those with an active item status
+     * and/or whose order has an active order status. Same seek and probe as findCustomerOrders, except
+     * that an item status filter seeks on the status rows; two queries per page: the rows, then their
+     * active item statuses.
+     */
+    @Transactional(readOnly = true)
+    public VendorItemPageDto findVendorItems(UUID vendorId, ItemStatusId itemStatus, OrderStatusId orderStatus, String cursor, int limit)
+    {
+        if (vendorId == null)
+        {
+            throw new IllegalArgumentException("Vendor ID cannot be null");
+        }
+        if (limit < 1 || limit > maxPageSize)
+        {
+            throw new IllegalArgumentException("limit must be between 1 and " + maxPageSize);
+        }
+
+        UUID after = (cursor == null || cursor.isBlank() ? VendorItemCursor.START : VendorItemCursor.decode(cursor)).itemId();
+        Limit probe = Limit.of(limit + 1);
+        List<VendorItemView> rows;
+        if (itemStatus == null)
+        {
+            rows = orderStatus == null
+                    ? salesOrderReadRepository.findVendorItems(vendorId, after, probe)
+                    : salesOrderReadRepository.findVendorItemsWithOrderStatus(vendorId, orderStatus, after, probe);
+        }
+        else
+        {
+            rows = orderStatus == null
+                    ? salesOrderReadRepository.findVendorItemsWithItemStatus(vendorId, itemStatus, after, probe)
+                    : salesOrderReadRepository.findVendorItemsWithItemAndOrderStatus(vendorId, itemStatus, orderStatus, after, probe);
+        }
+
+        boolean hasNext = rows.size() > limit;
+        List<VendorItemView> page = hasNext ? rows.subList(0, limit) : rows;
+
+        Map<UUID, Set<ItemStatusId>> statusesByItem = new HashMap<>();
+        if (!page.isEmpty())
+        {
+            List<UUID> itemIds = page.stream().map(VendorItemView::itemId).toList();
+            for (ItemStatusView status : salesOrderReadRepository.findActiveItemStatusesByItemIdIn(itemIds))
+            {
+                statusesByItem.computeIfAbsent(status.itemId(), id -> EnumSet.noneOf(ItemStatusId.class))
+                        .add(status.itemStatusId());
+            }
+        }
+
+        List<VendorItemDto> items = page.stream()
+                .map(row -> VendorItemDto.builder()
+                        .itemId(row.itemId())
+                        .orderId(row.salesOrderId())
+                        .productId(row.productId())
+                        .netQty(row.netQty())
+                        .activeStatuses(statusesByItem.getOrDefault(row.itemId(), EnumSet.noneOf(ItemStatusId.class)))
+                        .build())
+                .toList();
+
+        VendorItemView last = hasNext ? page.get(page.size() - 1) : null;
+        return VendorItemPageDto.builder()
+                .items(items)
+                .nextCursor(last == null ? null : new VendorItemCursor(last.itemId()).encode())
+                .build();
+    }
+
+    @MeteredTransaction(SalesTransactions.RESTART_DISPUTED_ORDER)
+    @OrderCommand
     @Transactional
-    public SalesOrder restartDisputedOrder(UUID salesOrderId,Boolean regenerateInvoice)
+    public OrderResponseDto restartDisputedOrder(UUID salesOrderId,Boolean regenerateInvoice)
     {
-        SalesOrder salesOrder = getOrderWithItems(salesOrderId);
+        SalesOrder salesOrder = getOrderWithDetails(salesOrderId);
         // Restarts the order in case of disputes
         StatusRuleConstants.checkHeaderStatuses(salesOrder.getStatusList(),SalesTransactions.RESTART_DISPUTED_ORDER, salesOrderId);
         List<SalesOrderStatus> newStatusList = StatusManagementUtil.applyOrderStatusChange(salesOrder,SalesTransactions.RESTART_DISPUTED_ORDER);
@@ -302,13 +717,110 @@ public class SalesOrderServiceImpl implements SalesOrderService
             newStatusList = StatusManagementUtil.applyOrderStatusChange(salesOrder, SalesTransactions.CANCEL_INVOICE);
             salesOrder.setStatusList(newStatusList);
         }
-        return salesOrderRepository.save(salesOrder);
+        return saveAndRespond(salesOrder);
     }
 
 // =================================================================
 // PRIVATE HELPER METHODS
 // =================================================================
 
+    /**
+     * Maps a creation DTO to a new, unsaved order with all owning sides and
+     * the initial status list (based on flags, e.g. Credit Block) in place.
+     */
+    private SalesOrder buildNewOrder(OrderCreationDto orderCreationDto, OrderCreationFlags orderCreationFlags)
+    {
+        // Map the DTO to the entity
+        SalesOrder newOrder = salesOrderMapper.toSalesOrder(orderCreationDto);
+
+        // Set the bidirectional relationships so JPA saves them
+        newOrder.getShipmentAddress().setSalesOrder(newOrder);
+        if (newOrder.getRecurrentOrderDetails() != null)
+        {
+            newOrder.getRecurrentOrderDetails().setSalesOrder(newOrder);
+            // The creation DTO has no recurrent flag; recurrence details are what make an order recurrent
+            newOrder.setRecurrent(true);
+            RecurrenceSchedule.start(newOrder.getRecurrentOrderDetails(), Instant.now());
+        }
+        newOrder.getSalesItems().forEach(item -> item.setSalesOrder(newOrder));
+        ItemCounters.itemsAdded(newOrder, newOrder.getSalesItems());
+        OrderTotals.itemsAdded(newOrder, newOrder.getSalesItems());
+
+        List<SalesOrderStatus> orderCreationStatuses = StatusManagementUtil.orderCreationListProvider(orderCreationFlags);
+        orderCreationStatuses.forEach(status -> status.setSalesOrder(newOrder));
+        newOrder.setStatusList(orderCreationStatuses);
+        return newOrder;
+    }
+
+    /**
+     * Runs bean validation for one bulk entry (the controller cannot @Valid the
+     * whole list without rejecting every order for one bad one).
+     * Returns null when the order is valid.
+     */
+    private String validateOrder(OrderCreationDto orderCreationDto)
+    {
+        if (orderCreationDto == null)
+        {
+            return "Order cannot be null";
+        }
+        Set<ConstraintViolation<OrderCreationDto>> violations = validator.validate(orderCreationDto);
+        if (violations.isEmpty())
+        {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    /**
+     * Writes one chunk in a single transaction and a single flush (one JDBC batch per table).
+     * If the database rejects the chunk, each order is retried in its own transaction
+     * so only the offending orders are reported as failed.
+     */
+    private void persistChunk(List<Integer> chunkIndexes, List<SalesOrder> chunkOrders,
+                              List<OrderCreationDto> orderCreationDtos, OrderCreationFlags orderCreationFlags,
+                              BulkOrderResultDto[] results)
+    {
+        try
+        {
+            transactionTemplate.executeWithoutResult(status -> {
+                salesOrderRepository.saveAll(chunkOrders);
+                entityManager.flush();
+            });
+            for (int i = 0; i < chunkOrders.size(); i++)
+            {
+                results[chunkIndexes.get(i)] = BulkOrderResultDto.created(chunkIndexes.get(i), chunkOrders.get(i).getSalesOrderId());
+            }
+        }
+        catch (DataAccessException | PersistenceException chunkFailure)
+        {
+            // The rolled-back entities already carry ids, so rebuild each order from its DTO
+            for (Integer index : chunkIndexes)
+            {
+                try
+                {
+                    UUID orderId = transactionTemplate.execute(status -> {
+                        SalesOrder savedOrder = salesOrderRepository.save(buildNewOrder(orderCreationDtos.get(index), orderCreationFlags));
+                        entityManager.flush();
+                        return savedOrder.getSalesOrderId();
+                    });
+                    results[index] = BulkOrderResultDto.created(index, orderId);
+                }
+                catch (DataAccessException | PersistenceException orderFailure)
+                {
+                    results[index] = BulkOrderResultDto.failed(index, NestedExceptionUtils.getMostSpecificCause(orderFailure).getMessage());
+                }
+            }
+        }
+        finally
+        {
+            // Keep the (possibly request-scoped) persistence context from growing chunk after chunk
+            entityManager.clear();
+        }
+    }
+
     /**
      * My helper to simplify checking if an update is allowed (system vs. user).
      * This avoids repeating the same if/else block in 3-4 methods.
@@ -322,14 +834,233 @@ public class SalesOrderServiceImpl implements SalesOrderService
         }
     }
 
+    /**
+     * My gate to prevent the generic order endpoints from being used for complex transactions.
+     */
+    private void checkGenericOrderTransaction(SalesTransactions transaction)
+    {
+        if (transaction.getObjectType() != ObjectType.ORDER||transaction == SalesTransactions.CANCEL_ORDER
+                ||transaction==SalesTransactions.RESTART_ORDER ||transaction==SalesTransactions.RESTART_DISPUTED_ORDER)
+        {
+            throw new IllegalArgumentException("Invalid transaction type for Item: " + transaction);
+        }
+    }
+
+    /**
+     * Runs one chunk of a bulk job in its own transaction. A chunk that loses a version race,
+     * typically to a lane write on one of its orders, is rolled back and run again from the start,
+     * up to sales-orders.bulk.max-attempts times; any other failure is thrown at once.
+     */
+    private <T> T executeChunk(Supplier<T> chunk)
+    {
+        for (int attempt = 1; ; attempt++)
+        {
+            try
+            {
+                return transactionTemplate.execute(status -> chunk.get());
+            }
+            catch (RuntimeException e)
+            {
+                if (attempt >= bulkMaxAttempts || !OrderCommandLanes.isVersionConflict(e))
+                {
+                    throw e;
+                }
+            }
+            finally
+            {
+                // Also drops the rolled-back attempt's stale entities before the next one
+                entityManager.clear();
+            }
+        }
+    }
+
+    /**
+     * One chunk of performBulkOrderTransaction; runs inside the chunk's transaction.
+     */
+    private BulkTransactionResultDto applyBulkOrderTransaction(List<UUID> chunkIds, SalesTransactions transaction)
+    {
+        BulkTransactionResultDto chunkResult = BulkTransactionResultDto.builder().transaction(transaction).build();
+        Map<UUID, SalesOrder> ordersById = salesOrderRepository.findWithStatusBySalesOrderIdIn(chunkIds).stream()
+                .collect(Collectors.toMap(SalesOrder::getSalesOrderId, Function.identity()));
+
+        for (UUID salesOrderId : chunkIds)
+        {
+            SalesOrder salesOrder = ordersById.get(salesOrderId);
+            if (salesOrder == null)
+            {
+                chunkResult.getRejected().add(new BulkTransactionResultDto.Rejection(
+                        salesOrderId, null, "SalesOrder with id: " + salesOrderId + " not found"));
+                continue;
+            }
+
+            OrderStatusId forbiddenBy = StatusRuleConstants.findForbiddingHeaderStatus(salesOrder.getStatusList(), transaction);
+            if (forbiddenBy != null)
+            {
+                chunkResult.getRejected().add(new BulkTransactionResultDto.Rejection(
+                        salesOrderId, forbiddenBy, "Forbidden by active header status: " + forbiddenBy.name()));
+                continue;
+            }
+
+            List<SalesOrderStatus> newStatusList = StatusManagementUtil.applyOrderStatusChange(salesOrder, transaction);
+            salesOrder.setStatusList(newStatusList);
+            chunkResult.getAcceptedOrderIds().add(salesOrderId);
+        }
+
+        // One flush for the whole chunk: status updates and inserts go out batched
+        entityManager.flush();
+        return chunkResult;
+    }
+
+    /**
+     * One chunk of restartDueRecurrentOrders; runs inside the chunk's transaction, which holds
+     * the claimed rows' locks until the restarts and the advanced schedules are committed.
+     */
+    private BulkTransactionResultDto applyDueRestarts(Instant now, List<String> forbidding, int limit)
+    {
+        BulkTransactionResultDto chunkResult = BulkTransactionResultDto.builder().transaction(SalesTransactions.RESTART_ORDER).build();
+        List<UUID> dueIds = recurrentOrderDetailsRepository.claimDue(now, forbidding, limit).stream()
+                .map(details -> details.getSalesOrder().getSalesOrderId())
+                .toList();
+        if (dueIds.isEmpty())
+        {
+            return chunkResult;
+        }
+
+        for (SalesOrder salesOrder : salesOrderRepository.findWithStatusAndRecurrenceBySalesOrderIdIn(dueIds))
+        {
+            // The claim already filtered on status; this catches a status set since
+            OrderStatusId forbiddenBy = StatusRuleConstants.findForbiddingHeaderStatus(salesOrder.getStatusList(), SalesTransactions.RESTART_ORDER);
+            if (forbiddenBy != null)
+            {
+                chunkResult.getRejected().add(new BulkTransactionResultDto.Rejection(
+                        salesOrder.getSalesOrderId(), forbiddenBy, "Forbidden by active header status: " + forbiddenBy.name()));
+                continue;
+            }
+
+            List<SalesOrderStatus> newStatusList = StatusManagementUtil.applyOrderStatusChange(salesOrder, SalesTransactions.RESTART_ORDER);
+            salesOrder.setStatusList(newStatusList);
+            RecurrenceSchedule.advance(salesOrder.getRecurrentOrderDetails(), now);
+            chunkResult.getAcceptedOrderIds().add(salesOrder.getSalesOrderId());
+        }
+
+        entityManager.flush();
+        return chunkResult;
+    }
+
+    /**
+     * One chunk of replenishBackorders; runs inside the chunk's transaction, which holds the
+     * claimed backorders' locks until the releases are committed. Three reads per chunk:
+     * the claimed backorders, their items with statuses, and the items' orders with statuses.
+     */
+    private ReplenishmentChunk applyReplenishment(UUID productId, int available, BackorderCursor after, List<String> forbidding, int limit)
+    {
+        List<BackOrderedItem> backorders = backOrderedItemRepository.claimOpenForProduct(productId, after.backorderedAt(), after.backOrderId(),
+                forbidding, limit);
+        if (backorders.isEmpty())
+        {
+            return new ReplenishmentChunk(0, 0, List.of(), Set.of(), null, List.of(), after);
+        }
+
+        // The item ids come off the lazy references without loading them
+        Map<UUID, SalesItem> itemsById = salesItemRepository.findWithDetailsByItemIdIn(backorders.stream()
+                        .map(backorder -> backorder.getSalesItem().getItemId())
+                        .toList()).stream()
+                .collect(Collectors.toMap(SalesItem::getItemId, Function.identity()));
+        // Fills in the items' order references, which the header guard and item counters need
+        salesOrderRepository.findWithStatusAndRecurrenceBySalesOrderIdIn(itemsById.values().stream()
+                .map(item -> item.getSalesOrder().getSalesOrderId())
+                .collect(Collectors.toSet()));
+
+        int remaining = available;
+        List<UUID> releasedItemIds = new ArrayList<>();
+        Set<UUID> releasedOrderIds = new HashSet<>();
+        UUID partiallyFilledItemId = null;
+        List<BulkTransactionResultDto.Rejection> rejected = new ArrayList<>();
+        for (BackOrderedItem backorder : backorders)
+        {
+            if (remaining == 0)
+            {
+                break;
+            }
+            SalesItem salesItem = itemsById.get(backorder.getSalesItem().getItemId());
+            SalesOrder salesOrder = salesItem.getSalesOrder();
+
+            OrderStatusId forbiddenBy = StatusRuleConstants.findForbiddingHeaderStatus(salesOrder.getStatusList(), SalesTransactions.REORDER_ITEM);
+            if (forbiddenBy != null)
+            {
+                rejected.add(new BulkTransactionResultDto.Rejection(
+                        salesOrder.getSalesOrderId(), forbiddenBy, "Forbidden by active header status: " + forbiddenBy.name()));
+                continue;
+            }
+            // The claim already filtered on item status; this catches a status set since
+            ItemStatusId itemForbiddenBy = StatusRuleConstants.findForbiddingItemStatus(salesItem.getStatusList(), SalesTransactions.REORDER_ITEM);
+            if (itemForbiddenBy != null)
+            {
+                rejected.add(new BulkTransactionResultDto.Rejection(salesOrder.getSalesOrderId(), null,
+                        "Item " + salesItem.getItemId() + " forbidden by active item status: " + itemForbiddenBy.name()));
+                continue;
+            }
+
+            if (backorder.getBckQty() > remaining)
+            {
+                // Stays first in line for the next delivery, with what is still missing
+                int before = backorder.getBckQty();
+                backorder.setBckQty(before - remaining);
+                OrderTotals.backorderQuantityChanged(salesItem, before);
+                partiallyFilledItemId = salesItem.getItemId();
+                remaining = 0;
+                continue;
+            }
+            remaining -= backorder.getBckQty();
+            List<SalesItemStatus> newStatusList = StatusManagementUtil.applyItemStatusChange(salesItem, SalesTransactions.REORDER_ITEM);
+            salesItem.setStatusList(newStatusList);
+            salesItem.setBackOrderedItem(null);
+            releasedItemIds.add(salesItem.getItemId());
+            releasedOrderIds.add(salesOrder.getSalesOrderId());
+        }
+
+        // One flush for the whole chunk: status changes, backorder deletes and counter updates go out batched
+        entityManager.flush();
+        BackOrderedItem last = backorders.get(backorders.size() - 1);
+        return new ReplenishmentChunk(available - remaining, backorders.size(), releasedItemIds, releasedOrderIds,
+                partiallyFilledItemId, rejected, new BackorderCursor(last.getBackorderedAt(), last.getBackOrderId()));
+    }
+
+    /**
+     * Saves the aggregate and builds the response from it in memory.
+     * The flush runs first so generated ids, status timestamps and versions are in place;
+     * callers load everything the response touches up front, so mapping triggers no lazy loads.
+     */
+    private OrderResponseDto saveAndRespond(SalesOrder salesOrder)
+    {
+        SalesOrder savedOrder = salesOrderRepository.save(salesOrder);
+        entityManager.flush();
+        return salesOrderResponseMapper.toOrderResponseDto(savedOrder);
+    }
+
+    /**
+     * Item variant of saveAndRespond; items are loaded with their statuses by getOrderItems.
+     */
+    private List<ItemResponseDto> saveAndRespond(List<SalesItem> salesItems)
+    {
+        return flushAndRespond(salesItemRepository.saveAll(salesItems));
+    }
+
+    private List<ItemResponseDto> flushAndRespond(List<SalesItem> savedItems)
+    {
+        entityManager.flush();
+        return savedItems.stream()
+                .map(salesOrderResponseMapper::toItemResponseDto)
+                .toList();
+    }
+
     /**
      * Helper to auto-cancel the order header if all its items are cancelled.
      */
     private void cancelOrderIfAllItemsCancelled(SalesOrder salesOrder)
     {
-        // Check if any non-cancelled items are left
-        if(salesItemRepository.countItemsNotHavingGivenStatusesByOrderId
-                (salesOrder.getSalesOrderId(),List.of(ItemStatusId.E_CNCL_CUST,ItemStatusId.E_CNCL_SYS))==0)
+        // The cancelled items counter was just moved by the item transitions; no item scan
+        if (ItemCounters.allCancelled(salesOrder))
         {
             List <SalesOrderStatus> newStatuses = StatusManagementUtil.applyOrderStatusChange(salesOrder, SalesTransactions.CANCEL_ORDER);
             salesOrder.setStatusList(newStatuses);
@@ -352,43 +1083,44 @@ public class SalesOrderServiceImpl implements SalesOrderService
     }
 
     /**
-     * Fetches just the order statuses for a quick check.
+     * My getter for operations that only need the header.
+     * Fetches an order with its status list; the address and recurrence are eager
+     * one-to-ones, so they come in the same query rather than one select each.
      */
-    private List<SalesOrderStatus> getOrderStatus(UUID orderId)
+    private SalesOrder getOrderHeader(UUID salesOrderId)
     {
-        return salesOrderStatusRepository.findAllBySalesOrder_SalesOrderId(orderId);
+        return salesOrderRepository.findWithOrderDetailsBySalesOrderId(salesOrderId)
+                .orElseThrow(() -> new EntityNotFoundException("SalesOrder with id: " + salesOrderId + " not found"));
     }
 
+
+
     /**
-     * My standard getter for most operations.
-     * Fetches an order with its status list.
+     * My getter for every operation that answers with the full order.
+     * Loads the whole aggregate in three queries, whatever the item count:
+     * 1. order + header statuses + shipment + recurrence
+     * 2. items + backorders
+     * 3. item statuses
+     * Each bag gets its own query (no cartesian product); queries 2 and 3 fill the
+     * collections of the instances already in the persistence context.
      */
-    private SalesOrder getOrderWithStatus(UUID salesOrderId)
+    private SalesOrder getOrderWithDetails(UUID salesOrderId)
     {
-        return salesOrderRepository.findWithStatusBySalesOrderId(salesOrderId)
+        SalesOrder salesOrder = salesOrderRepository.findWithOrderDetailsBySalesOrderId(salesOrderId)
                 .orElseThrow(() -> new EntityNotFoundException("SalesOrder with id: " + salesOrderId + " not found"));
+        salesOrderRepository.findWithItemsAndBackordersBySalesOrderId(salesOrderId);
+        salesItemRepository.findWithStatusBySalesOrder_SalesOrderId(salesOrderId);
+        return salesOrder;
     }
 
-    /**
-     * My getter for operations that need to loop over items (Cancel, Restart).
-     * Fetches an order with items and statuses.
-     */
-    private SalesOrder getOrderWithItems(UUID salesOrderId)
+    // Position in a product's backorder queue
+    private record BackorderCursor(Instant backorderedAt, long backOrderId)
     {
-        return salesOrderRepository.findWithStatusAndItemsBySalesOrderId(salesOrderId)
-                .orElseThrow(() -> new EntityNotFoundException("SalesOrder with id: " + salesOrderId + " not found"));
     }
 
-
-
-    /**
-     * My getter for read operations (get by ID, change speed).
-     * Fetches an order with all details (shipment, recurrent).
-     */
-    private SalesOrder getOrderWithDetails(UUID salesOrderId)
+    private record ReplenishmentChunk(int allocated, int claimed, List<UUID> releasedItemIds, Set<UUID> releasedOrderIds,
+                                      UUID partiallyFilledItemId, List<BulkTransactionResultDto.Rejection> rejected,
+                                      BackorderCursor last)
     {
-        return salesOrderRepository.findWithOrderDetailsBySalesOrderId(salesOrderId)
-                .orElseThrow(() -> new EntityNotFoundException("SalesOrder with id: " + salesOrderId + " not found"));
     }
-
-}
\ No newline at end of file
+}
@@ -0,0 +1,95 @@
+package com.mattercom.salesOrders.util;
+
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.jdbc.spi.JdbcCoordinator;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.event.spi.EventSource;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * One batch per Hibernate session, filled by entity event listeners while the transaction
+ * flushes and written just before it commits, on the transaction's connection, so a failed
+ * write rolls the whole change back. The batch is dropped once the transaction completes,
+ * committed or not. Used by the Hibernate integrators that keep derived tables in step.
+ */
+public final class BeforeCommitBatches<B extends BeforeCommitBatches.Batch> {
+
+    private final Map<SessionImplementor, B> pending = new ConcurrentHashMap<>();
+    private final String description;
+    private final Supplier<B> factory;
+
+    /**
+     * @param description what the batch writes, for the error message, e.g. "status changes to the outbox"
+     */
+    public BeforeCommitBatches(String description, Supplier<B> factory) {
+        this.description = description;
+        this.factory = factory;
+    }
+
+    /**
+     * The session's batch, created and hooked into its transaction on first use.
+     */
+    public B of(EventSource session) {
+        return pending.computeIfAbsent(session, s -> {
+            B batch = factory.get();
+            s.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) completing -> write(completing, batch));
+            // Runs on commit and on rollback alike
+            s.getActionQueue().registerProcess((AfterTransactionCompletionProcess) (success, completed) ->
+                    pending.remove((SessionImplementor) completed, batch));
+            return batch;
+        });
+    }
+
+    // Runs after the final flush
+    private void write(SessionImplementor session, B batch) {
+        Statements statements = new Statements(session.getJdbcCoordinator());
+        try {
+            batch.write(statements);
+        } catch (SQLException e) {
+            throw session.getJdbcServices().getSqlExceptionHelper()
+                    .convert(e, "Could not write " + description, statements.sql);
+        }
+    }
+
+    public interface Batch {
+
+        void write(Statements statements) throws SQLException;
+    }
+
+    @FunctionalInterface
+    public interface StatementWork<R> {
+
+        R run(PreparedStatement statement) throws SQLException;
+    }
+
+    /**
+     * Prepares statements on the transaction's connection and releases them after use.
+     */
+    public static final class Statements {
+
+        private final JdbcCoordinator jdbc;
+        // The statement running, for the error message
+        private String sql;
+
+        private Statements(JdbcCoordinator jdbc) {
+            this.jdbc = jdbc;
+        }
+
+        public <R> R run(String sql, StatementWork<R> work) throws SQLException {
+            this.sql = sql;
+            PreparedStatement statement = jdbc.getStatementPreparer().prepareStatement(sql);
+            try {
+                return work.run(statement);
+            } finally {
+                jdbc.getLogicalConnection().getResourceRegistry().release(statement);
+                jdbc.afterStatementExecution();
+            }
+        }
+    }
+}
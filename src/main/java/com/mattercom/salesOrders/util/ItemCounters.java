@@ -0,0 +1,48 @@
+package com.mattercom.salesOrders.util;
+
+import com.mattercom.salesOrders.entities.SalesItem;
+import com.mattercom.salesOrders.entities.SalesOrder;
+import com.mattercom.salesOrders.enums.ItemStatusId;
+
+import java.util.List;
+
+import static com.mattercom.salesOrders.util.StatusStateMachine.bit;
+
+/**
+ * Keeps the per-order item counters (items, cancelled, backordered, invoiced) in step with
+ * item creation and item status changes, so "are all items X" is read off the order
+ * instead of counted over its items. An item counts once per category, whichever of the
+ * category's statuses is active.
+ */
+public final class ItemCounters {
+
+    private static final long CANCELLED = bit(ItemStatusId.E_CNCL_CUST) | bit(ItemStatusId.E_CNCL_SYS);
+    private static final long BACKORDERED = bit(ItemStatusId.E_BKO);
+    private static final long INVOICED = bit(ItemStatusId.I_INVC_ITEM);
+
+    private ItemCounters() {}
+
+    public static void itemsAdded(SalesOrder order, List<SalesItem> items) {
+        order.setItemCount(order.getItemCount() + items.size());
+        for (SalesItem item : items) {
+            if (item.getStatusList() != null) {
+                statusChanged(order, 0L, StatusStateMachine.activeItemMask(item.getStatusList()));
+            }
+        }
+    }
+
+    // Applies one item's change, given its active status masks before and after
+    public static void statusChanged(SalesOrder order, long before, long after) {
+        order.setCancelledItemCount(order.getCancelledItemCount() + delta(before, after, CANCELLED));
+        order.setBackorderedItemCount(order.getBackorderedItemCount() + delta(before, after, BACKORDERED));
+        order.setInvoicedItemCount(order.getInvoicedItemCount() + delta(before, after, INVOICED));
+    }
+
+    public static boolean allCancelled(SalesOrder order) {
+        return order.getCancelledItemCount().equals(order.getItemCount());
+    }
+
+    private static int delta(long before, long after, long category) {
+        return Boolean.compare((after & category) != 0L, (before & category) != 0L);
+    }
+}
@@ -0,0 +1,50 @@
+package com.mattercom.salesOrders.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Money as scaled longs: amounts in minor units (hundredths, the scale of the price columns)
+ * and discount rates in hundredths of a percent. Totals are kept and moved with long
+ * arithmetic only; BigDecimal is used where money enters (item creation) and leaves (responses).
+ * Overflow throws instead of wrapping.
+ */
+public final class Money {
+
+    public static final int SCALE = 2;
+
+    // A discount rate of 100.00 percent
+    private static final long FULL_RATE = 10_000L;
+
+    private Money() {}
+
+    public static long toMinorUnits(BigDecimal amount) {
+        return amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    // discountRate is a percentage, e.g. 12.50
+    public static long toRateUnits(BigDecimal discountRate) {
+        return discountRate.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal toBigDecimal(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    public static long gross(long unitPrice, int quantity) {
+        return Math.multiplyExact(unitPrice, quantity);
+    }
+
+    // Rounded half up, like BigDecimal HALF_UP for the non-negative amounts used here
+    public static long discount(long gross, long rateUnits) {
+        return Math.addExact(Math.multiplyExact(gross, rateUnits), FULL_RATE / 2) / FULL_RATE;
+    }
+
+    // part/whole of amount, rounded half up; all of it when whole is zero
+    public static long share(long amount, int part, int whole) {
+        if (whole == 0) {
+            return amount;
+        }
+        return Math.addExact(Math.multiplyExact(amount, part), whole / 2) / whole;
+    }
+}
@@ -0,0 +1,89 @@
+package com.mattercom.salesOrders.util;
+
+import com.mattercom.salesOrders.entities.BackOrderedItem;
+import com.mattercom.salesOrders.entities.SalesItem;
+import com.mattercom.salesOrders.entities.SalesOrder;
+import com.mattercom.salesOrders.enums.ItemStatusId;
+
+import java.util.List;
+
+import static com.mattercom.salesOrders.util.StatusStateMachine.bit;
+
+/**
+ * Keeps the money totals of items and orders, in minor units (see Money).
+ * An item's gross, discount and net are fixed when it is created. The order's totals
+ * cover its items that are not cancelled; backorderedNet is the part of net still waiting
+ * for stock, each backordered item's net prorated by bckQty / netQty. Both move with item
+ * creation, item status changes and backorder quantity changes, like ItemCounters, so no
+ * caller sums the item list. A backorder has to be attached before its item turns E_BKO
+ * and detached only after it stops being E_BKO, so what is added is what is later removed.
+ */
+public final class OrderTotals {
+
+    private static final long CANCELLED = bit(ItemStatusId.E_CNCL_CUST) | bit(ItemStatusId.E_CNCL_SYS);
+    private static final long BACKORDERED = bit(ItemStatusId.E_BKO);
+
+    private OrderTotals() {}
+
+    public static void itemsAdded(SalesOrder order, List<SalesItem> items) {
+        for (SalesItem item : items) {
+            valueItem(item);
+            long mask = item.getStatusList() == null ? 0L : StatusStateMachine.activeItemMask(item.getStatusList());
+            move(order, item, counted(mask) ? 1 : 0, backordered(mask) ? 1 : 0);
+        }
+    }
+
+    // Applies one item's change, given its active status masks before and after
+    public static void statusChanged(SalesItem item, long before, long after) {
+        move(item.getSalesOrder(), item,
+                Boolean.compare(counted(after), counted(before)),
+                Boolean.compare(backordered(after), backordered(before)));
+    }
+
+    // A backorder's quantity changed while its item stays backordered (a partial replenishment)
+    public static void backorderQuantityChanged(SalesItem item, int before) {
+        if (backordered(StatusStateMachine.activeItemMask(item.getStatusList()))) {
+            SalesOrder order = item.getSalesOrder();
+            order.setBackorderedNetAmount(order.getBackorderedNetAmount()
+                    + backorderedNet(item, item.getBackOrderedItem().getBckQty()) - backorderedNet(item, before));
+        }
+    }
+
+    private static void valueItem(SalesItem item) {
+        long gross = Money.gross(Money.toMinorUnits(item.getBaseUnitPrice()), item.getNetQty());
+        long discount = Money.discount(gross, Money.toRateUnits(item.getDiscountRate()));
+        item.setGrossAmount(gross);
+        item.setDiscountAmount(discount);
+        item.setNetAmount(gross - discount);
+    }
+
+    // Adds (1) or removes (-1) the item's amounts to or from the order's totals
+    private static void move(SalesOrder order, SalesItem item, int counted, int backordered) {
+        if (counted != 0) {
+            order.setGrossAmount(order.getGrossAmount() + counted * item.getGrossAmount());
+            order.setDiscountAmount(order.getDiscountAmount() + counted * item.getDiscountAmount());
+            order.setNetAmount(order.getNetAmount() + counted * item.getNetAmount());
+        }
+        if (backordered != 0) {
+            order.setBackorderedNetAmount(order.getBackorderedNetAmount() + backordered * backorderedNet(item));
+        }
+    }
+
+    // The part of the item's net waiting for stock; all of it when no backorder quantity is recorded
+    private static long backorderedNet(SalesItem item) {
+        BackOrderedItem backorder = item.getBackOrderedItem();
+        return backorder == null ? item.getNetAmount() : backorderedNet(item, backorder.getBckQty());
+    }
+
+    private static long backorderedNet(SalesItem item, int bckQty) {
+        return Money.share(item.getNetAmount(), Math.min(bckQty, item.getNetQty()), item.getNetQty());
+    }
+
+    private static boolean counted(long mask) {
+        return (mask & CANCELLED) == 0L;
+    }
+
+    private static boolean backordered(long mask) {
+        return counted(mask) && (mask & BACKORDERED) != 0L;
+    }
+}
@@ -0,0 +1,52 @@
+package com.mattercom.salesOrders.util;
+
+import com.mattercom.salesOrders.entities.RecurrentOrderDetails;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Installment bookkeeping of a recurrent order: how many orders were placed and when the
+ * scheduler restarts it next. The order that creates the recurrence is installment one.
+ */
+public final class RecurrenceSchedule {
+
+    private RecurrenceSchedule() {}
+
+    // A new recurrence: the creating order is placed, the next one is a gap away
+    public static void start(RecurrentOrderDetails details, Instant now) {
+        details.setCompletedInstallments(1);
+        details.setNextDueAt(hasNext(details) ? now.plus(gap(details)) : null);
+    }
+
+    // Changed installments or gap: placed orders still count, the next one is a new gap from now
+    public static void reschedule(RecurrentOrderDetails details, Instant now) {
+        details.setNextDueAt(hasNext(details) ? now.plus(gap(details)) : null);
+    }
+
+    /**
+     * Books the installment that was just placed, by the scheduler or a manual restart. The next
+     * one keeps the rhythm of the schedule; when that is already past (the scheduler was down),
+     * it is a gap from now rather than a burst of catch-up orders.
+     */
+    public static void advance(RecurrentOrderDetails details, Instant now) {
+        details.setCompletedInstallments(details.getCompletedInstallments() + 1);
+        if (!hasNext(details)) {
+            details.setNextDueAt(null);
+            return;
+        }
+        // A manual restart may find nothing scheduled (the scheduler stopped it); the rhythm starts now
+        Instant next = (details.getNextDueAt() != null ? details.getNextDueAt() : now).plus(gap(details));
+        details.setNextDueAt(next.isAfter(now) ? next : now.plus(gap(details)));
+    }
+
+    // Without installments or a gap nothing is scheduled
+    private static boolean hasNext(RecurrentOrderDetails details) {
+        return details.getInstallments() != null && details.getGapInDays() != null
+                && details.getCompletedInstallments() < details.getInstallments();
+    }
+
+    private static Duration gap(RecurrentOrderDetails details) {
+        return Duration.ofDays(details.getGapInDays());
+    }
+}
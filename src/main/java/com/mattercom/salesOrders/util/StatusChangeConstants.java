@@ -96,6 +96,14 @@ public final class StatusChangeConstants {
         return ITEM_RULES.get(transaction);
     }
 
+    static Map<SalesTransactions, StatusRule<OrderStatusId>> orderRules() {
+        return ORDER_RULES;
+    }
+
+    static Map<SalesTransactions, StatusRule<ItemStatusId>> itemRules() {
+        return ITEM_RULES;
+    }
+
     private StatusChangeConstants() {}
 }
 
@@ -5,7 +5,6 @@ import com.mattercom.salesOrders.entities.SalesItem;
 import com.mattercom.salesOrders.entities.SalesOrder;
 import com.mattercom.salesOrders.entities.status.*;
 import com.mattercom.salesOrders.enums.*;
-import com.mattercom.salesOrders.records.StatusRule;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -13,7 +12,7 @@ import java.util.*;
 
 /**
  * Stateless utility for applying Order and Item status changes
- * using predefined StatusRule constants.
+ * using predefined StatusRule constants (compiled by StatusStateMachine).
  */
 public final class StatusManagementUtil {
 
@@ -33,57 +32,14 @@ public final class StatusManagementUtil {
         }
 
 
-        StatusRule<OrderStatusId> rule = StatusChangeConstants.getOrderRule(transaction);
-        if (rule == null || (rule.activate().isEmpty() && rule.deactivate().isEmpty())) {
+        if (!StatusStateMachine.hasOrderRule(transaction)) {
             log.warn("No order status rule defined for {}", transaction);
             return order.getStatusList();
         }
 
         log.debug("Applying ORDER status change for {} on order {}", transaction, order.getSalesOrderId());
 
-        List<SalesOrderStatus> updated = new ArrayList<>(order.getStatusList());
-
-        // ---- DEACTIVATE ----
-        for (OrderStatusId toDeactivate : rule.deactivate()) {
-            boolean found = false;
-            for (SalesOrderStatus status : updated) {
-                if (status.getOrderStatusId() == toDeactivate && Boolean.TRUE.equals(status.getActive())) {
-                    status.setActive(false);
-                    found = true;
-                    log.debug("Deactivated order status {} for order {}", toDeactivate, order.getSalesOrderId());
-                }
-            }
-            if (!found) {
-                log.warn("Order status {} was not active for order {}", toDeactivate, order.getSalesOrderId());
-            }
-        }
-
-        // ---- ACTIVATE ----
-        for (OrderStatusId toActivate : rule.activate()) {
-            Optional<SalesOrderStatus> existing = updated.stream()
-                    .filter(s -> s.getOrderStatusId() == toActivate)
-                    .findFirst();
-
-            if (existing.isPresent()) {
-                if (existing.get().getActive()) {
-                    log.warn("Order status {} already active for order {}", toActivate, order.getSalesOrderId());
-                } else {
-                    existing.get().setActive(true);
-                    log.debug("Reactivated order status {} for order {}", toActivate, order.getSalesOrderId());
-                }
-            } else {
-                // New status
-                SalesOrderStatus newStatus = SalesOrderStatus.builder()
-                        .salesOrder(order)
-                        .orderStatusId(toActivate)
-                        .active(true)
-                        .build();
-                updated.add(newStatus);
-                log.debug("Activated new order status {} for order {}", toActivate, order.getSalesOrderId());
-            }
-        }
-
-        return updated;
+        return StatusStateMachine.applyOrderTransition(order, transaction);
     }
 
     // =========================================================
@@ -97,56 +53,19 @@ public final class StatusManagementUtil {
             throw new IllegalArgumentException("Invalid transaction type for Item: " + transaction);
         }
 
-        StatusRule<ItemStatusId> rule = StatusChangeConstants.getItemRule(transaction);
-        if (rule == null || (rule.activate().isEmpty() && rule.deactivate().isEmpty())) {
+        if (!StatusStateMachine.hasItemRule(transaction)) {
             log.warn("No item status rule defined for {}", transaction);
             return item.getStatusList();
         }
 
         log.debug("Applying ITEM status change for {} on item {}", transaction, item.getItemId());
 
-        List<SalesItemStatus> updated = new ArrayList<>(item.getStatusList());
-
-        // ---- DEACTIVATE ----
-        for (ItemStatusId toDeactivate : rule.deactivate()) {
-            boolean found = false;
-            for (SalesItemStatus status : updated) {
-                if (status.getItemStatusId() == toDeactivate && Boolean.TRUE.equals(status.getActive())) {
-                    status.setActive(false);
-                    found = true;
-                    log.debug("Deactivated item status {} for item {}", toDeactivate, item.getItemId());
-                }
-            }
-            if (!found) {
-                log.warn("Item status {} was not active for item {}", toDeactivate, item.getItemId());
-            }
-        }
-
-        // ---- ACTIVATE ----
-        for (ItemStatusId toActivate : rule.activate()) {
-            Optional<SalesItemStatus> existing = updated.stream()
-                    .filter(s -> s.getItemStatusId() == toActivate)
-                    .findFirst();
-
-            if (existing.isPresent()) {
-                if (existing.get().getActive()) {
-                    log.warn("Item status {} already active for item {}", toActivate, item.getItemId());
-                } else {
-                    existing.get().setActive(true);
-                    log.debug("Reactivated item status {} for item {}", toActivate, item.getItemId());
-                }
-            } else {
-                // Create new status
-                SalesItemStatus newStatus = SalesItemStatus.builder()
-                        .salesItem(item)
-                        .itemStatusId(toActivate)
-                        .active(true)
-                        .build();
-                updated.add(newStatus);
-                log.debug("Activated new item status {} for item {}", toActivate, item.getItemId());
-            }
-        }
-
+        // The transition deactivates rows in place, so the old mask is taken first
+        long before = StatusStateMachine.activeItemMask(item.getStatusList());
+        List<SalesItemStatus> updated = StatusStateMachine.applyItemTransition(item, transaction);
+        long after = StatusStateMachine.activeItemMask(updated);
+        ItemCounters.statusChanged(item.getSalesOrder(), before, after);
+        OrderTotals.statusChanged(item, before, after);
         return updated;
     }
 
@@ -4,9 +4,11 @@ import com.mattercom.salesOrders.entities.status.*;
 import com.mattercom.salesOrders.enums.ItemStatusId;
 import com.mattercom.salesOrders.enums.OrderStatusId;
 import com.mattercom.salesOrders.enums.SalesTransactions;
+import com.mattercom.salesOrders.monitoring.StatusRejectionMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.EnumSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
@@ -148,15 +150,25 @@ public final class StatusRuleConstants {
             entry(ItemStatusId.E_CNCL_CUST, Set.of(
                     SalesTransactions.CANCEL_ITEM,
                     SalesTransactions.SYSTEM_CANCEL_ITEM,
-                    SalesTransactions.BACKORDER_ITEM
+                    SalesTransactions.BACKORDER_ITEM,
+                    SalesTransactions.REORDER_ITEM
             )),
             entry(ItemStatusId.E_CNCL_SYS, Set.of(
                     SalesTransactions.CANCEL_ITEM,
                     SalesTransactions.SYSTEM_CANCEL_ITEM,
-                    SalesTransactions.BACKORDER_ITEM
+                    SalesTransactions.BACKORDER_ITEM,
+                    SalesTransactions.REORDER_ITEM
             ))
     );
 
+    static Map<OrderStatusId, Set<SalesTransactions>> headerForbidRules() {
+        return HEADER_FORBID_RULES;
+    }
+
+    static Map<ItemStatusId, Set<SalesTransactions>> itemForbidRules() {
+        return ITEM_FORBID_RULES;
+    }
+
     public static void checkHeaderStatuses(List<SalesOrderStatus> orderStatuses, SalesTransactions transaction, UUID orderId) throws IllegalStateException {
         log.debug("Checking HEADER statuses for transaction {} on order {}", transaction, orderId);
 
@@ -164,15 +176,7 @@ public final class StatusRuleConstants {
             return;
         }
 
-        OrderStatusId forbiddenByStatus = orderStatuses.stream()
-                .filter(SalesOrderStatus::getActive)
-                .map(SalesOrderStatus::getOrderStatusId)
-                .filter(orderStatusId -> {
-                    Set<SalesTransactions> forbidden = HEADER_FORBID_RULES.get(orderStatusId);
-                    return forbidden != null && forbidden.contains(transaction);
-                })
-                .findFirst()
-                .orElse(null);
+        OrderStatusId forbiddenByStatus = StatusStateMachine.findForbiddingHeaderStatus(orderStatuses, transaction);
 
         if (forbiddenByStatus != null) {
             String errorMsg = String.format(
@@ -180,10 +184,51 @@ public final class StatusRuleConstants {
                     transaction, orderId, forbiddenByStatus.name()
             );
             log.warn(errorMsg);
+            StatusRejectionMetrics.headerRejected(transaction, forbiddenByStatus);
             throw new IllegalStateException(errorMsg);
         }
     }
 
+    /**
+     * Non-throwing form of checkHeaderStatuses for callers that collect rejections
+     * (bulk transactions). Returns the first active status forbidding the transaction, or null.
+     */
+    public static OrderStatusId findForbiddingHeaderStatus(List<SalesOrderStatus> orderStatuses, SalesTransactions transaction) {
+        OrderStatusId forbiddenByStatus = StatusStateMachine.findForbiddingHeaderStatus(orderStatuses, transaction);
+        if (forbiddenByStatus != null) {
+            StatusRejectionMetrics.headerRejected(transaction, forbiddenByStatus);
+        }
+        return forbiddenByStatus;
+    }
+
+    /**
+     * Header statuses that forbid the transaction while active, for guards evaluated in SQL
+     * (the recurrence scheduler only claims orders it may restart).
+     */
+    public static Set<OrderStatusId> headerStatusesForbidding(SalesTransactions transaction) {
+        EnumSet<OrderStatusId> forbidding = EnumSet.noneOf(OrderStatusId.class);
+        HEADER_FORBID_RULES.forEach((status, transactions) -> {
+            if (transactions.contains(transaction)) {
+                forbidding.add(status);
+            }
+        });
+        return forbidding;
+    }
+
+    /**
+     * Item statuses that forbid the transaction while active, for guards evaluated in SQL
+     * (backorder replenishment only claims items it may reorder).
+     */
+    public static Set<ItemStatusId> itemStatusesForbidding(SalesTransactions transaction) {
+        EnumSet<ItemStatusId> forbidding = EnumSet.noneOf(ItemStatusId.class);
+        ITEM_FORBID_RULES.forEach((status, transactions) -> {
+            if (transactions.contains(transaction)) {
+                forbidding.add(status);
+            }
+        });
+        return forbidding;
+    }
+
     public static void checkItemStatuses(List<SalesItemStatus> salesItemStatuses, SalesTransactions transaction, UUID itemId) throws IllegalStateException {
         log.debug("Checking ITEM statuses for transaction {} on item {}", transaction, itemId);
 
@@ -191,14 +236,7 @@ public final class StatusRuleConstants {
             return;
         }
 
-        ItemStatusId forbiddenByStatus = salesItemStatuses.stream().filter(SalesItemStatus::getActive)
-                .map(SalesItemStatus::getItemStatusId)
-                .filter(itemStatusId -> {
-                    Set<SalesTransactions> forbidden = ITEM_FORBID_RULES.get(itemStatusId);
-                    return forbidden != null && forbidden.contains(transaction);
-                })
-                .findFirst()
-                .orElse(null);
+        ItemStatusId forbiddenByStatus = StatusStateMachine.findForbiddingItemStatus(salesItemStatuses, transaction);
 
         if (forbiddenByStatus != null) {
             String errorMsg = String.format(
@@ -206,9 +244,22 @@ public final class StatusRuleConstants {
                     transaction, itemId, forbiddenByStatus.name()
             );
             log.warn(errorMsg);
+            StatusRejectionMetrics.itemRejected(transaction, forbiddenByStatus);
             throw new IllegalStateException(errorMsg);
         }
     }
 
+    /**
+     * Non-throwing form of checkItemStatuses, for callers that collect rejections
+     * (backorder replenishment). Returns the first active status forbidding the transaction, or null.
+     */
+    public static ItemStatusId findForbiddingItemStatus(List<SalesItemStatus> salesItemStatuses, SalesTransactions transaction) {
+        ItemStatusId forbiddenByStatus = StatusStateMachine.findForbiddingItemStatus(salesItemStatuses, transaction);
+        if (forbiddenByStatus != null) {
+            StatusRejectionMetrics.itemRejected(transaction, forbiddenByStatus);
+        }
+        return forbiddenByStatus;
+    }
+
     private StatusRuleConstants() {}
 }
\ No newline at end of file
@@ -0,0 +1,274 @@
+package com.mattercom.salesOrders.util;
+
+import com.mattercom.salesOrders.entities.SalesItem;
+import com.mattercom.salesOrders.entities.SalesOrder;
+import com.mattercom.salesOrders.entities.status.SalesItemStatus;
+import com.mattercom.salesOrders.entities.status.SalesOrderStatus;
+import com.mattercom.salesOrders.enums.ItemStatusId;
+import com.mattercom.salesOrders.enums.OrderStatusId;
+import com.mattercom.salesOrders.enums.SalesTransactions;
+import com.mattercom.salesOrders.records.StatusRule;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Compiled form of the status rule constants.
+ * When the class loads, HEADER_FORBID_RULES, ITEM_FORBID_RULES, ORDER_RULES and ITEM_RULES
+ * become long bitmask tables indexed by SalesTransactions ordinal, with one bit per
+ * status ordinal. A guard check is then a single AND against the active-status mask,
+ * and a transition is mask arithmetic over one pass of the status list.
+ * StatusRuleConstants and StatusManagementUtil delegate here.
+ */
+public final class StatusStateMachine {
+
+    private static final Logger log = LoggerFactory.getLogger(StatusStateMachine.class);
+
+    private static final OrderStatusId[] ORDER_STATUSES = OrderStatusId.values();
+    private static final ItemStatusId[] ITEM_STATUSES = ItemStatusId.values();
+    private static final int TRANSACTION_COUNT = SalesTransactions.values().length;
+
+    // Guards: transaction ordinal -> statuses that forbid it
+    private static final long[] HEADER_FORBID = new long[TRANSACTION_COUNT];
+    private static final long[] ITEM_FORBID = new long[TRANSACTION_COUNT];
+
+    // Transitions: transaction ordinal -> statuses to activate / deactivate
+    private static final long[] ORDER_ACTIVATE = new long[TRANSACTION_COUNT];
+    private static final long[] ORDER_DEACTIVATE = new long[TRANSACTION_COUNT];
+    private static final long[] ITEM_ACTIVATE = new long[TRANSACTION_COUNT];
+    private static final long[] ITEM_DEACTIVATE = new long[TRANSACTION_COUNT];
+
+    static {
+        if (ORDER_STATUSES.length > Long.SIZE || ITEM_STATUSES.length > Long.SIZE) {
+            throw new IllegalStateException("Status enums no longer fit in a 64-bit mask");
+        }
+        compileForbidRules(StatusRuleConstants.headerForbidRules(), HEADER_FORBID);
+        compileForbidRules(StatusRuleConstants.itemForbidRules(), ITEM_FORBID);
+        compileChangeRules(StatusChangeConstants.orderRules(), ORDER_ACTIVATE, ORDER_DEACTIVATE);
+        compileChangeRules(StatusChangeConstants.itemRules(), ITEM_ACTIVATE, ITEM_DEACTIVATE);
+    }
+
+    private StatusStateMachine() {}
+
+    // =========================================================
+    // MASKS
+    // =========================================================
+
+    public static long bit(Enum<?> status) {
+        return 1L << status.ordinal();
+    }
+
+    public static long activeOrderMask(List<SalesOrderStatus> statuses) {
+        long mask = 0L;
+        for (int i = 0, n = statuses.size(); i < n; i++) {
+            SalesOrderStatus status = statuses.get(i);
+            if (status.getActive()) {
+                mask |= bit(status.getOrderStatusId());
+            }
+        }
+        return mask;
+    }
+
+    public static long activeItemMask(List<SalesItemStatus> statuses) {
+        long mask = 0L;
+        for (int i = 0, n = statuses.size(); i < n; i++) {
+            SalesItemStatus status = statuses.get(i);
+            if (status.getActive()) {
+                mask |= bit(status.getItemStatusId());
+            }
+        }
+        return mask;
+    }
+
+    // =========================================================
+    // GUARDS
+    // =========================================================
+
+    public static boolean isHeaderForbidden(long activeOrderMask, SalesTransactions transaction) {
+        return (activeOrderMask & HEADER_FORBID[transaction.ordinal()]) != 0L;
+    }
+
+    public static boolean isItemForbidden(long activeItemMask, SalesTransactions transaction) {
+        return (activeItemMask & ITEM_FORBID[transaction.ordinal()]) != 0L;
+    }
+
+    /**
+     * Returns the first active status (in list order) that forbids the transaction, or null.
+     * The list is only walked a second time on the rejection path.
+     */
+    public static OrderStatusId findForbiddingHeaderStatus(List<SalesOrderStatus> statuses, SalesTransactions transaction) {
+        if (statuses == null || statuses.isEmpty()) {
+            return null;
+        }
+        long forbidden = HEADER_FORBID[transaction.ordinal()];
+        if ((activeOrderMask(statuses) & forbidden) == 0L) {
+            return null;
+        }
+        for (SalesOrderStatus status : statuses) {
+            if (status.getActive() && (bit(status.getOrderStatusId()) & forbidden) != 0L) {
+                return status.getOrderStatusId();
+            }
+        }
+        return null;
+    }
+
+    public static ItemStatusId findForbiddingItemStatus(List<SalesItemStatus> statuses, SalesTransactions transaction) {
+        if (statuses == null || statuses.isEmpty()) {
+            return null;
+        }
+        long forbidden = ITEM_FORBID[transaction.ordinal()];
+        if ((activeItemMask(statuses) & forbidden) == 0L) {
+            return null;
+        }
+        for (SalesItemStatus status : statuses) {
+            if (status.getActive() && (bit(status.getItemStatusId()) & forbidden) != 0L) {
+                return status.getItemStatusId();
+            }
+        }
+        return null;
+    }
+
+    // =========================================================
+    // TRANSITIONS
+    // =========================================================
+
+    public static boolean hasOrderRule(SalesTransactions transaction) {
+        return (ORDER_ACTIVATE[transaction.ordinal()] | ORDER_DEACTIVATE[transaction.ordinal()]) != 0L;
+    }
+
+    public static boolean hasItemRule(SalesTransactions transaction) {
+        return (ITEM_ACTIVATE[transaction.ordinal()] | ITEM_DEACTIVATE[transaction.ordinal()]) != 0L;
+    }
+
+    /**
+     * Applies the order rule of the transaction to a copy of the order's status list.
+     * Deactivates every active row of a deactivated status, then reactivates the first row
+     * of each activated status or appends a new one. Callers check hasOrderRule first.
+     */
+    public static List<SalesOrderStatus> applyOrderTransition(SalesOrder order, SalesTransactions transaction) {
+        long activate = ORDER_ACTIVATE[transaction.ordinal()];
+        long deactivate = ORDER_DEACTIVATE[transaction.ordinal()];
+        List<SalesOrderStatus> updated = new ArrayList<>(order.getStatusList());
+
+        // ---- DEACTIVATE ----
+        long deactivated = 0L;
+        for (int i = 0, n = updated.size(); i < n; i++) {
+            SalesOrderStatus status = updated.get(i);
+            long statusBit = bit(status.getOrderStatusId());
+            if ((deactivate & statusBit) != 0L && Boolean.TRUE.equals(status.getActive())) {
+                status.setActive(false);
+                deactivated |= statusBit;
+                log.debug("Deactivated order status {} for order {}", status.getOrderStatusId(), order.getSalesOrderId());
+            }
+        }
+        for (long missing = deactivate & ~deactivated; missing != 0L; missing &= missing - 1) {
+            log.warn("Order status {} was not active for order {}", ORDER_STATUSES[Long.numberOfTrailingZeros(missing)], order.getSalesOrderId());
+        }
+
+        // ---- ACTIVATE ----
+        long seen = 0L;
+        for (int i = 0, n = updated.size(); i < n && seen != activate; i++) {
+            SalesOrderStatus status = updated.get(i);
+            long statusBit = bit(status.getOrderStatusId());
+            if ((activate & statusBit) == 0L || (seen & statusBit) != 0L) {
+                continue;
+            }
+            seen |= statusBit;
+            if (status.getActive()) {
+                log.warn("Order status {} already active for order {}", status.getOrderStatusId(), order.getSalesOrderId());
+            } else {
+                status.setActive(true);
+                log.debug("Reactivated order status {} for order {}", status.getOrderStatusId(), order.getSalesOrderId());
+            }
+        }
+        for (long missing = activate & ~seen; missing != 0L; missing &= missing - 1) {
+            OrderStatusId toActivate = ORDER_STATUSES[Long.numberOfTrailingZeros(missing)];
+            updated.add(SalesOrderStatus.builder()
+                    .salesOrder(order)
+                    .orderStatusId(toActivate)
+                    .active(true)
+                    .build());
+            log.debug("Activated new order status {} for order {}", toActivate, order.getSalesOrderId());
+        }
+        return updated;
+    }
+
+    /**
+     * Item counterpart of applyOrderTransition. Callers check hasItemRule first.
+     */
+    public static List<SalesItemStatus> applyItemTransition(SalesItem item, SalesTransactions transaction) {
+        long activate = ITEM_ACTIVATE[transaction.ordinal()];
+        long deactivate = ITEM_DEACTIVATE[transaction.ordinal()];
+        List<SalesItemStatus> updated = new ArrayList<>(item.getStatusList());
+
+        // ---- DEACTIVATE ----
+        long deactivated = 0L;
+        for (int i = 0, n = updated.size(); i < n; i++) {
+            SalesItemStatus status = updated.get(i);
+            long statusBit = bit(status.getItemStatusId());
+            if ((deactivate & statusBit) != 0L && Boolean.TRUE.equals(status.getActive())) {
+                status.setActive(false);
+                deactivated |= statusBit;
+                log.debug("Deactivated item status {} for item {}", status.getItemStatusId(), item.getItemId());
+            }
+        }
+        for (long missing = deactivate & ~deactivated; missing != 0L; missing &= missing - 1) {
+            log.warn("Item status {} was not active for item {}", ITEM_STATUSES[Long.numberOfTrailingZeros(missing)], item.getItemId());
+        }
+
+        // ---- ACTIVATE ----
+        long seen = 0L;
+        for (int i = 0, n = updated.size(); i < n && seen != activate; i++) {
+            SalesItemStatus status = updated.get(i);
+            long statusBit = bit(status.getItemStatusId());
+            if ((activate & statusBit) == 0L || (seen & statusBit) != 0L) {
+                continue;
+            }
+            seen |= statusBit;
+            if (status.getActive()) {
+                log.warn("Item status {} already active for item {}", status.getItemStatusId(), item.getItemId());
+            } else {
+                status.setActive(true);
+                log.debug("Reactivated item status {} for item {}", status.getItemStatusId(), item.getItemId());
+            }
+        }
+        for (long missing = activate & ~seen; missing != 0L; missing &= missing - 1) {
+            ItemStatusId toActivate = ITEM_STATUSES[Long.numberOfTrailingZeros(missing)];
+            updated.add(SalesItemStatus.builder()
+                    .salesItem(item)
+                    .itemStatusId(toActivate)
+                    .active(true)
+                    .build());
+            log.debug("Activated new item status {} for item {}", toActivate, item.getItemId());
+        }
+        return updated;
+    }
+
+    // =========================================================
+    // COMPILATION
+    // =========================================================
+
+    private static <S extends Enum<S>> void compileForbidRules(Map<S, Set<SalesTransactions>> rules, long[] table) {
+        rules.forEach((status, transactions) -> {
+            for (SalesTransactions transaction : transactions) {
+                table[transaction.ordinal()] |= bit(status);
+            }
+        });
+    }
+
+    private static <S extends Enum<S>> void compileChangeRules(Map<SalesTransactions, StatusRule<S>> rules,
+                                                               long[] activateTable, long[] deactivateTable) {
+        rules.forEach((transaction, rule) -> {
+            for (S status : rule.activate()) {
+                activateTable[transaction.ordinal()] |= bit(status);
+            }
+            for (S status : rule.deactivate()) {
+                deactivateTable[transaction.ordinal()] |= bit(status);
+            }
+        });
+    }
+}
@@ -0,0 +1,16 @@
+-- Recurrent orders are restarted by the built-in scheduler (RecurrentOrderScheduler), which
+-- claims rows whose next_due_at has passed; null means no installment is left.
+ALTER TABLE recurrent_order_details
+    ADD COLUMN completed_installments INTEGER DEFAULT 1 NOT NULL;
+
+ALTER TABLE recurrent_order_details
+    ADD COLUMN next_due_at TIMESTAMP(6) WITH TIME ZONE;
+
+-- Existing recurrences have placed their first order; their schedule starts one gap from now
+UPDATE recurrent_order_details
+SET next_due_at = CURRENT_TIMESTAMP + gap_in_days * INTERVAL '1' DAY
+WHERE installments > 1 AND gap_in_days IS NOT NULL;
+
+-- The scheduler's claim and lag queries walk the due range oldest first
+CREATE INDEX ix_recurrent_order_details_due
+    ON recurrent_order_details (next_due_at);
@@ -0,0 +1,30 @@
+-- Per-order item counters, kept by the application as items are added and change status
+-- (ItemCounters); the all-items-cancelled check reads them instead of counting items.
+ALTER TABLE sales_orders ADD COLUMN item_count INTEGER DEFAULT 0 NOT NULL;
+ALTER TABLE sales_orders ADD COLUMN cancelled_item_count INTEGER DEFAULT 0 NOT NULL;
+ALTER TABLE sales_orders ADD COLUMN backordered_item_count INTEGER DEFAULT 0 NOT NULL;
+ALTER TABLE sales_orders ADD COLUMN invoiced_item_count INTEGER DEFAULT 0 NOT NULL;
+
+-- An item counts once per category, whichever of the category's statuses is active
+UPDATE sales_orders o SET
+    item_count = (
+        SELECT COUNT(*) FROM order_items i
+        WHERE i.order_id = o.order_id),
+    cancelled_item_count = (
+        SELECT COUNT(*) FROM order_items i
+        WHERE i.order_id = o.order_id
+          AND EXISTS (
+            SELECT 1 FROM sales_item_status s
+            WHERE s.item_id = i.item_id AND s.status IN ('E_CNCL_CUST', 'E_CNCL_SYS') AND s.active = TRUE)),
+    backordered_item_count = (
+        SELECT COUNT(*) FROM order_items i
+        WHERE i.order_id = o.order_id
+          AND EXISTS (
+            SELECT 1 FROM sales_item_status s
+            WHERE s.item_id = i.item_id AND s.status = 'E_BKO' AND s.active = TRUE)),
+    invoiced_item_count = (
+        SELECT COUNT(*) FROM order_items i
+        WHERE i.order_id = o.order_id
+          AND EXISTS (
+            SELECT 1 FROM sales_item_status s
+            WHERE s.item_id = i.item_id AND s.status = 'I_INVC_ITEM' AND s.active = TRUE));
@@ -0,0 +1,12 @@
+-- Backorders are released first in, first out per product when stock arrives
+-- (replenishBackorders); the product is copied from the item so the walk reads one index.
+ALTER TABLE back_ordered_item ADD COLUMN product_id UUID;
+ALTER TABLE back_ordered_item ADD COLUMN backordered_at TIMESTAMP(6) WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP NOT NULL;
+
+UPDATE back_ordered_item b
+SET product_id = (SELECT i.product_id FROM order_items i WHERE i.item_id = b.item_id);
+
+ALTER TABLE back_ordered_item ALTER COLUMN product_id SET NOT NULL;
+
+CREATE INDEX ix_back_ordered_item_fifo
+    ON back_ordered_item (product_id, backordered_at, back_order_id);
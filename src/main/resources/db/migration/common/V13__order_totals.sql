@@ -0,0 +1,49 @@
+-- Money totals in minor units (hundredths), kept by the application (OrderTotals):
+-- each item is valued once at creation, and the order sums its items that are not cancelled.
+ALTER TABLE order_items ADD COLUMN gross_amount BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE order_items ADD COLUMN discount_amount BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE order_items ADD COLUMN net_amount BIGINT DEFAULT 0 NOT NULL;
+
+ALTER TABLE sales_orders ADD COLUMN gross_amount BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE sales_orders ADD COLUMN discount_amount BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE sales_orders ADD COLUMN net_amount BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE sales_orders ADD COLUMN backordered_net_amount BIGINT DEFAULT 0 NOT NULL;
+
+-- Rounded half up like Money: discount_rate is a percentage
+UPDATE order_items
+SET gross_amount = CAST(ROUND(net_qty * base_unit_price * 100, 0) AS BIGINT);
+
+UPDATE order_items
+SET discount_amount = CAST(ROUND(gross_amount * discount_rate / 100, 0) AS BIGINT);
+
+UPDATE order_items
+SET net_amount = gross_amount - discount_amount;
+
+UPDATE sales_orders o SET
+    gross_amount = (
+        SELECT COALESCE(SUM(i.gross_amount), 0) FROM order_items i
+        WHERE i.order_id = o.order_id
+          AND NOT EXISTS (
+            SELECT 1 FROM sales_item_status s
+            WHERE s.item_id = i.item_id AND s.status IN ('E_CNCL_CUST', 'E_CNCL_SYS') AND s.active = TRUE)),
+    discount_amount = (
+        SELECT COALESCE(SUM(i.discount_amount), 0) FROM order_items i
+        WHERE i.order_id = o.order_id
+          AND NOT EXISTS (
+            SELECT 1 FROM sales_item_status s
+            WHERE s.item_id = i.item_id AND s.status IN ('E_CNCL_CUST', 'E_CNCL_SYS') AND s.active = TRUE)),
+    net_amount = (
+        SELECT COALESCE(SUM(i.net_amount), 0) FROM order_items i
+        WHERE i.order_id = o.order_id
+          AND NOT EXISTS (
+            SELECT 1 FROM sales_item_status s
+            WHERE s.item_id = i.item_id AND s.status IN ('E_CNCL_CUST', 'E_CNCL_SYS') AND s.active = TRUE)),
+    backordered_net_amount = (
+        SELECT COALESCE(SUM(i.net_amount), 0) FROM order_items i
+        WHERE i.order_id = o.order_id
+          AND EXISTS (
+            SELECT 1 FROM sales_item_status s
+            WHERE s.item_id = i.item_id AND s.status = 'E_BKO' AND s.active = TRUE)
+          AND NOT EXISTS (
+            SELECT 1 FROM sales_item_status s
+            WHERE s.item_id = i.item_id AND s.status IN ('E_CNCL_CUST', 'E_CNCL_SYS') AND s.active = TRUE));
@@ -0,0 +1,34 @@
+-- Active order statuses counted per (status, delivery speed), kept by the application as statuses
+-- flip (StatusRollupIntegrator) so dashboards never GROUP BY sales_order_status.
+-- A (status, delivery_speed) count is the sum of its stripe rows; each transaction adds its deltas
+-- to one stripe, so concurrent writers rarely queue on the same row.
+CREATE TABLE order_status_rollup
+(
+    status         VARCHAR(255)  NOT NULL,
+    delivery_speed VARCHAR(255)  NOT NULL,
+    stripe         SMALLINT      NOT NULL,
+    order_count    BIGINT        DEFAULT 0 NOT NULL,
+    CONSTRAINT pk_order_status_rollup PRIMARY KEY (status, delivery_speed, stripe)
+);
+
+-- Every row a writer can touch exists up front, so writers only ever UPDATE.
+-- Statuses follow OrderStatusId, speeds DeliverySpeed, stripes StatusRollupIntegrator.STRIPES;
+-- a migration adding an enum value adds its rows the same way.
+INSERT INTO order_status_rollup (status, delivery_speed, stripe, order_count)
+SELECT s.status, d.delivery_speed, n.stripe, 0
+FROM (VALUES ('I_CRTD'), ('I_REL'), ('E_TRNS'), ('I_WAIT'), ('I_CMPL'), ('E_CNCL'),
+             ('E_AWT_APPV'), ('E_CRED_BLK'), ('E_FRD_HOLD'), ('I_DLKD'), ('I_BLKD'),
+             ('I_LOCK'), ('E_ADMIN_HOLD'), ('E_DISP'), ('I_INV'), ('I_DLFL')) AS s (status)
+CROSS JOIN (VALUES ('NORMAL'), ('FAST'), ('SUPER_FAST'), ('EXPRESS')) AS d (delivery_speed)
+CROSS JOIN (VALUES (0), (1), (2), (3), (4), (5), (6), (7),
+                   (8), (9), (10), (11), (12), (13), (14), (15)) AS n (stripe);
+
+-- Existing orders are counted on stripe 0
+UPDATE order_status_rollup r
+SET order_count = (SELECT COUNT(*)
+                   FROM sales_order_status s
+                   JOIN sales_orders o ON o.order_id = s.order_id
+                   WHERE s.active = TRUE
+                     AND s.status = r.status
+                     AND o.delivery_speed = r.delivery_speed)
+WHERE r.stripe = 0;
@@ -0,0 +1,18 @@
+-- backordered_net_amount counts only the backordered quantity of each item (OrderTotals):
+-- its net prorated by bck_qty / net_qty, rounded half up. V13 counted the whole net.
+UPDATE sales_orders o
+SET backordered_net_amount = (
+    SELECT COALESCE(SUM(
+               CASE
+                   WHEN b.bck_qty IS NULL OR i.net_qty = 0 THEN i.net_amount
+                   ELSE (i.net_amount * LEAST(b.bck_qty, i.net_qty) + i.net_qty / 2) / i.net_qty
+               END), 0)
+    FROM order_items i
+    LEFT JOIN back_ordered_item b ON b.item_id = i.item_id
+    WHERE i.order_id = o.order_id
+      AND EXISTS (
+        SELECT 1 FROM sales_item_status s
+        WHERE s.item_id = i.item_id AND s.status = 'E_BKO' AND s.active = TRUE)
+      AND NOT EXISTS (
+        SELECT 1 FROM sales_item_status s
+        WHERE s.item_id = i.item_id AND s.status IN ('E_CNCL_CUST', 'E_CNCL_SYS') AND s.active = TRUE));
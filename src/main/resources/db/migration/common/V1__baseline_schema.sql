@@ -0,0 +1,89 @@
+-- Baseline: the schema as Hibernate generated it before migrations were managed.
+-- Existing databases are baselined at this version and only pick up later scripts.
+
+CREATE TABLE sales_orders (
+    order_id        UUID                     NOT NULL,
+    customer_id     UUID                     NOT NULL,
+    customer_name   VARCHAR(255)             NOT NULL,
+    created_at      TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    recurrent       BOOLEAN                  NOT NULL,
+    version         BIGINT,
+    in_transit      BOOLEAN                  NOT NULL,
+    delivery_speed  VARCHAR(255)             NOT NULL,
+    CONSTRAINT pk_sales_orders PRIMARY KEY (order_id)
+);
+
+CREATE TABLE order_items (
+    item_id          UUID           NOT NULL,
+    vendor_id        UUID,
+    product_id       UUID           NOT NULL,
+    product_name     VARCHAR(255)   NOT NULL,
+    version          BIGINT,
+    transit_active   BOOLEAN,
+    net_qty          INTEGER        NOT NULL,
+    base_unit_price  NUMERIC(38, 2) NOT NULL,
+    discount_rate    NUMERIC(38, 2) NOT NULL,
+    order_id         UUID           NOT NULL,
+    CONSTRAINT pk_order_items PRIMARY KEY (item_id),
+    CONSTRAINT fk_order_items_order FOREIGN KEY (order_id) REFERENCES sales_orders (order_id)
+);
+
+CREATE TABLE shipment_address (
+    address_id         BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    recipient_name     VARCHAR(255) NOT NULL,
+    company_name       VARCHAR(255),
+    phone_number       VARCHAR(255) NOT NULL,
+    street_line1       VARCHAR(255) NOT NULL,
+    street_line2       VARCHAR(255),
+    city               VARCHAR(255) NOT NULL,
+    state_or_province  VARCHAR(255) NOT NULL,
+    postal_code        VARCHAR(255) NOT NULL,
+    country            VARCHAR(255) NOT NULL,
+    landmark           VARCHAR(255),
+    order_id           UUID,
+    CONSTRAINT pk_shipment_address PRIMARY KEY (address_id),
+    CONSTRAINT uk_shipment_address_order UNIQUE (order_id),
+    CONSTRAINT fk_shipment_address_order FOREIGN KEY (order_id) REFERENCES sales_orders (order_id)
+);
+
+CREATE TABLE recurrent_order_details (
+    recurrent_order_id        BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    installments              INTEGER,
+    gap_in_days               INTEGER,
+    requested_offset_in_days  INTEGER,
+    order_id                  UUID NOT NULL,
+    CONSTRAINT pk_recurrent_order_details PRIMARY KEY (recurrent_order_id),
+    CONSTRAINT uk_recurrent_order_details_order UNIQUE (order_id),
+    CONSTRAINT fk_recurrent_order_details_order FOREIGN KEY (order_id) REFERENCES sales_orders (order_id)
+);
+
+CREATE TABLE back_ordered_item (
+    back_order_id  BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    bck_qty        INTEGER NOT NULL,
+    item_id        UUID    NOT NULL,
+    CONSTRAINT pk_back_ordered_item PRIMARY KEY (back_order_id),
+    CONSTRAINT uk_back_ordered_item_item UNIQUE (item_id),
+    CONSTRAINT fk_back_ordered_item_item FOREIGN KEY (item_id) REFERENCES order_items (item_id)
+);
+
+CREATE TABLE sales_order_status (
+    status_id        BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    order_id         UUID         NOT NULL,
+    status           VARCHAR(255) NOT NULL,
+    active           BOOLEAN      NOT NULL,
+    created_at       TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    last_updated_at  TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    CONSTRAINT pk_sales_order_status PRIMARY KEY (status_id),
+    CONSTRAINT fk_sales_order_status_order FOREIGN KEY (order_id) REFERENCES sales_orders (order_id)
+);
+
+CREATE TABLE sales_item_status (
+    item_status_id   BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    item_id          UUID         NOT NULL,
+    status           VARCHAR(255) NOT NULL,
+    active           BOOLEAN      NOT NULL,
+    created_at       TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    last_updated_at  TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    CONSTRAINT pk_sales_item_status PRIMARY KEY (item_status_id),
+    CONSTRAINT fk_sales_item_status_item FOREIGN KEY (item_id) REFERENCES order_items (item_id)
+);
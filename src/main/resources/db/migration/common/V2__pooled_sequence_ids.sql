@@ -0,0 +1,18 @@
+-- Move the Long-keyed tables from IDENTITY columns to pooled sequences so Hibernate can
+-- JDBC-batch their inserts. INCREMENT BY must match allocationSize on the entities (50).
+-- Databases that already hold rows get the sequences repositioned by the vendor-specific V3.
+
+ALTER TABLE sales_order_status ALTER COLUMN status_id DROP IDENTITY;
+CREATE SEQUENCE sales_order_status_seq START WITH 1 INCREMENT BY 50;
+
+ALTER TABLE sales_item_status ALTER COLUMN item_status_id DROP IDENTITY;
+CREATE SEQUENCE sales_item_status_seq START WITH 1 INCREMENT BY 50;
+
+ALTER TABLE shipment_address ALTER COLUMN address_id DROP IDENTITY;
+CREATE SEQUENCE shipment_address_seq START WITH 1 INCREMENT BY 50;
+
+ALTER TABLE back_ordered_item ALTER COLUMN back_order_id DROP IDENTITY;
+CREATE SEQUENCE back_ordered_item_seq START WITH 1 INCREMENT BY 50;
+
+ALTER TABLE recurrent_order_details ALTER COLUMN recurrent_order_id DROP IDENTITY;
+CREATE SEQUENCE recurrent_order_details_seq START WITH 1 INCREMENT BY 50;
@@ -0,0 +1,4 @@
+-- Nightly NDJSON export (GET /api/v1/internal/sales-orders/export) walks a created_at range
+-- in (created_at, order_id) order; this index serves both the range and the order without a sort.
+CREATE INDEX ix_sales_orders_created
+    ON sales_orders (created_at, order_id);
@@ -0,0 +1,16 @@
+-- Responses of mutating requests sent with an Idempotency-Key header, shared by all nodes.
+-- A row without status_code is a claim: the first request with the key is still executing.
+CREATE TABLE idempotency_keys (
+    idempotency_key  VARCHAR(255) NOT NULL,
+    fingerprint      VARCHAR(64)  NOT NULL,
+    status_code      INTEGER,
+    content_type     VARCHAR(255),
+    response_body    TEXT,
+    created_at       TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    expires_at       TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    CONSTRAINT pk_idempotency_keys PRIMARY KEY (idempotency_key)
+);
+
+-- Purge of expired keys
+CREATE INDEX ix_idempotency_keys_expires
+    ON idempotency_keys (expires_at);
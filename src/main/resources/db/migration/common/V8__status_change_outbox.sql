@@ -0,0 +1,25 @@
+-- Outbox of order and item status changes, written in the transaction that makes them.
+-- feed_position is stamped by the relay after commit, in commit order, and is the change feed cursor.
+CREATE TABLE status_change_outbox (
+    event_id       BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    feed_position  BIGINT,
+    order_id       UUID         NOT NULL,
+    item_id        UUID,
+    status         VARCHAR(255) NOT NULL,
+    active         BOOLEAN      NOT NULL,
+    occurred_at    TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    CONSTRAINT pk_status_change_outbox PRIMARY KEY (event_id)
+);
+
+-- Both the relay (feed_position IS NULL, by event_id) and feed reads (feed_position > ?)
+CREATE INDEX ix_status_change_outbox_feed
+    ON status_change_outbox (feed_position, event_id);
+
+-- Last position handed out; its row lock lets one relay run at a time across nodes
+CREATE TABLE status_change_relay (
+    relay_id       INTEGER NOT NULL,
+    last_position  BIGINT  NOT NULL,
+    CONSTRAINT pk_status_change_relay PRIMARY KEY (relay_id)
+);
+
+INSERT INTO status_change_relay (relay_id, last_position) VALUES (1, 0);
@@ -0,0 +1,3 @@
+-- Resuming an order's or a customer's status stream from Last-Event-ID replays that order's changes
+CREATE INDEX ix_status_change_outbox_order
+    ON status_change_outbox (order_id, feed_position);
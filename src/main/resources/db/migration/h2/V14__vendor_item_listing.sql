@@ -0,0 +1,3 @@
+-- H2 counterpart of postgresql/V14 (no INCLUDE columns).
+CREATE INDEX ix_order_items_vendor
+    ON order_items (vendor_id, item_id);
@@ -0,0 +1,8 @@
+-- H2 counterpart of postgresql/V16 (no partial indexes, so active is a key column).
+ALTER TABLE sales_item_status ADD COLUMN vendor_id UUID;
+
+UPDATE sales_item_status s
+SET vendor_id = (SELECT i.vendor_id FROM order_items i WHERE i.item_id = s.item_id);
+
+CREATE INDEX ix_sales_item_status_vendor_active
+    ON sales_item_status (vendor_id, status, active, item_id);
@@ -0,0 +1,6 @@
+-- H2 counterpart of postgresql/V4 (no INCLUDE columns or partial indexes).
+CREATE INDEX ix_sales_orders_customer_created
+    ON sales_orders (customer_id, created_at, order_id);
+
+CREATE INDEX ix_sales_order_status_order_active
+    ON sales_order_status (order_id, status, active);
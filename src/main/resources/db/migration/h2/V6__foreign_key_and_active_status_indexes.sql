@@ -0,0 +1,4 @@
+-- H2 counterpart of postgresql/V6. H2 already indexes foreign key columns on its own,
+-- so only the active status index is added (without the partial predicate).
+CREATE INDEX ix_sales_item_status_item_active
+    ON sales_item_status (item_id, status, active);
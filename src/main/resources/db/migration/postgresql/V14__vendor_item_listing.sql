@@ -0,0 +1,8 @@
+-- Keyset listing of a vendor's items (GET /api/v1/internal/vendors/{vendorId}/items).
+-- The seek predicate and ORDER BY item_id are one forward range scan within the vendor;
+-- INCLUDE carries the listed columns so a page without filters is an index-only scan.
+-- The status filters probe ix_sales_item_status_item_active (V6) and
+-- ix_sales_order_status_order_active (V4) per listed item.
+CREATE INDEX ix_order_items_vendor
+    ON order_items (vendor_id, item_id)
+    INCLUDE (order_id, product_id, net_qty);
@@ -0,0 +1,15 @@
+-- Item status filters of the vendor item listing (GET /api/v1/internal/vendors/{vendorId}/items).
+-- Probing each of a vendor's items (V14) reads all of them to find the few with a rare status
+-- such as E_BKO. The vendor id is copied onto the status rows (an item's vendor never changes),
+-- so the filtered listing is one forward range scan over the vendor's active rows of that status
+-- in item id order, and costs a page whatever the vendor's size.
+ALTER TABLE sales_item_status ADD COLUMN vendor_id UUID;
+
+UPDATE sales_item_status s
+SET vendor_id = i.vendor_id
+FROM order_items i
+WHERE i.item_id = s.item_id;
+
+CREATE INDEX ix_sales_item_status_vendor_active
+    ON sales_item_status (vendor_id, status, item_id)
+    WHERE active;
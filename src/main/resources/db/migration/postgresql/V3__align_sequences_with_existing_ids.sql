@@ -0,0 +1,8 @@
+-- Position each sequence so its first pooled-lo block (nextval .. nextval + 49) starts right
+-- after the highest id the old IDENTITY column handed out.
+
+SELECT setval('sales_order_status_seq', (SELECT COALESCE(MAX(status_id), 0) + 1 FROM sales_order_status), false);
+SELECT setval('sales_item_status_seq', (SELECT COALESCE(MAX(item_status_id), 0) + 1 FROM sales_item_status), false);
+SELECT setval('shipment_address_seq', (SELECT COALESCE(MAX(address_id), 0) + 1 FROM shipment_address), false);
+SELECT setval('back_ordered_item_seq', (SELECT COALESCE(MAX(back_order_id), 0) + 1 FROM back_ordered_item), false);
+SELECT setval('recurrent_order_details_seq', (SELECT COALESCE(MAX(recurrent_order_id), 0) + 1 FROM recurrent_order_details), false);
@@ -0,0 +1,12 @@
+-- Keyset listing of a customer's orders (GET /api/v1/my-orders?customerId=...).
+-- The seek predicate and ORDER BY created_at DESC, order_id DESC are both served by one
+-- backward range scan; INCLUDE carries the summary columns so a page is an index-only scan.
+CREATE INDEX ix_sales_orders_customer_created
+    ON sales_orders (customer_id, created_at, order_id)
+    INCLUDE (delivery_speed, recurrent, in_transit);
+
+-- Status filter (EXISTS per listed order) and the active statuses of a page.
+-- Only active rows are ever probed, so the history stays out of the index.
+CREATE INDEX ix_sales_order_status_order_active
+    ON sales_order_status (order_id, status)
+    WHERE active;
@@ -0,0 +1,18 @@
+-- PostgreSQL does not index the referencing side of a foreign key, so every
+-- "all rows of this order / item" lookup (findAllBySalesOrder_SalesOrderId, the entity graphs,
+-- the item status batch fetch) was a sequential scan.
+CREATE INDEX ix_order_items_order
+    ON order_items (order_id);
+
+CREATE INDEX ix_sales_order_status_order
+    ON sales_order_status (order_id);
+
+CREATE INDEX ix_sales_item_status_item
+    ON sales_item_status (item_id);
+
+-- Status guards (NOT EXISTS an active status IN (...), countItemsNotHavingGivenStatusesByOrderId)
+-- and the active item statuses of the read path only probe active rows.
+-- The order-level counterpart is ix_sales_order_status_order_active (V4).
+CREATE INDEX ix_sales_item_status_item_active
+    ON sales_item_status (item_id, status)
+    WHERE active;
@@ -0,0 +1,51 @@
+package com.mattercom.salesOrders;
+
+import com.mattercom.salesOrders.dto.ItemCreationDto;
+import com.mattercom.salesOrders.dto.OrderCreationDto;
+import com.mattercom.salesOrders.dto.ShipmentAddressDto;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+/**
+ * Builders for valid order creation payloads used across tests.
+ */
+public final class TestOrders {
+
+    private TestOrders() {}
+
+    public static OrderCreationDto order(int itemCount) {
+        return order("Test Customer", "Test Recipient", itemCount);
+    }
+
+    public static OrderCreationDto order(String customerName, String recipientName, int itemCount) {
+        return OrderCreationDto.builder()
+                .customerId(UUID.randomUUID())
+                .customerName(customerName)
+                .dto(items(itemCount))
+                .shipmentAddress(ShipmentAddressDto.builder()
+                        .recipientName(recipientName)
+                        .phoneNumber("+1-555-0100")
+                        .streetLine1("1 Dock Road")
+                        .city("Springfield")
+                        .stateOrProvince("IL")
+                        .postalCode("62701")
+                        .country("US")
+                        .build())
+                .build();
+    }
+
+    public static List<ItemCreationDto> items(int itemCount) {
+        return IntStream.range(0, itemCount)
+                .mapToObj(i -> ItemCreationDto.builder()
+                        .vendorId(UUID.randomUUID())
+                        .productId(UUID.randomUUID())
+                        .productName("Product " + i)
+                        .netQty(1 + i % 5)
+                        .baseUnitPrice(new BigDecimal("19.99"))
+                        .build())
+                .toList();
+    }
+}
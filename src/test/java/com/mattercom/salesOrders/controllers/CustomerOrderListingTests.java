@@ -0,0 +1,154 @@
+package com.mattercom.salesOrders.controllers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mattercom.salesOrders.dto.OrderCreationDto;
+import com.mattercom.salesOrders.dto.OrderCreationFlags;
+import com.mattercom.salesOrders.enums.SalesTransactions;
+import com.mattercom.salesOrders.services.SalesOrderService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static com.mattercom.salesOrders.TestOrders.order;
+import static com.mattercom.salesOrders.monitoring.QueryCountExtension.assertMaxQueries;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Keyset listing of a customer's orders: complete, newest first, no duplicates across pages,
+ * and a fixed number of queries per page however deep the cursor is.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class CustomerOrderListingTests {
+
+    private static final int ORDER_COUNT = 25;
+    private static final int RELEASED_COUNT = 7;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private SalesOrderService salesOrderService;
+
+    private UUID customerId;
+    private Set<UUID> orderIds;
+    private Set<UUID> releasedOrderIds;
+
+    @BeforeEach
+    void setUp() {
+        customerId = UUID.randomUUID();
+        orderIds = new HashSet<>();
+        releasedOrderIds = new HashSet<>();
+        for (int i = 0; i < ORDER_COUNT; i++) {
+            OrderCreationDto dto = order(1);
+            dto.setCustomerId(customerId);
+            UUID orderId = salesOrderService.createOrder(dto, OrderCreationFlags.builder().build()).getOrderId();
+            orderIds.add(orderId);
+            if (i < RELEASED_COUNT) {
+                salesOrderService.performOrderTransaction(orderId, SalesTransactions.RELEASE_ORDER);
+                releasedOrderIds.add(orderId);
+            }
+        }
+        // Another customer's order must never show up
+        salesOrderService.createOrder(order(1), OrderCreationFlags.builder().build());
+    }
+
+    @Test
+    void pagesThroughEveryOrderNewestFirst() throws Exception {
+        List<JsonNode> pages = readAllPages(null, 10);
+
+        assertThat(pages).extracting(page -> page.path("orders").size()).containsExactly(10, 10, 5);
+        List<JsonNode> orders = new ArrayList<>();
+        pages.forEach(page -> page.path("orders").forEach(orders::add));
+        assertThat(orders).extracting(order -> UUID.fromString(order.path("orderId").asText()))
+                .doesNotHaveDuplicates()
+                .containsExactlyInAnyOrderElementsOf(orderIds);
+        for (int i = 1; i < orders.size(); i++) {
+            assertThat(Instant.parse(orders.get(i).path("createdAt").asText()))
+                    .isBeforeOrEqualTo(Instant.parse(orders.get(i - 1).path("createdAt").asText()));
+        }
+    }
+
+    @Test
+    void filtersByActiveStatus() throws Exception {
+        List<JsonNode> pages = readAllPages("I_REL", 5);
+
+        assertThat(pages).extracting(page -> page.path("orders").size()).containsExactly(5, 2);
+        Set<UUID> listed = new HashSet<>();
+        for (JsonNode page : pages) {
+            for (JsonNode order : page.path("orders")) {
+                listed.add(UUID.fromString(order.path("orderId").asText()));
+                assertThat(order.path("activeStatuses").toString()).contains("I_REL");
+            }
+        }
+        assertThat(listed).isEqualTo(releasedOrderIds);
+    }
+
+    // Page rows plus their active statuses, on a later page as on the first
+    @Test
+    void laterPagesRunTheSameQueriesAsTheFirst() throws Exception {
+        JsonNode first = readPage(listing(null, 5));
+        String cursor = first.path("nextCursor").asText();
+
+        assertMaxQueries(2, () -> readPage(listing(null, 5).param("cursor", cursor)));
+        assertMaxQueries(2, () -> readPage(listing("I_REL", 5).param("cursor", cursor)));
+    }
+
+    @Test
+    void rejectsBadCursorAndLimit() throws Exception {
+        mockMvc.perform(listing(null, 10).param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(listing(null, 0))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(listing(null, 1000))
+                .andExpect(status().isBadRequest());
+    }
+
+    private List<JsonNode> readAllPages(String status, int limit) throws Exception {
+        List<JsonNode> pages = new ArrayList<>();
+        String cursor = null;
+        do {
+            MockHttpServletRequestBuilder request = listing(status, limit);
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            JsonNode page = readPage(request);
+            pages.add(page);
+            cursor = page.path("nextCursor").isNull() ? null : page.path("nextCursor").asText();
+        } while (cursor != null);
+        return pages;
+    }
+
+    private MockHttpServletRequestBuilder listing(String status, int limit) {
+        MockHttpServletRequestBuilder request = get("/api/v1/my-orders")
+                .param("customerId", customerId.toString())
+                .param("limit", String.valueOf(limit));
+        return status == null ? request : request.param("status", status);
+    }
+
+    private JsonNode readPage(MockHttpServletRequestBuilder request) throws Exception {
+        String body = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+}
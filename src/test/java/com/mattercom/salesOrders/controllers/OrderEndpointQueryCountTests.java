@@ -0,0 +1,229 @@
+package com.mattercom.salesOrders.controllers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mattercom.salesOrders.SequencePools;
+import com.mattercom.salesOrders.dto.OrderCreationFlags;
+import com.mattercom.salesOrders.dto.ShipmentAddressDto;
+import com.mattercom.salesOrders.entities.SalesItem;
+import com.mattercom.salesOrders.enums.DeliverySpeed;
+import com.mattercom.salesOrders.enums.SalesTransactions;
+import com.mattercom.salesOrders.monitoring.MaxQueries;
+import com.mattercom.salesOrders.monitoring.SqlStatisticsFilter;
+import com.mattercom.salesOrders.repositories.SalesItemRepository;
+import com.mattercom.salesOrders.services.SalesOrderService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static com.mattercom.salesOrders.TestOrders.items;
+import static com.mattercom.salesOrders.TestOrders.order;
+import static com.mattercom.salesOrders.monitoring.QueryCountExtension.assertMaxQueries;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * N+1 guards for the order endpoints. Each bound holds for an order of ITEM_COUNT items,
+ * so a per-item lazy load anywhere on the path fails the build. The full order read is
+ * also checked on a 300-item order, to show its query count does not grow with the items.
+ * Mutating endpoints answer from the aggregate they just flushed: their bounds are the
+ * load plan plus the writes, with no re-read or lazy load behind the response.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class OrderEndpointQueryCountTests {
+
+    private static final int ITEM_COUNT = 20;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private SalesOrderService salesOrderService;
+
+    @Autowired
+    private SalesItemRepository salesItemRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private UUID orderId;
+    private List<UUID> itemIds;
+
+    @BeforeEach
+    void setUp() {
+        orderId = salesOrderService.createOrder(order(ITEM_COUNT), OrderCreationFlags.builder().build()).getOrderId();
+        itemIds = salesItemRepository.findAllBySalesOrder_SalesOrderId(orderId).stream()
+                .map(SalesItem::getItemId)
+                .toList();
+        // Every bound below fits in one id block, so no request pays for a block fetch
+        SequencePools.startFreshBlocks(entityManagerFactory);
+    }
+
+    // Header with address and recurrence, header statuses, items, item statuses; all projections
+    @Test
+    @MaxQueries(4)
+    void getOrderRunsBoundedQueries() throws Exception {
+        mockMvc.perform(get("/api/v1/my-orders/{orderId}", orderId))
+                .andExpect(status().isOk())
+                .andExpect(header().string(SqlStatisticsFilter.HEADER, containsString("entities=0")));
+    }
+
+    @Test
+    void getLargeOrderRunsSameQueriesAsSmallOne() throws Exception {
+        UUID largeOrderId = salesOrderService.createOrder(order(300), OrderCreationFlags.builder().build()).getOrderId();
+        List<UUID> largeItemIds = salesItemRepository.findAllBySalesOrder_SalesOrderId(largeOrderId).stream()
+                .map(SalesItem::getItemId)
+                .toList();
+        salesOrderService.cancelOrderItems(largeItemIds.subList(0, 100), largeOrderId, false);
+        salesOrderService.backOrderItem(largeItemIds.subList(100, 150), largeOrderId, 2);
+
+        String body = assertMaxQueries(4, () -> mockMvc.perform(get("/api/v1/my-orders/{orderId}", largeOrderId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+
+        JsonNode items = objectMapper.readTree(body).path("items");
+        assertThat(items).hasSize(300);
+        assertThat(countItemsWithStatus(items, "E_CNCL_CUST")).isEqualTo(100);
+        assertThat(countItemsWithStatus(items, "E_BKO")).isEqualTo(50);
+    }
+
+    // Batched inserts only, the status change outbox included: the response is built from the new aggregate, not re-read.
+    // Includes the status rollup update
+    @Test
+    @MaxQueries(6)
+    void createOrderRunsBoundedQueries() throws Exception {
+        mockMvc.perform(post("/api/v1/my-orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsBytes(order(ITEM_COUNT))))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    @MaxQueries(5)
+    void cancelItemsRunsBoundedQueries() throws Exception {
+        mockMvc.perform(post("/api/v1/my-orders/{orderId}/items/cancel", orderId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsBytes(Map.of("itemIds", itemIds.subList(0, 5)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].activeStatuses.E_CNCL_CUST").exists());
+    }
+
+    // Includes the order's item counter update
+    @Test
+    @MaxQueries(5)
+    void addItemsRunsBoundedQueries() throws Exception {
+        mockMvc.perform(post("/api/v1/my-orders/{orderId}/items", orderId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsBytes(Map.of("items", items(5)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(ITEM_COUNT + 5));
+    }
+
+    @Test
+    @MaxQueries(5)
+    void changeShippingAddressRunsBoundedQueries() throws Exception {
+        ShipmentAddressDto address = order("Test Customer", "New Recipient", 1).getShipmentAddress();
+        mockMvc.perform(put("/api/v1/my-orders/{orderId}/shipping-address", orderId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsBytes(address)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.order.shipmentAddress.recipientName").value("New Recipient"))
+                .andExpect(jsonPath("$.items.length()").value(ITEM_COUNT));
+    }
+
+    // Includes moving the order's active statuses to the new speed in the status rollup (read, then update)
+    @Test
+    @MaxQueries(6)
+    void changeDeliverySpeedRunsBoundedQueries() throws Exception {
+        mockMvc.perform(patch("/api/v1/my-orders/{orderId}/delivery-speed", orderId)
+                        .param("speed", DeliverySpeed.EXPRESS.name()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.order.deliverySpeed").value(DeliverySpeed.EXPRESS.name()));
+    }
+
+    // Includes the status change outbox batch, the status rollup update and the order's item counter update
+    @Test
+    @MaxQueries(8)
+    void cancelOrderRunsBoundedQueries() throws Exception {
+        mockMvc.perform(post("/api/v1/my-orders/{orderId}/cancel", orderId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].activeStatuses.E_CNCL_CUST").exists());
+    }
+
+    // Includes the status change outbox batch and the status rollup update
+    @Test
+    @MaxQueries(7)
+    void orderTransactionRunsBoundedQueries() throws Exception {
+        mockMvc.perform(post("/api/v1/internal/sales-orders/{orderId}/transaction", orderId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsBytes(Map.of("transaction", SalesTransactions.RELEASE_ORDER))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.activeStatuses.I_REL").exists())
+                .andExpect(jsonPath("$.items.length()").value(ITEM_COUNT));
+    }
+
+    // Includes the order's item counter update
+    @Test
+    @MaxQueries(6)
+    void backOrderItemsRunsBoundedQueries() throws Exception {
+        mockMvc.perform(post("/api/v1/internal/sales-orders/{orderId}/items/backorder", orderId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsBytes(Map.of("itemIds", itemIds.subList(0, 5), "quantity", 2))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].activeStatuses.E_BKO").exists());
+    }
+
+    @Test
+    void sqlStatisticsArePublishedAsHeaderAndMetrics() throws Exception {
+        mockMvc.perform(get("/api/v1/my-orders/{orderId}", orderId))
+                .andExpect(status().isOk())
+                .andExpect(header().string(SqlStatisticsFilter.HEADER,
+                        matchesPattern("statements=\\d+, rows=\\d+, entities=\\d+")));
+
+        DistributionSummary statements = meterRegistry.find("sales_orders.http.sql.statements")
+                .tags("method", "GET", "uri", "/api/v1/my-orders/{orderId}", "status", "200")
+                .summary();
+        assertThat(statements).isNotNull();
+        assertThat(statements.count()).isPositive();
+        assertThat(meterRegistry.find("sales_orders.http.sql.rows").summary()).isNotNull();
+        assertThat(meterRegistry.find("sales_orders.http.sql.entities").summary()).isNotNull();
+    }
+
+    private static long countItemsWithStatus(JsonNode items, String statusId) {
+        long count = 0;
+        for (JsonNode item : items) {
+            if (item.path("activeStatuses").has(statusId)) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
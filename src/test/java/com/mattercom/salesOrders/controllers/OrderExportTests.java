@@ -0,0 +1,164 @@
+package com.mattercom.salesOrders.controllers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mattercom.salesOrders.dto.OrderCreationFlags;
+import com.mattercom.salesOrders.enums.SalesTransactions;
+import com.mattercom.salesOrders.monitoring.SqlStatisticsFilter;
+import com.mattercom.salesOrders.repositories.SalesItemRepository;
+import com.mattercom.salesOrders.services.SalesOrderService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static com.mattercom.salesOrders.TestOrders.order;
+import static com.mattercom.salesOrders.monitoring.QueryCountExtension.assertMaxQueries;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * NDJSON export: one full order per line, filtered by creation range and active status,
+ * gzipped on request, and a fixed number of queries per chunk of orders.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class OrderExportTests {
+
+    private static final int ORDER_COUNT = 12;
+    private static final int ITEMS_PER_ORDER = 3;
+    private static final int RELEASED_COUNT = 4;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private SalesOrderService salesOrderService;
+
+    @Autowired
+    private SalesItemRepository salesItemRepository;
+
+    private Instant from;
+    private Instant to;
+    private Set<UUID> orderIds;
+    private Set<UUID> releasedOrderIds;
+    private UUID cancelledItemId;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        from = Instant.now();
+        Thread.sleep(5);
+        orderIds = new HashSet<>();
+        releasedOrderIds = new HashSet<>();
+        for (int i = 0; i < ORDER_COUNT; i++) {
+            UUID orderId = salesOrderService.createOrder(order(ITEMS_PER_ORDER), OrderCreationFlags.builder().build()).getOrderId();
+            orderIds.add(orderId);
+            if (i < RELEASED_COUNT) {
+                salesOrderService.performOrderTransaction(orderId, SalesTransactions.RELEASE_ORDER);
+                releasedOrderIds.add(orderId);
+            }
+        }
+        UUID lastOrderId = salesOrderService.createOrder(order(ITEMS_PER_ORDER), OrderCreationFlags.builder().build()).getOrderId();
+        orderIds.add(lastOrderId);
+        cancelledItemId = salesItemRepository.findAllBySalesOrder_SalesOrderId(lastOrderId).get(0).getItemId();
+        salesOrderService.cancelOrderItems(List.of(cancelledItemId), lastOrderId, false);
+        Thread.sleep(5);
+        to = Instant.now();
+    }
+
+    @Test
+    void exportsEveryOrderInRangeAsOneLineEach() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(export())
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+
+        assertThat(response.getContentType()).startsWith(SystemController.NDJSON);
+        assertThat(response.getHeader(SqlStatisticsFilter.HEADER)).isNull();
+        List<JsonNode> orders = parse(response.getContentAsString(StandardCharsets.UTF_8));
+        assertThat(orders).extracting(order -> UUID.fromString(order.path("orderId").asText()))
+                .containsExactlyInAnyOrderElementsOf(orderIds);
+        List<JsonNode> items = new ArrayList<>();
+        for (JsonNode order : orders) {
+            assertThat(order.path("items").size()).isEqualTo(ITEMS_PER_ORDER);
+            assertThat(order.path("activeStatuses").size()).isPositive();
+            order.path("items").forEach(items::add);
+        }
+        assertThat(items).filteredOn(item -> item.path("itemId").asText().equals(cancelledItemId.toString()))
+                .singleElement()
+                .satisfies(item -> assertThat(item.path("activeStatuses").has("E_CNCL_CUST")).isTrue());
+    }
+
+    @Test
+    void filtersByActiveStatus() throws Exception {
+        String body = mockMvc.perform(export().param("status", "I_REL"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        assertThat(parse(body)).extracting(order -> UUID.fromString(order.path("orderId").asText()))
+                .containsExactlyInAnyOrderElementsOf(releasedOrderIds);
+    }
+
+    @Test
+    void gzipsWhenAccepted() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(export().header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+            String body = new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+            assertThat(parse(body)).hasSize(orderIds.size());
+        }
+    }
+
+    // Header cursor plus statuses, items and item statuses of the chunk
+    @Test
+    void runsFourQueriesPerChunk() throws Exception {
+        assertMaxQueries(4, () -> mockMvc.perform(export()).andExpect(status().isOk()));
+    }
+
+    @Test
+    void rejectsEmptyRange() throws Exception {
+        mockMvc.perform(get("/api/v1/internal/sales-orders/export")
+                        .param("from", to.toString())
+                        .param("to", from.toString()))
+                .andExpect(status().isBadRequest());
+    }
+
+    private MockHttpServletRequestBuilder export() {
+        return get("/api/v1/internal/sales-orders/export")
+                .param("from", from.toString())
+                .param("to", to.toString());
+    }
+
+    private List<JsonNode> parse(String ndjson) throws Exception {
+        List<JsonNode> orders = new ArrayList<>();
+        for (String line : ndjson.split("\n")) {
+            if (!line.isEmpty()) {
+                orders.add(objectMapper.readTree(line));
+            }
+        }
+        return orders;
+    }
+}
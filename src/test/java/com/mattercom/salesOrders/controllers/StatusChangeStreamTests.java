@@ -0,0 +1,141 @@
+package com.mattercom.salesOrders.controllers;
+
+import com.mattercom.salesOrders.dto.OrderCreationDto;
+import com.mattercom.salesOrders.dto.OrderCreationFlags;
+import com.mattercom.salesOrders.dto.StatusChangeDto;
+import com.mattercom.salesOrders.enums.SalesTransactions;
+import com.mattercom.salesOrders.outbox.StatusChangeFeed;
+import com.mattercom.salesOrders.outbox.StatusChangeSubscriptions;
+import com.mattercom.salesOrders.services.SalesOrderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static com.mattercom.salesOrders.TestOrders.order;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Server-Sent Events streams of an order and of a customer: committed changes are pushed,
+ * and a reconnect with Last-Event-ID is replayed what it missed.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class StatusChangeStreamTests {
+
+    private static final Duration WAIT = Duration.ofSeconds(10);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SalesOrderService salesOrderService;
+
+    @Autowired
+    private StatusChangeFeed statusChangeFeed;
+
+    @Autowired
+    private StatusChangeSubscriptions statusChangeSubscriptions;
+
+    @Test
+    void orderStreamPushesCommittedChanges() throws Exception {
+        UUID orderId = createOrder(UUID.randomUUID());
+        MockHttpServletResponse stream = subscribe(get("/api/v1/my-orders/{orderId}/events", orderId));
+
+        salesOrderService.performOrderTransaction(orderId, SalesTransactions.RELEASE_ORDER);
+
+        awaitContent(stream, "\"status\":\"I_REL\"");
+        assertThat(stream.getContentType()).startsWith("text/event-stream");
+        assertThat(stream.getContentAsString()).contains("event:status").contains("\"orderId\":\"" + orderId + "\"");
+
+        statusChangeSubscriptions.heartbeat();
+        awaitContent(stream, ":heartbeat");
+    }
+
+    @Test
+    void reconnectIsReplayedWhatItMissed() throws Exception {
+        long cursor = statusChangeFeed.head();
+        UUID orderId = createOrder(UUID.randomUUID());
+        salesOrderService.performOrderTransaction(orderId, SalesTransactions.RELEASE_ORDER);
+        awaitPublished(orderId, cursor, "I_REL");
+        // The release also deactivates I_CRTD, which may come after I_REL on the feed
+        List<StatusChangeDto> published = statusChangeFeed.readOrder(orderId, cursor, 100);
+        long last = published.get(published.size() - 1).getPosition();
+
+        MockHttpServletResponse missedAll = subscribe(get("/api/v1/my-orders/{orderId}/events", orderId)
+                .header("Last-Event-ID", cursor));
+        MockHttpServletResponse missedNone = subscribe(get("/api/v1/my-orders/{orderId}/events", orderId)
+                .header("Last-Event-ID", last));
+
+        awaitContent(missedAll, "id:" + last + "\n");
+        assertThat(missedAll.getContentAsString()).contains("\"status\":\"I_CRTD\"");
+        assertThat(missedNone.getContentAsString()).doesNotContain("event:status");
+    }
+
+    @Test
+    void customerStreamCarriesOnlyThatCustomersOrders() throws Exception {
+        UUID customerId = UUID.randomUUID();
+        MockHttpServletResponse stream = subscribe(get("/api/v1/my-orders/events").param("customerId", customerId.toString()));
+
+        UUID otherOrderId = createOrder(UUID.randomUUID());
+        UUID orderId = createOrder(customerId);
+        salesOrderService.performOrderTransaction(orderId, SalesTransactions.RELEASE_ORDER);
+
+        awaitContent(stream, "\"status\":\"I_REL\"");
+        assertThat(stream.getContentAsString())
+                .contains("\"orderId\":\"" + orderId + "\"")
+                .doesNotContain(otherOrderId.toString());
+    }
+
+    @Test
+    void unknownOrderIsNotFound() throws Exception {
+        mockMvc.perform(get("/api/v1/my-orders/{orderId}/events", UUID.randomUUID()))
+                .andExpect(status().isNotFound());
+    }
+
+    private UUID createOrder(UUID customerId) {
+        OrderCreationDto dto = order(1);
+        dto.setCustomerId(customerId);
+        return salesOrderService.createOrder(dto, OrderCreationFlags.builder().build()).getOrderId();
+    }
+
+    private MockHttpServletResponse subscribe(MockHttpServletRequestBuilder request) throws Exception {
+        return mockMvc.perform(request)
+                .andExpect(request().asyncStarted())
+                .andReturn().getResponse();
+    }
+
+    private StatusChangeDto awaitPublished(UUID orderId, long cursor, String status) throws InterruptedException {
+        long deadline = System.nanoTime() + WAIT.toNanos();
+        while (System.nanoTime() < deadline) {
+            List<StatusChangeDto> changes = statusChangeFeed.readOrder(orderId, cursor, 100);
+            for (StatusChangeDto change : changes) {
+                if (change.getItemId() == null && change.getStatus().equals(status)) {
+                    return change;
+                }
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError(status + " was not published");
+    }
+
+    private static void awaitContent(MockHttpServletResponse stream, String expected) throws Exception {
+        long deadline = System.nanoTime() + WAIT.toNanos();
+        while (!stream.getContentAsString().contains(expected)) {
+            assertThat(System.nanoTime()).as("%s in %s", expected, stream.getContentAsString()).isLessThan(deadline);
+            Thread.sleep(50);
+        }
+    }
+}
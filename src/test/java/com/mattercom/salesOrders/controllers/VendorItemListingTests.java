@@ -0,0 +1,174 @@
+package com.mattercom.salesOrders.controllers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mattercom.salesOrders.dto.OrderCreationDto;
+import com.mattercom.salesOrders.dto.OrderCreationFlags;
+import com.mattercom.salesOrders.entities.SalesItem;
+import com.mattercom.salesOrders.enums.SalesTransactions;
+import com.mattercom.salesOrders.repositories.SalesItemRepository;
+import com.mattercom.salesOrders.services.SalesOrderService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static com.mattercom.salesOrders.TestOrders.order;
+import static com.mattercom.salesOrders.monitoring.QueryCountExtension.assertMaxQueries;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Keyset listing of a vendor's items: complete, in item id order, filtered by active item and
+ * order statuses, and a fixed number of queries per page however deep the cursor is.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class VendorItemListingTests {
+
+    private static final int ORDER_COUNT = 5;
+    private static final int ITEMS_PER_ORDER = 3;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private SalesOrderService salesOrderService;
+
+    @Autowired
+    private SalesItemRepository salesItemRepository;
+
+    private UUID vendorId;
+    private Set<UUID> itemIds;
+    private Set<UUID> releasedItemIds;
+    private Set<UUID> backorderedItemIds;
+
+    @BeforeEach
+    void setUp() {
+        vendorId = UUID.randomUUID();
+        itemIds = new HashSet<>();
+        releasedItemIds = new HashSet<>();
+        backorderedItemIds = new HashSet<>();
+        for (int i = 0; i < ORDER_COUNT; i++) {
+            OrderCreationDto dto = order(ITEMS_PER_ORDER);
+            dto.getDto().forEach(item -> item.setVendorId(vendorId));
+            UUID orderId = salesOrderService.createOrder(dto, OrderCreationFlags.builder().build()).getOrderId();
+            List<UUID> orderItemIds = salesItemRepository.findAllBySalesOrder_SalesOrderId(orderId).stream()
+                    .map(SalesItem::getItemId)
+                    .toList();
+            itemIds.addAll(orderItemIds);
+            // Orders 1 to 3 backorder their first item, orders 0 and 1 are released
+            if (i >= 1 && i <= 3) {
+                salesOrderService.backOrderItem(orderItemIds.subList(0, 1), orderId, 1);
+                backorderedItemIds.add(orderItemIds.get(0));
+            }
+            if (i <= 1) {
+                salesOrderService.performOrderTransaction(orderId, SalesTransactions.RELEASE_ORDER);
+                releasedItemIds.addAll(orderItemIds);
+            }
+        }
+        // Another vendor's items must never show up
+        salesOrderService.createOrder(order(2), OrderCreationFlags.builder().build());
+    }
+
+    @Test
+    void pagesThroughEveryItemInItemIdOrder() throws Exception {
+        List<JsonNode> pages = readAllPages(Map.of(), 4);
+
+        assertThat(pages).extracting(page -> page.path("items").size()).containsExactly(4, 4, 4, 3);
+        List<String> listed = new ArrayList<>();
+        pages.forEach(page -> page.path("items").forEach(item -> listed.add(item.path("itemId").asText())));
+        // The database orders UUIDs by their bytes, which is the order of their hex strings
+        assertThat(listed).isSorted().doesNotHaveDuplicates();
+        assertThat(listed).extracting(UUID::fromString).containsExactlyInAnyOrderElementsOf(itemIds);
+    }
+
+    @Test
+    void filtersByItemAndOrderStatus() throws Exception {
+        assertThat(listedItems(Map.of("itemStatus", "E_BKO"))).isEqualTo(backorderedItemIds);
+        assertThat(listedItems(Map.of("orderStatus", "I_REL"))).isEqualTo(releasedItemIds);
+
+        Set<UUID> both = new HashSet<>(backorderedItemIds);
+        both.retainAll(releasedItemIds);
+        assertThat(both).hasSize(1);
+        assertThat(listedItems(Map.of("itemStatus", "E_BKO", "orderStatus", "I_REL"))).isEqualTo(both);
+    }
+
+    // Page rows plus their active item statuses, on a later page as on the first
+    @Test
+    void laterPagesRunTheSameQueriesAsTheFirst() throws Exception {
+        JsonNode first = readPage(listing(Map.of(), 4));
+        String cursor = first.path("nextCursor").asText();
+
+        assertMaxQueries(2, () -> readPage(listing(Map.of(), 4).param("cursor", cursor)));
+        assertMaxQueries(2, () -> readPage(listing(Map.of("itemStatus", "E_BKO", "orderStatus", "I_REL"), 4).param("cursor", cursor)));
+    }
+
+    @Test
+    void rejectsBadCursorAndLimit() throws Exception {
+        mockMvc.perform(listing(Map.of(), 10).param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(listing(Map.of(), 0))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(listing(Map.of(), 1000))
+                .andExpect(status().isBadRequest());
+    }
+
+    private Set<UUID> listedItems(Map<String, String> filters) throws Exception {
+        Set<UUID> listed = new HashSet<>();
+        for (JsonNode page : readAllPages(filters, 2)) {
+            for (JsonNode item : page.path("items")) {
+                listed.add(UUID.fromString(item.path("itemId").asText()));
+                if (filters.containsKey("itemStatus")) {
+                    assertThat(item.path("activeStatuses").toString()).contains(filters.get("itemStatus"));
+                }
+            }
+        }
+        return listed;
+    }
+
+    private List<JsonNode> readAllPages(Map<String, String> filters, int limit) throws Exception {
+        List<JsonNode> pages = new ArrayList<>();
+        String cursor = null;
+        do {
+            MockHttpServletRequestBuilder request = listing(filters, limit);
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            JsonNode page = readPage(request);
+            pages.add(page);
+            cursor = page.path("nextCursor").isNull() ? null : page.path("nextCursor").asText();
+        } while (cursor != null);
+        return pages;
+    }
+
+    private MockHttpServletRequestBuilder listing(Map<String, String> filters, int limit) {
+        MockHttpServletRequestBuilder request = get("/api/v1/internal/vendors/{vendorId}/items", vendorId)
+                .param("limit", String.valueOf(limit));
+        filters.forEach(request::param);
+        return request;
+    }
+
+    private JsonNode readPage(MockHttpServletRequestBuilder request) throws Exception {
+        String body = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+}
@@ -0,0 +1,59 @@
+package com.mattercom.salesOrders.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * The pool is fronted by one permit per connection, and a permit comes back exactly once per connection.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ConnectionLimitingDataSourceTests {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void poolIsLimitedToItsOwnSize() throws Exception {
+        ConnectionLimitingDataSource limited = dataSource.unwrap(ConnectionLimitingDataSource.class);
+        HikariDataSource pool = dataSource.unwrap(HikariDataSource.class);
+
+        assertThat(limited.maxPermits()).isEqualTo(pool.getMaximumPoolSize());
+        try (Connection connection = dataSource.getConnection()) {
+            assertThat(connection.isValid(1)).isTrue();
+            assertThat(limited.availablePermits()).isEqualTo(limited.maxPermits() - 1);
+        }
+        assertThat(limited.availablePermits()).isEqualTo(limited.maxPermits());
+    }
+
+    @Test
+    void callersBeyondThePermitsWaitAndTimeOut() throws Exception {
+        JdbcDataSource target = new JdbcDataSource();
+        target.setURL("jdbc:h2:mem:connection_limit");
+        ConnectionLimitingDataSource limited = new ConnectionLimitingDataSource(target, 2, 50);
+
+        Connection first = limited.getConnection();
+        Connection second = limited.getConnection();
+        assertThatThrownBy(limited::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+
+        first.close();
+        first.close();
+        assertThat(limited.availablePermits()).isEqualTo(1);
+        try (Connection third = limited.getConnection()) {
+            assertThat(limited.availablePermits()).isZero();
+        }
+        second.close();
+        assertThat(limited.availablePermits()).isEqualTo(2);
+    }
+}
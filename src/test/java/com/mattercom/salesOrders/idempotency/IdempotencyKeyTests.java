@@ -0,0 +1,187 @@
+package com.mattercom.salesOrders.idempotency;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mattercom.salesOrders.dto.OrderCreationDto;
+import com.mattercom.salesOrders.dto.OrderCreationFlags;
+import com.mattercom.salesOrders.entities.SalesItem;
+import com.mattercom.salesOrders.repositories.SalesItemRepository;
+import com.mattercom.salesOrders.services.SalesOrderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.mattercom.salesOrders.TestOrders.order;
+import static com.mattercom.salesOrders.monitoring.QueryCountExtension.assertMaxQueries;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Retries with the same Idempotency-Key get the first response back and never reach the order.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class IdempotencyKeyTests {
+
+    private static final int DUPLICATES = 6;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @Autowired
+    private SalesOrderService salesOrderService;
+
+    @Autowired
+    private SalesItemRepository salesItemRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void retriedCreateReturnsTheFirstOrder() throws Exception {
+        OrderCreationDto dto = order(2);
+        String key = UUID.randomUUID().toString();
+
+        MockHttpServletResponse first = perform(create(dto, key));
+        MockHttpServletResponse retry = assertMaxQueries(0, () -> perform(create(dto, key)));
+
+        assertThat(first.getStatus()).isEqualTo(201);
+        assertThat(retry.getStatus()).isEqualTo(201);
+        assertThat(retry.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(retry.getContentAsString()).isEqualTo(first.getContentAsString());
+        assertThat(customerOrderCount(dto.getCustomerId())).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentDuplicatesWaitForTheFirstExecution() throws Exception {
+        OrderCreationDto dto = order(2);
+        String key = UUID.randomUUID().toString();
+
+        ExecutorService clients = Executors.newFixedThreadPool(DUPLICATES);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<MockHttpServletResponse>> responses = new ArrayList<>();
+        try {
+            for (int i = 0; i < DUPLICATES; i++) {
+                responses.add(clients.submit(() -> {
+                    start.await();
+                    return perform(create(dto, key));
+                }));
+            }
+            start.countDown();
+            Set<String> orderIds = new HashSet<>();
+            for (Future<MockHttpServletResponse> response : responses) {
+                assertThat(response.get().getStatus()).isEqualTo(201);
+                orderIds.add(objectMapper.readTree(response.get().getContentAsString()).path("orderId").asText());
+            }
+            assertThat(orderIds).hasSize(1);
+        } finally {
+            clients.shutdown();
+        }
+        assertThat(customerOrderCount(dto.getCustomerId())).isEqualTo(1);
+    }
+
+    @Test
+    void storedResponsesAreSharedThroughTheDatabase() throws Exception {
+        UUID orderId = salesOrderService.createOrder(order(3), OrderCreationFlags.builder().build()).getOrderId();
+        UUID itemId = salesItemRepository.findAllBySalesOrder_SalesOrderId(orderId).stream()
+                .map(SalesItem::getItemId)
+                .findFirst().orElseThrow();
+        String key = UUID.randomUUID().toString();
+        MockHttpServletRequestBuilder cancel = post("/api/v1/my-orders/" + orderId + "/items/cancel")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(IdempotencyFilter.HEADER, key)
+                .content(objectMapper.writeValueAsString(Map.of("itemIds", List.of(itemId))));
+
+        MockHttpServletResponse first = perform(cancel);
+        // As if the retry landed on another node: without the key the second cancel would be rejected (409)
+        idempotencyStore.evictLocal();
+        MockHttpServletResponse retry = perform(cancel);
+
+        assertThat(first.getStatus()).isEqualTo(200);
+        assertThat(retry.getStatus()).isEqualTo(200);
+        assertThat(retry.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(retry.getContentAsString()).isEqualTo(first.getContentAsString());
+    }
+
+    @Test
+    void inFlightKeysOutliveTheLruBound() throws Exception {
+        // Room for a single key, and the first one stays in flight while two more arrive
+        IdempotencyStore store = new IdempotencyStore(jdbcTemplate, 24, 1, 10_000, 60_000);
+        String first = UUID.randomUUID().toString();
+        IdempotencyStore.Claim claim = store.begin(first, "fingerprint");
+        store.complete(store.begin(UUID.randomUUID().toString(), "fingerprint"), response("second"));
+        store.complete(store.begin(UUID.randomUUID().toString(), "fingerprint"), response("third"));
+
+        ExecutorService clients = Executors.newSingleThreadExecutor();
+        try {
+            Future<IdempotencyStore.Claim> duplicate = clients.submit(() -> store.begin(first, "fingerprint"));
+            store.complete(claim, response("first"));
+
+            assertThat(new String(duplicate.get(5, TimeUnit.SECONDS).stored().body(), StandardCharsets.UTF_8))
+                    .isEqualTo("first");
+        } finally {
+            clients.shutdown();
+        }
+    }
+
+    @Test
+    void keyReusedForAnotherRequestIsRejected() throws Exception {
+        String key = UUID.randomUUID().toString();
+
+        assertThat(perform(create(order(1), key)).getStatus()).isEqualTo(201);
+        assertThat(perform(create(order(1), key)).getStatus()).isEqualTo(422);
+        assertThat(perform(create(order(1), " ")).getStatus()).isEqualTo(400);
+    }
+
+    private static StoredResponse response(String body) {
+        return new StoredResponse(200, MediaType.TEXT_PLAIN_VALUE, body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private MockHttpServletRequestBuilder create(OrderCreationDto dto, String key) throws Exception {
+        return post("/api/v1/my-orders")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(IdempotencyFilter.HEADER, key)
+                .content(objectMapper.writeValueAsString(dto));
+    }
+
+    private MockHttpServletResponse perform(MockHttpServletRequestBuilder request) throws Exception {
+        return mockMvc.perform(request).andReturn().getResponse();
+    }
+
+    private int customerOrderCount(UUID customerId) throws Exception {
+        String body = mockMvc.perform(get("/api/v1/my-orders").param("customerId", customerId.toString()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode page = objectMapper.readTree(body);
+        return page.path("orders").size();
+    }
+}
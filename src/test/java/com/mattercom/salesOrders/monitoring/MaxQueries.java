@@ -0,0 +1,20 @@
+package com.mattercom.salesOrders.monitoring;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Fails the test when its body prepares more SQL statements than allowed.
+ * Work done in @BeforeEach methods is not counted.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(QueryCountExtension.class)
+public @interface MaxQueries {
+
+    int value();
+}
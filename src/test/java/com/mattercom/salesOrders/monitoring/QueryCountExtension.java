@@ -0,0 +1,54 @@
+package com.mattercom.salesOrders.monitoring;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * N+1 guard backed by SqlStatistics.
+ * Either annotate a test with @MaxQueries, or wrap single calls with assertMaxQueries
+ * when a test does its own setup or performs several requests.
+ * Counting is per thread, so the work must run on the test thread (MockMvc does).
+ */
+public class QueryCountExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(QueryCountExtension.class);
+    private static final String START = "start";
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        SqlStatistics.clearRecentStatements();
+        context.getStore(NAMESPACE).put(START, SqlStatistics.snapshot());
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        MaxQueries maxQueries = context.getRequiredTestMethod().getAnnotation(MaxQueries.class);
+        if (maxQueries == null || context.getExecutionException().isPresent()) {
+            return;
+        }
+        SqlStatistics.Snapshot start = context.getStore(NAMESPACE).get(START, SqlStatistics.Snapshot.class);
+        assertWithin(maxQueries.value(), SqlStatistics.snapshot().since(start), context.getDisplayName());
+    }
+
+    public static <T> T assertMaxQueries(int maxStatements, Callable<T> work) throws Exception {
+        SqlStatistics.clearRecentStatements();
+        SqlStatistics.Snapshot start = SqlStatistics.snapshot();
+        T result = work.call();
+        assertWithin(maxStatements, SqlStatistics.snapshot().since(start), "call");
+        return result;
+    }
+
+    private static void assertWithin(int maxStatements, SqlStatistics.Snapshot used, String description) {
+        List<String> statements = SqlStatistics.recentStatements();
+        assertThat(used.statements())
+                .as("SQL statements in %s (rows=%s, entities=%s):%n  %s", description, used.rows(), used.entities(),
+                        String.join(System.lineSeparator() + "  ", statements))
+                .isLessThanOrEqualTo(maxStatements);
+    }
+}
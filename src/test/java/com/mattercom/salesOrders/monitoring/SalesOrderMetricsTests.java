@@ -0,0 +1,126 @@
+package com.mattercom.salesOrders.monitoring;
+
+import com.mattercom.salesOrders.dto.OrderCreationFlags;
+import com.mattercom.salesOrders.dto.ShipmentAddressDto;
+import com.mattercom.salesOrders.entities.SalesItem;
+import com.mattercom.salesOrders.enums.SalesTransactions;
+import com.mattercom.salesOrders.repositories.SalesItemRepository;
+import com.mattercom.salesOrders.services.SalesOrderService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.UUID;
+
+import static com.mattercom.salesOrders.TestOrders.order;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Service timers and status guard rejection counters, and their Prometheus exposition.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+class SalesOrderMetricsTests {
+
+    @Autowired
+    private SalesOrderService salesOrderService;
+
+    @Autowired
+    private SalesItemRepository salesItemRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private UUID orderId;
+
+    @BeforeEach
+    void setUp() {
+        orderId = salesOrderService.createOrder(order(2), OrderCreationFlags.builder().build()).getOrderId();
+    }
+
+    @Test
+    void transactionsAreTimedByTransactionAndOutcome() {
+        long released = timerCount("performOrderTransaction", "RELEASE_ORDER", "SUCCESS");
+        long rejectedChanges = timerCount("ChangeShippingAddress", "CHANGE_DETAILS", "REJECTED");
+
+        salesOrderService.performOrderTransaction(orderId, SalesTransactions.RELEASE_ORDER);
+        ShipmentAddressDto address = order(1).getShipmentAddress();
+        assertThatThrownBy(() -> salesOrderService.ChangeShippingAddress(orderId, address, false))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(timerCount("performOrderTransaction", "RELEASE_ORDER", "SUCCESS")).isEqualTo(released + 1);
+        assertThat(timerCount("ChangeShippingAddress", "CHANGE_DETAILS", "REJECTED")).isEqualTo(rejectedChanges + 1);
+        Timer timer = meterRegistry.find(SalesOrderServiceMetricsAspect.TIMER)
+                .tags("transaction", "RELEASE_ORDER", "object_type", "ORDER")
+                .timer();
+        assertThat(timer).isNotNull();
+        assertThat(timer.takeSnapshot().histogramCounts()).isNotEmpty();
+    }
+
+    @Test
+    void rejectionsAreCountedByForbiddingStatus() {
+        double header = rejections("CHANGE_DETAILS", "ORDER", "I_REL");
+        double item = rejections("CANCEL_ITEM", "ITEM", "E_CNCL_CUST");
+
+        salesOrderService.performOrderTransaction(orderId, SalesTransactions.RELEASE_ORDER);
+        assertThatThrownBy(() -> salesOrderService.changeDeliverySpeed(null, orderId))
+                .isInstanceOf(IllegalStateException.class);
+
+        UUID otherOrderId = salesOrderService.createOrder(order(2), OrderCreationFlags.builder().build()).getOrderId();
+        List<UUID> itemIds = salesItemRepository.findAllBySalesOrder_SalesOrderId(otherOrderId).stream()
+                .map(SalesItem::getItemId)
+                .limit(1)
+                .toList();
+        salesOrderService.cancelOrderItems(itemIds, otherOrderId, false);
+        assertThatThrownBy(() -> salesOrderService.cancelOrderItems(itemIds, otherOrderId, false))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(rejections("CHANGE_DETAILS", "ORDER", "I_REL")).isEqualTo(header + 1);
+        assertThat(rejections("CANCEL_ITEM", "ITEM", "E_CNCL_CUST")).isEqualTo(item + 1);
+    }
+
+    @Test
+    void metricsArePublishedInPrometheusFormat() throws Exception {
+        salesOrderService.performOrderTransaction(orderId, SalesTransactions.RELEASE_ORDER);
+        assertThatThrownBy(() -> salesOrderService.changeDeliverySpeed(null, orderId))
+                .isInstanceOf(IllegalStateException.class);
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("sales_orders_service_seconds_bucket{")))
+                .andExpect(content().string(containsString("sales_orders_status_rejections_total{")));
+    }
+
+    private long timerCount(String operation, String transaction, String outcome) {
+        Timer timer = meterRegistry.find(SalesOrderServiceMetricsAspect.TIMER)
+                .tags("operation", operation, "transaction", transaction, "outcome", outcome)
+                .timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    private double rejections(String transaction, String objectType, String status) {
+        Counter counter = meterRegistry.find(StatusRejectionMetrics.REJECTIONS)
+                .tags("transaction", transaction, "object_type", objectType, "status", status)
+                .counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
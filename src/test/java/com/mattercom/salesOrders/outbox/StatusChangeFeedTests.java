@@ -0,0 +1,125 @@
+package com.mattercom.salesOrders.outbox;
+
+import com.mattercom.salesOrders.dto.OrderCreationFlags;
+import com.mattercom.salesOrders.dto.StatusChangeDto;
+import com.mattercom.salesOrders.dto.StatusChangePageDto;
+import com.mattercom.salesOrders.enums.SalesTransactions;
+import com.mattercom.salesOrders.repositories.SalesItemRepository;
+import com.mattercom.salesOrders.services.SalesOrderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static com.mattercom.salesOrders.TestOrders.order;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Status changes reach the change feed once, in the order they were made, and a waiting read
+ * returns as soon as the relay publishes them.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class StatusChangeFeedTests {
+
+    private static final Duration WAIT = Duration.ofSeconds(10);
+
+    @Autowired
+    private StatusChangeFeed statusChangeFeed;
+
+    @Autowired
+    private SalesOrderService salesOrderService;
+
+    @Autowired
+    private SalesItemRepository salesItemRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void statusChangesArriveInTheOrderTheyWereMade() {
+        long cursor = statusChangeFeed.head();
+        UUID orderId = salesOrderService.createOrder(order(2), OrderCreationFlags.builder().build()).getOrderId();
+        UUID itemId = salesItemRepository.findAllBySalesOrder_SalesOrderId(orderId).get(0).getItemId();
+        salesOrderService.cancelOrderItems(List.of(itemId), orderId, false);
+        salesOrderService.performOrderTransaction(orderId, SalesTransactions.RELEASE_ORDER);
+
+        List<StatusChangeDto> changes = readUntil(cursor, orderId, "I_REL");
+
+        assertThat(changes).extracting(StatusChangeDto::getPosition).isSorted().doesNotHaveDuplicates();
+        assertThat(changes).extracting(StatusChangeDto::getItemId, StatusChangeDto::getStatus, StatusChangeDto::isActive)
+                .containsSubsequence(
+                        tuple(null, "I_CRTD", true),
+                        tuple(itemId, "E_CNCL_CUST", true),
+                        tuple(null, "I_REL", true))
+                .contains(tuple(null, "I_CRTD", false));
+        // Each change is published once
+        assertThat(changes.stream().filter(change -> change.getItemId() == null && change.getStatus().equals("I_REL")))
+                .hasSize(1);
+    }
+
+    @Test
+    void waitingReadReturnsOnceTheChangeIsPublished() throws Exception {
+        UUID orderId = salesOrderService.createOrder(order(1), OrderCreationFlags.builder().build()).getOrderId();
+        readUntil(statusChangeFeed.head(), orderId, "I_CRTD");
+        long cursor = statusChangeFeed.head();
+
+        CompletableFuture<StatusChangePageDto> read =
+                CompletableFuture.supplyAsync(() -> statusChangeFeed.read(cursor, 1000, WAIT));
+        Thread.sleep(300);
+        assertThat(read).isNotDone();
+        long start = System.nanoTime();
+        salesOrderService.performOrderTransaction(orderId, SalesTransactions.RELEASE_ORDER);
+
+        StatusChangePageDto page = read.get();
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(WAIT.dividedBy(2));
+        assertThat(page.getChanges()).isNotEmpty();
+        assertThat(page.getNextCursor()).isEqualTo(page.getChanges().get(page.getChanges().size() - 1).getPosition());
+    }
+
+    @Test
+    void emptyReadKeepsTheCursor() {
+        long cursor = Long.MAX_VALUE - 1;
+
+        StatusChangePageDto page = statusChangeFeed.read(cursor, 10, Duration.ofMillis(50));
+
+        assertThat(page.getChanges()).isEmpty();
+        assertThat(page.getNextCursor()).isEqualTo(cursor);
+    }
+
+    @Test
+    void rejectsBadParameters() throws Exception {
+        mockMvc.perform(get("/api/v1/internal/sales-orders/changes").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/internal/sales-orders/changes").param("waitMs", "600000"))
+                .andExpect(status().isBadRequest());
+        assertThatThrownBy(() -> statusChangeFeed.read(-1, 10, Duration.ZERO))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // Follows the feed until the order's given header status shows up
+    private List<StatusChangeDto> readUntil(long cursor, UUID orderId, String status) {
+        List<StatusChangeDto> changes = new ArrayList<>();
+        long deadline = System.nanoTime() + WAIT.toNanos();
+        while (changes.stream().noneMatch(change -> change.getItemId() == null && change.getStatus().equals(status))) {
+            assertThat(System.nanoTime()).as("%s on the feed", status).isLessThan(deadline);
+            StatusChangePageDto page = statusChangeFeed.read(cursor, 1000, Duration.ofSeconds(1));
+            page.getChanges().stream().filter(change -> change.getOrderId().equals(orderId)).forEach(changes::add);
+            cursor = page.getNextCursor();
+        }
+        return changes;
+    }
+}
@@ -0,0 +1,215 @@
+package com.mattercom.salesOrders.repositories;
+
+import com.mattercom.salesOrders.dto.OrderCreationFlags;
+import com.mattercom.salesOrders.entities.SalesItem;
+import com.mattercom.salesOrders.enums.ItemStatusId;
+import com.mattercom.salesOrders.enums.OrderStatusId;
+import com.mattercom.salesOrders.enums.SalesTransactions;
+import com.mattercom.salesOrders.monitoring.SqlStatistics;
+import com.mattercom.salesOrders.records.VendorItemCursor;
+import com.mattercom.salesOrders.services.SalesOrderService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCallback;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+import static com.mattercom.salesOrders.TestOrders.order;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs every declared repository query, captures the SQL Hibernate generated for it and
+ * EXPLAINs it; a table scan anywhere in the plan means a migration is missing an index.
+ * The plans are H2's, so this guards that each access path has an index at all,
+ * not which one PostgreSQL picks.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class RepositoryQueryPlanTests {
+
+    // How H2 marks a full table scan in EXPLAIN output
+    private static final String TABLE_SCAN = ".tableScan";
+
+    @Autowired
+    private SalesOrderService salesOrderService;
+
+    @Autowired
+    private SalesOrderRepository salesOrderRepository;
+
+    @Autowired
+    private SalesOrderReadRepository salesOrderReadRepository;
+
+    @Autowired
+    private SalesItemRepository salesItemRepository;
+
+    @Autowired
+    private SalesOrderStatusRepository salesOrderStatusRepository;
+
+    @Autowired
+    private RecurrentOrderDetailsRepository recurrentOrderDetailsRepository;
+
+    @Autowired
+    private BackOrderedItemRepository backOrderedItemRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private UUID orderId;
+    private UUID customerId;
+    private UUID vendorId;
+    private List<UUID> itemIds;
+
+    @BeforeEach
+    void setUp() {
+        orderId = salesOrderService.createOrder(order(3), OrderCreationFlags.builder().build()).getOrderId();
+        salesOrderService.performOrderTransaction(orderId, SalesTransactions.RELEASE_ORDER);
+        customerId = salesOrderReadRepository.findHeaderBySalesOrderId(orderId).orElseThrow().customerId();
+        List<SalesItem> items = salesItemRepository.findAllBySalesOrder_SalesOrderId(orderId);
+        itemIds = items.stream()
+                .map(SalesItem::getItemId)
+                .toList();
+        vendorId = items.get(0).getVendorId();
+        salesOrderService.cancelOrderItems(itemIds.subList(0, 1), orderId, false);
+    }
+
+    @Test
+    void noRepositoryQueryScansATable() {
+        Instant now = Instant.now();
+        List<ItemStatusId> cancelled = List.of(ItemStatusId.E_CNCL_CUST, ItemStatusId.E_CNCL_SYS);
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+
+        queries.put("SalesOrderRepository.findWithOrderDetailsBySalesOrderId",
+                () -> salesOrderRepository.findWithOrderDetailsBySalesOrderId(orderId));
+        queries.put("SalesOrderRepository.findWithStatusBySalesOrderIdIn",
+                () -> salesOrderRepository.findWithStatusBySalesOrderIdIn(List.of(orderId)));
+        queries.put("SalesOrderRepository.findWithItemsAndBackordersBySalesOrderId",
+                () -> salesOrderRepository.findWithItemsAndBackordersBySalesOrderId(orderId));
+        queries.put("SalesOrderRepository.findWithStatusAndRecurrenceBySalesOrderIdIn",
+                () -> salesOrderRepository.findWithStatusAndRecurrenceBySalesOrderIdIn(List.of(orderId)));
+
+        queries.put("SalesItemRepository.findAllBySalesOrder_SalesOrderId",
+                () -> salesItemRepository.findAllBySalesOrder_SalesOrderId(orderId));
+        queries.put("SalesItemRepository.findWithStatusBySalesOrder_SalesOrderId",
+                () -> salesItemRepository.findWithStatusBySalesOrder_SalesOrderId(orderId));
+        queries.put("SalesItemRepository.findWithDetailsByItemId",
+                () -> salesItemRepository.findWithDetailsByItemId(itemIds.get(0)));
+        queries.put("SalesItemRepository.findWithDetailsByItemIdInAndSalesOrder_SalesOrderId",
+                () -> salesItemRepository.findWithDetailsByItemIdInAndSalesOrder_SalesOrderId(itemIds, orderId));
+        queries.put("SalesItemRepository.findWithDetailsByItemIdIn",
+                () -> salesItemRepository.findWithDetailsByItemIdIn(itemIds));
+        queries.put("SalesItemRepository.findItemsNotHavingGivenStatusesByOrderId",
+                () -> salesItemRepository.findItemsNotHavingGivenStatusesByOrderId(orderId, cancelled));
+
+        queries.put("SalesOrderStatusRepository.findAllBySalesOrder_SalesOrderId",
+                () -> salesOrderStatusRepository.findAllBySalesOrder_SalesOrderId(orderId));
+
+        queries.put("SalesOrderReadRepository.findHeaderBySalesOrderId",
+                () -> salesOrderReadRepository.findHeaderBySalesOrderId(orderId));
+        queries.put("SalesOrderReadRepository.findActiveStatusesBySalesOrderId",
+                () -> salesOrderReadRepository.findActiveStatusesBySalesOrderId(orderId));
+        queries.put("SalesOrderReadRepository.findItemsBySalesOrderId",
+                () -> salesOrderReadRepository.findItemsBySalesOrderId(orderId));
+        queries.put("SalesOrderReadRepository.findActiveItemStatusesBySalesOrderId",
+                () -> salesOrderReadRepository.findActiveItemStatusesBySalesOrderId(orderId));
+        queries.put("SalesOrderReadRepository.findCustomerOrders",
+                () -> salesOrderReadRepository.findCustomerOrders(customerId, Limit.of(10)));
+        queries.put("SalesOrderReadRepository.findCustomerOrdersAfter",
+                () -> salesOrderReadRepository.findCustomerOrdersAfter(customerId, now, orderId, Limit.of(10)));
+        queries.put("SalesOrderReadRepository.findCustomerOrdersWithStatus",
+                () -> salesOrderReadRepository.findCustomerOrdersWithStatus(customerId, OrderStatusId.I_REL, Limit.of(10)));
+        queries.put("SalesOrderReadRepository.findCustomerOrdersWithStatusAfter",
+                () -> salesOrderReadRepository.findCustomerOrdersWithStatusAfter(customerId, OrderStatusId.I_REL, now, orderId, Limit.of(10)));
+        queries.put("SalesOrderReadRepository.findActiveStatusesBySalesOrderIdIn",
+                () -> salesOrderReadRepository.findActiveStatusesBySalesOrderIdIn(List.of(orderId)));
+        queries.put("SalesOrderReadRepository.findVendorItems",
+                () -> salesOrderReadRepository.findVendorItems(vendorId, VendorItemCursor.START.itemId(), Limit.of(10)));
+        queries.put("SalesOrderReadRepository.findVendorItemsWithItemStatus",
+                () -> salesOrderReadRepository.findVendorItemsWithItemStatus(vendorId, ItemStatusId.E_BKO, itemIds.get(0), Limit.of(10)));
+        queries.put("SalesOrderReadRepository.findVendorItemsWithOrderStatus",
+                () -> salesOrderReadRepository.findVendorItemsWithOrderStatus(vendorId, OrderStatusId.I_REL, itemIds.get(0), Limit.of(10)));
+        queries.put("SalesOrderReadRepository.findVendorItemsWithItemAndOrderStatus",
+                () -> salesOrderReadRepository.findVendorItemsWithItemAndOrderStatus(vendorId, ItemStatusId.E_BKO, OrderStatusId.I_REL, itemIds.get(0), Limit.of(10)));
+        queries.put("SalesOrderReadRepository.findActiveItemStatusesByItemIdIn",
+                () -> salesOrderReadRepository.findActiveItemStatusesByItemIdIn(itemIds));
+        queries.put("SalesOrderReadRepository.streamHeadersCreatedBetween",
+                () -> salesOrderReadRepository.streamHeadersCreatedBetween(Instant.EPOCH, now).close());
+        queries.put("SalesOrderReadRepository.streamHeadersCreatedBetweenWithStatus",
+                () -> salesOrderReadRepository.streamHeadersCreatedBetweenWithStatus(Instant.EPOCH, now, OrderStatusId.I_REL).close());
+        queries.put("SalesOrderReadRepository.findItemsBySalesOrderIdIn",
+                () -> salesOrderReadRepository.findItemsBySalesOrderIdIn(List.of(orderId)));
+        queries.put("SalesOrderReadRepository.findActiveItemStatusesBySalesOrderIdIn",
+                () -> salesOrderReadRepository.findActiveItemStatusesBySalesOrderIdIn(List.of(orderId)));
+
+        queries.put("RecurrentOrderDetailsRepository.claimDue",
+                () -> recurrentOrderDetailsRepository.claimDue(now, List.of(OrderStatusId.E_CNCL.name()), 10));
+        queries.put("RecurrentOrderDetailsRepository.findForUpdateBySalesOrder_SalesOrderId",
+                () -> recurrentOrderDetailsRepository.findForUpdateBySalesOrder_SalesOrderId(orderId));
+        queries.put("RecurrentOrderDetailsRepository.findOldestDueAt",
+                () -> recurrentOrderDetailsRepository.findOldestDueAt(now));
+        queries.put("RecurrentOrderDetailsRepository.countByNextDueAtLessThanEqual",
+                () -> recurrentOrderDetailsRepository.countByNextDueAtLessThanEqual(now));
+        queries.put("BackOrderedItemRepository.claimOpenForProduct",
+                () -> backOrderedItemRepository.claimOpenForProduct(UUID.randomUUID(), Instant.EPOCH, 0L,
+                        List.of(ItemStatusId.E_CNCL_CUST.name()), 10));
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        List<String> scans = new ArrayList<>();
+        queries.forEach((name, query) -> {
+            List<String> statements = readOnly.execute(status -> {
+                SqlStatistics.clearRecentStatements();
+                query.run();
+                return selects(SqlStatistics.recentStatements());
+            });
+            assertThat(statements).as("SQL captured for %s", name).isNotEmpty();
+            for (String sql : statements) {
+                String plan = explain(sql);
+                if (plan.contains(TABLE_SCAN)) {
+                    scans.add(name + System.lineSeparator() + plan);
+                }
+            }
+        });
+
+        assertThat(scans)
+                .as("Queries planned with a table scan:%n%s", String.join(System.lineSeparator() + System.lineSeparator(), scans))
+                .isEmpty();
+    }
+
+    private static List<String> selects(List<String> statements) {
+        return statements.stream()
+                .filter(sql -> sql.toLowerCase(Locale.ROOT).startsWith("select"))
+                .toList();
+    }
+
+    // The plan is fixed at prepare time, so the parameter values do not matter; all are bound to null
+    private String explain(String sql) {
+        return jdbcTemplate.execute("EXPLAIN " + sql, (PreparedStatementCallback<String>) statement -> {
+            int parameters = statement.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= parameters; i++) {
+                statement.setNull(i, Types.NULL);
+            }
+            try (ResultSet plan = statement.executeQuery()) {
+                plan.next();
+                return plan.getString(1);
+            }
+        });
+    }
+}
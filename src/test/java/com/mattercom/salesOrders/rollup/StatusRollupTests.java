@@ -0,0 +1,124 @@
+package com.mattercom.salesOrders.rollup;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mattercom.salesOrders.dto.OrderCreationFlags;
+import com.mattercom.salesOrders.dto.StatusCountsDto;
+import com.mattercom.salesOrders.enums.DeliverySpeed;
+import com.mattercom.salesOrders.enums.OrderStatusId;
+import com.mattercom.salesOrders.enums.SalesTransactions;
+import com.mattercom.salesOrders.services.SalesOrderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static com.mattercom.salesOrders.TestOrders.order;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The status rollup follows creation, status transitions and delivery speed changes, agrees with
+ * a full count over the status table, and is served from memory by the actuator endpoint.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class StatusRollupTests {
+
+    @Autowired
+    private SalesOrderService salesOrderService;
+
+    @Autowired
+    private StatusRollup statusRollup;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void rollupFollowsStatusAndSpeedChangesAndMatchesAFullCount() {
+        statusRollup.refresh();
+        StatusCountsDto before = statusRollup.counts();
+
+        UUID blocked = salesOrderService.createOrder(order(1), OrderCreationFlags.builder().creditBlock(true).build()).getOrderId();
+        UUID released = salesOrderService.createOrder(order(1), OrderCreationFlags.builder().build()).getOrderId();
+        salesOrderService.changeDeliverySpeed(DeliverySpeed.EXPRESS, released);
+        salesOrderService.performOrderTransaction(released, SalesTransactions.RELEASE_ORDER);
+        statusRollup.refresh();
+        StatusCountsDto after = statusRollup.counts();
+
+        // Blocked: I_CRTD and the credit block statuses at NORMAL; released: moved to EXPRESS, then I_CRTD to I_REL
+        assertThat(change(before, after, OrderStatusId.I_CRTD, DeliverySpeed.NORMAL)).isEqualTo(1);
+        assertThat(change(before, after, OrderStatusId.E_CRED_BLK, DeliverySpeed.NORMAL)).isEqualTo(1);
+        assertThat(change(before, after, OrderStatusId.I_CRTD, DeliverySpeed.EXPRESS)).isZero();
+        assertThat(change(before, after, OrderStatusId.I_REL, DeliverySpeed.NORMAL)).isZero();
+        assertThat(change(before, after, OrderStatusId.I_REL, DeliverySpeed.EXPRESS)).isEqualTo(1);
+        assertThat(after.getBySpeed()).isEqualTo(fullCount());
+    }
+
+    @Test
+    void snapshotIsTakenBeforeTheFirstRead() {
+        // counts() never reads the table itself, so the application must have warmed it
+        assertThat(statusRollup.counts().getAsOf()).isNotNull();
+    }
+
+    @Test
+    void migrationSeedsEveryStripeRow() {
+        // Writers only UPDATE, so every row has to be there before the first order
+        Long rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM order_status_rollup", Long.class);
+
+        assertThat(rows).isEqualTo((long) OrderStatusId.values().length * DeliverySpeed.values().length * StatusRollupIntegrator.STRIPES);
+    }
+
+    @Test
+    void endpointServesTheCounts() throws Exception {
+        salesOrderService.createOrder(order(1), OrderCreationFlags.builder().build());
+        statusRollup.refresh();
+
+        String body = mockMvc.perform(get("/actuator/orderstatuses"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode counts = objectMapper.readTree(body);
+
+        assertThat(counts.path("totals").path("I_CRTD").asLong()).isPositive();
+        assertThat(counts.path("bySpeed").path("I_CRTD").path("NORMAL").asLong()).isPositive();
+    }
+
+    private static long change(StatusCountsDto before, StatusCountsDto after, OrderStatusId status, DeliverySpeed speed) {
+        return count(after, status, speed) - count(before, status, speed);
+    }
+
+    private static long count(StatusCountsDto counts, OrderStatusId status, DeliverySpeed speed) {
+        return counts.getBySpeed().getOrDefault(status, Map.of()).getOrDefault(speed, 0L);
+    }
+
+    // What the dashboard used to run
+    private Map<OrderStatusId, Map<DeliverySpeed, Long>> fullCount() {
+        Map<OrderStatusId, Map<DeliverySpeed, Long>> counts = new EnumMap<>(OrderStatusId.class);
+        jdbcTemplate.query("""
+                SELECT s.status, o.delivery_speed, COUNT(*) AS order_count
+                FROM sales_order_status s
+                JOIN sales_orders o ON o.order_id = s.order_id
+                WHERE s.active = TRUE
+                GROUP BY s.status, o.delivery_speed
+                """, rs -> {
+            counts.computeIfAbsent(OrderStatusId.valueOf(rs.getString("status")), s -> new EnumMap<>(DeliverySpeed.class))
+                    .put(DeliverySpeed.valueOf(rs.getString("delivery_speed")), rs.getLong("order_count"));
+        });
+        return counts;
+    }
+}
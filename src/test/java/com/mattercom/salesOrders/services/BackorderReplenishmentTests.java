@@ -0,0 +1,159 @@
+package com.mattercom.salesOrders.services;
+
+import com.mattercom.salesOrders.dto.OrderCreationDto;
+import com.mattercom.salesOrders.dto.OrderCreationFlags;
+import com.mattercom.salesOrders.dto.ReplenishmentResultDto;
+import com.mattercom.salesOrders.entities.SalesItem;
+import com.mattercom.salesOrders.entities.status.SalesItemStatus;
+import com.mattercom.salesOrders.enums.ItemStatusId;
+import com.mattercom.salesOrders.repositories.SalesItemRepository;
+import com.mattercom.salesOrders.repositories.SalesOrderRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.util.List;
+import java.util.UUID;
+
+import static com.mattercom.salesOrders.TestOrders.order;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Arrived stock releases a product's backorders oldest first, across chunks, and the first
+ * backorder it does not cover keeps what is still missing.
+ */
+@SpringBootTest(properties = "sales-orders.bulk.chunk-size=2")
+@ActiveProfiles("test")
+class BackorderReplenishmentTests {
+
+    @Autowired
+    private SalesOrderService salesOrderService;
+
+    // Lets a test make a chunk lose a version race, as a concurrent order write would
+    @MockitoSpyBean
+    private SalesOrderRepository salesOrderRepository;
+
+    @Autowired
+    private SalesItemRepository salesItemRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void backordersAreReleasedOldestFirstAndTheLastOneIsPartlyFilled() {
+        UUID productId = UUID.randomUUID();
+        // Oldest, but cancelled since: never released
+        UUID cancelled = backorderedItem(productId, 1);
+        salesOrderService.cancelOrderItems(List.of(cancelled), orderOf(cancelled), false);
+        UUID first = backorderedItem(productId, 2);
+        UUID second = backorderedItem(productId, 3);
+        UUID third = backorderedItem(productId, 1);
+        UUID fourth = backorderedItem(productId, 4);
+        UUID otherProduct = backorderedItem(UUID.randomUUID(), 1);
+
+        ReplenishmentResultDto result = salesOrderService.replenishBackorders(productId, 7);
+
+        assertThat(result.getQuantityAllocated()).isEqualTo(7);
+        assertThat(result.getReleasedItemIds()).containsExactly(first, second, third);
+        assertThat(result.getReleasedOrders()).isEqualTo(3);
+        assertThat(result.getPartiallyFilledItemId()).isEqualTo(fourth);
+        assertThat(result.getRejected()).isEmpty();
+        for (UUID released : List.of(first, second, third)) {
+            assertThat(backorderedQuantity(released)).isNull();
+            assertThat(activeStatuses(released)).doesNotContain(ItemStatusId.E_BKO);
+            assertThat(salesOrderRepository.findById(orderOf(released)).orElseThrow().getBackorderedItemCount()).isZero();
+        }
+        assertThat(backorderedQuantity(fourth)).isEqualTo(3);
+        assertThat(activeStatuses(fourth)).contains(ItemStatusId.E_BKO);
+        assertThat(backorderedQuantity(cancelled)).isEqualTo(1);
+        assertThat(backorderedQuantity(otherProduct)).isEqualTo(1);
+    }
+
+    @Test
+    void theNextDeliveryStartsWithThePartlyFilledBackorder() {
+        UUID productId = UUID.randomUUID();
+        UUID first = backorderedItem(productId, 5);
+        UUID second = backorderedItem(productId, 1);
+
+        assertThat(salesOrderService.replenishBackorders(productId, 2).getReleasedItemIds()).isEmpty();
+
+        ReplenishmentResultDto result = salesOrderService.replenishBackorders(productId, 10);
+
+        assertThat(result.getReleasedItemIds()).containsExactly(first, second);
+        assertThat(result.getQuantityAllocated()).isEqualTo(4);
+        assertThat(result.getPartiallyFilledItemId()).isNull();
+        assertThat(salesOrderService.replenishBackorders(productId, 1).getQuantityAllocated()).isZero();
+    }
+
+    @Test
+    void chunkThatLosesAVersionRaceOnceIsRunAgainFromTheSameBackorder() {
+        UUID productId = UUID.randomUUID();
+        List<UUID> items = List.of(backorderedItem(productId, 1), backorderedItem(productId, 1), backorderedItem(productId, 1));
+        // Each attempt at a chunk loads its orders once; the second chunk's first attempt fails
+        doAnswer(VersionConflicts.onCalls(salesOrderRepository, 2, 1)).when(salesOrderRepository).findWithStatusAndRecurrenceBySalesOrderIdIn(any());
+
+        ReplenishmentResultDto result = salesOrderService.replenishBackorders(productId, 3);
+
+        assertThat(result.getReleasedItemIds()).containsExactlyElementsOf(items);
+        assertThat(result.getQuantityAllocated()).isEqualTo(3);
+        assertThat(result.getQuantityUnallocated()).isZero();
+        assertThat(result.getFailure()).isNull();
+    }
+
+    @Test
+    void chunkThatKeepsLosingStopsTheRunWithWhatWasCommitted() {
+        UUID productId = UUID.randomUUID();
+        UUID first = backorderedItem(productId, 1);
+        UUID second = backorderedItem(productId, 1);
+        UUID third = backorderedItem(productId, 2);
+        // Every attempt at the second chunk (sales-orders.bulk.max-attempts defaults to 3)
+        doAnswer(VersionConflicts.onCalls(salesOrderRepository, 2, 3)).when(salesOrderRepository).findWithStatusAndRecurrenceBySalesOrderIdIn(any());
+
+        ReplenishmentResultDto result = salesOrderService.replenishBackorders(productId, 4);
+
+        assertThat(result.getReleasedItemIds()).containsExactly(first, second);
+        assertThat(result.getQuantityAllocated()).isEqualTo(2);
+        assertThat(result.getQuantityUnallocated()).isEqualTo(2);
+        assertThat(result.getFailure()).isNotNull();
+        assertThat(backorderedQuantity(third)).isEqualTo(2);
+
+        // Sending only the unallocated rest releases what the failed chunk left open
+        ReplenishmentResultDto rest = salesOrderService.replenishBackorders(productId, result.getQuantityUnallocated());
+
+        assertThat(rest.getReleasedItemIds()).containsExactly(third);
+        assertThat(rest.getQuantityUnallocated()).isZero();
+        assertThat(rest.getFailure()).isNull();
+    }
+
+    // A new order with one item of the product, backordered for the quantity
+    private UUID backorderedItem(UUID productId, int quantity) {
+        OrderCreationDto dto = order(1);
+        dto.getDto().forEach(item -> item.setProductId(productId));
+        UUID orderId = salesOrderService.createOrder(dto, OrderCreationFlags.builder().build()).getOrderId();
+        UUID itemId = salesItemRepository.findAllBySalesOrder_SalesOrderId(orderId).get(0).getItemId();
+        salesOrderService.backOrderItem(List.of(itemId), orderId, quantity);
+        return itemId;
+    }
+
+    private UUID orderOf(UUID itemId) {
+        return jdbcTemplate.queryForObject("SELECT order_id FROM order_items WHERE item_id = ?", UUID.class, itemId);
+    }
+
+    private Integer backorderedQuantity(UUID itemId) {
+        return jdbcTemplate.query("SELECT bck_qty FROM back_ordered_item WHERE item_id = ?",
+                rs -> rs.next() ? rs.getInt(1) : null, itemId);
+    }
+
+    private List<ItemStatusId> activeStatuses(UUID itemId) {
+        SalesItem salesItem = salesItemRepository.findWithDetailsByItemId(itemId).orElseThrow();
+        return salesItem.getStatusList().stream()
+                .filter(SalesItemStatus::getActive)
+                .map(SalesItemStatus::getItemStatusId)
+                .toList();
+    }
+}
@@ -0,0 +1,142 @@
+package com.mattercom.salesOrders.services;
+
+import com.mattercom.salesOrders.dto.OrderCreationFlags;
+import com.mattercom.salesOrders.enums.DeliverySpeed;
+import com.mattercom.salesOrders.monitoring.SqlStatistics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.mattercom.salesOrders.TestOrders.order;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Concurrent writes to one order are serialized on its lane, leftover version conflicts are
+ * retried, and the lane's SQL is still counted on the calling thread.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class OrderCommandLanesTests {
+
+    private static final int WRITERS = 8;
+
+    @Autowired
+    private SalesOrderService salesOrderService;
+
+    @Autowired
+    private OrderCommandLanes orderCommandLanes;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void concurrentWritesToOneOrderAllSucceed() throws Exception {
+        UUID orderId = salesOrderService.createOrder(order(2), OrderCreationFlags.builder().build()).getOrderId();
+        double exhaustedBefore = conflicts("exhausted");
+
+        ExecutorService callers = Executors.newFixedThreadPool(WRITERS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> writes = new ArrayList<>();
+            for (int i = 0; i < WRITERS; i++) {
+                DeliverySpeed speed = i % 2 == 0 ? DeliverySpeed.FAST : DeliverySpeed.NORMAL;
+                writes.add(callers.submit(() -> {
+                    start.await();
+                    return salesOrderService.changeDeliverySpeed(speed, orderId);
+                }));
+            }
+            start.countDown();
+            for (Future<?> write : writes) {
+                write.get();
+            }
+        } finally {
+            callers.shutdown();
+        }
+
+        assertThat(conflicts("exhausted")).isEqualTo(exhaustedBefore);
+    }
+
+    @Test
+    void versionConflictsAreRetried() {
+        double retriedBefore = conflicts("retried");
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = orderCommandLanes.execute(UUID.randomUUID(), () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new ObjectOptimisticLockingFailureException("SalesOrder", UUID.randomUUID());
+            }
+            return "done";
+        });
+
+        assertThat(result).isEqualTo("done");
+        assertThat(conflicts("retried")).isEqualTo(retriedBefore + 2);
+    }
+
+    @Test
+    void persistentConflictsAndOtherFailuresReachTheCaller() {
+        double exhaustedBefore = conflicts("exhausted");
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> orderCommandLanes.execute(UUID.randomUUID(), () -> {
+            attempts.incrementAndGet();
+            throw new ObjectOptimisticLockingFailureException("SalesOrder", UUID.randomUUID());
+        })).isInstanceOf(ObjectOptimisticLockingFailureException.class);
+        assertThat(attempts).hasValue(4);
+        assertThat(conflicts("exhausted")).isEqualTo(exhaustedBefore + 1);
+
+        // Guard rejections are not conflicts and are not retried
+        attempts.set(0);
+        assertThatThrownBy(() -> orderCommandLanes.execute(UUID.randomUUID(), () -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException("rejected");
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(attempts).hasValue(1);
+    }
+
+    @Test
+    void commandsInsideATransactionRunOnceInline() {
+        AtomicInteger attempts = new AtomicInteger();
+        Thread caller = Thread.currentThread();
+
+        // The transaction is rollback-only after the conflict, so retrying inside it cannot help
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status ->
+                orderCommandLanes.execute(UUID.randomUUID(), () -> {
+                    assertThat(Thread.currentThread()).isSameAs(caller);
+                    attempts.incrementAndGet();
+                    throw new ObjectOptimisticLockingFailureException("SalesOrder", UUID.randomUUID());
+                }))).isInstanceOf(ObjectOptimisticLockingFailureException.class);
+        assertThat(attempts).hasValue(1);
+    }
+
+    @Test
+    void laneSqlIsCountedOnTheCaller() {
+        UUID orderId = salesOrderService.createOrder(order(2), OrderCreationFlags.builder().build()).getOrderId();
+
+        SqlStatistics.Snapshot before = SqlStatistics.snapshot();
+        salesOrderService.changeDeliverySpeed(DeliverySpeed.FAST, orderId);
+
+        assertThat(SqlStatistics.snapshot().since(before).statements()).isPositive();
+        assertThat(meterRegistry.find(OrderCommandLanes.QUEUED).gauge()).isNotNull();
+    }
+
+    private double conflicts(String outcome) {
+        return meterRegistry.get(OrderCommandLanes.CONFLICTS).tag("outcome", outcome).counter().count();
+    }
+}
@@ -0,0 +1,100 @@
+package com.mattercom.salesOrders.services;
+
+import com.mattercom.salesOrders.dto.OrderCreationFlags;
+import com.mattercom.salesOrders.entities.SalesItem;
+import com.mattercom.salesOrders.entities.SalesOrder;
+import com.mattercom.salesOrders.entities.status.SalesOrderStatus;
+import com.mattercom.salesOrders.enums.OrderStatusId;
+import com.mattercom.salesOrders.repositories.SalesItemRepository;
+import com.mattercom.salesOrders.repositories.SalesOrderRepository;
+import com.mattercom.salesOrders.repositories.SalesOrderStatusRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.UUID;
+
+import static com.mattercom.salesOrders.TestOrders.items;
+import static com.mattercom.salesOrders.TestOrders.order;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The item counters on the order follow item additions and status changes, drive the
+ * auto-cancel, and drift is found and repaired by the reconciler.
+ */
+@SpringBootTest(properties = "sales-orders.item-counters.chunk-size=7")
+@ActiveProfiles("test")
+class OrderItemCountersTests {
+
+    @Autowired
+    private SalesOrderService salesOrderService;
+
+    @Autowired
+    private ItemCounterReconciler itemCounterReconciler;
+
+    @Autowired
+    private SalesOrderRepository salesOrderRepository;
+
+    @Autowired
+    private SalesItemRepository salesItemRepository;
+
+    @Autowired
+    private SalesOrderStatusRepository salesOrderStatusRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void countersFollowTheItemsAndCancelTheOrderWithItsLastItem() {
+        UUID orderId = salesOrderService.createOrder(order(2), OrderCreationFlags.builder().build()).getOrderId();
+        salesOrderService.addOrderItems(orderId, items(1), true);
+        List<UUID> itemIds = itemIds(orderId);
+
+        salesOrderService.backOrderItem(itemIds.subList(0, 1), orderId, 1);
+        salesOrderService.cancelOrderItems(itemIds.subList(1, 3), orderId, false);
+
+        assertCounters(orderId, 3, 2, 1);
+        assertThat(activeStatuses(orderId)).doesNotContain(OrderStatusId.E_CNCL);
+
+        salesOrderService.cancelOrderItems(itemIds.subList(0, 1), orderId, true);
+
+        assertCounters(orderId, 3, 3, 1);
+        assertThat(activeStatuses(orderId)).contains(OrderStatusId.E_CNCL);
+    }
+
+    @Test
+    void reconcilerRepairsDriftedCounters() {
+        UUID orderId = salesOrderService.createOrder(order(3), OrderCreationFlags.builder().build()).getOrderId();
+        salesOrderService.cancelOrderItems(itemIds(orderId).subList(0, 1), orderId, false);
+        jdbcTemplate.update("UPDATE sales_orders SET item_count = 5, cancelled_item_count = 0 WHERE order_id = ?", orderId);
+
+        assertThat(itemCounterReconciler.reconcile()).isGreaterThanOrEqualTo(1);
+
+        assertCounters(orderId, 3, 1, 0);
+        assertThat(itemCounterReconciler.reconcile()).isZero();
+    }
+
+    private void assertCounters(UUID orderId, int items, int cancelled, int backordered) {
+        SalesOrder salesOrder = salesOrderRepository.findById(orderId).orElseThrow();
+        assertThat(salesOrder.getItemCount()).isEqualTo(items);
+        assertThat(salesOrder.getCancelledItemCount()).isEqualTo(cancelled);
+        assertThat(salesOrder.getBackorderedItemCount()).isEqualTo(backordered);
+        assertThat(salesOrder.getInvoicedItemCount()).isZero();
+    }
+
+    private List<UUID> itemIds(UUID orderId) {
+        return salesItemRepository.findAllBySalesOrder_SalesOrderId(orderId).stream()
+                .map(SalesItem::getItemId)
+                .toList();
+    }
+
+    private List<OrderStatusId> activeStatuses(UUID orderId) {
+        return salesOrderStatusRepository.findAllBySalesOrder_SalesOrderId(orderId).stream()
+                .filter(SalesOrderStatus::getActive)
+                .map(SalesOrderStatus::getOrderStatusId)
+                .toList();
+    }
+}
@@ -0,0 +1,126 @@
+package com.mattercom.salesOrders.services;
+
+import com.mattercom.salesOrders.dto.ItemCreationDto;
+import com.mattercom.salesOrders.dto.OrderCreationDto;
+import com.mattercom.salesOrders.dto.OrderCreationFlags;
+import com.mattercom.salesOrders.dto.OrderResponseDto;
+import com.mattercom.salesOrders.entities.SalesItem;
+import com.mattercom.salesOrders.repositories.SalesItemRepository;
+import com.mattercom.salesOrders.util.Money;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static com.mattercom.salesOrders.TestOrders.order;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Item and order totals are valued once and then moved by item changes, and agree with
+ * the same sums done in BigDecimal.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class OrderTotalsTests {
+
+    @Autowired
+    private SalesOrderService salesOrderService;
+
+    @Autowired
+    private SalesItemRepository salesItemRepository;
+
+    @Test
+    void totalsFollowTheItems() {
+        OrderCreationDto dto = order(0);
+        // 3 x 19.99 less 12.5% = 59.97 - 7.50; 1 x 5.00 less 0% = 5.00
+        dto.setDto(List.of(item("19.99", 3, "12.50"), item("5.00", 1, "0")));
+        UUID orderId = salesOrderService.createOrder(dto, OrderCreationFlags.builder().build()).getOrderId();
+        assertTotals(salesOrderService.findOrderWithDetailsById(orderId), "64.97", "7.50", "57.47", "0.00");
+
+        OrderResponseDto added = salesOrderService.addOrderItems(orderId, List.of(item("2.50", 4, "10")), true);
+        assertTotals(added, "74.97", "8.50", "66.47", "0.00");
+
+        List<UUID> itemIds = itemIds(orderId);
+        UUID discounted = itemIds.get(0);
+        salesOrderService.backOrderItem(List.of(discounted), orderId, 3);
+        assertTotals(salesOrderService.findOrderWithDetailsById(orderId), "74.97", "8.50", "66.47", "52.47");
+
+        salesOrderService.cancelOrderItems(List.of(discounted), orderId, false);
+        OrderResponseDto afterCancel = salesOrderService.findOrderWithDetailsById(orderId);
+        assertTotals(afterCancel, "15.00", "1.00", "14.00", "0.00");
+        // The cancelled item keeps its own valuation
+        assertThat(afterCancel.getItems()).filteredOn(item -> item.getItemId().equals(discounted))
+                .singleElement()
+                .satisfies(item -> assertThat(item.getTotals().getNet()).isEqualByComparingTo("52.47"));
+    }
+
+    @Test
+    void backorderedNetCountsOnlyTheBackorderedQuantity() {
+        OrderCreationDto dto = order(0);
+        // 4 x 2.50 less 10% = 9.00, 2.25 a unit
+        dto.setDto(List.of(item("2.50", 4, "10")));
+        UUID orderId = salesOrderService.createOrder(dto, OrderCreationFlags.builder().build()).getOrderId();
+        SalesItem item = salesItemRepository.findAllBySalesOrder_SalesOrderId(orderId).get(0);
+
+        salesOrderService.backOrderItem(List.of(item.getItemId()), orderId, 3);
+        assertTotals(salesOrderService.findOrderWithDetailsById(orderId), "10.00", "1.00", "9.00", "6.75");
+
+        // Two of the three arrive: the item stays backordered for the last one
+        salesOrderService.replenishBackorders(item.getProductId(), 2);
+        assertTotals(salesOrderService.findOrderWithDetailsById(orderId), "10.00", "1.00", "9.00", "2.25");
+
+        salesOrderService.replenishBackorders(item.getProductId(), 1);
+        assertTotals(salesOrderService.findOrderWithDetailsById(orderId), "10.00", "1.00", "9.00", "0.00");
+    }
+
+    @Test
+    void scaledLongArithmeticMatchesBigDecimal() {
+        Random random = new Random(11);
+        for (int i = 0; i < 10_000; i++) {
+            BigDecimal price = BigDecimal.valueOf(random.nextInt(1_000_000), 2);
+            int quantity = 1 + random.nextInt(500);
+            BigDecimal rate = BigDecimal.valueOf(random.nextInt(10_001), 2);
+
+            BigDecimal gross = price.multiply(BigDecimal.valueOf(quantity));
+            BigDecimal discount = gross.multiply(rate).divide(BigDecimal.valueOf(100), Money.SCALE, RoundingMode.HALF_UP);
+
+            long scaledGross = Money.gross(Money.toMinorUnits(price), quantity);
+            assertThat(Money.toBigDecimal(scaledGross)).isEqualByComparingTo(gross);
+            assertThat(Money.toBigDecimal(Money.discount(scaledGross, Money.toRateUnits(rate))))
+                    .as("%s x %s less %s%%", price, quantity, rate)
+                    .isEqualByComparingTo(discount);
+        }
+    }
+
+    private static ItemCreationDto item(String price, int quantity, String discountRate) {
+        return ItemCreationDto.builder()
+                .vendorId(UUID.randomUUID())
+                .productId(UUID.randomUUID())
+                .productName("Priced product")
+                .netQty(quantity)
+                .baseUnitPrice(new BigDecimal(price))
+                .discountRate(new BigDecimal(discountRate))
+                .build();
+    }
+
+    private void assertTotals(OrderResponseDto order, String gross, String discount, String net, String backorderedNet) {
+        assertThat(order.getTotals().getGross()).isEqualByComparingTo(gross);
+        assertThat(order.getTotals().getDiscount()).isEqualByComparingTo(discount);
+        assertThat(order.getTotals().getNet()).isEqualByComparingTo(net);
+        assertThat(order.getBackorderedNet()).isEqualByComparingTo(backorderedNet);
+    }
+
+    // Highest net first, which puts the discounted 19.99 item first
+    private List<UUID> itemIds(UUID orderId) {
+        return salesItemRepository.findAllBySalesOrder_SalesOrderId(orderId).stream()
+                .sorted((a, b) -> Long.compare(b.getNetAmount(), a.getNetAmount()))
+                .map(SalesItem::getItemId)
+                .toList();
+    }
+}
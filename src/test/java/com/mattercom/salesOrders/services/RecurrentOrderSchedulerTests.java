@@ -0,0 +1,196 @@
+package com.mattercom.salesOrders.services;
+
+import com.mattercom.salesOrders.dto.BulkTransactionResultDto;
+import com.mattercom.salesOrders.dto.OrderCreationDto;
+import com.mattercom.salesOrders.dto.OrderCreationFlags;
+import com.mattercom.salesOrders.dto.RecurrentOrderDetailsDto;
+import com.mattercom.salesOrders.entities.status.SalesOrderStatus;
+import com.mattercom.salesOrders.enums.OrderStatusId;
+import com.mattercom.salesOrders.enums.SalesTransactions;
+import com.mattercom.salesOrders.repositories.SalesOrderStatusRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static com.mattercom.salesOrders.TestOrders.order;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Due installments of recurrent orders are placed once, however many nodes claim at the same time,
+ * and what stays due is reported as lag.
+ */
+@SpringBootTest(properties = "sales-orders.bulk.chunk-size=3")
+@ActiveProfiles("test")
+class RecurrentOrderSchedulerTests {
+
+    private static final Duration GAP = Duration.ofDays(7);
+
+    @Autowired
+    private SalesOrderService salesOrderService;
+
+    @Autowired
+    private RecurrentOrderScheduler recurrentOrderScheduler;
+
+    @Autowired
+    private SalesOrderStatusRepository salesOrderStatusRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void dueInstallmentsArePlacedOnceWhenNodesRunTogether() {
+        // Stored with microsecond precision
+        Instant due = Instant.now().minus(Duration.ofHours(1)).truncatedTo(ChronoUnit.MICROS);
+        List<UUID> orderIds = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            UUID orderId = createWaitingOrder(3);
+            makeDue(orderId, due);
+            orderIds.add(orderId);
+        }
+
+        Instant now = Instant.now();
+        List<CompletableFuture<BulkTransactionResultDto>> nodes = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            nodes.add(CompletableFuture.supplyAsync(() -> salesOrderService.restartDueRecurrentOrders(now, 1000)));
+        }
+        List<UUID> restarted = nodes.stream()
+                .flatMap(node -> node.join().getAcceptedOrderIds().stream())
+                .filter(orderIds::contains)
+                .toList();
+
+        // Another context's scheduler may take some of them; none is ever placed twice
+        assertThat(restarted).doesNotHaveDuplicates();
+        for (UUID orderId : orderIds) {
+            assertThat(completedInstallments(orderId)).isEqualTo(2);
+            assertThat(nextDueAt(orderId)).isEqualTo(due.plus(GAP));
+            assertThat(activeStatuses(orderId)).contains(OrderStatusId.I_CRTD).doesNotContain(OrderStatusId.I_WAIT);
+        }
+    }
+
+    @Test
+    void finishedHeldAndCancelledRecurrences() {
+        Instant due = Instant.now().minus(Duration.ofHours(1));
+        UUID lastInstallment = createWaitingOrder(2);
+        UUID held = createWaitingOrder(3);
+        salesOrderService.performOrderTransaction(held, SalesTransactions.APPLY_ADMIN_HOLD);
+        UUID cancelled = createOrder(3);
+        salesOrderService.CancelOrder(cancelled, false);
+        List.of(lastInstallment, held, cancelled).forEach(orderId -> makeDue(orderId, due));
+
+        recurrentOrderScheduler.restartDueOrders();
+
+        assertThat(completedInstallments(lastInstallment)).isEqualTo(2);
+        assertThat(nextDueAt(lastInstallment)).isNull();
+        assertThat(completedInstallments(held)).isEqualTo(1);
+        assertThat(activeStatuses(held)).contains(OrderStatusId.I_WAIT);
+        assertThat(nextDueAt(cancelled)).isNull();
+        // The held order is still due, an hour late
+        assertThat(meterRegistry.get(RecurrentOrderScheduler.DUE).gauge().value()).isGreaterThanOrEqualTo(1);
+        assertThat(meterRegistry.get(RecurrentOrderScheduler.LAG).gauge().value()).isGreaterThanOrEqualTo(3600);
+    }
+
+    @Test
+    void manualRestartBooksTheInstallmentTheSchedulerWouldPlace() {
+        Instant due = Instant.now().minus(Duration.ofHours(1)).truncatedTo(ChronoUnit.MICROS);
+        UUID orderId = createWaitingOrder(3);
+        makeDue(orderId, due);
+
+        // What the external cron does during the switch to the scheduler
+        salesOrderService.restartOrder(orderId, false);
+        recurrentOrderScheduler.restartDueOrders();
+
+        assertThat(completedInstallments(orderId)).isEqualTo(2);
+        assertThat(nextDueAt(orderId)).isEqualTo(due.plus(GAP));
+
+        // The third and last installment, then nothing is left to restart
+        deliver(orderId);
+        salesOrderService.restartOrder(orderId, false);
+        deliver(orderId);
+
+        assertThat(completedInstallments(orderId)).isEqualTo(3);
+        assertThat(nextDueAt(orderId)).isNull();
+        assertThatThrownBy(() -> salesOrderService.restartOrder(orderId, false))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("installments");
+        assertThat(completedInstallments(orderId)).isEqualTo(3);
+    }
+
+    @Test
+    void creationAndChangedDetailsSetTheSchedule() {
+        Instant before = Instant.now();
+        UUID orderId = createOrder(3);
+
+        assertThat(completedInstallments(orderId)).isEqualTo(1);
+        assertThat(nextDueAt(orderId)).isBetween(before.plus(GAP), Instant.now().plus(GAP));
+
+        Instant changed = Instant.now();
+        salesOrderService.changeRecurrentDetails(orderId, RecurrentOrderDetailsDto.builder()
+                .installments(4).gapInDays(14).requestedOffsetInDays(0).build(), true);
+
+        assertThat(completedInstallments(orderId)).isEqualTo(1);
+        assertThat(nextDueAt(orderId)).isBetween(changed.plus(Duration.ofDays(14)), Instant.now().plus(Duration.ofDays(14)));
+    }
+
+    private UUID createOrder(int installments) {
+        OrderCreationDto dto = order(1);
+        dto.setRecurrentOrderDetailsDto(RecurrentOrderDetailsDto.builder()
+                .installments(installments)
+                .gapInDays((int) GAP.toDays())
+                .requestedOffsetInDays(0)
+                .build());
+        return salesOrderService.createOrder(dto, OrderCreationFlags.builder().build()).getOrderId();
+    }
+
+    // Delivered and waiting for its next installment
+    private UUID createWaitingOrder(int installments) {
+        UUID orderId = createOrder(installments);
+        deliver(orderId);
+        return orderId;
+    }
+
+    private void deliver(UUID orderId) {
+        salesOrderService.performOrderTransaction(orderId, SalesTransactions.RELEASE_ORDER);
+        salesOrderService.performOrderTransaction(orderId, SalesTransactions.SET_TRANSIT_ACTIVE);
+        salesOrderService.performOrderTransaction(orderId, SalesTransactions.SET_TRANSIT_INACTIVE);
+    }
+
+    private void makeDue(UUID orderId, Instant dueAt) {
+        jdbcTemplate.update("UPDATE recurrent_order_details SET next_due_at = ? WHERE order_id = ?",
+                Timestamp.from(dueAt), orderId);
+    }
+
+    private int completedInstallments(UUID orderId) {
+        return jdbcTemplate.queryForObject("SELECT completed_installments FROM recurrent_order_details WHERE order_id = ?",
+                Integer.class, orderId);
+    }
+
+    private Instant nextDueAt(UUID orderId) {
+        OffsetDateTime nextDueAt = jdbcTemplate.queryForObject("SELECT next_due_at FROM recurrent_order_details WHERE order_id = ?",
+                OffsetDateTime.class, orderId);
+        return nextDueAt == null ? null : nextDueAt.toInstant();
+    }
+
+    private List<OrderStatusId> activeStatuses(UUID orderId) {
+        return salesOrderStatusRepository.findAllBySalesOrder_SalesOrderId(orderId).stream()
+                .filter(SalesOrderStatus::getActive)
+                .map(SalesOrderStatus::getOrderStatusId)
+                .toList();
+    }
+}
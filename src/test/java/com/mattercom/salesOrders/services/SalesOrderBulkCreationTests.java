@@ -0,0 +1,56 @@
+package com.mattercom.salesOrders.services;
+
+import com.mattercom.salesOrders.dto.BulkOrderResultDto;
+import com.mattercom.salesOrders.dto.OrderCreationDto;
+import com.mattercom.salesOrders.dto.OrderCreationFlags;
+import com.mattercom.salesOrders.repositories.SalesOrderRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static com.mattercom.salesOrders.TestOrders.order;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "sales-orders.bulk.chunk-size=3")
+@ActiveProfiles("test")
+class SalesOrderBulkCreationTests {
+
+    @Autowired
+    private SalesOrderService salesOrderService;
+
+    @Autowired
+    private SalesOrderRepository salesOrderRepository;
+
+    @Test
+    void badOrdersAreReportedWithoutRollingBackTheirChunk() {
+        List<OrderCreationDto> orders = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            orders.add(order("Customer " + i, "Recipient " + i, 1));
+        }
+        // Fails bean validation before reaching the database
+        orders.set(1, order(null, "Recipient 1", 1));
+        // Passes validation but violates a NOT NULL column, failing the chunk flush
+        orders.set(4, order("Customer 4", null, 1));
+
+        List<BulkOrderResultDto> results = salesOrderService.createOrders(orders, OrderCreationFlags.builder().build());
+
+        assertThat(results).hasSize(7);
+        assertThat(results).extracting(BulkOrderResultDto::getIndex).containsExactly(0, 1, 2, 3, 4, 5, 6);
+        assertThat(results.get(1).getError()).contains("customerName");
+        assertThat(results.get(4).getError()).isNotBlank();
+        assertThat(results.get(1).getOrderId()).isNull();
+        assertThat(results.get(4).getOrderId()).isNull();
+
+        List<UUID> createdIds = results.stream()
+                .map(BulkOrderResultDto::getOrderId)
+                .filter(id -> id != null)
+                .toList();
+        assertThat(createdIds).hasSize(5);
+        assertThat(salesOrderRepository.findAllById(createdIds)).hasSize(5);
+    }
+}
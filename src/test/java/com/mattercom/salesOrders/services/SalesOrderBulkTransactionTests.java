@@ -0,0 +1,115 @@
+package com.mattercom.salesOrders.services;
+
+import com.mattercom.salesOrders.dto.BulkTransactionResultDto;
+import com.mattercom.salesOrders.dto.OrderCreationFlags;
+import com.mattercom.salesOrders.entities.status.SalesOrderStatus;
+import com.mattercom.salesOrders.enums.OrderStatusId;
+import com.mattercom.salesOrders.enums.SalesTransactions;
+import com.mattercom.salesOrders.repositories.SalesOrderRepository;
+import com.mattercom.salesOrders.repositories.SalesOrderStatusRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static com.mattercom.salesOrders.TestOrders.order;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+@SpringBootTest(properties = "sales-orders.bulk.chunk-size=2")
+@ActiveProfiles("test")
+class SalesOrderBulkTransactionTests {
+
+    @Autowired
+    private SalesOrderService salesOrderService;
+
+    @Autowired
+    private SalesOrderStatusRepository salesOrderStatusRepository;
+
+    // Lets a test make a chunk lose a version race, as a concurrent lane write would
+    @MockitoSpyBean
+    private SalesOrderRepository salesOrderRepository;
+
+    @Test
+    void appliesAllowedOrdersAndReportsForbiddingStatus() {
+        OrderCreationFlags noFlags = OrderCreationFlags.builder().build();
+        UUID first = salesOrderService.createOrder(order(2), noFlags).getOrderId();
+        UUID second = salesOrderService.createOrder(order(1), noFlags).getOrderId();
+        UUID blocked = salesOrderService.createOrder(order(1), OrderCreationFlags.builder().creditBlock(true).build()).getOrderId();
+        UUID missing = UUID.randomUUID();
+
+        BulkTransactionResultDto result = salesOrderService.performBulkOrderTransaction(
+                List.of(first, blocked, missing, second, first), SalesTransactions.RELEASE_ORDER);
+
+        assertThat(result.getAcceptedOrderIds()).containsExactly(first, second);
+        assertThat(result.getRejected()).hasSize(2);
+        assertThat(result.getRejected().get(0).getOrderId()).isEqualTo(blocked);
+        assertThat(result.getRejected().get(0).getForbiddenBy()).isEqualTo(OrderStatusId.E_CRED_BLK);
+        assertThat(result.getRejected().get(1).getOrderId()).isEqualTo(missing);
+        assertThat(result.getRejected().get(1).getForbiddenBy()).isNull();
+
+        assertThat(activeStatuses(first)).containsExactly(OrderStatusId.I_REL);
+        assertThat(activeStatuses(second)).containsExactly(OrderStatusId.I_REL);
+        assertThat(activeStatuses(blocked)).contains(OrderStatusId.I_CRTD).doesNotContain(OrderStatusId.I_REL);
+    }
+
+    @Test
+    void chunkThatLosesAVersionRaceOnceIsRunAgain() {
+        List<UUID> orderIds = createOrders(5);
+        doAnswer(VersionConflicts.onCalls(salesOrderRepository, 2, 1)).when(salesOrderRepository).findWithStatusBySalesOrderIdIn(any());
+
+        BulkTransactionResultDto result = salesOrderService.performBulkOrderTransaction(orderIds, SalesTransactions.RELEASE_ORDER);
+
+        assertThat(result.getAcceptedOrderIds()).containsExactlyElementsOf(orderIds);
+        assertThat(result.getRejected()).isEmpty();
+        orderIds.forEach(orderId -> assertThat(activeStatuses(orderId)).containsExactly(OrderStatusId.I_REL));
+    }
+
+    @Test
+    void chunkThatKeepsLosingIsReportedAndLaterChunksStillRun() {
+        List<UUID> orderIds = createOrders(5);
+        // Every attempt at the second chunk (sales-orders.bulk.max-attempts defaults to 3); each attempt loads once
+        doAnswer(VersionConflicts.onCalls(salesOrderRepository, 2, 3)).when(salesOrderRepository).findWithStatusBySalesOrderIdIn(any());
+
+        BulkTransactionResultDto result = salesOrderService.performBulkOrderTransaction(orderIds, SalesTransactions.RELEASE_ORDER);
+
+        // Chunks of 2: the first committed, the second never did, the third ran after it
+        List<UUID> failedChunk = orderIds.subList(2, 4);
+        assertThat(result.getAcceptedOrderIds()).containsExactly(orderIds.get(0), orderIds.get(1), orderIds.get(4));
+        assertThat(result.getRejected()).extracting(BulkTransactionResultDto.Rejection::getOrderId)
+                .containsExactlyElementsOf(failedChunk);
+        assertThat(result.getRejected()).allSatisfy(rejection -> {
+            assertThat(rejection.getForbiddenBy()).isNull();
+            assertThat(rejection.getReason()).startsWith("Not applied");
+        });
+        failedChunk.forEach(orderId -> assertThat(activeStatuses(orderId)).containsExactly(OrderStatusId.I_CRTD));
+        assertThat(activeStatuses(orderIds.get(4))).containsExactly(OrderStatusId.I_REL);
+    }
+
+    @Test
+    void rejectsTransactionsTheGenericEndpointRejects() {
+        assertThatThrownBy(() -> salesOrderService.performBulkOrderTransaction(List.of(UUID.randomUUID()), SalesTransactions.CANCEL_ORDER))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private List<UUID> createOrders(int count) {
+        OrderCreationFlags noFlags = OrderCreationFlags.builder().build();
+        return IntStream.range(0, count)
+                .mapToObj(i -> salesOrderService.createOrder(order(1), noFlags).getOrderId())
+                .toList();
+    }
+
+    private List<OrderStatusId> activeStatuses(UUID orderId) {
+        return salesOrderStatusRepository.findAllBySalesOrder_SalesOrderId(orderId).stream()
+                .filter(SalesOrderStatus::getActive)
+                .map(SalesOrderStatus::getOrderStatusId)
+                .toList();
+    }
+}
@@ -0,0 +1,72 @@
+package com.mattercom.salesOrders.services;
+
+import com.mattercom.salesOrders.dto.OrderCreationFlags;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.UUID;
+
+import static com.mattercom.salesOrders.TestOrders.order;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Proves that order creation is written with a fixed number of batched statements,
+ * independent of how many items the order carries.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class SalesOrderCreationBatchingTests {
+
+    // Inserts into sales_orders, order_items, shipment_address, sales_order_status, status_change_outbox,
+    // and the order_status_rollup update
+    private static final long WRITE_STATEMENTS = 6;
+
+    @Autowired
+    private SalesOrderService salesOrderService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        // Warm the sequence pools so the measured run does not pay for a block fetch
+        salesOrderService.createOrder(order(1), OrderCreationFlags.builder().build());
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void fiftyItemOrderIsWrittenInFixedNumberOfStatements() {
+        OrderCreationFlags flags = OrderCreationFlags.builder().creditBlock(true).fraudHold(true).build();
+
+        UUID orderId = salesOrderService.createOrder(order(50), flags).getOrderId();
+
+        assertThat(orderId).isNotNull();
+        // 1 order + 50 items + 1 address + 5 header statuses (I_CRTD, I_DLKD, I_BLKD, E_FRD_HOLD, E_CRED_BLK)
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(1 + 50 + 1 + 5);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(WRITE_STATEMENTS);
+    }
+
+    @Test
+    void statementCountDoesNotGrowWithItemCount() {
+        OrderCreationFlags flags = OrderCreationFlags.builder().build();
+
+        salesOrderService.createOrder(order(2), flags);
+        long smallOrderStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        salesOrderService.createOrder(order(50), flags);
+        long largeOrderStatements = statistics.getPrepareStatementCount();
+
+        assertThat(largeOrderStatements).isEqualTo(smallOrderStatements);
+    }
+}
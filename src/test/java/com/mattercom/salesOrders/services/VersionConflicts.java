@@ -0,0 +1,32 @@
+package com.mattercom.salesOrders.services;
+
+import com.mattercom.salesOrders.entities.SalesOrder;
+import org.mockito.stubbing.Answer;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.Mockito.mockingDetails;
+
+/**
+ * Makes a spied repository method fail the way a write that lost a version race does,
+ * so bulk jobs can be tested against a conflict in a given chunk.
+ */
+final class VersionConflicts {
+
+    private VersionConflicts() {}
+
+    // Calls from..from+count-1 (1-based) throw; every other call goes to the repository
+    static Answer<Object> onCalls(Object spy, int from, int count) {
+        // Repositories are interface proxies, so the spy delegates to them instead of calling a real method
+        Answer<?> delegate = mockingDetails(spy).getMockCreationSettings().getDefaultAnswer();
+        AtomicInteger calls = new AtomicInteger();
+        return invocation -> {
+            int call = calls.incrementAndGet();
+            if (call >= from && call < from + count) {
+                throw new ObjectOptimisticLockingFailureException(SalesOrder.class, "call " + call);
+            }
+            return delegate.answer(invocation);
+        };
+    }
+}
@@ -0,0 +1,222 @@
+package com.mattercom.salesOrders.util;
+
+import com.mattercom.salesOrders.entities.SalesItem;
+import com.mattercom.salesOrders.entities.SalesOrder;
+import com.mattercom.salesOrders.entities.status.SalesItemStatus;
+import com.mattercom.salesOrders.entities.status.SalesOrderStatus;
+import com.mattercom.salesOrders.enums.ItemStatusId;
+import com.mattercom.salesOrders.enums.ObjectType;
+import com.mattercom.salesOrders.enums.OrderStatusId;
+import com.mattercom.salesOrders.enums.SalesTransactions;
+import com.mattercom.salesOrders.records.StatusRule;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the compiled bitmask engine against the original stream/Set based rule evaluation.
+ */
+class StatusStateMachineTests {
+
+    private static final OrderStatusId[] ORDER_STATUSES = OrderStatusId.values();
+    private static final ItemStatusId[] ITEM_STATUSES = ItemStatusId.values();
+
+    @Test
+    void headerGuardMatchesRuleMapForEveryActiveStatusSet() {
+        for (int subset = 0; subset < (1 << ORDER_STATUSES.length); subset++) {
+            List<SalesOrderStatus> statuses = new ArrayList<>();
+            for (OrderStatusId statusId : ORDER_STATUSES) {
+                // Inactive rows must never forbid anything
+                statuses.add(orderStatus(statusId, (subset & (1 << statusId.ordinal())) != 0));
+            }
+            for (SalesTransactions transaction : SalesTransactions.values()) {
+                assertThat(StatusStateMachine.findForbiddingHeaderStatus(statuses, transaction))
+                        .as("subset %s, transaction %s", subset, transaction)
+                        .isEqualTo(legacyForbiddingHeaderStatus(statuses, transaction));
+            }
+        }
+    }
+
+    @Test
+    void itemGuardMatchesRuleMapForEveryActiveStatusSet() {
+        for (int subset = 0; subset < (1 << ITEM_STATUSES.length); subset++) {
+            List<SalesItemStatus> statuses = new ArrayList<>();
+            for (ItemStatusId statusId : ITEM_STATUSES) {
+                statuses.add(itemStatus(statusId, (subset & (1 << statusId.ordinal())) != 0));
+            }
+            for (SalesTransactions transaction : SalesTransactions.values()) {
+                assertThat(StatusStateMachine.findForbiddingItemStatus(statuses, transaction))
+                        .as("subset %s, transaction %s", subset, transaction)
+                        .isEqualTo(legacyForbiddingItemStatus(statuses, transaction));
+            }
+        }
+    }
+
+    @Test
+    void orderTransitionsMatchRuleMap() {
+        Random random = new Random(42);
+        for (int run = 0; run < 2_000; run++) {
+            List<OrderStatusId> ids = new ArrayList<>();
+            List<Boolean> flags = new ArrayList<>();
+            // Random lists, including duplicate rows for the same status
+            for (int i = random.nextInt(8); i > 0; i--) {
+                ids.add(ORDER_STATUSES[random.nextInt(ORDER_STATUSES.length)]);
+                flags.add(random.nextBoolean());
+            }
+            for (SalesTransactions transaction : SalesTransactions.values()) {
+                if (transaction.getObjectType() != ObjectType.ORDER) {
+                    continue;
+                }
+                SalesOrder expected = order(ids, flags);
+                SalesOrder actual = order(ids, flags);
+
+                List<SalesOrderStatus> legacy = legacyApplyOrder(expected, transaction);
+                List<SalesOrderStatus> compiled = StatusManagementUtil.applyOrderStatusChange(actual, transaction);
+
+                assertThat(describeOrder(compiled)).as("transaction %s", transaction)
+                        .containsExactlyInAnyOrderElementsOf(describeOrder(legacy));
+                // Existing rows keep their position; only new rows are appended
+                assertThat(describeOrder(compiled.subList(0, ids.size())))
+                        .containsExactlyElementsOf(describeOrder(legacy.subList(0, ids.size())));
+            }
+        }
+    }
+
+    @Test
+    void itemTransitionsMatchRuleMap() {
+        Random random = new Random(7);
+        for (int run = 0; run < 2_000; run++) {
+            List<ItemStatusId> ids = new ArrayList<>();
+            List<Boolean> flags = new ArrayList<>();
+            for (int i = random.nextInt(6); i > 0; i--) {
+                ids.add(ITEM_STATUSES[random.nextInt(ITEM_STATUSES.length)]);
+                flags.add(random.nextBoolean());
+            }
+            for (SalesTransactions transaction : SalesTransactions.values()) {
+                if (transaction.getObjectType() != ObjectType.ITEM) {
+                    continue;
+                }
+                SalesItem expected = item(ids, flags);
+                SalesItem actual = item(ids, flags);
+
+                List<SalesItemStatus> legacy = legacyApplyItem(expected, transaction);
+                List<SalesItemStatus> compiled = StatusManagementUtil.applyItemStatusChange(actual, transaction);
+
+                assertThat(describeItem(compiled)).as("transaction %s", transaction)
+                        .containsExactlyElementsOf(describeItem(legacy));
+            }
+        }
+    }
+
+    // =========================================================
+    // ORIGINAL (PRE-COMPILATION) RULE EVALUATION
+    // =========================================================
+
+    private static OrderStatusId legacyForbiddingHeaderStatus(List<SalesOrderStatus> statuses, SalesTransactions transaction) {
+        return statuses.stream()
+                .filter(SalesOrderStatus::getActive)
+                .map(SalesOrderStatus::getOrderStatusId)
+                .filter(statusId -> {
+                    Set<SalesTransactions> forbidden = StatusRuleConstants.headerForbidRules().get(statusId);
+                    return forbidden != null && forbidden.contains(transaction);
+                })
+                .findFirst()
+                .orElse(null);
+    }
+
+    private static ItemStatusId legacyForbiddingItemStatus(List<SalesItemStatus> statuses, SalesTransactions transaction) {
+        return statuses.stream()
+                .filter(SalesItemStatus::getActive)
+                .map(SalesItemStatus::getItemStatusId)
+                .filter(statusId -> {
+                    Set<SalesTransactions> forbidden = StatusRuleConstants.itemForbidRules().get(statusId);
+                    return forbidden != null && forbidden.contains(transaction);
+                })
+                .findFirst()
+                .orElse(null);
+    }
+
+    private static List<SalesOrderStatus> legacyApplyOrder(SalesOrder order, SalesTransactions transaction) {
+        StatusRule<OrderStatusId> rule = StatusChangeConstants.getOrderRule(transaction);
+        if (rule == null || (rule.activate().isEmpty() && rule.deactivate().isEmpty())) {
+            return order.getStatusList();
+        }
+        List<SalesOrderStatus> updated = new ArrayList<>(order.getStatusList());
+        for (OrderStatusId toDeactivate : rule.deactivate()) {
+            for (SalesOrderStatus status : updated) {
+                if (status.getOrderStatusId() == toDeactivate && Boolean.TRUE.equals(status.getActive())) {
+                    status.setActive(false);
+                }
+            }
+        }
+        for (OrderStatusId toActivate : rule.activate()) {
+            updated.stream().filter(s -> s.getOrderStatusId() == toActivate).findFirst()
+                    .ifPresentOrElse(existing -> existing.setActive(true),
+                            () -> updated.add(orderStatus(toActivate, true)));
+        }
+        return updated;
+    }
+
+    private static List<SalesItemStatus> legacyApplyItem(SalesItem item, SalesTransactions transaction) {
+        StatusRule<ItemStatusId> rule = StatusChangeConstants.getItemRule(transaction);
+        if (rule == null || (rule.activate().isEmpty() && rule.deactivate().isEmpty())) {
+            return item.getStatusList();
+        }
+        List<SalesItemStatus> updated = new ArrayList<>(item.getStatusList());
+        for (ItemStatusId toDeactivate : rule.deactivate()) {
+            for (SalesItemStatus status : updated) {
+                if (status.getItemStatusId() == toDeactivate && Boolean.TRUE.equals(status.getActive())) {
+                    status.setActive(false);
+                }
+            }
+        }
+        for (ItemStatusId toActivate : rule.activate()) {
+            updated.stream().filter(s -> s.getItemStatusId() == toActivate).findFirst()
+                    .ifPresentOrElse(existing -> existing.setActive(true),
+                            () -> updated.add(itemStatus(toActivate, true)));
+        }
+        return updated;
+    }
+
+    // =========================================================
+    // FIXTURES
+    // =========================================================
+
+    private static SalesOrder order(List<OrderStatusId> ids, List<Boolean> flags) {
+        List<SalesOrderStatus> statuses = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            statuses.add(orderStatus(ids.get(i), flags.get(i)));
+        }
+        return SalesOrder.builder().salesOrderId(UUID.randomUUID()).statusList(statuses).build();
+    }
+
+    private static SalesItem item(List<ItemStatusId> ids, List<Boolean> flags) {
+        List<SalesItemStatus> statuses = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            statuses.add(itemStatus(ids.get(i), flags.get(i)));
+        }
+        return SalesItem.builder().itemId(UUID.randomUUID()).salesOrder(SalesOrder.builder().build()).statusList(statuses).build();
+    }
+
+    private static SalesOrderStatus orderStatus(OrderStatusId statusId, boolean active) {
+        return SalesOrderStatus.builder().orderStatusId(statusId).active(active).build();
+    }
+
+    private static SalesItemStatus itemStatus(ItemStatusId statusId, boolean active) {
+        return SalesItemStatus.builder().itemStatusId(statusId).active(active).build();
+    }
+
+    private static List<String> describeOrder(List<SalesOrderStatus> statuses) {
+        return statuses.stream().map(s -> s.getOrderStatusId() + "=" + s.getActive()).toList();
+    }
+
+    private static List<String> describeItem(List<SalesItemStatus> statuses) {
+        return statuses.stream().map(s -> s.getItemStatusId() + "=" + s.getActive()).toList();
+    }
+}